@@ -37,4 +37,11 @@ public class ConsumingInputStream extends ContentLengthInputStream {
 	public void close() throws IOException {
 		EntityUtils.consume(this.response.getEntity());
 	}
+
+	/**
+	 * @return The HTTP status code of the response, for example to check if a range request was answered with partial content
+	 */
+	public int getStatusCode() {
+		return this.response.getStatusLine().getStatusCode();
+	}
 }
@@ -19,6 +19,7 @@ import java.util.concurrent.locks.ReentrantLock;
 
 import module.iface.AbstractProsumerProvider;
 import module.iface.DataElementEventListener;
+import module.iface.RangedReadProvider;
 import module.iface.StreamListener;
 
 import com.google.common.collect.ImmutableSet;
@@ -47,7 +48,7 @@ import framework.model.event.type.LogEventLevelType;
 import framework.model.type.DataElementType;
 import framework.model.type.ModuleStateType;
 
-public class DatabaseCachedProxyModule extends AbstractProsumerProvider implements DataElementEventListener, StreamListener {
+public class DatabaseCachedProxyModule extends AbstractProsumerProvider implements RangedReadProvider, DataElementEventListener, StreamListener {
 
 	private class ProsumerPortTuple {
 		private final ProsumerPort port;
@@ -874,6 +875,19 @@ public class DatabaseCachedProxyModule extends AbstractProsumerProvider implemen
 		}
 	}
 
+	/* (non-Javadoc)
+	 * 
+	 * @see module.iface.RangedReadProvider#readData(framework.model.ProviderPort, java.lang.String[], long, long) */
+	@Override
+	public InputStream readData(final ProviderPort port, final String[] path, final long offset, final long length) throws ModuleException {
+		try {
+			final ProsumerPort prosumerPort = getBestProsumerPort(path, false);
+			return this.prosumerConnector.readData(prosumerPort, path, offset, length);
+		} catch (BrokerException | AuthorizationException e) {
+			throw new ModuleException(e);
+		}
+	}
+
 	private void scanAllAvailableProviders() {
 		for (int i = this.prosumerPortTuples.size() - 1; i >= 0; i--) {
 			final ProsumerPort port = this.prosumerPortTuples.get(i).port;
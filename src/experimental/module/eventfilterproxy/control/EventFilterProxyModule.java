@@ -2,6 +2,7 @@ package experimental.module.eventfilterproxy.control;
 
 import helper.CommandResultHelper;
 import helper.TextFormatHelper;
+import helper.ThreadPoolHelper;
 
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -12,12 +13,13 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.DelayQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import module.iface.AbstractProsumerProvider;
+import module.iface.CursorProvider;
+import module.iface.DataElementCursor;
 import module.iface.DataElementEventListener;
+import module.iface.RangedReadProvider;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import db.iface.ComponentConfigurationController;
 import experimental.module.eventfilterproxy.model.EventFilterOutputStream;
@@ -38,7 +40,7 @@ import framework.model.event.ProviderStateEvent;
 import framework.model.type.DataElementType;
 import framework.model.type.ModuleStateType;
 
-public class EventFilterProxyModule extends AbstractProsumerProvider implements DataElementEventListener {
+public class EventFilterProxyModule extends AbstractProsumerProvider implements CursorProvider, RangedReadProvider, DataElementEventListener {
 
 	private static final String PORT_ID___PROSUMER = "prosumer";
 	private static final String PORT_ID___PROVIDER = "provider";
@@ -137,7 +139,7 @@ public class EventFilterProxyModule extends AbstractProsumerProvider implements
 	 * @see module.iface.Module#enterStartup() */
 	@Override
 	public void enterStartup() {
-		this.service = Executors.newFixedThreadPool(EventFilterProxyModule.NUM_OF_VALIDATION_THREADS, new ThreadFactoryBuilder().setNameFormat(EventFilterProxyModule.class.getSimpleName() + "-%d").build());
+		this.service = ThreadPoolHelper.newFixedThreadPool(EventFilterProxyModule.NUM_OF_VALIDATION_THREADS, EventFilterProxyModule.class.getSimpleName() + "-%d");
 		for (int i = 0; i < 10; i++) {
 			this.service.execute(new Runnable() {
 
@@ -259,6 +261,18 @@ public class EventFilterProxyModule extends AbstractProsumerProvider implements
 		return true;
 	}
 
+	/* (non-Javadoc)
+	 *
+	 * @see module.iface.CursorProvider#listChildren(framework.model.ProviderPort, java.lang.String[], boolean, int) */
+	@Override
+	public DataElementCursor listChildren(final ProviderPort port, final String[] path, final boolean recursive, final int batchSize) throws ModuleException {
+		try {
+			return this.prosumerConnector.listChildren(this.prosumerPort, path, recursive, batchSize);
+		} catch (BrokerException | AuthorizationException e) {
+			throw new ModuleException(e);
+		}
+	}
+
 	/* (non-Javadoc)
 	 *
 	 * @see module.iface.Provider#move(framework.model.ProviderPort, java.lang.String[], java.lang.String[]) */
@@ -367,6 +381,18 @@ public class EventFilterProxyModule extends AbstractProsumerProvider implements
 		}
 	}
 
+	/* (non-Javadoc)
+	 *
+	 * @see module.iface.RangedReadProvider#readData(framework.model.ProviderPort, java.lang.String[], long, long) */
+	@Override
+	public InputStream readData(final ProviderPort port, final String[] path, final long offset, final long length) throws ModuleException {
+		try {
+			return this.prosumerConnector.readData(this.prosumerPort, path, offset, length);
+		} catch (BrokerException | AuthorizationException e) {
+			throw new ModuleException(e);
+		}
+	}
+
 	public void removeOutputStream(final String intPath) {
 		this.openOutputStreams.remove(intPath);
 	}
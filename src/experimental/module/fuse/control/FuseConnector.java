@@ -27,6 +27,7 @@ import net.fusejna.util.FuseFilesystemAdapterFull;
 import com.google.common.base.CharMatcher;
 import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
 
 import framework.constants.GenericModuleCommandProperties;
 import framework.constants.GenericModuleCommands;
@@ -180,7 +181,7 @@ public class FuseConnector extends FuseFilesystemAdapterFull {
 	public static final long CONNECTION_TIMEOUT_SECS = 20;
 
 	public static final int MAX_XATTR_VAL_SIZE = 255;
-	public static final int MAX_BUFFER_MARK_VALUE = 2 ^ 27; // maximum rewind buffer is ~128MB
+	public static final long MAX_SKIP_VALUE = 1 << 20; // forward seeks up to 1MB skip data, larger ones reopen the stream at new offset
 	private final String fsName;
 	private final ProsumerConnector connector;
 	private final ProsumerPort port;
@@ -303,6 +304,16 @@ public class FuseConnector extends FuseFilesystemAdapterFull {
 		return 0;
 	}
 
+	// must be called while holding streams lock
+	private void closeInputStream(final String fusePath, final FuseInputStreamInfo streamInfo) {
+		this.openInputStreams.remove(fusePath);
+		try {
+			streamInfo.stream.close();
+		} catch (final IOException e) {
+			// ignored
+		}
+	}
+
 	@Override
 	public int create(final String fusePath, final ModeWrapper mode, final FileInfoWrapper info) {
 		if (this.readOnly) {
@@ -588,54 +599,38 @@ public class FuseConnector extends FuseFilesystemAdapterFull {
 		this.streamsLock.lock();
 		FuseInputStreamInfo streamInfo = this.openInputStreams.get(fusePath);
 		InputStream in = null;
-		boolean nonseekable = true;
 		if (streamInfo != null) {
 			in = streamInfo.stream;
-			if ((offset < streamInfo.offset) && !in.markSupported()) {
-				errCode = -ErrorCodes.ESPIPE();
-				in = null;
-			} else {
-				final long delta = offset - streamInfo.offset;
-				if (delta > 0) {
-					try {
-						in.skip(delta);
-					} catch (final IOException e) {
-						errCode = -ErrorCodes.ESPIPE();
-						in = null;
-					}
-				} else if (delta < 0) {
-					try {
-						in.reset();
-						in.skip(offset);
-					} catch (final IOException e) {
-						errCode = -ErrorCodes.ESPIPE();
-						in = null;
-					}
+			final long delta = offset - streamInfo.offset;
+			if ((delta > 0) && (delta <= FuseConnector.MAX_SKIP_VALUE)) {
+				try {
+					ByteStreams.skipFully(in, delta);
+					streamInfo.offset = offset;
+					streamInfo.lastRefresh = System.currentTimeMillis();
+				} catch (final IOException e) {
+					// end of data or error, try again with a new stream
+					closeInputStream(fusePath, streamInfo);
+					in = null;
 				}
-				streamInfo.offset = offset;
-				streamInfo.lastRefresh = System.currentTimeMillis();
+			} else if (delta != 0) {
+				// backward or far forward seek, reopening at offset is cheaper than skipping
+				closeInputStream(fusePath, streamInfo);
+				in = null;
 			}
-		} else {
-			if (offset != 0) {
-				errCode = -ErrorCodes.ESPIPE();
-			} else {
-				try {
-					in = this.connector.readData(this.port, path);
-					if (in == null) {
-						errCode = -ErrorCodes.EISDIR();
-					} else {
-						// in = new BufferedInputStream(in);
-						if (in.markSupported()) {
-							in.mark(FuseConnector.MAX_BUFFER_MARK_VALUE);
-							nonseekable = false;
-						}
-						streamInfo = new FuseInputStreamInfo(in, fusePath);
-						this.openInputStreams.put(fusePath, streamInfo);
-					}
-				} catch (BrokerException | ModuleException | AuthorizationException e) {
-					this.logConnector.log(e);
-					errCode = -ErrorCodes.EIO();
+		}
+		if (in == null) {
+			try {
+				in = this.connector.readData(this.port, path, offset, -1);
+				if (in == null) {
+					errCode = -ErrorCodes.EISDIR();
+				} else {
+					streamInfo = new FuseInputStreamInfo(in, fusePath);
+					streamInfo.offset = offset;
+					this.openInputStreams.put(fusePath, streamInfo);
 				}
+			} catch (BrokerException | ModuleException | AuthorizationException e) {
+				this.logConnector.log(e);
+				errCode = -ErrorCodes.EIO();
 			}
 		}
 		this.streamsLock.unlock();
@@ -654,7 +649,7 @@ public class FuseConnector extends FuseFilesystemAdapterFull {
 			} catch (final IOException e) {
 				errCode = -ErrorCodes.EIO();
 			}
-			info.nonseekable(nonseekable);
+			info.nonseekable(false);
 		}
 		return errCode;
 	}
@@ -10,6 +10,7 @@ import framework.exception.BrokerException;
 import framework.exception.DatabaseException;
 import framework.exception.ModuleException;
 import framework.model.DataElement;
+import framework.model.DataElementStore;
 import framework.model.Port;
 import framework.model.ProsumerPort;
 import framework.model.ProviderPort;
@@ -20,12 +21,19 @@ import framework.model.event.type.LogEventLevelType;
 import framework.model.type.DataElementType;
 import helper.CommandResultHelper;
 import helper.ConfigValue;
+import helper.DataElementCursorHelper;
 import helper.PersistentConfigurationHelper;
 import helper.TextFormatHelper;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
@@ -33,7 +41,11 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import module.iface.AbstractProsumerProvider;
+import module.iface.BulkProvider;
+import module.iface.CursorProvider;
+import module.iface.DataElementCursor;
 import module.iface.DataElementEventListener;
+import module.iface.RangedReadProvider;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
@@ -42,7 +54,7 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import db.iface.ComponentConfigurationController;
 
-public class MemoryCachedProxyModule extends AbstractProsumerProvider implements DataElementEventListener {
+public class MemoryCachedProxyModule extends AbstractProsumerProvider implements BulkProvider, CursorProvider, RangedReadProvider, DataElementEventListener {
 
 	private static final String DB___DOMAIN___CONFIG = "config";
 	private static final String[] DB___CONFIG_DATA_PATH = { "config_data" };
@@ -75,7 +87,8 @@ public class MemoryCachedProxyModule extends AbstractProsumerProvider implements
 
 	private Cache<String, DataElement> elementCache;
 	private Cache<String, Map<String, String>> moduleCommandResultCache;
-	private Cache<String, Set<DataElement>> childrenCache;
+	// child listings are kept in compact stores, element objects are only created on access
+	private Cache<String, DataElementStore> childrenCache;
 
 	// CONSTRUCTOR /////////////////////////////////////////////////////////////////////////////////////
 
@@ -168,15 +181,17 @@ public class MemoryCachedProxyModule extends AbstractProsumerProvider implements
 		try {
 			final String intPath = TextFormatHelper.getPathString(path);
 			if (!recursive) {
-				final Set<DataElement> result = this.childrenCache.getIfPresent(intPath);
-				if (result != null) {
-					return result;
+				final DataElementStore children = this.childrenCache.getIfPresent(intPath);
+				if (children != null) {
+					return new HashSet<DataElement>(children);
 				}
 			}
 			final Set<DataElement> result = this.prosumerConnector.getChildElements(this.prosumerPort, path, recursive);
 			if (result != null) {
 				if (!recursive) {
-					this.childrenCache.put(intPath, result);
+					final DataElementStore children = new DataElementStore(result.size());
+					children.addAll(result);
+					this.childrenCache.put(intPath, children);
 				}
 				this.service.execute(new Runnable() {
 
@@ -216,6 +231,36 @@ public class MemoryCachedProxyModule extends AbstractProsumerProvider implements
 		}
 	}
 
+	/* (non-Javadoc)
+	 * 
+	 * @see module.iface.BulkProvider#getElements(framework.model.ProviderPort, java.util.Collection) */
+	@Override
+	public Map<List<String>, DataElement> getElements(final ProviderPort port, final Collection<String[]> paths) throws ModuleException {
+		try {
+			final Map<List<String>, DataElement> result = new HashMap<List<String>, DataElement>();
+			final List<String[]> missingPaths = new ArrayList<String[]>();
+			for (final String[] path : paths) {
+				final DataElement element = this.elementCache.getIfPresent(TextFormatHelper.getPathString(path));
+				if (element != null) {
+					result.put(Arrays.asList(path), element);
+				} else {
+					missingPaths.add(path);
+				}
+			}
+			if (!missingPaths.isEmpty()) {
+				// all cache misses are forwarded with a single call
+				final Map<List<String>, DataElement> missingElements = this.prosumerConnector.getElements(this.prosumerPort, missingPaths);
+				for (final Map.Entry<List<String>, DataElement> entry : missingElements.entrySet()) {
+					this.elementCache.put(TextFormatHelper.getPathString(entry.getKey().toArray(new String[0])), entry.getValue());
+					result.put(entry.getKey(), entry.getValue());
+				}
+			}
+			return result;
+		} catch (BrokerException | AuthorizationException e) {
+			throw new ModuleException(e);
+		}
+	}
+
 	/* (non-Javadoc)
 	 * 
 	 * @see module.iface.Module#getSupportedControlInterfaceCommands() */
@@ -351,6 +396,53 @@ public class MemoryCachedProxyModule extends AbstractProsumerProvider implements
 		return true;
 	}
 
+	/* (non-Javadoc)
+	 * 
+	 * @see module.iface.CursorProvider#listChildren(framework.model.ProviderPort, java.lang.String[], boolean, int) */
+	@Override
+	public DataElementCursor listChildren(final ProviderPort port, final String[] path, final boolean recursive, final int batchSize) throws ModuleException {
+		try {
+			if (!recursive) {
+				final DataElementStore children = this.childrenCache.getIfPresent(TextFormatHelper.getPathString(path));
+				if (children != null) {
+					// cached stores are never modified, so concurrent iteration is safe
+					return DataElementCursorHelper.fromCollection(children, batchSize);
+				}
+			}
+			final DataElementCursor cursor = this.prosumerConnector.listChildren(this.prosumerPort, path, recursive, batchSize);
+			if (cursor == null) {
+				return null;
+			}
+			// listings are not put into children cache (they may be huge), but listed elements are cached batch by batch
+			return new DataElementCursor() {
+
+				@Override
+				public void close() throws IOException {
+					cursor.close();
+				}
+
+				@Override
+				public List<DataElement> nextBatch() throws IOException {
+					final List<DataElement> batch = cursor.nextBatch();
+					if (batch != null) {
+						MemoryCachedProxyModule.this.service.execute(new Runnable() {
+
+							@Override
+							public void run() {
+								for (final DataElement element : batch) {
+									MemoryCachedProxyModule.this.elementCache.put(TextFormatHelper.getPathString(element.getPath()), element);
+								}
+							}
+						});
+					}
+					return batch;
+				}
+			};
+		} catch (BrokerException | AuthorizationException e) {
+			throw new ModuleException(e);
+		}
+	}
+
 	/* (non-Javadoc)
 	 * 
 	 * @see module.iface.Provider#move(framework.model.ProviderPort, java.lang.String[], java.lang.String[]) */
@@ -501,6 +593,18 @@ public class MemoryCachedProxyModule extends AbstractProsumerProvider implements
 		}
 	}
 
+	/* (non-Javadoc)
+	 * 
+	 * @see module.iface.RangedReadProvider#readData(framework.model.ProviderPort, java.lang.String[], long, long) */
+	@Override
+	public InputStream readData(final ProviderPort port, final String[] path, final long offset, final long length) throws ModuleException {
+		try {
+			return this.prosumerConnector.readData(this.prosumerPort, path, offset, length);
+		} catch (BrokerException | AuthorizationException e) {
+			throw new ModuleException(e);
+		}
+	}
+
 	/* (non-Javadoc)
 	 * 
 	 * @see module.iface.Provider#unlock(framework.model.ProviderPort, java.lang.String[]) */
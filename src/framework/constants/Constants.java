@@ -2,6 +2,9 @@ package framework.constants;
 
 import java.awt.Color;
 
+import framework.model.type.EventQueueOverflowType;
+import framework.model.type.ThreadModeType;
+
 /**
  * Contains important constants for the framework and the whole system.
  * <p>
@@ -17,10 +20,36 @@ public class Constants {
 	public static final String COMPONENT_ID___CORE = "core";
 	public static final String COMPONENT_ID___DATABASE = "database";
 	public static final String COMPONENT_ID___LOCALISATION = "localization";
+	// class path location of the component index generated at build time by utils.ComponentIndexProcessor
+	public static final String COMPONENT_INDEX_LOCATION = "META-INF/horizont/components.idx";
 	public static final long CORE___ANNOUNCE_THREAD_TIMEOUT_SECONDS = 10;
 	public static final String CORE___CONFIG_DOMAIN = "config";
 	public static final String[] CORE___CONFIG_READY_ELEMENT = { "config_ready" };
+	// max number of threads running asynchronous calls to providers without native support (further calls are queued)
+	public static final int CORE___MAX_ASYNC_MODULE_CALL_THREADS = 64;
+	// max number of queued asynchronous calls to providers without native support (further calls are rejected)
+	public static final int CORE___MAX_QUEUED_ASYNC_MODULE_CALLS = 1024;
+	// max window a prosumer port may set for coalescing element events
+	public static final long CORE___MAX_ELEMENT_EVENT_COALESCING_WINDOW_MILLIS = 10000;
+	// number of module activities buffered for control interfaces (further activities are dropped)
+	public static final int CORE___MODULE_ACTIVITY_BUFFER_SIZE = 4096;
+	// max time between two reports of dropped module activities (the consumer waits for new activities at most this long)
+	public static final long CORE___MODULE_ACTIVITY_DROP_REPORT_INTERVAL_MILLIS = 1000;
+	// max time a sender is blocked if the event queue of a module is full (overflow type BLOCK)
+	public static final long CORE___MODULE_EVENT_QUEUE_BLOCK_TIMEOUT_MILLIS = 5000;
+	// default max number of queued events, state changes and requests per module
+	public static final int CORE___MODULE_EVENT_QUEUE_CAPACITY = 10000;
+	// default behavior if the event queue of a module is full (only applies to element events, other tasks always block)
+	public static final EventQueueOverflowType CORE___MODULE_EVENT_QUEUE_OVERFLOW_TYPE = EventQueueOverflowType.BLOCK;
+	// maximum number of modules initialized/started concurrently
+	public static final int CORE___MODULE_STARTUP_THREADS = 4;
 	public static final String CORE___SESSION_ID_CHARS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+	// long window (and number of one second slots kept) for connection throughput telemetry
+	public static final int CORE___TELEMETRY_LONG_WINDOW_SECONDS = 60;
+	// short window for connection throughput telemetry
+	public static final int CORE___TELEMETRY_SHORT_WINDOW_SECONDS = 5;
+	// default type of threads backing worker pools (VIRTUAL falls back to PLATFORM on runtimes before Java 21)
+	public static final ThreadModeType CORE___THREAD_MODE = ThreadModeType.PLATFORM;
 	public static final int CORE___THREAD_POOL_SIZE = 5;
 	public static final String CORE___UITYPE_SIMPLELOGGER = "simpleLogger";
 	public static final String CORE___UITYPE_SWINGADVANCED = "swingAdvanced";
@@ -10,8 +10,11 @@ package framework.constants;
 public class GenericModuleCommandProperties {
 
 	public static final String KEY___ACCESS_MODE = "access_mode";
+	public static final String KEY___CONTENT_HASH = "content_hash";
+	public static final String KEY___CONTENT_HASH_ALGORITHM = "content_hash_algorithm";
 	public static final String KEY___IS_CACHED = "is_cached";
 	public static final String KEY___MESSAGE = "message";
+	public static final String KEY___REASON = "reason";
 	public static final String KEY___RESULT = "result";
 	public static final String VALUE___FAIL = "fail";
 	public static final String VALUE___FALSE = "false";
@@ -20,4 +23,7 @@ public class GenericModuleCommandProperties {
 	public static final String VALUE_ACCESS_MODE___PRIVATE = "private";
 	public static final String VALUE_ACCESS_MODE___PUBLIC = "public";
 	public static final String VALUE_ACCESS_MODE___SHARED = "shared";
+	public static final String VALUE_CONTENT_HASH_ALGORITHM___SHA_256 = "SHA-256";
+	// command cannot be answered for the given element (e.g. content hash of files too large to hash within the module call timeout)
+	public static final String VALUE_REASON___UNAVAILABLE = "unavailable";
 }
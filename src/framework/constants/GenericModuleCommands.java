@@ -10,6 +10,9 @@ package framework.constants;
 public class GenericModuleCommands {
 
 	public static final String GET_ACCESS_MODE = "get_access_mode";
+	// answered with KEY___CONTENT_HASH and KEY___CONTENT_HASH_ALGORITHM by providers able to compute the hash of a file cheaply (without transferring it), may fail
+	// for files too large to hash within the module call timeout
+	public static final String GET_CONTENT_HASH = "get_content_hash";
 	public static final String PUT_ELEMENT_PROPERTIES = "put_elem_prop";
 	public static final String REMOVE_ELEMENT_PROPERTIES = "remove_elem_prop";
 	public static final String SET_PRIVATE = "set_private";
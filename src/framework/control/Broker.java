@@ -2,57 +2,67 @@ package framework.control;
 
 import helper.ModulePrioritySorter;
 import helper.ObjectValidator;
+import helper.ThreadPoolHelper;
 
+import java.io.Closeable;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
 
+import module.iface.DataElementCursor;
 import module.iface.Module;
 import module.iface.Prosumer;
 import module.iface.Provider;
 
-import com.google.common.util.concurrent.SimpleTimeLimiter;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
-import com.google.common.util.concurrent.TimeLimiter;
 import com.google.common.util.concurrent.UncheckedTimeoutException;
 
 import db.iface.BaseConfigurationController;
 import framework.constants.Constants;
 import framework.exception.BrokerException;
+import framework.model.ModuleDataElementCursor;
 import framework.model.ModuleInputStream;
 import framework.model.ModuleOutputStream;
+import framework.model.ModuleReadableByteChannel;
+import framework.model.ModuleWritableByteChannel;
 import framework.model.Port;
 import framework.model.PortTuple;
 import framework.model.PortTuplePriorityComparator;
 import framework.model.ProsumerPort;
 import framework.model.ProviderPort;
 import framework.model.event.ConnectionUpdateEvent;
-import framework.model.event.ModuleActivityEvent;
 import framework.model.event.type.ConnectionEventType;
 import framework.model.event.type.LogEventLevelType;
 import framework.model.event.type.ModuleActivityEventType;
 import framework.model.event.type.ModuleUpdateEventType;
 import framework.model.event.type.PortUpdateEventType;
+import framework.model.event.type.SystemStateType;
 import framework.model.summary.ConnectionSummary;
+import framework.model.summary.ConnectionTelemetrySummary;
+import framework.model.summary.ModuleEventQueueSummary;
 import framework.model.summary.ModuleSummary;
 import framework.model.summary.PortSummary;
+import framework.model.type.EventQueueOverflowType;
 import framework.model.type.PortType;
 
 /**
@@ -62,20 +72,17 @@ import framework.model.type.PortType;
  */
 public class Broker {
 
-	// currently active data exchange streams
-	private final Map<PortTuple, ConcurrentLinkedQueue<ModuleInputStream>> activeInputStreams = new ConcurrentHashMap<PortTuple, ConcurrentLinkedQueue<ModuleInputStream>>();
-	private final Map<PortTuple, ConcurrentLinkedQueue<ModuleOutputStream>> activeOutputStreams = new ConcurrentHashMap<PortTuple, ConcurrentLinkedQueue<ModuleOutputStream>>();
+	// currently active data exchange streams per connection (opened and closed without taking the data lock)
+	private final Map<PortTuple, ConnectionStreamSet> activeStreams = new ConcurrentHashMap<PortTuple, ConnectionStreamSet>();
 	private final BaseConfigurationController baseConfigurationController;
 	private ComponentInstanceManager componentInstanceManager;
 	private boolean configValid = false;
 	// currently connected connection tuples
 	private final Set<PortTuple> connectedPortTuples = new HashSet<PortTuple>();
-	// module/port structure read/write locks
-	private final ReentrantReadWriteLock connectionLock = new ReentrantReadWriteLock(true);
-	private final ReadLock connectionReadLock = this.connectionLock.readLock();
+	// immutable snapshot of currently connected ports used for lock-free routing, rebuilt whenever connections change
+	private volatile ConnectionRoutingTable connectionRoutingTable = ConnectionRoutingTable.EMPTY;
 	// used to execute background connection management tasks
-	private final ExecutorService connectionThread = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat(Broker.class.getSimpleName() + "-conn_mgnt-%d").build());
-	private final WriteLock connectionWriteLock = this.connectionLock.writeLock();
+	private final ExecutorService connectionThread = ThreadPoolHelper.newSingleThreadExecutor(Broker.class.getSimpleName() + "-conn_mgnt-%d");
 	private ControlInterfaceActionHandler controlInterfaceActionHandler;
 	// currently initialized modules
 	private final Set<String> currentlyApprovedModules = new ConcurrentSkipListSet<String>();
@@ -89,12 +96,17 @@ public class Broker {
 	private boolean initialized = false;
 	private final LogConnector loggingController;
 	private final ModuleActionHandler moduleActionHandler;
+	// used to timeout calls to modules without creating proxies
+	private final ModuleCallTimeoutEngine moduleCallTimeoutEngine;
 	// used to execute background module calls
-	private final ExecutorService moduleCallThread = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat(Broker.class.getSimpleName() + "-mods_bg-%d").build());
+	private final ExecutorService moduleCallThread = ThreadPoolHelper.newCachedThreadPool(Broker.class.getSimpleName() + "-mods_bg-%d");
+	// settings for module event queues created from now on
+	private int moduleEventQueueCapacity = Constants.CORE___MODULE_EVENT_QUEUE_CAPACITY;
+	private EventQueueOverflowType moduleEventQueueOverflowType = Constants.CORE___MODULE_EVENT_QUEUE_OVERFLOW_TYPE;
 	// currently available ports
 	private final Map<String, Map<String, ProsumerPort>> moduleProsumerPorts = new ConcurrentHashMap<String, Map<String, ProsumerPort>>();
 	private final Map<String, Map<String, ProviderPort>> moduleProviderPorts = new ConcurrentHashMap<String, Map<String, ProviderPort>>();
-	private final Map<String, ExecutorService> moduleThreads = new ConcurrentHashMap<String, ExecutorService>();
+	private final Map<String, ModuleEventExecutor> moduleThreads = new ConcurrentHashMap<String, ModuleEventExecutor>();
 	private final Map<Port, Integer> portConnectionCount = new ConcurrentHashMap<Port, Integer>();
 	private final Map<ProsumerPort, ProviderPort> prosumerConnectionMap = new ConcurrentHashMap<ProsumerPort, ProviderPort>();
 	private final Map<String, Prosumer> prosumerMap = new ConcurrentHashMap<String, Prosumer>();
@@ -104,8 +116,6 @@ public class Broker {
 	private boolean running = false;
 	// state vars read/write locks
 	private final ReentrantLock stateLock = new ReentrantLock(true);
-	// used to timeout calls to modules
-	private final TimeLimiter timeLimiter = new SimpleTimeLimiter();
 
 	/**
 	 * Instantiates a new broker.
@@ -117,7 +127,37 @@ public class Broker {
 	Broker(final BaseConfigurationController baseConfigController, final ComponentAuthorizationManager authController, final LogConnector loggingController) {
 		this.baseConfigurationController = baseConfigController;
 		this.loggingController = loggingController;
-		this.moduleActionHandler = new ModuleActionHandler(loggingController, authController, this, this.currentlyApprovedModules, this.providerConnectionMap, this.prosumerConnectionMap, this.prosumerMap, this.providerMap, this.moduleThreads, this.connectionReadLock);
+		this.moduleCallTimeoutEngine = new ModuleCallTimeoutEngine(loggingController);
+		this.moduleActionHandler = new ModuleActionHandler(loggingController, authController, this, this.currentlyApprovedModules, this.prosumerMap, this.providerMap, this.moduleThreads, this.moduleCallTimeoutEngine);
+	}
+
+	/**
+	 * Adds a wrapped stream or channel to the active streams of a connection.
+	 *
+	 * @param tuple the connection
+	 * @param stream the wrapped stream or channel
+	 * @param isInput true, if input stream or readable channel
+	 * @return true, if successful (false if connection is going down)
+	 */
+	private boolean addActiveStream(final PortTuple tuple, final Closeable stream, final boolean isInput) {
+		final ConnectionStreamSet streams = this.activeStreams.get(tuple);
+		if (streams == null) {
+			return false;
+		}
+		final int openStreamCount = isInput ? streams.addInputStream(stream) : streams.addOutputStream(stream);
+		if (openStreamCount == 0) {
+			// connection is going down
+			return false;
+		}
+		if (isInput) {
+			tuple.getTelemetry().updateOpenInputStreams(true);
+		} else {
+			tuple.getTelemetry().updateOpenOutputStreams(true);
+		}
+		if (openStreamCount == 1) {
+			announceConnectionUpdate(tuple, ConnectionEventType.BUSY);
+		}
+		return true;
 	}
 
 	/**
@@ -184,19 +224,26 @@ public class Broker {
 			this.moduleProviderPorts.put(moduleId, new HashMap<String, ProviderPort>());
 		}
 		if (this.moduleThreads.get(moduleId) == null) {
-			this.moduleThreads.put(moduleId, Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat(Broker.class.getSimpleName() + "-mod_" + moduleId + "-%d").build()));
+			this.moduleThreads.put(moduleId, new ModuleEventExecutor(moduleId, Broker.class.getSimpleName() + "-mod_" + moduleId, this.moduleEventQueueCapacity, this.moduleEventQueueOverflowType, Constants.CORE___MODULE_EVENT_QUEUE_BLOCK_TIMEOUT_MILLIS, this.loggingController));
 		}
 		this.currentlyApprovedModules.add(moduleId);
 		this.dataWriteLock.unlock();
 	}
 
 	/**
-	 * Annouces module activity.
+	 * Annouces module activity. No event is created if nobody listens for module activities.
 	 *
-	 * @param event the module event
+	 * @param activity the activity, see {@link framework.model.event.type.ModuleActivityEventType}
+	 * @param moduleId the sending module ID
+	 * @param portId the port ID (may be null)
+	 * @param portType the port type (may be null)
+	 * @param destModuleId the destination module ID (may be null)
+	 * @param destPortId the destination port ID (may be null)
+	 * @param destPortType the destination port type (may be null)
+	 * @param path the path (may be null)
 	 */
-	private void annouceModuleActivity(final ModuleActivityEvent event) {
-		this.controlInterfaceActionHandler.announceModuleActivity(event);
+	private void annouceModuleActivity(final String activity, final String moduleId, final String portId, final PortType portType, final String destModuleId, final String destPortId, final PortType destPortType, final String[] path) {
+		this.controlInterfaceActionHandler.announceModuleActivity(activity, moduleId, portId, portType, destModuleId, destPortId, destPortType, path, null, null, null, null);
 	}
 
 	/**
@@ -209,6 +256,19 @@ public class Broker {
 		this.controlInterfaceActionHandler.announceConnectionUpdate(new ConnectionUpdateEvent(getConnectionSummary(tuple), type));
 	}
 
+	/**
+	 * Announces a module start failure (timeout while starting).
+	 *
+	 * @param moduleId the module id
+	 */
+	private void announceModuleStartFailure(final String moduleId) {
+		try {
+			this.controlInterfaceActionHandler.announceModuleUpdate(getModuleSummary(moduleId), ModuleUpdateEventType.FAIL_START);
+		} catch (final BrokerException e) {
+			this.loggingController.log(e);
+		}
+	}
+
 	/**
 	 * Checks current state.
 	 */
@@ -252,30 +312,15 @@ public class Broker {
 	private boolean closeAllOpenStreams() {
 		final boolean result = true;
 		this.dataWriteLock.lock();
-		for (final ConcurrentLinkedQueue<ModuleInputStream> streams : this.activeInputStreams.values()) {
-			for (final ModuleInputStream stream : streams) {
-				try {
-					stream.close();
-				} catch (final Exception e) {
-					this.loggingController.log(e);
-				}
-			}
-		}
-		for (final ConcurrentLinkedQueue<ModuleOutputStream> streams : this.activeOutputStreams.values()) {
-			for (final ModuleOutputStream stream : streams) {
-				try {
-					stream.close();
-				} catch (final Exception e) {
-					this.loggingController.log(e);
-				}
-			}
+		for (final ConnectionStreamSet streams : this.activeStreams.values()) {
+			closeStreams(streams.getOpenStreams());
 		}
 		this.dataWriteLock.unlock();
 		return result;
 	}
 
 	/**
-	 * Closes all open input or output streams of a certain connection.
+	 * Closes all open input or output streams of a certain connection. The connection does not accept new streams afterwards.
 	 *
 	 * @param portTuple the port tuple
 	 * @return true, if successful
@@ -283,30 +328,29 @@ public class Broker {
 	private boolean closeAllOpenStreams(final PortTuple portTuple) {
 		final boolean result = true;
 		this.dataWriteLock.lock();
-		final ConcurrentLinkedQueue<ModuleOutputStream> oStreams = this.activeOutputStreams.get(portTuple);
-		if (oStreams != null) {
-			for (final ModuleOutputStream stream : oStreams) {
-				try {
-					stream.close();
-				} catch (final Exception e) {
-					this.loggingController.log(e);
-				}
-			}
-		}
-		final ConcurrentLinkedQueue<ModuleInputStream> iStreams = this.activeInputStreams.get(portTuple);
-		if (iStreams != null) {
-			for (final ModuleInputStream stream : iStreams) {
-				try {
-					stream.close();
-				} catch (final Exception e) {
-					this.loggingController.log(e);
-				}
-			}
+		final ConnectionStreamSet streams = this.activeStreams.get(portTuple);
+		if (streams != null) {
+			closeStreams(streams.close());
 		}
 		this.dataWriteLock.unlock();
 		return result;
 	}
 
+	/**
+	 * Closes the given streams, logging exceptions.
+	 *
+	 * @param streams the streams
+	 */
+	private void closeStreams(final List<Closeable> streams) {
+		for (final Closeable stream : streams) {
+			try {
+				stream.close();
+			} catch (final Exception e) {
+				this.loggingController.log(e);
+			}
+		}
+	}
+
 	/**
 	 * Connects two ports, adding a new connection.
 	 *
@@ -380,7 +424,6 @@ public class Broker {
 
 		boolean notifyProvider = false;
 
-		this.connectionWriteLock.lock();
 		if (connectedProsumerPorts == null) {
 			notifyProvider = true;
 			connectedProsumerPorts = new HashSet<ProsumerPort>();
@@ -389,17 +432,16 @@ public class Broker {
 
 		connectedProsumerPorts.add(prosumerPort);
 		this.prosumerConnectionMap.put(prosumerPort, providerPort);
-		this.connectionWriteLock.unlock();
 
 		// remove connection from disconnected connections Set if included
 		this.disconnectedPortTuples.remove(portTuple);
 
+		// add empty stream set for new connection (before publishing, streams may be opened right afterwards)
+		this.activeStreams.put(portTuple, new ConnectionStreamSet());
+
 		// add connection to connected connections
 		this.connectedPortTuples.add(portTuple);
-
-		// add empty stream set for new connection
-		this.activeInputStreams.put(portTuple, new ConcurrentLinkedQueue<ModuleInputStream>());
-		this.activeOutputStreams.put(portTuple, new ConcurrentLinkedQueue<ModuleOutputStream>());
+		publishConnectionRoutingTable();
 
 		final Prosumer prosumer = this.prosumerMap.get(prosumerPort.getModuleId());
 		this.dataWriteLock.unlock();
@@ -448,17 +490,13 @@ public class Broker {
 		this.dataWriteLock.lock();
 		final ProviderPort connectedProviderPort = this.prosumerConnectionMap.get(prosumerPort);
 		if (connectedProviderPort != null) {
-			this.connectionWriteLock.lock();
 			this.prosumerConnectionMap.remove(prosumerPort);
-			this.connectionWriteLock.unlock();
 			prosumer = this.prosumerMap.get(prosumerPort.getModuleId());
 			final Set<ProsumerPort> otherProsumerPorts = this.providerConnectionMap.get(connectedProviderPort);
 			if (otherProsumerPorts != null) {
 				otherProsumerPorts.remove(prosumerPort);
 				if (otherProsumerPorts.isEmpty()) {
-					this.connectionWriteLock.lock();
 					this.providerConnectionMap.remove(connectedProviderPort);
-					this.connectionWriteLock.unlock();
 					provider = this.providerMap.get(connectedProviderPort.getModuleId());
 				}
 				final Set<PortTuple> tuples = findConnectedPortTuples(prosumerPort.getModuleId(), prosumerPort.getPortId(), PortType.PROSUMER);
@@ -467,6 +505,9 @@ public class Broker {
 				} else {
 					result = tuples.iterator().next();
 				}
+				// remove connection from connected connections and stop routing to it before it is torn down
+				this.connectedPortTuples.remove(result);
+				publishConnectionRoutingTable();
 				if (removeConnectionsCompletely) {
 					try {
 						this.baseConfigurationController.removePortConnection(getConnectionSummary(result));
@@ -475,11 +516,7 @@ public class Broker {
 					}
 				}
 				closeAllOpenStreams(result);
-				this.activeInputStreams.remove(result);
-				this.activeOutputStreams.remove(result);
-
-				// remove connection from connected connections
-				this.connectedPortTuples.remove(result);
+				this.activeStreams.remove(result);
 
 				if (removeConnectionsCompletely) {
 					invalidatePortConnectionCounts(prosumerPort);
@@ -493,6 +530,9 @@ public class Broker {
 					reevaluateDisconnectedConnections(result.getProsumerPort().getModuleId(), result.getProsumerPort().getPortId(), PortType.PROSUMER);
 					reevaluateDisconnectedConnections(result.getProviderPort().getModuleId(), result.getProviderPort().getPortId(), PortType.PROVIDER);
 				}
+			} else {
+				// the prosumer connection map changed in any case
+				publishConnectionRoutingTable();
 			}
 		}
 		this.dataWriteLock.unlock();
@@ -638,27 +678,6 @@ public class Broker {
 		}
 	}
 
-	/**
-	 * Finds a connection between two ports.
-	 *
-	 * @param prosumerPort the prosumer port
-	 * @param providerPort the provider port
-	 * @return the port tuple between the ports (may be null if none)
-	 */
-	private PortTuple findPortTuple(final ProsumerPort prosumerPort, final ProviderPort providerPort) {
-		for (final PortTuple tuple : this.connectedPortTuples) {
-			if ((tuple.getProsumerPort() == prosumerPort) && (tuple.getProviderPort() == providerPort)) {
-				return tuple;
-			}
-		}
-		for (final PortTuple tuple : this.disconnectedPortTuples) {
-			if ((tuple.getProsumerPort() == prosumerPort) && (tuple.getProviderPort() == providerPort)) {
-				return tuple;
-			}
-		}
-		return null;
-	}
-
 	/**
 	 * Gets IDs of active modules
 	 *
@@ -713,6 +732,15 @@ public class Broker {
 		return i;
 	}
 
+	/**
+	 * Gets the current connection routing table. Does not require any lock.
+	 *
+	 * @return the connection routing table (immutable snapshot)
+	 */
+	ConnectionRoutingTable getConnectionRoutingTable() {
+		return this.connectionRoutingTable;
+	}
+
 	/**
 	 * Gets all connection summaries.
 	 *
@@ -739,9 +767,9 @@ public class Broker {
 	 */
 	private ConnectionSummary getConnectionSummary(final PortTuple tuple) {
 		if (this.connectedPortTuples.contains(tuple)) {
-			return getConnectionSummary(tuple.getProsumerPort(), tuple.getProviderPort(), true, tuple.getPriority(), tuple.getDataTransfered(), tuple.getLatestRefreshDate());
+			return getConnectionSummary(tuple.getProsumerPort(), tuple.getProviderPort(), true, tuple.getPriority(), tuple.getDataTransfered(), tuple.getLatestRefreshDate(), tuple.getTelemetry().getSummary());
 		} else {
-			return getConnectionSummary(tuple.getProsumerPort(), tuple.getProviderPort(), false, tuple.getPriority(), tuple.getDataTransfered(), tuple.getLatestRefreshDate());
+			return getConnectionSummary(tuple.getProsumerPort(), tuple.getProviderPort(), false, tuple.getPriority(), tuple.getDataTransfered(), tuple.getLatestRefreshDate(), tuple.getTelemetry().getSummary());
 		}
 	}
 
@@ -754,16 +782,17 @@ public class Broker {
 	 * @param priority the priority
 	 * @param dataTransfered the data transfered by now
 	 * @param lastUpdate the last update date
+	 * @param telemetrySummary the telemetry summary (may be null)
 	 * @return the connection summary
 	 */
-	private ConnectionSummary getConnectionSummary(final ProsumerPort prosumerPort, final ProviderPort providerPort, final boolean isActive, final int priority, final long dataTransfered, final long lastUpdate) {
+	private ConnectionSummary getConnectionSummary(final ProsumerPort prosumerPort, final ProviderPort providerPort, final boolean isActive, final int priority, final long dataTransfered, final long lastUpdate, final ConnectionTelemetrySummary telemetrySummary) {
 		this.dataReadLock.lock();
 		final int prosumerCount = getConnectionCount(prosumerPort);
 		final int providerCount = getConnectionCount(providerPort);
 		final PortSummary prosumerPortSummary = new PortSummary(prosumerPort.getModuleId(), PortType.PROSUMER, prosumerPort.getPortId(), prosumerPort.getMaxConnections(), prosumerCount);
 		final PortSummary providerPortSummary = new PortSummary(providerPort.getModuleId(), PortType.PROVIDER, providerPort.getPortId(), providerPort.getMaxConnections(), providerCount);
 		this.dataReadLock.unlock();
-		return new ConnectionSummary(prosumerPortSummary, providerPortSummary, isActive, priority, dataTransfered, System.currentTimeMillis());
+		return new ConnectionSummary(prosumerPortSummary, providerPortSummary, isActive, priority, dataTransfered, System.currentTimeMillis(), telemetrySummary);
 	}
 
 	/**
@@ -775,6 +804,28 @@ public class Broker {
 		return this.moduleActionHandler;
 	}
 
+	/**
+	 * Gets the module call timeout engine. Used to enforce timeouts on module calls and to query metrics about timed out calls.
+	 *
+	 * @return the module call timeout engine
+	 */
+	ModuleCallTimeoutEngine getModuleCallTimeoutEngine() {
+		return this.moduleCallTimeoutEngine;
+	}
+
+	/**
+	 * Gets the states of all module event queues.
+	 *
+	 * @return the module event queue summaries
+	 */
+	Set<ModuleEventQueueSummary> getModuleEventQueueSummaries() {
+		final Set<ModuleEventQueueSummary> result = new HashSet<ModuleEventQueueSummary>();
+		for (final ModuleEventExecutor executor : this.moduleThreads.values()) {
+			result.add(executor.getSummary());
+		}
+		return result;
+	}
+
 	/**
 	 * Gets the ID of a given module.
 	 *
@@ -882,6 +933,26 @@ public class Broker {
 		return result;
 	}
 
+	/**
+	 * Gets the connection a new stream or channel between two ports belongs to.
+	 *
+	 * @param prosumerPort the prosumer port
+	 * @param providerPort the provider port
+	 * @param original the original stream or channel returned by the provider
+	 * @return the port tuple (null if ports are not connected or original is already an active stream of this connection)
+	 */
+	private PortTuple getStreamPortTuple(final ProsumerPort prosumerPort, final ProviderPort providerPort, final Object original) {
+		final PortTuple tuple = this.connectionRoutingTable.getConnectedPortTuple(prosumerPort);
+		if ((tuple == null) || (tuple.getProviderPort() != providerPort)) {
+			return null;
+		}
+		final ConnectionStreamSet streams = this.activeStreams.get(tuple);
+		if ((streams == null) || streams.contains(original)) {
+			return null;
+		}
+		return tuple;
+	}
+
 	/**
 	 * Initialize.
 	 *
@@ -893,7 +964,6 @@ public class Broker {
 		if (!this.initialized && !this.running) {
 			this.stateLock.unlock();
 			initializeAllRequiredModulesFromDB();
-			reestablishAllPortConnectionsFromDB();
 			this.initialized = true;
 			if (this.initialized) {
 				this.loggingController.log(LogEventLevelType.DEBUG, "successfully initialized");
@@ -909,7 +979,8 @@ public class Broker {
 	}
 
 	/**
-	 * Initialize all required modules from db.
+	 * Initialize all required modules from db and reestablish their port connections. Modules are initialized concurrently, a module is initialized after all
+	 * modules it consumes data from. Every connection is established as soon as both its modules are initialized.
 	 *
 	 * @return true, if successful
 	 */
@@ -917,16 +988,71 @@ public class Broker {
 		if (isRunning()) {
 			return false;
 		}
-		final boolean result = true;
+		final Set<String> moduleIds;
+		final List<ConnectionSummary> pendingConnections;
 		try {
-			for (final String moduleId : this.baseConfigurationController.getModuleConfigurations().keySet()) {
-				initializeRequiredModule(moduleId);
-			}
+			moduleIds = this.baseConfigurationController.getModuleConfigurations().keySet();
+			pendingConnections = loadPortConnectionsFromDB();
 		} catch (final Exception e) {
 			this.loggingController.log(e);
 			return false;
 		}
-		return result;
+		final Map<String, Set<String>> dependencies = new HashMap<String, Set<String>>();
+		for (final ConnectionSummary summary : pendingConnections) {
+			final String prosumerModuleId = summary.getProsumerPortSummary().getModuleId();
+			Set<String> moduleDependencies = dependencies.get(prosumerModuleId);
+			if (moduleDependencies == null) {
+				moduleDependencies = new HashSet<String>();
+				dependencies.put(prosumerModuleId, moduleDependencies);
+			}
+			moduleDependencies.add(summary.getProviderPortSummary().getModuleId());
+		}
+		final Set<String> initializedModuleIds = new HashSet<String>();
+		final AtomicBoolean result = new AtomicBoolean(true);
+		final ModuleStartupScheduler scheduler = new ModuleStartupScheduler(moduleIds, dependencies, Constants.CORE___MODULE_STARTUP_THREADS, this.loggingController);
+		final boolean completed = scheduler.run(new ModuleStartupScheduler.ModuleTask() {
+
+			@Override
+			public void run(final String moduleId) {
+				initializeRequiredModule(moduleId);
+				// connect everything that is possible now, the other modules may still be initializing
+				final List<ConnectionSummary> readyConnections = new ArrayList<ConnectionSummary>();
+				synchronized (pendingConnections) {
+					initializedModuleIds.add(moduleId);
+					final Iterator<ConnectionSummary> iterator = pendingConnections.iterator();
+					while (iterator.hasNext()) {
+						final ConnectionSummary summary = iterator.next();
+						if (initializedModuleIds.contains(summary.getProsumerPortSummary().getModuleId()) && initializedModuleIds.contains(summary.getProviderPortSummary().getModuleId())) {
+							readyConnections.add(summary);
+							iterator.remove();
+						}
+					}
+				}
+				for (final ConnectionSummary summary : readyConnections) {
+					if (!reestablishPortConnection(summary)) {
+						result.set(false);
+					}
+				}
+			}
+		}, new ModuleStartupScheduler.ProgressListener() {
+
+			@Override
+			public void onModuleFinished(final String moduleId, final int finishedCount, final int totalCount) {
+				if (Broker.this.controlInterfaceActionHandler != null) {
+					Broker.this.controlInterfaceActionHandler.announceSystemStateProgress(SystemStateType.SYSTEM_INITIALIZING, finishedCount, totalCount);
+				}
+			}
+		});
+		// remaining connections refer to modules not in the config, they are kept as disconnected
+		synchronized (pendingConnections) {
+			for (final ConnectionSummary summary : pendingConnections) {
+				if (!reestablishPortConnection(summary)) {
+					result.set(false);
+				}
+			}
+			pendingConnections.clear();
+		}
+		return completed && result.get();
 	}
 
 	/**
@@ -957,9 +1083,14 @@ public class Broker {
 			} catch (final BrokerException e) {
 				this.loggingController.log(e);
 			}
-			final Module proxy = this.timeLimiter.newProxy(module, Module.class, Constants.TIMEOUT_SECONDS___MODULE_MANAGEMENT, TimeUnit.SECONDS);
 			try {
-				proxy.initialize();
+				this.moduleCallTimeoutEngine.call(moduleId, new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						module.initialize();
+						return null;
+					}
+				}, Constants.TIMEOUT_SECONDS___MODULE_MANAGEMENT, TimeUnit.SECONDS);
 			} catch (final UncheckedTimeoutException e) {
 				this.controlInterfaceActionHandler.announceModuleUpdate(getModuleSummary(moduleId), ModuleUpdateEventType.FAIL_INIT);
 			} catch (final Exception e) {
@@ -1004,9 +1135,15 @@ public class Broker {
 			} catch (final BrokerException e) {
 				this.loggingController.log(e);
 			}
-			final Module proxy = this.timeLimiter.newProxy(module, Module.class, Constants.TIMEOUT_SECONDS___MODULE_MANAGEMENT, TimeUnit.SECONDS);
+			final Module initializedModule = module;
 			try {
-				proxy.initialize();
+				this.moduleCallTimeoutEngine.call(moduleId, new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						initializedModule.initialize();
+						return null;
+					}
+				}, Constants.TIMEOUT_SECONDS___MODULE_MANAGEMENT, TimeUnit.SECONDS);
 			} catch (final UncheckedTimeoutException e1) {
 				try {
 					this.controlInterfaceActionHandler.announceModuleUpdate(getModuleSummary(moduleId), ModuleUpdateEventType.FAIL_INIT);
@@ -1109,43 +1246,27 @@ public class Broker {
 	}
 
 	/**
-	 * Reestablish all port connections from db.
+	 * Builds a new connection routing table from the current connection maps and publishes it. Must be called with data write lock held after every change to
+	 * the connection maps.
+	 */
+	private void publishConnectionRoutingTable() {
+		this.connectionRoutingTable = ConnectionRoutingTable.copyOf(this.prosumerConnectionMap, this.providerConnectionMap, this.connectedPortTuples);
+	}
+
+	/**
+	 * Loads all valid port connections from db, invalid ones are removed from db.
 	 *
-	 * @return true, if successful
+	 * @return the valid port connections
 	 */
-	private boolean reestablishAllPortConnectionsFromDB() {
-		boolean result = true;
-		this.dataWriteLock.lock();
-		try {
-			for (final ConnectionSummary summary : this.baseConfigurationController.getPortConnections()) {
-				if (!ObjectValidator.checkConnectionSummary(summary)) {
-					this.baseConfigurationController.removePortConnection(summary);
-					continue;
-				}
-				ProsumerPort prosumerPort = findExistingProsumerPort(summary.getProsumerPortSummary().getModuleId(), summary.getProsumerPortSummary().getPortId());
-				ProviderPort providerPort = findExistingProviderPort(summary.getProviderPortSummary().getModuleId(), summary.getProviderPortSummary().getPortId());
-				if (prosumerPort == null) {
-					prosumerPort = new ProsumerPort(summary.getProsumerPortSummary().getModuleId(), summary.getProsumerPortSummary().getPortId(), summary.getProsumerPortSummary().getMaxConnections());
-				}
-				if (providerPort == null) {
-					providerPort = new ProviderPort(summary.getProviderPortSummary().getModuleId(), summary.getProviderPortSummary().getPortId(), summary.getProviderPortSummary().getMaxConnections());
-				}
-				final PortTuple tuple = new PortTuple(prosumerPort, providerPort, summary.getPriority());
-				try {
-					final boolean thisResult = connectPorts(tuple);
-					if (!thisResult) {
-						this.disconnectedPortTuples.add(tuple);
-					}
-				} catch (final Exception e) {
-					this.loggingController.log(e);
-					result = false;
-				}
+	private List<ConnectionSummary> loadPortConnectionsFromDB() {
+		final List<ConnectionSummary> result = new ArrayList<ConnectionSummary>();
+		for (final ConnectionSummary summary : this.baseConfigurationController.getPortConnections()) {
+			if (!ObjectValidator.checkConnectionSummary(summary)) {
+				this.baseConfigurationController.removePortConnection(summary);
+			} else {
+				result.add(summary);
 			}
-		} catch (final Exception e) {
-			this.loggingController.log(e);
-			result = false;
 		}
-		this.dataWriteLock.unlock();
 		return result;
 	}
 
@@ -1184,6 +1305,37 @@ public class Broker {
 		}
 	}
 
+	/**
+	 * Reestablishes a port connection from db. Connections that cannot be established (yet) are kept as disconnected.
+	 *
+	 * @param summary the connection summary
+	 * @return true, if successful (also if kept as disconnected)
+	 */
+	private boolean reestablishPortConnection(final ConnectionSummary summary) {
+		this.dataWriteLock.lock();
+		try {
+			ProsumerPort prosumerPort = findExistingProsumerPort(summary.getProsumerPortSummary().getModuleId(), summary.getProsumerPortSummary().getPortId());
+			ProviderPort providerPort = findExistingProviderPort(summary.getProviderPortSummary().getModuleId(), summary.getProviderPortSummary().getPortId());
+			if (prosumerPort == null) {
+				prosumerPort = new ProsumerPort(summary.getProsumerPortSummary().getModuleId(), summary.getProsumerPortSummary().getPortId(), summary.getProsumerPortSummary().getMaxConnections());
+			}
+			if (providerPort == null) {
+				providerPort = new ProviderPort(summary.getProviderPortSummary().getModuleId(), summary.getProviderPortSummary().getPortId(), summary.getProviderPortSummary().getMaxConnections());
+			}
+			final PortTuple tuple = new PortTuple(prosumerPort, providerPort, summary.getPriority());
+			final boolean thisResult = connectPorts(tuple);
+			if (!thisResult) {
+				this.disconnectedPortTuples.add(tuple);
+			}
+			return true;
+		} catch (final Exception e) {
+			this.loggingController.log(e);
+			return false;
+		} finally {
+			this.dataWriteLock.unlock();
+		}
+	}
+
 	/**
 	 * Register prosumer port.
 	 *
@@ -1339,7 +1491,30 @@ public class Broker {
 	}
 
 	/**
-	 * Removes the input stream.
+	 * Removes a data element cursor.
+	 *
+	 * @param tuple the tuple
+	 * @param cursor the cursor
+	 * @return true, if successful
+	 */
+	public boolean removeCursor(final PortTuple tuple, final DataElementCursor cursor) {
+		final ConnectionStreamSet streams = this.activeStreams.get(tuple);
+		tuple.setLatestRefreshDate(System.currentTimeMillis());
+		if (streams != null) {
+			final int openStreamCount = streams.removeInputStream(cursor);
+			if (openStreamCount >= 0) {
+				tuple.getTelemetry().updateOpenInputStreams(false);
+				if (openStreamCount == 0) {
+					announceConnectionUpdate(tuple, ConnectionEventType.IDLE);
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Removes the input stream (or readable channel).
 	 *
 	 * @param tuple the tuple
 	 * @param inputStream the input stream
@@ -1347,24 +1522,22 @@ public class Broker {
 	 * @param dataTransfered the data transfered
 	 * @return true, if successful
 	 */
-	public boolean removeInputStream(final PortTuple tuple, final ModuleInputStream inputStream, final String[] path, final long dataTransfered) {
+	public boolean removeInputStream(final PortTuple tuple, final Closeable inputStream, final String[] path, final long dataTransfered) {
 		boolean result = false;
-		this.dataWriteLock.lock();
-		final ConcurrentLinkedQueue<ModuleInputStream> iStreams = this.activeInputStreams.get(tuple);
-		final ConcurrentLinkedQueue<ModuleOutputStream> oStreams = this.activeOutputStreams.get(tuple);
-		tuple.setDataTransfered(tuple.getDataTransfered() + dataTransfered);
+		final ConnectionStreamSet streams = this.activeStreams.get(tuple);
+		tuple.addDataTransfered(dataTransfered);
 		tuple.setLatestRefreshDate(System.currentTimeMillis());
-		if (iStreams != null) {
-			if (iStreams.contains(inputStream)) {
-				iStreams.remove(inputStream);
-				if (iStreams.isEmpty() && ((oStreams == null) || oStreams.isEmpty())) {
+		if (streams != null) {
+			final int openStreamCount = streams.removeInputStream(inputStream);
+			if (openStreamCount >= 0) {
+				tuple.getTelemetry().updateOpenInputStreams(false);
+				if (openStreamCount == 0) {
 					announceConnectionUpdate(tuple, ConnectionEventType.IDLE);
 				}
 				result = true;
 			}
 		}
-		this.dataWriteLock.unlock();
-		annouceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___INPUTSTREAM_CLOSED, tuple.getProsumerPort().getModuleId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, tuple.getProsumerPort().getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_MODULEID, tuple.getProviderPort().getModuleId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORTID, tuple.getProviderPort().getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORT_TYPE, PortType.PROVIDER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, path));
+		annouceModuleActivity(ModuleActivityEventType.MOD_ACT___INPUTSTREAM_CLOSED, tuple.getProsumerPort().getModuleId(), tuple.getProsumerPort().getPortId(), PortType.PROSUMER, tuple.getProviderPort().getModuleId(), tuple.getProviderPort().getPortId(), PortType.PROVIDER, path);
 		final Callable<?> callable = new Callable<Void>() {
 			@Override
 			public Void call() throws Exception {
@@ -1373,7 +1546,7 @@ public class Broker {
 			}
 		};
 		try {
-			this.timeLimiter.callWithTimeout(callable, Constants.TIMEOUT_SECONDS___MODULE_COMMUNICATION, TimeUnit.SECONDS, true);
+			this.moduleCallTimeoutEngine.call(null, callable, Constants.TIMEOUT_SECONDS___MODULE_COMMUNICATION, TimeUnit.SECONDS);
 		} catch (final Exception e) {
 			this.loggingController.log(e);
 		}
@@ -1401,16 +1574,27 @@ public class Broker {
 		}
 
 		if (module != null) {
-			final Module proxy = this.timeLimiter.newProxy(module, Module.class, Constants.TIMEOUT_SECONDS___MODULE_MANAGEMENT, TimeUnit.SECONDS);
 			try {
-				proxy.enterShutdown();
+				this.moduleCallTimeoutEngine.call(moduleId, new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						module.enterShutdown();
+						return null;
+					}
+				}, Constants.TIMEOUT_SECONDS___MODULE_MANAGEMENT, TimeUnit.SECONDS);
 			} catch (final UncheckedTimeoutException e) {
 				this.controlInterfaceActionHandler.announceModuleUpdate(getModuleSummary(moduleId), ModuleUpdateEventType.FAIL_STOP);
 			} catch (final Exception e) {
 				this.loggingController.log(e);
 			}
 			try {
-				proxy.exitShutdown();
+				this.moduleCallTimeoutEngine.call(moduleId, new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						module.exitShutdown();
+						return null;
+					}
+				}, Constants.TIMEOUT_SECONDS___MODULE_MANAGEMENT, TimeUnit.SECONDS);
 			} catch (final UncheckedTimeoutException e) {
 				this.controlInterfaceActionHandler.announceModuleUpdate(getModuleSummary(moduleId), ModuleUpdateEventType.FAIL_STOP);
 			} catch (final Exception e) {
@@ -1441,7 +1625,7 @@ public class Broker {
 			}
 		}
 
-		final ExecutorService executor = this.moduleThreads.get(moduleId);
+		final ModuleEventExecutor executor = this.moduleThreads.get(moduleId);
 		if (executor != null) {
 			executor.shutdownNow();
 		}
@@ -1455,7 +1639,7 @@ public class Broker {
 	}
 
 	/**
-	 * Removes the output stream.
+	 * Removes the output stream (or writable channel).
 	 *
 	 * @param tuple the tuple
 	 * @param outputStream the output stream
@@ -1463,23 +1647,22 @@ public class Broker {
 	 * @param dataTransfered the data transfered
 	 * @return true, if successful
 	 */
-	public boolean removeOutputStream(final PortTuple tuple, final ModuleOutputStream outputStream, final String[] path, final long dataTransfered) {
+	public boolean removeOutputStream(final PortTuple tuple, final Closeable outputStream, final String[] path, final long dataTransfered) {
 		boolean result = false;
-		this.dataWriteLock.lock();
-		final ConcurrentLinkedQueue<ModuleInputStream> iStreams = this.activeInputStreams.get(tuple);
-		final ConcurrentLinkedQueue<ModuleOutputStream> oStreams = this.activeOutputStreams.get(tuple);
-		tuple.setDataTransfered(tuple.getDataTransfered() + dataTransfered);
+		final ConnectionStreamSet streams = this.activeStreams.get(tuple);
+		tuple.addDataTransfered(dataTransfered);
 		tuple.setLatestRefreshDate(System.currentTimeMillis());
-		if (oStreams != null) {
-			if (oStreams.remove(outputStream)) {
-				if (oStreams.isEmpty() && ((iStreams == null) || iStreams.isEmpty())) {
+		if (streams != null) {
+			final int openStreamCount = streams.removeOutputStream(outputStream);
+			if (openStreamCount >= 0) {
+				tuple.getTelemetry().updateOpenOutputStreams(false);
+				if (openStreamCount == 0) {
 					announceConnectionUpdate(tuple, ConnectionEventType.IDLE);
 				}
 				result = true;
 			}
 		}
-		this.dataWriteLock.unlock();
-		annouceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___OUTPUTSTREAM_CLOSED, tuple.getProsumerPort().getModuleId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, tuple.getProsumerPort().getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_MODULEID, tuple.getProviderPort().getModuleId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORTID, tuple.getProviderPort().getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORT_TYPE, PortType.PROVIDER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, path));
+		annouceModuleActivity(ModuleActivityEventType.MOD_ACT___OUTPUTSTREAM_CLOSED, tuple.getProsumerPort().getModuleId(), tuple.getProsumerPort().getPortId(), PortType.PROSUMER, tuple.getProviderPort().getModuleId(), tuple.getProviderPort().getPortId(), PortType.PROVIDER, path);
 		final Callable<?> callable = new Callable<Void>() {
 			@Override
 			public Void call() throws Exception {
@@ -1488,7 +1671,7 @@ public class Broker {
 			}
 		};
 		try {
-			this.timeLimiter.callWithTimeout(callable, Constants.TIMEOUT_SECONDS___MODULE_COMMUNICATION, TimeUnit.SECONDS, true);
+			this.moduleCallTimeoutEngine.call(null, callable, Constants.TIMEOUT_SECONDS___MODULE_COMMUNICATION, TimeUnit.SECONDS);
 		} catch (final Exception e) {
 			this.loggingController.log(e);
 		}
@@ -1508,12 +1691,11 @@ public class Broker {
 			this.configValid = false;
 			this.running = false;
 
-			this.connectionWriteLock.lock();
 			this.providerConnectionMap.clear();
 			this.prosumerConnectionMap.clear();
 			this.prosumerMap.clear();
 			this.providerMap.clear();
-			this.connectionWriteLock.unlock();
+			publishConnectionRoutingTable();
 
 			this.disconnectedPortTuples.clear();
 			this.moduleProsumerPorts.clear();
@@ -1546,6 +1728,19 @@ public class Broker {
 		this.moduleActionHandler.setControlInterfaceActionHandler(controlInterfaceActionHandler);
 	}
 
+	/**
+	 * Sets capacity and overflow behavior of module event queues. Only affects modules added afterwards, so call this before initializing the broker.
+	 *
+	 * @param capacity the max number of queued events per module
+	 * @param overflowType the overflow type
+	 */
+	void setModuleEventQueueConfiguration(final int capacity, final EventQueueOverflowType overflowType) {
+		if ((capacity > 0) && (overflowType != null)) {
+			this.moduleEventQueueCapacity = capacity;
+			this.moduleEventQueueOverflowType = overflowType;
+		}
+	}
+
 	/**
 	 * Shutdown.
 	 *
@@ -1558,11 +1753,16 @@ public class Broker {
 			this.dataWriteLock.lock();
 			final List<Module> modules = ModulePrioritySorter.getStopOrder(getModules());
 			for (final Module module : modules) {
-				final Module proxy = this.timeLimiter.newProxy(module, Module.class, Constants.TIMEOUT_SECONDS___MODULE_MANAGEMENT, TimeUnit.SECONDS);
+				final String moduleId = getModuleId(module);
 				try {
-					proxy.enterShutdown();
+					this.moduleCallTimeoutEngine.call(moduleId, new Callable<Void>() {
+						@Override
+						public Void call() throws Exception {
+							module.enterShutdown();
+							return null;
+						}
+					}, Constants.TIMEOUT_SECONDS___MODULE_MANAGEMENT, TimeUnit.SECONDS);
 				} catch (final UncheckedTimeoutException e1) {
-					final String moduleId = getModuleId(module);
 					if (moduleId != null) {
 						try {
 							this.controlInterfaceActionHandler.announceModuleUpdate(getModuleSummary(moduleId), ModuleUpdateEventType.FAIL_STOP);
@@ -1576,11 +1776,16 @@ public class Broker {
 			}
 			this.running = false;
 			for (final Module module : getModules()) {
-				final Module proxy = this.timeLimiter.newProxy(module, Module.class, Constants.TIMEOUT_SECONDS___MODULE_MANAGEMENT, TimeUnit.SECONDS);
+				final String moduleId = getModuleId(module);
 				try {
-					proxy.exitShutdown();
+					this.moduleCallTimeoutEngine.call(moduleId, new Callable<Void>() {
+						@Override
+						public Void call() throws Exception {
+							module.exitShutdown();
+							return null;
+						}
+					}, Constants.TIMEOUT_SECONDS___MODULE_MANAGEMENT, TimeUnit.SECONDS);
 				} catch (final UncheckedTimeoutException e1) {
-					final String moduleId = getModuleId(module);
 					if (moduleId != null) {
 						try {
 							this.controlInterfaceActionHandler.announceModuleUpdate(getModuleSummary(moduleId), ModuleUpdateEventType.FAIL_STOP);
@@ -1613,42 +1818,75 @@ public class Broker {
 			checkCurrentState();
 			if (this.initialized && this.configValid) {
 				this.loggingController.log(LogEventLevelType.DEBUG, "starting modules...");
-				final List<Module> modules = ModulePrioritySorter.getStartOrder(getModules());
-				for (final Module module : modules) {
-					final Module proxy = this.timeLimiter.newProxy(module, Module.class, Constants.TIMEOUT_SECONDS___MODULE_MANAGEMENT, TimeUnit.SECONDS);
-					try {
-						proxy.enterStartup();
-					} catch (final UncheckedTimeoutException e1) {
-						final String moduleId = getModuleId(module);
-						if (moduleId != null) {
-							try {
-								this.controlInterfaceActionHandler.announceModuleUpdate(getModuleSummary(moduleId), ModuleUpdateEventType.FAIL_START);
-							} catch (final BrokerException e2) {
-								this.loggingController.log(e2);
-							}
-						}
-					} catch (final Exception e) {
-						this.loggingController.log(e);
+				// providers are started before the prosumers connected to them, independent modules are started concurrently
+				final Map<String, Module> modules = new LinkedHashMap<String, Module>();
+				final Map<String, Set<String>> dependencies = new HashMap<String, Set<String>>();
+				this.dataReadLock.lock();
+				for (final Module module : ModulePrioritySorter.getStartOrder(getModules())) {
+					final String moduleId = getModuleId(module);
+					if (moduleId != null) {
+						modules.put(moduleId, module);
 					}
 				}
+				for (final PortTuple tuple : this.connectedPortTuples) {
+					final String prosumerModuleId = tuple.getProsumerPort().getModuleId();
+					Set<String> moduleDependencies = dependencies.get(prosumerModuleId);
+					if (moduleDependencies == null) {
+						moduleDependencies = new HashSet<String>();
+						dependencies.put(prosumerModuleId, moduleDependencies);
+					}
+					moduleDependencies.add(tuple.getProviderPort().getModuleId());
+				}
+				this.dataReadLock.unlock();
+				new ModuleStartupScheduler(modules.keySet(), dependencies, Constants.CORE___MODULE_STARTUP_THREADS, this.loggingController).run(new ModuleStartupScheduler.ModuleTask() {
+
+					@Override
+					public void run(final String moduleId) {
+						final Module module = modules.get(moduleId);
+						try {
+							Broker.this.moduleCallTimeoutEngine.call(moduleId, new Callable<Void>() {
+								@Override
+								public Void call() throws Exception {
+									module.enterStartup();
+									return null;
+								}
+							}, Constants.TIMEOUT_SECONDS___MODULE_MANAGEMENT, TimeUnit.SECONDS);
+						} catch (final UncheckedTimeoutException e1) {
+							announceModuleStartFailure(moduleId);
+						} catch (final Exception e) {
+							Broker.this.loggingController.log(e);
+						}
+					}
+				}, new ModuleStartupScheduler.ProgressListener() {
+
+					@Override
+					public void onModuleFinished(final String moduleId, final int finishedCount, final int totalCount) {
+						if (Broker.this.controlInterfaceActionHandler != null) {
+							Broker.this.controlInterfaceActionHandler.announceSystemStateProgress(SystemStateType.BROKER_STARTING_UP, finishedCount, totalCount);
+						}
+					}
+				});
 				this.running = true;
-				for (final Module module : getModules()) {
-					final Module proxy = this.timeLimiter.newProxy(module, Module.class, Constants.TIMEOUT_SECONDS___MODULE_MANAGEMENT, TimeUnit.SECONDS);
-					try {
-						proxy.exitStartup();
-					} catch (final UncheckedTimeoutException e1) {
-						final String moduleId = getModuleId(module);
-						if (moduleId != null) {
-							try {
-								this.controlInterfaceActionHandler.announceModuleUpdate(getModuleSummary(moduleId), ModuleUpdateEventType.FAIL_START);
-							} catch (final BrokerException e2) {
-								this.loggingController.log(e2);
-							}
+				new ModuleStartupScheduler(modules.keySet(), dependencies, Constants.CORE___MODULE_STARTUP_THREADS, this.loggingController).run(new ModuleStartupScheduler.ModuleTask() {
+
+					@Override
+					public void run(final String moduleId) {
+						final Module module = modules.get(moduleId);
+						try {
+							Broker.this.moduleCallTimeoutEngine.call(moduleId, new Callable<Void>() {
+								@Override
+								public Void call() throws Exception {
+									module.exitStartup();
+									return null;
+								}
+							}, Constants.TIMEOUT_SECONDS___MODULE_MANAGEMENT, TimeUnit.SECONDS);
+						} catch (final UncheckedTimeoutException e1) {
+							announceModuleStartFailure(moduleId);
+						} catch (final Exception e) {
+							Broker.this.loggingController.log(e);
 						}
-					} catch (final Exception e) {
-						this.loggingController.log(e);
 					}
-				}
+				}, null);
 				result = true;
 				this.loggingController.log(LogEventLevelType.DEBUG, "successfully started");
 			} else {
@@ -1778,48 +2016,92 @@ public class Broker {
 	}
 
 	/**
-	 * Wraps an input stream.
+	 * Wraps a data element cursor. Does not take the data lock, the connection is looked up in the current routing table. Open cursors count as open input
+	 * streams of the connection.
+	 *
+	 * @param prosumerPort the prosumer port
+	 * @param providerPort the provider port
+	 * @param cursor the original cursor
+	 * @return the wrapped cursor (null if ports are not connected or connection is going down)
+	 */
+	DataElementCursor wrapCursor(final ProsumerPort prosumerPort, final ProviderPort providerPort, final DataElementCursor cursor) {
+		final PortTuple tuple = getStreamPortTuple(prosumerPort, providerPort, cursor);
+		if (tuple == null) {
+			return null;
+		}
+		final ModuleDataElementCursor bCursor = new ModuleDataElementCursor(cursor, this, tuple);
+		return addActiveStream(tuple, bCursor, true) ? bCursor : null;
+	}
+
+	/**
+	 * Wraps an input stream. Does not take the data lock, the connection is looked up in the current routing table.
 	 *
 	 * @param prosumerPort the prosumer port
 	 * @param providerPort the provider port
 	 * @param stream the original stream
 	 * @param path the path
-	 * @return the wrapped input stream
+	 * @return the wrapped input stream (null if ports are not connected or connection is going down)
 	 */
 	InputStream wrapInputStream(final ProsumerPort prosumerPort, final ProviderPort providerPort, final InputStream stream, final String[] path) {
-		ModuleInputStream bStream = null;
-		this.dataWriteLock.lock();
-		final PortTuple tuple = findPortTuple(prosumerPort, providerPort);
-		final ConcurrentLinkedQueue<ModuleInputStream> streams = this.activeInputStreams.get(tuple);
-		if ((streams != null) && !streams.contains(stream)) {
-			bStream = new ModuleInputStream(stream, this, tuple, path);
-			streams.add(bStream);
-			announceConnectionUpdate(tuple, ConnectionEventType.BUSY);
+		final PortTuple tuple = getStreamPortTuple(prosumerPort, providerPort, stream);
+		if (tuple == null) {
+			return null;
 		}
-		this.dataWriteLock.unlock();
-		return bStream;
+		final ModuleInputStream bStream = new ModuleInputStream(stream, this, tuple, path);
+		return addActiveStream(tuple, bStream, true) ? bStream : null;
 	}
 
 	/**
-	 * Wraps an output stream.
+	 * Wraps an output stream. Does not take the data lock, the connection is looked up in the current routing table.
 	 *
 	 * @param prosumerPort the prosumer port
 	 * @param providerPort the provider port
 	 * @param stream the original stream
 	 * @param path the path
-	 * @return the warpped output stream
+	 * @return the wrapped output stream (null if ports are not connected or connection is going down)
 	 */
 	OutputStream wrapOutputStream(final ProsumerPort prosumerPort, final ProviderPort providerPort, final OutputStream stream, final String[] path) {
-		ModuleOutputStream bStream = null;
-		this.dataWriteLock.lock();
-		final PortTuple tuple = findPortTuple(prosumerPort, providerPort);
-		final ConcurrentLinkedQueue<ModuleOutputStream> streams = this.activeOutputStreams.get(tuple);
-		if ((streams != null) && !streams.contains(stream)) {
-			bStream = new ModuleOutputStream(stream, this, tuple, path);
-			streams.add(bStream);
-			announceConnectionUpdate(tuple, ConnectionEventType.BUSY);
+		final PortTuple tuple = getStreamPortTuple(prosumerPort, providerPort, stream);
+		if (tuple == null) {
+			return null;
 		}
-		this.dataWriteLock.unlock();
-		return bStream;
+		final ModuleOutputStream bStream = new ModuleOutputStream(stream, this, tuple, path);
+		return addActiveStream(tuple, bStream, false) ? bStream : null;
+	}
+
+	/**
+	 * Wraps a readable channel. Does not take the data lock, the connection is looked up in the current routing table.
+	 *
+	 * @param prosumerPort the prosumer port
+	 * @param providerPort the provider port
+	 * @param channel the original channel
+	 * @param path the path
+	 * @return the wrapped channel (null if ports are not connected or connection is going down)
+	 */
+	ModuleReadableByteChannel wrapReadableChannel(final ProsumerPort prosumerPort, final ProviderPort providerPort, final ReadableByteChannel channel, final String[] path) {
+		final PortTuple tuple = getStreamPortTuple(prosumerPort, providerPort, channel);
+		if (tuple == null) {
+			return null;
+		}
+		final ModuleReadableByteChannel bChannel = new ModuleReadableByteChannel(channel, this, tuple, path);
+		return addActiveStream(tuple, bChannel, true) ? bChannel : null;
+	}
+
+	/**
+	 * Wraps a writable channel. Does not take the data lock, the connection is looked up in the current routing table.
+	 *
+	 * @param prosumerPort the prosumer port
+	 * @param providerPort the provider port
+	 * @param channel the original channel
+	 * @param path the path
+	 * @return the wrapped channel (null if ports are not connected or connection is going down)
+	 */
+	ModuleWritableByteChannel wrapWritableChannel(final ProsumerPort prosumerPort, final ProviderPort providerPort, final WritableByteChannel channel, final String[] path) {
+		final PortTuple tuple = getStreamPortTuple(prosumerPort, providerPort, channel);
+		if (tuple == null) {
+			return null;
+		}
+		final ModuleWritableByteChannel bChannel = new ModuleWritableByteChannel(channel, this, tuple, path);
+		return addActiveStream(tuple, bChannel, false) ? bChannel : null;
 	}
 }
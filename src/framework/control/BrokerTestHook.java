@@ -0,0 +1,94 @@
+package framework.control;
+
+import module.iface.Module;
+
+import db.iface.BaseConfigurationController;
+import framework.constants.Constants;
+import framework.exception.BrokerException;
+import framework.model.event.type.LogEventSourceType;
+import framework.model.summary.ConnectionSummary;
+
+/**
+ * Gives tests and benchmarks outside of this package access to the package private API needed to run a {@link Broker} in-process without the {@link Core}:
+ * Modules are added and connected directly and connectors are created for them. Not used by the framework itself.
+ *
+ * @author Stefan Werner
+ */
+public final class BrokerTestHook {
+
+	private final ComponentAuthorizationManager authManager = new ComponentAuthorizationManager();
+	private final Broker broker;
+
+	/**
+	 * Instantiates a new broker test hook and initializes its broker.
+	 *
+	 * @param configuration the base configuration controller to use (usually an in-memory one)
+	 */
+	public BrokerTestHook(final BaseConfigurationController configuration) {
+		this.broker = new Broker(configuration, this.authManager, new LogConnector(LogEventSourceType.FRAMEWORK, Constants.COMPONENT_ID___BROKER));
+		this.broker.setControlActionHandler(new ControlInterfaceActionHandler(null, this.broker, this.authManager));
+		this.broker.initialize();
+	}
+
+	/**
+	 * Adds and initializes a module.
+	 *
+	 * @param moduleId the module ID
+	 * @param rights the module rights, see {@link framework.constants.ModuleRight}
+	 * @param module the module
+	 * @return true, if successful
+	 * @throws BrokerException if module cannot be added
+	 */
+	public boolean addModule(final String moduleId, final int rights, final Module module) throws BrokerException {
+		this.authManager.updateComponent(moduleId, rights);
+		return this.broker.initializeNewModule(moduleId, module);
+	}
+
+	/**
+	 * Connects two ports.
+	 *
+	 * @param connectionSummary the connection summary
+	 * @return true, if successful
+	 */
+	public boolean connect(final ConnectionSummary connectionSummary) {
+		return this.broker.addConnection(connectionSummary);
+	}
+
+	/**
+	 * Creates a new prosumer connector for a module.
+	 *
+	 * @param moduleId the module ID
+	 * @return the prosumer connector
+	 */
+	public ProsumerConnector newProsumerConnector(final String moduleId) {
+		return new ProsumerConnector(this.broker.getModuleActionHandler(), moduleId);
+	}
+
+	/**
+	 * Creates a new provider connector for a module.
+	 *
+	 * @param moduleId the module ID
+	 * @return the provider connector
+	 */
+	public ProviderConnector newProviderConnector(final String moduleId) {
+		return new ProviderConnector(this.broker.getModuleActionHandler(), moduleId);
+	}
+
+	/**
+	 * Shuts the broker down.
+	 *
+	 * @return true, if successful
+	 */
+	public boolean shutdown() {
+		return this.broker.shutdown();
+	}
+
+	/**
+	 * Starts the broker and all added modules up.
+	 *
+	 * @return true, if successful
+	 */
+	public boolean startup() {
+		return this.broker.startup();
+	}
+}
@@ -1,6 +1,13 @@
 package framework.control;
 
+import helper.ResourceHelper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.util.Collections;
 import java.util.HashSet;
@@ -112,6 +119,8 @@ final class ComponentInstanceManager {
 	private final ReentrantLock dataLock = new ReentrantLock(true);
 	private final LogConnector logConnector;
 	private final Map<String, Module> modules = new ConcurrentHashMap<String, Module>();
+	// true if at least one listener is interested in module activities
+	private volatile boolean moduleActivityObserved = false;
 	private final Map<String, Class<? extends AbstractProsumer>> prosumerClasses = new ConcurrentHashMap<String, Class<? extends AbstractProsumer>>();
 	private final Map<String, Class<? extends AbstractProsumerProvider>> prosumerProviderClasses = new ConcurrentHashMap<String, Class<? extends AbstractProsumerProvider>>();
 	private final Map<String, Class<? extends AbstractProvider>> providerClasses = new ConcurrentHashMap<String, Class<? extends AbstractProvider>>();
@@ -126,14 +135,15 @@ final class ComponentInstanceManager {
 	 * @param coreCIActionHandler the core CI action handler
 	 * @param authController the authentication controller
 	 * @param baseConfigController the base configuration controller
+	 * @param scanClassPath set to true to scan the class path for component implementations even if a component index is present
 	 */
-	ComponentInstanceManager(final LogConnector logConnector, final Broker broker, final ControlInterfaceActionHandler coreCIActionHandler, final ComponentAuthorizationManager authController, final BaseConfigurationController baseConfigController) {
+	ComponentInstanceManager(final LogConnector logConnector, final Broker broker, final ControlInterfaceActionHandler coreCIActionHandler, final ComponentAuthorizationManager authController, final BaseConfigurationController baseConfigController, final boolean scanClassPath) {
 		this.logConnector = logConnector;
 		this.broker = broker;
 		this.coreCIActionHandler = coreCIActionHandler;
 		this.authManager = authController;
 		this.baseConfigController = baseConfigController;
-		loadAvailableModuleAndControlInterfaceImpls();
+		loadAvailableModuleAndControlInterfaceImpls(scanClassPath);
 	}
 
 	/**
@@ -157,6 +167,7 @@ final class ComponentInstanceManager {
 				Collections.addAll(types, eventTypes);
 			}
 			listeners.put(generalEventListener, types);
+			updateModuleActivityObserved();
 			return true;
 		}
 	}
@@ -516,9 +527,34 @@ final class ComponentInstanceManager {
 	}
 
 	/**
-	 * Loads available module and control interface implementations by using reflection.
+	 * Checks if at least one control interface listens for module activities. Used to avoid creating module activity events nobody is interested in.
+	 *
+	 * @return true, if module activities are observed
 	 */
-	private void loadAvailableModuleAndControlInterfaceImpls() {
+	boolean isModuleActivityObserved() {
+		return this.moduleActivityObserved;
+	}
+
+	/**
+	 * Loads available module and control interface implementations. Uses the component index generated at build time (see
+	 * {@link Constants#COMPONENT_INDEX_LOCATION} and {@link utils.ComponentIndexProcessor}) if present and falls back to a (slow) class path scan otherwise. The
+	 * scan may be forced if the index is known to be incomplete (for example if classes were compiled without the processor).
+	 *
+	 * @param scanClassPath set to true to scan the class path even if a component index is present
+	 */
+	private void loadAvailableModuleAndControlInterfaceImpls(final boolean scanClassPath) {
+		final long start = System.currentTimeMillis();
+		final boolean indexed = !scanClassPath && loadImplsFromIndex();
+		if (!indexed) {
+			loadImplsByClassPathScan();
+		}
+		this.logConnector.log(LogEventLevelType.DEBUG, (this.prosumerClasses.size() + this.prosumerProviderClasses.size() + this.providerClasses.size() + this.controlInterfaceClasses.size()) + " component implementations loaded " + (indexed ? "from index" : "by class path scan") + " in " + (System.currentTimeMillis() - start) + "ms");
+	}
+
+	/**
+	 * Loads available module and control interface implementations by scanning the whole class path.
+	 */
+	private void loadImplsByClassPathScan() {
 		final Reflections reflections = new Reflections(new ConfigurationBuilder().addUrls(ClasspathHelper.forJavaClassPath()).setScanners(new SubTypesScanner()));
 
 		final Set<Class<? extends AbstractProsumer>> prosumers = reflections.getSubTypesOf(AbstractProsumer.class);
@@ -539,6 +575,53 @@ final class ComponentInstanceManager {
 		}
 	}
 
+	/**
+	 * Loads available module and control interface implementations listed in the component index. Classes are not initialized until they are instantiated.
+	 *
+	 * @return true, if index was found and read
+	 */
+	private boolean loadImplsFromIndex() {
+		final InputStream in = ResourceHelper.getStream(Constants.COMPONENT_INDEX_LOCATION);
+		if (in == null) {
+			return false;
+		}
+		final ClassLoader classLoader = ComponentInstanceManager.class.getClassLoader();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				final String className = line.trim();
+				if (className.isEmpty() || className.startsWith("#")) {
+					continue;
+				}
+				try {
+					final Class<?> impl = Class.forName(className, false, classLoader);
+					if (AbstractProsumer.class.isAssignableFrom(impl)) {
+						this.prosumerClasses.put(impl.getName(), impl.asSubclass(AbstractProsumer.class));
+					} else if (AbstractProsumerProvider.class.isAssignableFrom(impl)) {
+						this.prosumerProviderClasses.put(impl.getName(), impl.asSubclass(AbstractProsumerProvider.class));
+					} else if (AbstractProvider.class.isAssignableFrom(impl)) {
+						this.providerClasses.put(impl.getName(), impl.asSubclass(AbstractProvider.class));
+					} else if (AbstractControlInterface.class.isAssignableFrom(impl)) {
+						this.controlInterfaceClasses.put(impl.getName(), impl.asSubclass(AbstractControlInterface.class));
+					} else {
+						this.logConnector.log(LogEventLevelType.WARNING, "component index entry is not a component: " + className);
+					}
+				} catch (ClassNotFoundException | LinkageError e) {
+					// stale index entry, ignore it but keep all others
+					this.logConnector.log(LogEventLevelType.WARNING, "cannot load class from component index: " + className);
+				}
+			}
+			return true;
+		} catch (final IOException e) {
+			this.logConnector.log(e);
+			this.prosumerClasses.clear();
+			this.prosumerProviderClasses.clear();
+			this.providerClasses.clear();
+			this.controlInterfaceClasses.clear();
+			return false;
+		}
+	}
+
 	/**
 	 * Removes (stops) all control interfaces except a given one. Used at system shutdown.
 	 *
@@ -578,6 +661,7 @@ final class ComponentInstanceManager {
 			this.ciEventThreads.remove(ciId);
 			this.ciEventQueues.remove(ciId);
 			this.ciGeneralEventListeners.remove(ciId);
+			updateModuleActivityObserved();
 			final ControlInterface proxy = this.timeLimiter.newProxy(ci, ControlInterface.class, Constants.TIMEOUT_SECONDS___CI_MANAGEMENT, TimeUnit.SECONDS);
 			try {
 				proxy.shutdown();
@@ -607,7 +691,9 @@ final class ComponentInstanceManager {
 		if (listeners == null) {
 			return false;
 		} else {
-			return listeners.remove(generalEventListener) != null;
+			final boolean result = listeners.remove(generalEventListener) != null;
+			updateModuleActivityObserved();
+			return result;
 		}
 	}
 
@@ -727,4 +813,19 @@ final class ComponentInstanceManager {
 		this.dataLock.unlock();
 		return result;
 	}
+
+	/**
+	 * Updates the flag indicating if at least one listener is interested in module activities. Must be called whenever listeners change.
+	 */
+	private void updateModuleActivityObserved() {
+		boolean observed = false;
+		for (final Map<GeneralEventListener, Set<GeneralEventType>> listeners : this.ciGeneralEventListeners.values()) {
+			for (final Set<GeneralEventType> types : listeners.values()) {
+				if (types.contains(GeneralEventType.MODULE_ACTIVITY) || types.contains(GeneralEventType.GENERAL_EVENT)) {
+					observed = true;
+				}
+			}
+		}
+		this.moduleActivityObserved = observed;
+	}
 }
@@ -0,0 +1,96 @@
+package framework.control;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import framework.model.PortTuple;
+import framework.model.ProsumerPort;
+import framework.model.ProviderPort;
+
+/**
+ * Immutable snapshot of all currently established port connections. The broker builds a new snapshot whenever connections change and publishes it atomically,
+ * so the module action handler is able to route calls between prosumers and providers without taking any lock (one volatile read).
+ *
+ * @author Stefan Werner
+ */
+final class ConnectionRoutingTable {
+
+	static final ConnectionRoutingTable EMPTY = new ConnectionRoutingTable(ImmutableMap.<ProsumerPort, ProviderPort> of(), ImmutableMap.<ProviderPort, Set<ProsumerPort>> of(), ImmutableMap.<ProsumerPort, PortTuple> of());
+
+	/**
+	 * Builds a new routing table from the given connection maps. The maps (and the sets within) are copied.
+	 *
+	 * @param prosumerConnectionMap the prosumer connection map
+	 * @param providerConnectionMap the provider connection map
+	 * @param connectedPortTuples the connected port tuples (tuples not matching the prosumer connection map are ignored)
+	 * @return the connection routing table
+	 */
+	static ConnectionRoutingTable copyOf(final Map<ProsumerPort, ProviderPort> prosumerConnectionMap, final Map<ProviderPort, Set<ProsumerPort>> providerConnectionMap, final Collection<PortTuple> connectedPortTuples) {
+		final ImmutableMap.Builder<ProviderPort, Set<ProsumerPort>> providerRoutesBuilder = ImmutableMap.builder();
+		for (final Map.Entry<ProviderPort, Set<ProsumerPort>> entry : providerConnectionMap.entrySet()) {
+			if ((entry.getValue() != null) && !entry.getValue().isEmpty()) {
+				providerRoutesBuilder.put(entry.getKey(), ImmutableSet.copyOf(entry.getValue()));
+			}
+		}
+		final Map<ProsumerPort, PortTuple> portTuples = new HashMap<ProsumerPort, PortTuple>();
+		for (final PortTuple tuple : connectedPortTuples) {
+			if (tuple.getProviderPort().equals(prosumerConnectionMap.get(tuple.getProsumerPort()))) {
+				portTuples.put(tuple.getProsumerPort(), tuple);
+			}
+		}
+		return new ConnectionRoutingTable(ImmutableMap.copyOf(prosumerConnectionMap), providerRoutesBuilder.build(), ImmutableMap.copyOf(portTuples));
+	}
+
+	private final ImmutableMap<ProsumerPort, PortTuple> portTuples;
+
+	private final ImmutableMap<ProsumerPort, ProviderPort> prosumerRoutes;
+	private final ImmutableMap<ProviderPort, Set<ProsumerPort>> providerRoutes;
+
+	/**
+	 * Instantiates a new connection routing table.
+	 *
+	 * @param prosumerRoutes the prosumer routes
+	 * @param providerRoutes the provider routes
+	 * @param portTuples the port tuples
+	 */
+	private ConnectionRoutingTable(final ImmutableMap<ProsumerPort, ProviderPort> prosumerRoutes, final ImmutableMap<ProviderPort, Set<ProsumerPort>> providerRoutes, final ImmutableMap<ProsumerPort, PortTuple> portTuples) {
+		this.prosumerRoutes = prosumerRoutes;
+		this.providerRoutes = providerRoutes;
+		this.portTuples = portTuples;
+	}
+
+	/**
+	 * Gets the port tuple (connection) of a given prosumer port.
+	 *
+	 * @param prosumerPort the prosumer port
+	 * @return the port tuple (null if not connected)
+	 */
+	PortTuple getConnectedPortTuple(final ProsumerPort prosumerPort) {
+		return this.portTuples.get(prosumerPort);
+	}
+
+	/**
+	 * Gets the prosumer ports connected to a given provider port.
+	 *
+	 * @param providerPort the provider port
+	 * @return the connected prosumer ports (immutable, null if not connected)
+	 */
+	Set<ProsumerPort> getConnectedProsumerPorts(final ProviderPort providerPort) {
+		return this.providerRoutes.get(providerPort);
+	}
+
+	/**
+	 * Gets the provider port connected to a given prosumer port.
+	 *
+	 * @param prosumerPort the prosumer port
+	 * @return the connected provider port (null if not connected)
+	 */
+	ProviderPort getConnectedProviderPort(final ProsumerPort prosumerPort) {
+		return this.prosumerRoutes.get(prosumerPort);
+	}
+}
@@ -0,0 +1,122 @@
+package framework.control;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps track of the currently open input and output streams (or channels) of a single connection. Adding and removing streams takes constant time and does not need any
+ * broker lock, so streams of different connections never block each other. Transitions between idle (no open streams) and busy (at least one open stream) are
+ * detected by the return values of the add and remove methods.
+ * <p>
+ * Once {@link #close()} is called no further streams are accepted, so streams opened while a connection is going down cannot leak.
+ *
+ * @author Stefan Werner
+ */
+final class ConnectionStreamSet {
+
+	private volatile boolean closed = false;
+	private final Set<Closeable> inputStreams = Collections.newSetFromMap(new ConcurrentHashMap<Closeable, Boolean>());
+	// number of open input and output streams, used to detect idle/busy transitions
+	private final AtomicInteger openStreamCount = new AtomicInteger();
+	private final Set<Closeable> outputStreams = Collections.newSetFromMap(new ConcurrentHashMap<Closeable, Boolean>());
+
+	/**
+	 * Adds an input stream or readable channel.
+	 *
+	 * @param stream the stream
+	 * @return the number of open streams afterwards (1 if connection became busy, 0 if set is closed and stream was not added)
+	 */
+	int addInputStream(final Closeable stream) {
+		if (this.closed || !this.inputStreams.add(stream)) {
+			return 0;
+		}
+		final int count = this.openStreamCount.incrementAndGet();
+		if (this.closed) {
+			// closed concurrently, caller must not use the stream
+			removeInputStream(stream);
+			return 0;
+		}
+		return count;
+	}
+
+	/**
+	 * Adds an output stream or writable channel.
+	 *
+	 * @param stream the stream
+	 * @return the number of open streams afterwards (1 if connection became busy, 0 if set is closed and stream was not added)
+	 */
+	int addOutputStream(final Closeable stream) {
+		if (this.closed || !this.outputStreams.add(stream)) {
+			return 0;
+		}
+		final int count = this.openStreamCount.incrementAndGet();
+		if (this.closed) {
+			// closed concurrently, caller must not use the stream
+			removeOutputStream(stream);
+			return 0;
+		}
+		return count;
+	}
+
+	/**
+	 * Stops accepting new streams.
+	 *
+	 * @return a copy of all streams open at the time of closing (see {@link #getOpenStreams()})
+	 */
+	List<Closeable> close() {
+		this.closed = true;
+		return getOpenStreams();
+	}
+
+	/**
+	 * Checks if the given object is one of the open streams.
+	 *
+	 * @param stream the stream
+	 * @return true, if open stream of this set
+	 */
+	boolean contains(final Object stream) {
+		return this.inputStreams.contains(stream) || this.outputStreams.contains(stream);
+	}
+
+	/**
+	 * Gets a copy of all currently open streams.
+	 *
+	 * @return the open streams (output streams first, so pending data is written before reading sides go away)
+	 */
+	List<Closeable> getOpenStreams() {
+		final List<Closeable> result = new ArrayList<Closeable>(this.outputStreams);
+		result.addAll(this.inputStreams);
+		return result;
+	}
+
+	/**
+	 * Removes an input stream or readable channel.
+	 *
+	 * @param stream the stream
+	 * @return the number of open streams afterwards (0 if connection became idle, -1 if stream was not open)
+	 */
+	int removeInputStream(final Closeable stream) {
+		if (!this.inputStreams.remove(stream)) {
+			return -1;
+		}
+		return this.openStreamCount.decrementAndGet();
+	}
+
+	/**
+	 * Removes an output stream or writable channel.
+	 *
+	 * @param stream the stream
+	 * @return the number of open streams afterwards (0 if connection became idle, -1 if stream was not open)
+	 */
+	int removeOutputStream(final Closeable stream) {
+		if (!this.outputStreams.remove(stream)) {
+			return -1;
+		}
+		return this.openStreamCount.decrementAndGet();
+	}
+}
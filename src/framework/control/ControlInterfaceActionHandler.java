@@ -1,6 +1,7 @@
 package framework.control;
 
 import helper.ObjectValidator;
+import helper.ThreadPoolHelper;
 
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -9,8 +10,8 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -19,9 +20,6 @@ import module.iface.Module;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.util.concurrent.SimpleTimeLimiter;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
-import com.google.common.util.concurrent.TimeLimiter;
 import com.google.common.util.concurrent.UncheckedTimeoutException;
 
 import controlinterface.iface.GeneralEventListener;
@@ -47,8 +45,11 @@ import framework.model.event.type.SystemStateType;
 import framework.model.summary.BaseConfigurationSummary;
 import framework.model.summary.ConnectionSummary;
 import framework.model.summary.ControlInterfaceSummary;
+import framework.model.summary.ModuleCallTimeoutSummary;
+import framework.model.summary.ModuleEventQueueSummary;
 import framework.model.summary.ModuleSummary;
 import framework.model.summary.PortSummary;
+import framework.model.type.PortType;
 
 /**
  * Holds all methods for control interfaces and is mainly used by the {@link ControlInterfaceConnector}. It also excessively checks system states and control
@@ -62,7 +63,7 @@ import framework.model.summary.PortSummary;
  */
 final class ControlInterfaceActionHandler {
 
-	private final ExecutorService announcementService = Executors.newFixedThreadPool(10, new ThreadFactoryBuilder().setNameFormat(ControlInterfaceActionHandler.class.getSimpleName() + "-general-announce-%d").build());
+	private final ExecutorService announcementService = ThreadPoolHelper.newFixedThreadPool(10, ControlInterfaceActionHandler.class.getSimpleName() + "-general-announce-%d");
 	private final ComponentAuthorizationManager authManager;
 	private final Broker broker;
 	private ComponentInstanceManager componentInstanceManager = null;
@@ -100,18 +101,33 @@ final class ControlInterfaceActionHandler {
 	private final Core core;
 	private Map<String, BlockingQueue<GeneralEvent>> eventQueues = new HashMap<String, BlockingQueue<GeneralEvent>>();
 	private final LogConnector logConnector;
+	private final ModuleActivityRingBuffer moduleActivityBuffer = new ModuleActivityRingBuffer(Constants.CORE___MODULE_ACTIVITY_BUFFER_SIZE);
 	private final Thread moduleActivityEventAnnouncementThread;
 	private final Runnable moduleActivityEventAnnouncmentHandler = new Runnable() {
 
 		@Override
 		public void run() {
+			long lastReportDate = System.currentTimeMillis();
+			long reportedDroppedCount = 0;
 			while (!Thread.currentThread().isInterrupted()) {
-				ModuleActivityEvent event;
+				final ModuleActivityEvent event;
 				try {
-					event = ControlInterfaceActionHandler.this.moduleActivityEventQueue.take();
+					event = ControlInterfaceActionHandler.this.moduleActivityBuffer.poll(Constants.CORE___MODULE_ACTIVITY_DROP_REPORT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
 				} catch (final InterruptedException e) {
 					break;
 				}
+				final long now = System.currentTimeMillis();
+				if ((event == null) || ((now - lastReportDate) >= Constants.CORE___MODULE_ACTIVITY_DROP_REPORT_INTERVAL_MILLIS)) {
+					final long droppedCount = ControlInterfaceActionHandler.this.moduleActivityBuffer.getDroppedCount();
+					if (droppedCount > reportedDroppedCount) {
+						ControlInterfaceActionHandler.this.logConnector.log(LogEventLevelType.WARNING, (droppedCount - reportedDroppedCount) + " module activity events dropped (buffer full)");
+						reportedDroppedCount = droppedCount;
+					}
+					lastReportDate = now;
+				}
+				if (event == null) {
+					continue;
+				}
 				for (final String ciID : ControlInterfaceActionHandler.this.eventQueues.keySet()) {
 					if (ControlInterfaceActionHandler.this.authManager.hasRights(ciID, ControlInterfaceRight.RCV_MOD_ACT)) {
 						final BlockingQueue<GeneralEvent> queue = ControlInterfaceActionHandler.this.eventQueues.get(ciID);
@@ -123,9 +139,7 @@ final class ControlInterfaceActionHandler {
 			}
 		}
 	};
-	private final BlockingQueue<ModuleActivityEvent> moduleActivityEventQueue = new LinkedBlockingQueue<ModuleActivityEvent>();
-	private final ExecutorService stateService = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat(ControlInterfaceActionHandler.class.getSimpleName() + "-announce-state-%d").build());
-	private final TimeLimiter timeLimiter = new SimpleTimeLimiter();
+	private final ExecutorService stateService = ThreadPoolHelper.newSingleThreadExecutor(ControlInterfaceActionHandler.class.getSimpleName() + "-announce-state-%d");
 
 	/**
 	 * Instantiates a new control interface action handler.
@@ -333,12 +347,26 @@ final class ControlInterfaceActionHandler {
 	}
 
 	/**
-	 * Announces a module activity to event queue.
+	 * Announces a module activity. The activity is only recorded if at least one control interface listens for module activities and is dropped if the
+	 * announcement buffer is full (never blocks).
 	 *
-	 * @param event the module activity event
+	 * @param activity the activity, see {@link framework.model.event.type.ModuleActivityEventType}
+	 * @param sendingModuleId the sending module ID
+	 * @param portId the port ID (may be null)
+	 * @param portType the port type (may be null)
+	 * @param destModuleId the destination module ID (may be null)
+	 * @param destPortId the destination port ID (may be null)
+	 * @param destPortType the destination port type (may be null)
+	 * @param path the path (may be null)
+	 * @param extraKey1 the key of an additional property (may be null)
+	 * @param extraValue1 the value of an additional property (may be null)
+	 * @param extraKey2 the key of another additional property (may be null)
+	 * @param extraValue2 the value of another additional property (may be null)
 	 */
-	void announceModuleActivity(final ModuleActivityEvent event) {
-		this.moduleActivityEventQueue.add(event);
+	void announceModuleActivity(final String activity, final String sendingModuleId, final String portId, final PortType portType, final String destModuleId, final String destPortId, final PortType destPortType, final String[] path, final String extraKey1, final Object extraValue1, final String extraKey2, final Object extraValue2) {
+		if (isModuleActivityObserved()) {
+			this.moduleActivityBuffer.publish(activity, sendingModuleId, portId, portType, destModuleId, destPortId, destPortType, path, extraKey1, extraValue1, extraKey2, extraValue2);
+		}
 	}
 
 	/**
@@ -419,6 +447,17 @@ final class ControlInterfaceActionHandler {
 	 * @param type the event type
 	 */
 	void announceSystemState(final SystemStateType type) {
+		announceSystemStateProgress(type, 0, 0);
+	}
+
+	/**
+	 * Announces a system state with progress information to event queue.
+	 *
+	 * @param type the event type
+	 * @param progressDone the number of modules already processed
+	 * @param progressTotal the total number of modules to process (0 if no progress information)
+	 */
+	void announceSystemStateProgress(final SystemStateType type, final int progressDone, final int progressTotal) {
 		try {
 			this.announcementService.execute(new Runnable() {
 
@@ -427,7 +466,7 @@ final class ControlInterfaceActionHandler {
 					for (final String ciID : ControlInterfaceActionHandler.this.eventQueues.keySet()) {
 						final BlockingQueue<GeneralEvent> queue = ControlInterfaceActionHandler.this.eventQueues.get(ciID);
 						if (queue != null) {
-							queue.add(new SystemStateEvent(type));
+							queue.add(new SystemStateEvent(type, progressDone, progressTotal));
 						}
 					}
 				}
@@ -705,6 +744,51 @@ final class ControlInterfaceActionHandler {
 		return this.core.getCurrentSystemState();
 	}
 
+	/**
+	 * Gets the number of module activity events dropped so far because control interfaces did not keep up.
+	 *
+	 * @return the dropped module activity count
+	 */
+	long getDroppedModuleActivityCount() {
+		return this.moduleActivityBuffer.getDroppedCount();
+	}
+
+	/**
+	 * Gets the number of calls to modules and how many of them timed out (in total and per module).
+	 * <p>
+	 * Disallowed in states: SYSTEM_EXITING, SYSTEM_INITIALIZING
+	 * <p>
+	 * Required rights: READ_MODULES_AND_CONNECTIONS
+	 *
+	 * @param ciId the calling CI ID
+	 * @return the module call timeout summary
+	 * @throws AuthorizationException if rights are insufficient
+	 * @throws ControlInterfaceException if in wrong state, illegal arguments given or some other error
+	 */
+	ModuleCallTimeoutSummary getModuleCallTimeouts(final String ciId) throws AuthorizationException, ControlInterfaceException {
+		checkSystemStateNot(SystemStateType.SYSTEM_EXITING, SystemStateType.SYSTEM_INITIALIZING);
+		this.authManager.verifyAllComponentRights(ciId, ControlInterfaceRight.READ_MODULES_AND_CONNECTIONS);
+		return this.broker.getModuleCallTimeoutEngine().getSummary();
+	}
+
+	/**
+	 * Gets the states of all module event queues (queue depth, lag, dropped and coalesced events).
+	 * <p>
+	 * Disallowed in states: SYSTEM_EXITING, SYSTEM_INITIALIZING
+	 * <p>
+	 * Required rights: READ_MODULES_AND_CONNECTIONS
+	 *
+	 * @param ciId the calling CI ID
+	 * @return the module event queue summaries
+	 * @throws AuthorizationException if rights are insufficient
+	 * @throws ControlInterfaceException if in wrong state, illegal arguments given or some other error
+	 */
+	Set<ModuleEventQueueSummary> getModuleEventQueues(final String ciId) throws AuthorizationException, ControlInterfaceException {
+		checkSystemStateNot(SystemStateType.SYSTEM_EXITING, SystemStateType.SYSTEM_INITIALIZING);
+		this.authManager.verifyAllComponentRights(ciId, ControlInterfaceRight.READ_MODULES_AND_CONNECTIONS);
+		return ImmutableSet.copyOf(this.broker.getModuleEventQueueSummaries());
+	}
+
 	/**
 	 * Gets the rights of a given module.
 	 * <p>
@@ -798,9 +882,13 @@ final class ControlInterfaceActionHandler {
 		if (module == null) {
 			throw new ControlInterfaceException("invalid moduleId");
 		} else {
-			final Module proxy = this.timeLimiter.newProxy(module, Module.class, Constants.TIMEOUT_SECONDS___MODULE_COMMUNICATION, TimeUnit.SECONDS);
 			try {
-				final Set<String> result = proxy.getSupportedControlInterfaceCommands();
+				final Set<String> result = this.broker.getModuleCallTimeoutEngine().call(moduleId, new Callable<Set<String>>() {
+					@Override
+					public Set<String> call() throws Exception {
+						return module.getSupportedControlInterfaceCommands();
+					}
+				}, Constants.TIMEOUT_SECONDS___MODULE_COMMUNICATION, TimeUnit.SECONDS);
 				if (result == null) {
 					return result;
 				}
@@ -860,6 +948,15 @@ final class ControlInterfaceActionHandler {
 		return this.core.importConfiguration(in, importPortConnections, moduleIdsToImport, ciIdsToImport);
 	}
 
+	/**
+	 * Checks if at least one control interface listens for module activities.
+	 *
+	 * @return true, if module activities are observed
+	 */
+	boolean isModuleActivityObserved() {
+		return (this.componentInstanceManager != null) && this.componentInstanceManager.isModuleActivityObserved();
+	}
+
 	/**
 	 * Refreshes a given connection.
 	 * <p>
@@ -1096,9 +1193,14 @@ final class ControlInterfaceActionHandler {
 		if (module == null) {
 			throw new ControlInterfaceException("unknown moduleId");
 		} else {
-			final Module proxy = this.timeLimiter.newProxy(module, Module.class, Constants.TIMEOUT_SECONDS___MODULE_COMMUNICATION, TimeUnit.SECONDS);
+			final Map<String, String> commandProperties = properties;
 			try {
-				final Map<String, String> result = proxy.onControlInterfaceCommand(command, properties);
+				final Map<String, String> result = this.broker.getModuleCallTimeoutEngine().call(moduleId, new Callable<Map<String, String>>() {
+					@Override
+					public Map<String, String> call() throws Exception {
+						return module.onControlInterfaceCommand(command, commandProperties);
+					}
+				}, Constants.TIMEOUT_SECONDS___MODULE_COMMUNICATION, TimeUnit.SECONDS);
 				if (result == null) {
 					return result;
 				}
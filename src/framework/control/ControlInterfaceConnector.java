@@ -14,6 +14,8 @@ import framework.model.event.type.SystemStateType;
 import framework.model.summary.BaseConfigurationSummary;
 import framework.model.summary.ConnectionSummary;
 import framework.model.summary.ControlInterfaceSummary;
+import framework.model.summary.ModuleCallTimeoutSummary;
+import framework.model.summary.ModuleEventQueueSummary;
 import framework.model.summary.ModuleSummary;
 
 /**
@@ -231,7 +233,7 @@ final public class ControlInterfaceConnector {
 	}
 
 	/**
-	 * Gets all connections (active and inactive).
+	 * Gets all connections (active and inactive) including their live telemetry, see {@link ConnectionSummary#getTelemetrySummary()}.
 	 * <p>
 	 * Disallowed in states: SYSTEM_EXITING, SYSTEM_INITIALIZING, BROKER_SHUTTING_DOWN, ROKER_STARTING_UP
 	 * <p>
@@ -286,6 +288,39 @@ final public class ControlInterfaceConnector {
 		return this.actionHandler.getCurrentSystemState();
 	}
 
+	/**
+	 * Gets the number of calls to modules and how many of them timed out (in total and per module). Useful to find modules that do not answer in time.
+	 * <p>
+	 * Disallowed in states: SYSTEM_EXITING, SYSTEM_INITIALIZING
+	 * <p>
+	 * Required rights: READ_MODULES_AND_CONNECTIONS
+	 *
+	 * @return the module call timeout summary
+	 * @throws AuthorizationException if rights are insufficient
+	 * @throws ControlInterfaceException if in wrong state, illegal arguments given or some other error
+	 */
+	public ModuleCallTimeoutSummary getModuleCallTimeouts() throws AuthorizationException, ControlInterfaceException {
+		checkCIState();
+		return this.actionHandler.getModuleCallTimeouts(this.ownCIId);
+	}
+
+	/**
+	 * Gets the states of all module event queues (queue depth, lag, dropped and coalesced events). Useful to find modules that cannot keep up with incoming
+	 * events.
+	 * <p>
+	 * Disallowed in states: SYSTEM_EXITING, SYSTEM_INITIALIZING
+	 * <p>
+	 * Required rights: READ_MODULES_AND_CONNECTIONS
+	 *
+	 * @return the module event queue summaries
+	 * @throws AuthorizationException if rights are insufficient
+	 * @throws ControlInterfaceException if in wrong state, illegal arguments given or some other error
+	 */
+	public Set<ModuleEventQueueSummary> getModuleEventQueues() throws AuthorizationException, ControlInterfaceException {
+		checkCIState();
+		return this.actionHandler.getModuleEventQueues(this.ownCIId);
+	}
+
 	/**
 	 * Gets the rights of a given module.
 	 * <p>
@@ -387,7 +422,7 @@ final public class ControlInterfaceConnector {
 	}
 
 	/**
-	 * Refreshes a given connection.
+	 * Refreshes a given connection. Use this to poll the live telemetry of a single connection, see {@link ConnectionSummary#getTelemetrySummary()}.
 	 * <p>
 	 * Disallowed in states: SYSTEM_EXITING, SYSTEM_INITIALIZING, BROKER_SHUTTING_DOWN, ROKER_STARTING_UP
 	 * <p>
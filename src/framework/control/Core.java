@@ -1,5 +1,6 @@
 package framework.control;
 
+import helper.ThreadPoolHelper;
 import i18n.control.SimpleLocalizationController;
 import i18n.iface.LocalizationController;
 
@@ -28,6 +29,8 @@ import framework.model.event.type.LogEventLevelType;
 import framework.model.event.type.LogEventSourceType;
 import framework.model.event.type.SystemStateType;
 import framework.model.summary.BaseConfigurationSummary;
+import framework.model.type.EventQueueOverflowType;
+import framework.model.type.ThreadModeType;
 
 /**
  * The core class of the system containing the main method. Initializes and stops all other parts. The main method accepts some command line options, use
@@ -41,6 +44,12 @@ import framework.model.summary.BaseConfigurationSummary;
  *   -as, --add-setup-wizard-ui
  *      Add another instance of the (simple) setup wizard UI
  *      Default: false
+ *   -eo, --event-queue-overflow
+ *      Behavior if the event queue of a module is full (BLOCK, COALESCE or DROP)
+ *      Default: COALESCE
+ *   -eq, --event-queue-capacity
+ *      Max number of queued events per module
+ *      Default: 10000
  *   -h, /h, --help
  *      Display this help/usage information
  *      Default: false
@@ -49,6 +58,9 @@ import framework.model.summary.BaseConfigurationSummary;
  *   -s, --storage-location
  *      Folder to use as storage location for internal database
  *      Default: /home/dust/FluentCloud
+ *   -tm, --thread-mode
+ *      Type of threads backing worker pools (PLATFORM or VIRTUAL, VIRTUAL requires Java 21+)
+ *      Default: PLATFORM
  * </code>
  * 
  * @author Stefan Werner
@@ -112,13 +124,21 @@ public class Core {
 	private final ControlInterfaceActionHandler controlInterfaceActionHandler;
 	private SystemStateType currentSystemState = SystemStateType.SYSTEM_INITIALIZING;
 	private final OrientDBController dbController;
+	@Parameter(names = { "-eq", "--event-queue-capacity" }, description = "Max number of queued events per module")
+	public int eventQueueCapacity = Constants.CORE___MODULE_EVENT_QUEUE_CAPACITY;
+	@Parameter(names = { "-eo", "--event-queue-overflow" }, description = "Behavior if the event queue of a module is full (BLOCK, COALESCE or DROP)")
+	public String eventQueueOverflow = Constants.CORE___MODULE_EVENT_QUEUE_OVERFLOW_TYPE.name();
 	@Parameter(names = { "-h", "/h", "--help" }, description = "Display this help/usage information", help = true)
 	private boolean help;
 	private final JCommander jCommander;
 	private final LocalizationController localizationController;
 	private final LogConnector logConnector;
+	@Parameter(names = { "-sc", "--scan-class-path" }, description = "Scan the class path for component implementations even if the component index generated at build time is present")
+	public boolean scanClassPath = false;
 	@Parameter(names = { "-s", "--storage-location" }, description = "Folder to use as storage location for internal database")
 	public String storageLocation = System.getProperty("user.home") + File.separator + Constants.APP_NAME;
+	@Parameter(names = { "-tm", "--thread-mode" }, description = "Type of threads backing worker pools (PLATFORM or VIRTUAL, VIRTUAL requires Java 21+)")
+	public String threadMode = Constants.CORE___THREAD_MODE.name();
 
 	/**
 	 * Instantiates a new core.
@@ -132,6 +152,13 @@ public class Core {
 			this.jCommander.usage();
 			System.exit(0);
 		}
+		final ThreadModeType threadModeType = getThreadModeType();
+		if (threadModeType == null) {
+			System.err.println("invalid thread mode " + this.threadMode + " -> exiting");
+			System.exit(1);
+		}
+		// must be set before any pool is created
+		ThreadPoolHelper.setThreadMode(threadModeType);
 		final LogConnector dbLogConnector = new LogConnector(LogEventSourceType.DATABASE, Constants.COMPONENT_ID___DATABASE);
 		final String storageLocation = getSystemDataStorageLocation();
 		if (!checkStorageLocation(storageLocation)) {
@@ -143,13 +170,22 @@ public class Core {
 		this.componentAuthorizationManager = new ComponentAuthorizationManager();
 		final LogConnector brokerLogConnector = new LogConnector(LogEventSourceType.FRAMEWORK, Constants.COMPONENT_ID___BROKER);
 		this.broker = new Broker(this.baseConfigController, this.componentAuthorizationManager, brokerLogConnector);
+		final EventQueueOverflowType eventQueueOverflowType = getEventQueueOverflowType();
+		if ((this.eventQueueCapacity <= 0) || (eventQueueOverflowType == null)) {
+			System.err.println("invalid event queue settings " + this.eventQueueCapacity + "/" + this.eventQueueOverflow + " -> exiting");
+			System.exit(1);
+		}
+		this.broker.setModuleEventQueueConfiguration(this.eventQueueCapacity, eventQueueOverflowType);
 		this.controlInterfaceActionHandler = new ControlInterfaceActionHandler(this, this.broker, this.componentAuthorizationManager);
 		this.broker.setControlActionHandler(this.controlInterfaceActionHandler);
 		dbLogConnector.setControlActionHandler(this.controlInterfaceActionHandler);
 		brokerLogConnector.setControlActionHandler(this.controlInterfaceActionHandler);
 		this.localizationController = new SimpleLocalizationController(Constants.I18N_INTERNAL_RESOURCE_LOCATION);
 		this.logConnector = new LogConnector(this.controlInterfaceActionHandler, LogEventSourceType.FRAMEWORK, Constants.COMPONENT_ID___CORE);
-		this.componentInstanceManager = new ComponentInstanceManager(new LogConnector(this.controlInterfaceActionHandler, LogEventSourceType.FRAMEWORK, Constants.COMPONENT_ID___CORE), this.broker, this.controlInterfaceActionHandler, this.componentAuthorizationManager, this.baseConfigController);
+		if (ThreadPoolHelper.getThreadMode() != ThreadPoolHelper.getEffectiveThreadMode()) {
+			this.logConnector.log(LogEventLevelType.WARNING, "virtual threads not supported by this runtime, using platform threads");
+		}
+		this.componentInstanceManager = new ComponentInstanceManager(new LogConnector(this.controlInterfaceActionHandler, LogEventSourceType.FRAMEWORK, Constants.COMPONENT_ID___CORE), this.broker, this.controlInterfaceActionHandler, this.componentAuthorizationManager, this.baseConfigController, this.scanClassPath);
 		this.broker.setComponentInstanceManager(this.componentInstanceManager);
 		this.controlInterfaceActionHandler.setComponentInstanceManager(this.componentInstanceManager);
 	}
@@ -258,6 +294,19 @@ public class Core {
 		return this.currentSystemState;
 	}
 
+	/**
+	 * Gets the event queue overflow type given on the command line.
+	 *
+	 * @return the event queue overflow type (null if invalid)
+	 */
+	private EventQueueOverflowType getEventQueueOverflowType() {
+		try {
+			return EventQueueOverflowType.valueOf(this.eventQueueOverflow.toUpperCase());
+		} catch (final IllegalArgumentException | NullPointerException e) {
+			return null;
+		}
+	}
+
 	/**
 	 * Gets a new localization connector.
 	 *
@@ -282,6 +331,19 @@ public class Core {
 		return this.storageLocation;
 	}
 
+	/**
+	 * Gets the thread mode given on the command line.
+	 *
+	 * @return the thread mode type (null if invalid)
+	 */
+	private ThreadModeType getThreadModeType() {
+		try {
+			return ThreadModeType.valueOf(this.threadMode.toUpperCase());
+		} catch (final IllegalArgumentException | NullPointerException e) {
+			return null;
+		}
+	}
+
 	/**
 	 * Import configuration from input stream partly.
 	 *
@@ -0,0 +1,223 @@
+package framework.control;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import framework.model.DataElementPath;
+import framework.model.ProsumerPort;
+import framework.model.ProviderPort;
+import framework.model.event.DataElementEvent;
+import framework.model.event.type.DataElementEventType;
+import framework.model.type.DataElementType;
+
+/**
+ * Merges element events for the same path that arrive at a prosumer port within a short window, so only the net result is delivered. Coalescing is optional
+ * and configured per prosumer port. The window starts with the first event after the last delivery and all events collected until it ends are delivered
+ * together.
+ * <p>
+ * Merge rules (pending event + new event = result):
+ * <ul>
+ * <li>ADD + MODIFY = ADD (latest element)</li>
+ * <li>ADD + DELETE = nothing</li>
+ * <li>DELETE + ADD = MODIFY (latest element) if the element type is known and did not change, otherwise both events are kept</li>
+ * <li>MODIFY + ADD = MODIFY (latest element)</li>
+ * <li>otherwise the new event wins (for example MODIFY + MODIFY = MODIFY with latest element)</li>
+ * </ul>
+ *
+ * @author Stefan Werner
+ */
+final class ElementEventCoalescer {
+
+	/**
+	 * Receives coalesced events when a window ends.
+	 */
+	interface Receiver {
+
+		/**
+		 * Delivers coalesced events.
+		 *
+		 * @param sendingProviderPort the provider port that sent the latest event
+		 * @param prosumerPort the receiving prosumer port
+		 * @param events the events (ordered by the first change of their path, never empty)
+		 */
+		void onCoalescedEvents(ProviderPort sendingProviderPort, ProsumerPort prosumerPort, List<DataElementEvent> events);
+	}
+
+	/**
+	 * Events collected for a prosumer port within the current window.
+	 */
+	private static final class PendingEvents {
+
+		// one event per path, two if an element was replaced by one of another type (DELETE + ADD)
+		private final Map<DataElementPath, List<DataElementEvent>> events = new LinkedHashMap<DataElementPath, List<DataElementEvent>>();
+		private ProviderPort sendingProviderPort;
+	}
+
+	/**
+	 * Merges a new event into a pending one.
+	 *
+	 * @param pendingEvent the pending event
+	 * @param newEvent the new event
+	 * @return the resulting event (null if events cancel each other out, the new event itself if they must not be merged)
+	 */
+	private static DataElementEvent merge(final DataElementEvent pendingEvent, final DataElementEvent newEvent) {
+		final DataElementEventType pendingType = pendingEvent.eventType;
+		final DataElementEventType newType = newEvent.eventType;
+		if (pendingType == DataElementEventType.ADD) {
+			if (newType == DataElementEventType.DELETE) {
+				return null;
+			} else {
+				return new DataElementEvent(newEvent.dataElement, DataElementEventType.ADD);
+			}
+		} else if ((pendingType == DataElementEventType.DELETE) && (newType == DataElementEventType.ADD)) {
+			final DataElementType pendingElementType = pendingEvent.dataElement.getType();
+			if ((pendingElementType != newEvent.dataElement.getType()) || (pendingElementType == DataElementType.NONEXISTENT_OR_UNKNOWN) || (pendingElementType == DataElementType.UNKNOWN)) {
+				// element was replaced (for example a file by a folder), receivers must see both
+				return newEvent;
+			}
+			return new DataElementEvent(newEvent.dataElement, DataElementEventType.MODIFY);
+		} else if ((pendingType == DataElementEventType.MODIFY) && (newType == DataElementEventType.ADD)) {
+			return new DataElementEvent(newEvent.dataElement, DataElementEventType.MODIFY);
+		}
+		return newEvent;
+	}
+
+	private final Map<ProsumerPort, PendingEvents> pendingEvents = new ConcurrentHashMap<ProsumerPort, PendingEvents>();
+	private final Receiver receiver;
+	// single thread ending all windows
+	private final ScheduledThreadPoolExecutor timer;
+	private final Map<ProsumerPort, Long> windows = new ConcurrentHashMap<ProsumerPort, Long>();
+
+	/**
+	 * Instantiates a new element event coalescer.
+	 *
+	 * @param receiver the receiver of coalesced events
+	 */
+	ElementEventCoalescer(final Receiver receiver) {
+		this.receiver = receiver;
+		this.timer = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder().setNameFormat(ElementEventCoalescer.class.getSimpleName() + "-%d").setDaemon(true).build());
+	}
+
+	/**
+	 * Adds an event. If coalescing is disabled for the given prosumer port nothing is done.
+	 *
+	 * @param sendingProviderPort the sending provider port
+	 * @param prosumerPort the receiving prosumer port
+	 * @param event the event
+	 * @return true, if event was taken (false if coalescing is disabled and caller has to deliver the event itself)
+	 */
+	boolean add(final ProviderPort sendingProviderPort, final ProsumerPort prosumerPort, final DataElementEvent event) {
+		final Long window = this.windows.get(prosumerPort);
+		if (window == null) {
+			return false;
+		}
+		PendingEvents pending;
+		boolean startWindow = false;
+		synchronized (this) {
+			pending = this.pendingEvents.get(prosumerPort);
+			if (pending == null) {
+				pending = new PendingEvents();
+				this.pendingEvents.put(prosumerPort, pending);
+				startWindow = true;
+			}
+			pending.sendingProviderPort = sendingProviderPort;
+			final DataElementPath path = event.dataElement.getDataElementPath();
+			List<DataElementEvent> pathEvents = pending.events.get(path);
+			if (pathEvents == null) {
+				pathEvents = new ArrayList<DataElementEvent>(2);
+				pathEvents.add(event);
+				pending.events.put(path, pathEvents);
+			} else {
+				// merged in place, the path keeps the position of its first event (so a parent stays in front of its children)
+				final DataElementEvent pendingEvent = pathEvents.remove(pathEvents.size() - 1);
+				final DataElementEvent mergedEvent = ElementEventCoalescer.merge(pendingEvent, event);
+				if (mergedEvent == event) {
+					if ((pendingEvent.eventType == DataElementEventType.DELETE) && (event.eventType == DataElementEventType.ADD)) {
+						pathEvents.add(pendingEvent);
+					}
+					pathEvents.add(event);
+				} else if (mergedEvent != null) {
+					pathEvents.add(mergedEvent);
+				} else if (pathEvents.isEmpty()) {
+					pending.events.remove(path);
+				}
+			}
+		}
+		if (startWindow) {
+			this.timer.schedule(new Runnable() {
+
+				@Override
+				public void run() {
+					flush(prosumerPort);
+				}
+			}, window, TimeUnit.MILLISECONDS);
+		}
+		return true;
+	}
+
+	/**
+	 * Ends the current window of a prosumer port and delivers all pending events.
+	 *
+	 * @param prosumerPort the prosumer port
+	 */
+	void flush(final ProsumerPort prosumerPort) {
+		PendingEvents pending;
+		List<DataElementEvent> events;
+		synchronized (this) {
+			pending = this.pendingEvents.remove(prosumerPort);
+			if ((pending == null) || pending.events.isEmpty()) {
+				return;
+			}
+			events = new ArrayList<DataElementEvent>();
+			for (final List<DataElementEvent> pathEvents : pending.events.values()) {
+				events.addAll(pathEvents);
+			}
+		}
+		this.receiver.onCoalescedEvents(pending.sendingProviderPort, prosumerPort, events);
+	}
+
+	/**
+	 * Gets the coalescing window of a prosumer port.
+	 *
+	 * @param prosumerPort the prosumer port
+	 * @return the window in milliseconds (0 if disabled)
+	 */
+	long getWindow(final ProsumerPort prosumerPort) {
+		final Long window = this.windows.get(prosumerPort);
+		return window != null ? window : 0;
+	}
+
+	/**
+	 * Removes a prosumer port, discarding all pending events.
+	 *
+	 * @param prosumerPort the prosumer port
+	 */
+	void remove(final ProsumerPort prosumerPort) {
+		synchronized (this) {
+			this.windows.remove(prosumerPort);
+			this.pendingEvents.remove(prosumerPort);
+		}
+	}
+
+	/**
+	 * Sets the coalescing window of a prosumer port. Disabling coalescing delivers pending events immediately.
+	 *
+	 * @param prosumerPort the prosumer port
+	 * @param windowMillis the window in milliseconds (0 to disable)
+	 */
+	void setWindow(final ProsumerPort prosumerPort, final long windowMillis) {
+		if (windowMillis > 0) {
+			this.windows.put(prosumerPort, windowMillis);
+		} else {
+			this.windows.remove(prosumerPort);
+			flush(prosumerPort);
+		}
+	}
+}
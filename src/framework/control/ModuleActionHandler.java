@@ -1,32 +1,61 @@
 package framework.control;
 
+import helper.DataElementCursorHelper;
 import helper.ObjectValidator;
+import helper.StreamRangeHelper;
+import helper.ThreadPoolHelper;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
 
+import module.iface.AsyncProvider;
+import module.iface.BulkProvider;
+import module.iface.ChannelProvider;
+import module.iface.CursorProvider;
+import module.iface.DataElementCursor;
+import module.iface.DataElementEventBatchListener;
 import module.iface.DataElementEventListener;
+import module.iface.DeltaWriteProvider;
 import module.iface.Module;
 import module.iface.Prosumer;
 import module.iface.Provider;
+import module.iface.RangedReadProvider;
 import module.iface.StreamListener;
 
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.util.concurrent.SimpleTimeLimiter;
-import com.google.common.util.concurrent.TimeLimiter;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.common.util.concurrent.UncheckedTimeoutException;
 
 import framework.constants.Constants;
@@ -38,15 +67,19 @@ import framework.exception.WrongBrokerStateException;
 import framework.exception.WrongModuleStateException;
 import framework.model.DataElement;
 import framework.model.DataElementEventSubscription;
+import framework.model.DataElementEventSubscriptionIndex;
+import framework.model.DataElementPath;
+import framework.model.ModuleReadableByteChannel;
+import framework.model.ModuleWritableByteChannel;
 import framework.model.Port;
 import framework.model.PortTuple;
 import framework.model.ProsumerPort;
 import framework.model.ProviderPort;
 import framework.model.event.DataElementEvent;
-import framework.model.event.ModuleActivityEvent;
 import framework.model.event.ProviderStateEvent;
 import framework.model.event.type.LogEventLevelType;
 import framework.model.event.type.ModuleActivityEventType;
+import framework.model.type.ConnectionOperationType;
 import framework.model.type.DataElementType;
 import framework.model.type.PortType;
 
@@ -81,6 +114,7 @@ public final class ModuleActionHandler {
 	 */
 	private class PortProviderTuple {
 
+		private final PortTuple portTuple;
 		private final Provider provider;
 		private final ProviderPort providerPort;
 
@@ -89,30 +123,33 @@ public final class ModuleActionHandler {
 		 *
 		 * @param port the port
 		 * @param provider the provider
+		 * @param portTuple the port tuple of the connection (may be null)
 		 */
-		public PortProviderTuple(final ProviderPort port, final Provider provider) {
+		public PortProviderTuple(final ProviderPort port, final Provider provider, final PortTuple portTuple) {
 			this.providerPort = port;
 			this.provider = provider;
+			this.portTuple = portTuple;
 		}
 	}
 
+	// runs asynchronous calls to providers without native support, threads time out when idle
+	private final ListeningExecutorService asyncCallExecutor;
 	private final ComponentAuthorizationManager authManager;
 	private final Broker broker;
-	private final ReadLock connectionReadLock;
 	private ControlInterfaceActionHandler controlInterfaceActionHandler;
 	private final Set<String> currentlyApprovedModules;
+	// optionally merges element events per prosumer port before delivery
+	private final ElementEventCoalescer elementEventCoalescer;
 	private final LogConnector logConnector;
-	private final Map<String, ExecutorService> moduleEventThreads;
-	private final Map<ProsumerPort, Set<DataElementEventSubscription>> notificationSubscriptions = new ConcurrentHashMap<ProsumerPort, Set<DataElementEventSubscription>>();
-	private final Map<ProsumerPort, ProviderPort> prosumerConnectionMap;
+	private final Map<String, ModuleEventExecutor> moduleEventThreads;
+	private final ModuleCallTimeoutEngine moduleCallTimeoutEngine;
+	private final Map<ProsumerPort, DataElementEventSubscriptionIndex> notificationSubscriptions = new ConcurrentHashMap<ProsumerPort, DataElementEventSubscriptionIndex>();
 	private final Map<String, Prosumer> prosumerMap;
-	private final Map<ProviderPort, Set<ProsumerPort>> providerConnectionMap;
 	private final Map<String, Provider> providerMap;
 	private final Map<Port, Set<StreamListener>> streamCloseListeners = new ConcurrentHashMap<Port, Set<StreamListener>>();
 	private final ReentrantReadWriteLock subscriptionAndListenerLock = new ReentrantReadWriteLock(true);
 	private final ReadLock subscriptionAndListenerReadLock = this.subscriptionAndListenerLock.readLock();
 	private final WriteLock subscriptionAndListenerWriteLock = this.subscriptionAndListenerLock.writeLock();
-	private final TimeLimiter timeLimiter = new SimpleTimeLimiter();
 
 	/**
 	 * Instantiates a new module action handler.
@@ -121,24 +158,30 @@ public final class ModuleActionHandler {
 	 * @param componentAuthorizationController the component authorization controller
 	 * @param broker the broker
 	 * @param currentlyApprovedModules the currently approved modules
-	 * @param providerConnectionMap the provider connection map
-	 * @param prosumerConnectionMap the prosumer connection map
 	 * @param prosumerMap the prosumer map
 	 * @param providerMap the provider map
 	 * @param moduleEventThreads the module threads for delivering signals and events
-	 * @param dataReadLock the data read lock
+	 * @param moduleCallTimeoutEngine the module call timeout engine
 	 */
-	ModuleActionHandler(final LogConnector logConnector, final ComponentAuthorizationManager componentAuthorizationController, final Broker broker, final Set<String> currentlyApprovedModules, final Map<ProviderPort, Set<ProsumerPort>> providerConnectionMap, final Map<ProsumerPort, ProviderPort> prosumerConnectionMap, final Map<String, Prosumer> prosumerMap, final Map<String, Provider> providerMap, final Map<String, ExecutorService> moduleEventThreads, final ReadLock dataReadLock) {
+	ModuleActionHandler(final LogConnector logConnector, final ComponentAuthorizationManager componentAuthorizationController, final Broker broker, final Set<String> currentlyApprovedModules, final Map<String, Prosumer> prosumerMap, final Map<String, Provider> providerMap, final Map<String, ModuleEventExecutor> moduleEventThreads, final ModuleCallTimeoutEngine moduleCallTimeoutEngine) {
 		this.logConnector = logConnector;
 		this.authManager = componentAuthorizationController;
 		this.broker = broker;
 		this.currentlyApprovedModules = currentlyApprovedModules;
-		this.providerConnectionMap = providerConnectionMap;
-		this.prosumerConnectionMap = prosumerConnectionMap;
 		this.prosumerMap = prosumerMap;
 		this.providerMap = providerMap;
 		this.moduleEventThreads = moduleEventThreads;
-		this.connectionReadLock = dataReadLock;
+		this.moduleCallTimeoutEngine = moduleCallTimeoutEngine;
+		final ThreadPoolExecutor asyncCallThreadPool = new ThreadPoolExecutor(Constants.CORE___MAX_ASYNC_MODULE_CALL_THREADS, Constants.CORE___MAX_ASYNC_MODULE_CALL_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(Constants.CORE___MAX_QUEUED_ASYNC_MODULE_CALLS), ThreadPoolHelper.newThreadFactory(ModuleActionHandler.class.getSimpleName() + "-async-%d"));
+		asyncCallThreadPool.allowCoreThreadTimeOut(true);
+		this.asyncCallExecutor = MoreExecutors.listeningDecorator(asyncCallThreadPool);
+		this.elementEventCoalescer = new ElementEventCoalescer(new ElementEventCoalescer.Receiver() {
+
+			@Override
+			public void onCoalescedEvents(final ProviderPort sendingProviderPort, final ProsumerPort prosumerPort, final List<DataElementEvent> events) {
+				deliverCoalescedElementEvents(sendingProviderPort, prosumerPort, events);
+			}
+		});
 	}
 
 	/**
@@ -159,7 +202,7 @@ public final class ModuleActionHandler {
 		if (!ObjectValidator.checkArgsNotNull(moduleId, port, listener) || !moduleId.equals(port.getModuleId()) || !this.broker.isValidPort(moduleId, port)) {
 			throw new BrokerException("invalid arguments");
 		}
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___ADD_STREAM_LISTENER, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, port.getPortId()));
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___ADD_STREAM_LISTENER, moduleId, port.getPortId(), null, null, null, null, null);
 		this.subscriptionAndListenerWriteLock.lock();
 		Set<StreamListener> listeners = this.streamCloseListeners.get(port);
 		if (listeners == null) {
@@ -172,14 +215,115 @@ public final class ModuleActionHandler {
 	}
 
 	/**
-	 * Announces a module activity.
+	 * Announces a module activity. No event is created if nobody listens for module activities.
 	 *
-	 * @param event the event
+	 * @param activity the activity, see {@link framework.model.event.type.ModuleActivityEventType}
+	 * @param moduleId the sending module ID
+	 * @param portId the port ID (may be null)
+	 * @param portType the port type (may be null)
+	 * @param destModuleId the destination module ID (may be null)
+	 * @param destPortId the destination port ID (may be null)
+	 * @param destPortType the destination port type (may be null)
+	 * @param path the path (may be null)
+	 */
+	private void announceModuleActivity(final String activity, final String moduleId, final String portId, final PortType portType, final String destModuleId, final String destPortId, final PortType destPortType, final String[] path) {
+		announceModuleActivity(activity, moduleId, portId, portType, destModuleId, destPortId, destPortType, path, null, null, null, null);
+	}
+
+	/**
+	 * Announces a module activity with up to two additional properties. No event is created if nobody listens for module activities.
+	 *
+	 * @param activity the activity, see {@link framework.model.event.type.ModuleActivityEventType}
+	 * @param moduleId the sending module ID
+	 * @param portId the port ID (may be null)
+	 * @param portType the port type (may be null)
+	 * @param destModuleId the destination module ID (may be null)
+	 * @param destPortId the destination port ID (may be null)
+	 * @param destPortType the destination port type (may be null)
+	 * @param path the path (may be null)
+	 * @param extraKey1 the key of an additional property (may be null)
+	 * @param extraValue1 the value of an additional property (may be null)
+	 * @param extraKey2 the key of another additional property (may be null)
+	 * @param extraValue2 the value of another additional property (may be null)
 	 */
-	private void announceModuleActivity(final ModuleActivityEvent event) {
+	private void announceModuleActivity(final String activity, final String moduleId, final String portId, final PortType portType, final String destModuleId, final String destPortId, final PortType destPortType, final String[] path, final String extraKey1, final Object extraValue1, final String extraKey2, final Object extraValue2) {
 		if (this.controlInterfaceActionHandler != null) {
-			this.controlInterfaceActionHandler.announceModuleActivity(event);
+			this.controlInterfaceActionHandler.announceModuleActivity(activity, moduleId, portId, portType, destModuleId, destPortId, destPortType, path, extraKey1, extraValue1, extraKey2, extraValue2);
+		}
+	}
+
+	/**
+	 * Calls {@link Module#getSupportedModuleCommands(Port, String[])} on a given module enforcing the module communication timeout.
+	 *
+	 * @param module the module
+	 * @param port the port of the module
+	 * @param path the path
+	 * @return the supported module commands
+	 * @throws UncheckedTimeoutException if the module did not answer in time
+	 * @throws Exception any exception thrown by the module
+	 */
+	private Set<String> callGetSupportedModuleCommands(final Module module, final Port port, final String[] path) throws Exception {
+		return this.moduleCallTimeoutEngine.call(port.getModuleId(), new Callable<Set<String>>() {
+			@Override
+			public Set<String> call() throws Exception {
+				return module.getSupportedModuleCommands(port, path);
+			}
+		}, Constants.TIMEOUT_SECONDS___MODULE_COMMUNICATION, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Calls {@link Module#onModuleCommand(Port, String, String[], Map)} on a given module enforcing the module communication timeout.
+	 *
+	 * @param module the module
+	 * @param port the port of the module
+	 * @param command the command
+	 * @param path the path
+	 * @param properties the properties
+	 * @return the result
+	 * @throws UncheckedTimeoutException if the module did not answer in time
+	 * @throws Exception any exception thrown by the module
+	 */
+	private Map<String, String> callOnModuleCommand(final Module module, final Port port, final String command, final String[] path, final Map<String, String> properties) throws Exception {
+		return this.moduleCallTimeoutEngine.call(port.getModuleId(), new Callable<Map<String, String>>() {
+			@Override
+			public Map<String, String> call() throws Exception {
+				return module.onModuleCommand(port, command, path, properties);
+			}
+		}, Constants.TIMEOUT_SECONDS___MODULE_COMMUNICATION, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Starts an asynchronous call to a provider implementing {@link AsyncProvider}. Exceptions thrown while starting the call are reported through the returned
+	 * future. The operation is recorded in the telemetry of the connection when completed.
+	 *
+	 * @param <T> the result type
+	 * @param tuple the tuple
+	 * @param type the operation type
+	 * @param starter the callable starting the call and returning the provider's future
+	 * @return the future result with the broker's timeout applied
+	 */
+	private <T> ListenableFuture<T> callNativeAsync(final PortProviderTuple tuple, final ConnectionOperationType type, final Callable<ListenableFuture<T>> starter) {
+		final long start = System.nanoTime();
+		ListenableFuture<T> future;
+		try {
+			future = starter.call();
+			if (future == null) {
+				future = Futures.immediateFailedFuture(new ModuleException("no future returned by module"));
+			}
+		} catch (final ModuleException e) {
+			future = Futures.immediateFailedFuture(e);
+		} catch (final Exception e) {
+			this.logConnector.log(e);
+			future = Futures.immediateFailedFuture(new ModuleException("uncaught module exception received"));
 		}
+		future.addListener(new Runnable() {
+
+			@Override
+			public void run() {
+				recordOperation(tuple, type, start);
+			}
+		}, MoreExecutors.directExecutor());
+		return this.moduleCallTimeoutEngine.callAsync(tuple.providerPort.getModuleId(), future, Constants.TIMEOUT_SECONDS___MODULE_COMMUNICATION, TimeUnit.SECONDS);
 	}
 
 	/**
@@ -193,14 +337,33 @@ public final class ModuleActionHandler {
 		if (prosumerPort == null) {
 			throw new BrokerException("invalid port");
 		}
-		this.connectionReadLock.lock();
-		final ProviderPort providerPort = this.prosumerConnectionMap.get(prosumerPort);
+		final ConnectionRoutingTable routingTable = this.broker.getConnectionRoutingTable();
+		final ProviderPort providerPort = routingTable.getConnectedProviderPort(prosumerPort);
 		if (providerPort == null) {
 			throw new BrokerException("not connected");
 		}
 		final Provider provider = this.providerMap.get(providerPort.getModuleId());
-		this.connectionReadLock.unlock();
-		return new PortProviderTuple(providerPort, provider);
+		return new PortProviderTuple(providerPort, provider, routingTable.getConnectedPortTuple(prosumerPort));
+	}
+
+	/**
+	 * Does the checks common to all asynchronous calls. They are done before the call is started, so invalid calls fail immediately like blocking calls do.
+	 *
+	 * @param moduleId the module ID
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param rights the required rights
+	 * @return the connected provider
+	 * @throws BrokerException if in wrong state, illegal arguments given or not connected
+	 * @throws AuthorizationException if rights are insufficient
+	 */
+	private PortProviderTuple checkAsyncCall(final String moduleId, final ProsumerPort sendingProsumerPort, final int... rights) throws BrokerException, AuthorizationException {
+		checkModuleState(moduleId);
+		this.authManager.verifyAllComponentRights(moduleId, rights);
+		checkBrokerState();
+		if (!ObjectValidator.checkArgsNotNull(moduleId, sendingProsumerPort) || !moduleId.equals(sendingProsumerPort.getModuleId())) {
+			throw new BrokerException("invalid arguments");
+		}
+		return checkAndGetConnectedProvider(sendingProsumerPort);
 	}
 
 	/**
@@ -224,7 +387,7 @@ public final class ModuleActionHandler {
 			throw new BrokerException("invalid arguments");
 		}
 		final PortProviderTuple tuple = checkAndGetConnectedProvider(sendingProsumerPort);
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___CHECK_AND_LOCK, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, sendingProsumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_MODULEID, tuple.providerPort.getModuleId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORTID, tuple.providerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORT_TYPE, PortType.PROVIDER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, path));
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___CHECK_AND_LOCK, moduleId, sendingProsumerPort.getPortId(), PortType.PROSUMER, tuple.providerPort.getModuleId(), tuple.providerPort.getPortId(), PortType.PROVIDER, path);
 		try {
 			return tuple.provider.checkAndLock(tuple.providerPort, path);
 		} catch (final Exception e) {
@@ -261,6 +424,20 @@ public final class ModuleActionHandler {
 		}
 	}
 
+	/**
+	 * Closes a stream, channel or cursor returned by a provider that could not be handed to the prosumer (for example because the connection was removed in the
+	 * meantime), ignoring errors.
+	 *
+	 * @param closeable the closeable
+	 */
+	private void closeQuietly(final Closeable closeable) {
+		try {
+			closeable.close();
+		} catch (final IOException | RuntimeException e) {
+			// ignored, the provider stream is useless anyway
+		}
+	}
+
 	/**
 	 * Creates a folder. If necessary parent folders are created automatically. See {@link module.iface.Provider#createFolder(ProviderPort, String[])} for more
 	 * details.
@@ -283,7 +460,7 @@ public final class ModuleActionHandler {
 			throw new BrokerException("invalid arguments");
 		}
 		final PortProviderTuple tuple = checkAndGetConnectedProvider(sendingProsumerPort);
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___CREATE_FOLDER, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, sendingProsumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_MODULEID, tuple.providerPort.getModuleId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORTID, tuple.providerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORT_TYPE, PortType.PROVIDER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, path));
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___CREATE_FOLDER, moduleId, sendingProsumerPort.getPortId(), PortType.PROSUMER, tuple.providerPort.getModuleId(), tuple.providerPort.getPortId(), PortType.PROVIDER, path);
 		try {
 			return tuple.provider.createFolder(tuple.providerPort, path);
 		} catch (final Exception e) {
@@ -296,6 +473,32 @@ public final class ModuleActionHandler {
 		}
 	}
 
+	/**
+	 * Creates a folder asynchronously, see {@link #createFolder(String, ProsumerPort, String[])}.
+	 * <p>
+	 * Required rights: READ_DATA, WRITE_DATA
+	 *
+	 * @param moduleId the module ID
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path
+	 * @return the future result code (see Provider interface)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws AuthorizationException if rights are insufficient
+	 */
+	ListenableFuture<Integer> createFolderAsync(final String moduleId, final ProsumerPort sendingProsumerPort, final String[] path) throws BrokerException, AuthorizationException {
+		final PortProviderTuple tuple = checkAsyncCall(moduleId, sendingProsumerPort, ModuleRight.READ_DATA, ModuleRight.WRITE_DATA);
+		if (!ObjectValidator.checkPath(path)) {
+			throw new BrokerException("invalid arguments");
+		}
+		return submitAsyncCall(tuple, new Callable<Integer>() {
+
+			@Override
+			public Integer call() throws Exception {
+				return createFolder(moduleId, sendingProsumerPort, path);
+			}
+		});
+	}
+
 	/**
 	 * Deletes an element at a given path. See {@link module.iface.Provider#delete(ProviderPort, String[])} for more details.
 	 * <p>
@@ -317,7 +520,7 @@ public final class ModuleActionHandler {
 			throw new BrokerException("invalid arguments");
 		}
 		final PortProviderTuple tuple = checkAndGetConnectedProvider(sendingProsumerPort);
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___DELETE, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, sendingProsumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_MODULEID, tuple.providerPort.getModuleId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORTID, tuple.providerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORT_TYPE, PortType.PROVIDER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, path));
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___DELETE, moduleId, sendingProsumerPort.getPortId(), PortType.PROSUMER, tuple.providerPort.getModuleId(), tuple.providerPort.getPortId(), PortType.PROVIDER, path);
 		try {
 			return tuple.provider.delete(tuple.providerPort, path);
 		} catch (final Exception e) {
@@ -330,6 +533,104 @@ public final class ModuleActionHandler {
 		}
 	}
 
+	/**
+	 * Deletes an element asynchronously, see {@link #delete(String, ProsumerPort, String[])}.
+	 * <p>
+	 * Required rights: READ_DATA, WRITE_DATA
+	 *
+	 * @param moduleId the module ID
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path
+	 * @return the future result code (see Provider interface)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws AuthorizationException if rights are insufficient
+	 */
+	ListenableFuture<Integer> deleteAsync(final String moduleId, final ProsumerPort sendingProsumerPort, final String[] path) throws BrokerException, AuthorizationException {
+		final PortProviderTuple tuple = checkAsyncCall(moduleId, sendingProsumerPort, ModuleRight.READ_DATA, ModuleRight.WRITE_DATA);
+		if (!ObjectValidator.checkPath(path)) {
+			throw new BrokerException("invalid arguments");
+		}
+		return submitAsyncCall(tuple, new Callable<Integer>() {
+
+			@Override
+			public Integer call() throws Exception {
+				return delete(moduleId, sendingProsumerPort, path);
+			}
+		});
+	}
+
+	/**
+	 * Delivers element events at the end of a coalescing window. Rights and subscriptions are checked again because they may have changed in the meantime.
+	 *
+	 * @param sendingProviderPort the sending provider port
+	 * @param prosumerPort the receiving prosumer port
+	 * @param events the coalesced events
+	 */
+	private void deliverCoalescedElementEvents(final ProviderPort sendingProviderPort, final ProsumerPort prosumerPort, final List<DataElementEvent> events) {
+		if (!this.authManager.hasRights(prosumerPort.getModuleId(), ModuleRight.RECEIVE_EVENTS)) {
+			return;
+		}
+		final Map<DataElementEventListener, List<DataElementEvent>> listenerEvents = getSubscriptionListenerEvents(prosumerPort, events);
+		if (!listenerEvents.isEmpty()) {
+			dispatchElementEvents(sendingProviderPort.getModuleId(), sendingProviderPort, prosumerPort, listenerEvents);
+		}
+	}
+
+	/**
+	 * Announces element events and dispatches them to the listeners of a prosumer port within a single task of the prosumer's event thread. Listeners
+	 * implementing {@link DataElementEventBatchListener} get all their events at once, all others one by one.
+	 *
+	 * @param moduleId the sending module ID
+	 * @param sendingProviderPort the sending provider port
+	 * @param prosumerPort the receiving prosumer port
+	 * @param listenerEvents the events per listener
+	 * @return true, if successful (false if prosumer has no event thread)
+	 */
+	private boolean dispatchElementEvents(final String moduleId, final ProviderPort sendingProviderPort, final ProsumerPort prosumerPort, final Map<DataElementEventListener, List<DataElementEvent>> listenerEvents) {
+		final Set<DataElementEvent> announcedEvents = new HashSet<DataElementEvent>();
+		for (final List<DataElementEvent> events : listenerEvents.values()) {
+			for (final DataElementEvent event : events) {
+				if (announcedEvents.add(event)) {
+					announceModuleActivity(ModuleActivityEventType.MOD_ACT___ELEMENT_EVENT, moduleId, sendingProviderPort.getPortId(), PortType.PROVIDER, prosumerPort.getModuleId(), prosumerPort.getPortId(), PortType.PROSUMER, event.dataElement.getPath(), ModuleActivityEventType.MOD_ACT_PROPKEY___ELEMENT_EVENT_TYPE, event.eventType, null, null);
+				}
+			}
+		}
+		final ModuleEventExecutor service = this.moduleEventThreads.get(prosumerPort.getModuleId());
+		if (service == null) {
+			return false;
+		}
+		try {
+			// the batch takes as much queue capacity as it contains events
+			service.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					for (final Map.Entry<DataElementEventListener, List<DataElementEvent>> entry : listenerEvents.entrySet()) {
+						final DataElementEventListener listener = entry.getKey();
+						if (listener instanceof DataElementEventBatchListener) {
+							try {
+								((DataElementEventBatchListener) listener).onElementEvents(prosumerPort, entry.getValue());
+							} catch (final Exception e) {
+								ModuleActionHandler.this.logConnector.log(e);
+							}
+						} else {
+							for (final DataElementEvent event : entry.getValue()) {
+								try {
+									listener.onElementEvent(prosumerPort, event);
+								} catch (final Exception e) {
+									ModuleActionHandler.this.logConnector.log(e);
+								}
+							}
+						}
+					}
+				}
+			}, announcedEvents.size());
+		} catch (final RejectedExecutionException e) {
+			this.logConnector.log(e, announcedEvents.size() + " element events for module " + prosumerPort.getModuleId() + " rejected");
+		}
+		return true;
+	}
+
 	/**
 	 * Gets the child elements under a given parent path.
 	 * <p>
@@ -352,7 +653,8 @@ public final class ModuleActionHandler {
 			throw new BrokerException("invalid arguments");
 		}
 		final PortProviderTuple tuple = checkAndGetConnectedProvider(sendingProsumerPort);
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___GET_CHILD_FSELEMENTS, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, sendingProsumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_MODULEID, tuple.providerPort.getModuleId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORTID, tuple.providerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORT_TYPE, PortType.PROVIDER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, path).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___RECURSIVE, new Boolean(recursive)));
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___GET_CHILD_FSELEMENTS, moduleId, sendingProsumerPort.getPortId(), PortType.PROSUMER, tuple.providerPort.getModuleId(), tuple.providerPort.getPortId(), PortType.PROVIDER, path, ModuleActivityEventType.MOD_ACT_PROPKEY___RECURSIVE, Boolean.valueOf(recursive), null, null);
+		final long start = System.nanoTime();
 		try {
 			final Set<DataElement> result = tuple.provider.getChildElements(tuple.providerPort, path, recursive);
 			if (result == null) {
@@ -372,7 +674,62 @@ public final class ModuleActionHandler {
 				this.logConnector.log(e);
 				throw new ModuleException("uncaught module exception received");
 			}
+		} finally {
+			recordOperation(tuple, ConnectionOperationType.GET_CHILD_ELEMENTS, start);
+		}
+	}
+
+	/**
+	 * Gets the child elements under a given parent path asynchronously, see {@link #getChildElements(String, ProsumerPort, String[], boolean)}. Providers
+	 * implementing {@link AsyncProvider} complete the future themselves without blocking a thread.
+	 * <p>
+	 * Required rights: READ_DATA
+	 *
+	 * @param moduleId the module ID
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path
+	 * @param recursive set to true to get all children recursively (relative depth >= 1)
+	 * @return the future child elements (null value if non existing/error or no children supported)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws AuthorizationException if rights are insufficient
+	 */
+	ListenableFuture<Set<DataElement>> getChildElementsAsync(final String moduleId, final ProsumerPort sendingProsumerPort, final String[] path, final boolean recursive) throws BrokerException, AuthorizationException {
+		final PortProviderTuple tuple = checkAsyncCall(moduleId, sendingProsumerPort, ModuleRight.READ_DATA);
+		if (!ObjectValidator.checkPath(path)) {
+			throw new BrokerException("invalid arguments");
+		}
+		if (tuple.provider instanceof AsyncProvider) {
+			announceModuleActivity(ModuleActivityEventType.MOD_ACT___GET_CHILD_FSELEMENTS, moduleId, sendingProsumerPort.getPortId(), PortType.PROSUMER, tuple.providerPort.getModuleId(), tuple.providerPort.getPortId(), PortType.PROVIDER, path, ModuleActivityEventType.MOD_ACT_PROPKEY___RECURSIVE, Boolean.valueOf(recursive), null, null);
+			final ListenableFuture<Set<DataElement>> future = callNativeAsync(tuple, ConnectionOperationType.GET_CHILD_ELEMENTS, new Callable<ListenableFuture<Set<DataElement>>>() {
+
+				@Override
+				public ListenableFuture<Set<DataElement>> call() throws Exception {
+					return ((AsyncProvider) tuple.provider).getChildElementsAsync(tuple.providerPort, path, recursive);
+				}
+			});
+			return Futures.transform(future, new Function<Set<DataElement>, Set<DataElement>>() {
+
+				@Override
+				public Set<DataElement> apply(final Set<DataElement> input) {
+					if (input == null) {
+						return null;
+					}
+					try {
+						return ImmutableSet.copyOf(input);
+					} catch (final NullPointerException npe) {
+						ModuleActionHandler.this.logConnector.log(LogEventLevelType.ERROR, "NULL key/value found in returned Set/Map");
+						throw npe;
+					}
+				}
+			}, MoreExecutors.directExecutor());
 		}
+		return submitAsyncCall(tuple, new Callable<Set<DataElement>>() {
+
+			@Override
+			public Set<DataElement> call() throws Exception {
+				return getChildElements(moduleId, sendingProsumerPort, path, recursive);
+			}
+		});
 	}
 
 	/**
@@ -387,10 +744,8 @@ public final class ModuleActionHandler {
 			throw new BrokerException("invalid port");
 		}
 		final Set<PortProsumerTuple> result = new HashSet<PortProsumerTuple>();
-		this.connectionReadLock.lock();
-		final Set<ProsumerPort> prosumerPorts = this.providerConnectionMap.get(providerPort);
+		final Set<ProsumerPort> prosumerPorts = this.broker.getConnectionRoutingTable().getConnectedProsumerPorts(providerPort);
 		if ((prosumerPorts == null) || prosumerPorts.isEmpty()) {
-			this.connectionReadLock.unlock();
 			throw new BrokerException("not connected");
 		} else {
 			for (final ProsumerPort prosumerPort : prosumerPorts) {
@@ -400,7 +755,6 @@ public final class ModuleActionHandler {
 				}
 			}
 		}
-		this.connectionReadLock.unlock();
 		return result;
 	}
 
@@ -425,7 +779,8 @@ public final class ModuleActionHandler {
 			throw new BrokerException("invalid arguments");
 		}
 		final PortProviderTuple tuple = checkAndGetConnectedProvider(sendingProsumerPort);
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___GET_ELEMENT, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, sendingProsumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_MODULEID, tuple.providerPort.getModuleId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORTID, tuple.providerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORT_TYPE, PortType.PROVIDER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, path));
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___GET_ELEMENT, moduleId, sendingProsumerPort.getPortId(), PortType.PROSUMER, tuple.providerPort.getModuleId(), tuple.providerPort.getPortId(), PortType.PROVIDER, path);
+		final long start = System.nanoTime();
 		try {
 			return tuple.provider.getElement(tuple.providerPort, path);
 		} catch (final Exception e) {
@@ -435,6 +790,111 @@ public final class ModuleActionHandler {
 				this.logConnector.log(e);
 				throw new ModuleException("uncaught module exception received");
 			}
+		} finally {
+			recordOperation(tuple, ConnectionOperationType.GET_ELEMENT, start);
+		}
+	}
+
+	/**
+	 * Gets the element at a given path asynchronously, see {@link #getElement(String, ProsumerPort, String[])}. Providers implementing {@link AsyncProvider}
+	 * complete the future themselves without blocking a thread.
+	 * <p>
+	 * Required rights: READ_DATA
+	 *
+	 * @param moduleId the module ID
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path
+	 * @return the future element (null value if non existing or error)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws AuthorizationException if rights are insufficient
+	 */
+	ListenableFuture<DataElement> getElementAsync(final String moduleId, final ProsumerPort sendingProsumerPort, final String[] path) throws BrokerException, AuthorizationException {
+		final PortProviderTuple tuple = checkAsyncCall(moduleId, sendingProsumerPort, ModuleRight.READ_DATA);
+		if (!ObjectValidator.checkPath(path)) {
+			throw new BrokerException("invalid arguments");
+		}
+		if (tuple.provider instanceof AsyncProvider) {
+			announceModuleActivity(ModuleActivityEventType.MOD_ACT___GET_ELEMENT, moduleId, sendingProsumerPort.getPortId(), PortType.PROSUMER, tuple.providerPort.getModuleId(), tuple.providerPort.getPortId(), PortType.PROVIDER, path);
+			return callNativeAsync(tuple, ConnectionOperationType.GET_ELEMENT, new Callable<ListenableFuture<DataElement>>() {
+
+				@Override
+				public ListenableFuture<DataElement> call() throws Exception {
+					return ((AsyncProvider) tuple.provider).getElementAsync(tuple.providerPort, path);
+				}
+			});
+		}
+		return submitAsyncCall(tuple, new Callable<DataElement>() {
+
+			@Override
+			public DataElement call() throws Exception {
+				return getElement(moduleId, sendingProsumerPort, path);
+			}
+		});
+	}
+
+	/**
+	 * Gets the elements at the given paths with a single call. If the connected provider does not implement {@link BulkProvider} each element is requested
+	 * separately.
+	 * <p>
+	 * Required rights: READ_DATA
+	 *
+	 * @param moduleId the module ID
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param paths the paths
+	 * @return the elements, keyed by their path as list (equal to {@link Arrays#asList(Object...)} of the path), non existing elements and errors are left out
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws ModuleException if an exception in a connected module occurs (usually wraps such exceptions)
+	 * @throws AuthorizationException if rights are insufficient
+	 */
+	Map<List<String>, DataElement> getElements(final String moduleId, final ProsumerPort sendingProsumerPort, final Collection<String[]> paths) throws BrokerException, ModuleException, AuthorizationException {
+		checkModuleState(moduleId);
+		this.authManager.verifyAllComponentRights(moduleId, ModuleRight.READ_DATA);
+		checkBrokerState();
+		if (!ObjectValidator.checkArgsNotNull(moduleId, sendingProsumerPort, paths) || !moduleId.equals(sendingProsumerPort.getModuleId())) {
+			throw new BrokerException("invalid arguments");
+		}
+		for (final String[] path : paths) {
+			if (!ObjectValidator.checkPath(path)) {
+				throw new BrokerException("invalid arguments");
+			}
+		}
+		final PortProviderTuple tuple = checkAndGetConnectedProvider(sendingProsumerPort);
+		for (final String[] path : paths) {
+			announceModuleActivity(ModuleActivityEventType.MOD_ACT___GET_ELEMENT, moduleId, sendingProsumerPort.getPortId(), PortType.PROSUMER, tuple.providerPort.getModuleId(), tuple.providerPort.getPortId(), PortType.PROVIDER, path);
+		}
+		final long start = System.nanoTime();
+		try {
+			Map<List<String>, DataElement> result;
+			if (tuple.provider instanceof BulkProvider) {
+				result = ((BulkProvider) tuple.provider).getElements(tuple.providerPort, ImmutableList.copyOf(paths));
+				if (result == null) {
+					return ImmutableMap.of();
+				}
+			} else {
+				result = new HashMap<List<String>, DataElement>();
+				for (final String[] path : paths) {
+					final DataElement element = tuple.provider.getElement(tuple.providerPort, path);
+					if (element != null) {
+						result.put(ImmutableList.copyOf(path), element);
+					}
+				}
+			}
+			try {
+				return ImmutableMap.copyOf(result);
+			} catch (final NullPointerException npe) {
+				this.logConnector.log(LogEventLevelType.ERROR, "NULL key/value found in returned Set/Map");
+				this.logConnector.log(npe);
+				throw new BrokerException("NULL key/value found in returned Set/Map");
+			}
+		} catch (final Exception e) {
+			if (e instanceof ModuleException) {
+				throw e;
+			} else {
+				this.logConnector.log(e);
+				throw new ModuleException("uncaught module exception received");
+			}
+		} finally {
+			recordOperation(tuple, ConnectionOperationType.GET_ELEMENTS, start);
 		}
 	}
 
@@ -464,6 +924,33 @@ public final class ModuleActionHandler {
 		}
 	}
 
+	/**
+	 * Groups the given events by the subscription listeners of a given prosumer port. The order of the events is kept for every listener.
+	 *
+	 * @param prosumerPort the prosumer port
+	 * @param events the events
+	 * @return the events per subscription listener (listeners without any matching event are omitted)
+	 */
+	private Map<DataElementEventListener, List<DataElementEvent>> getSubscriptionListenerEvents(final ProsumerPort prosumerPort, final Collection<DataElementEvent> events) {
+		final Map<DataElementEventListener, List<DataElementEvent>> result = new LinkedHashMap<DataElementEventListener, List<DataElementEvent>>();
+		this.subscriptionAndListenerReadLock.lock();
+		final DataElementEventSubscriptionIndex subscriptions = this.notificationSubscriptions.get(prosumerPort);
+		if (subscriptions != null) {
+			for (final DataElementEvent event : events) {
+				for (final DataElementEventListener listener : subscriptions.getIncludedListeners(event.dataElement.getDataElementPath())) {
+					List<DataElementEvent> listenerEvents = result.get(listener);
+					if (listenerEvents == null) {
+						listenerEvents = new ArrayList<DataElementEvent>();
+						result.put(listener, listenerEvents);
+					}
+					listenerEvents.add(event);
+				}
+			}
+		}
+		this.subscriptionAndListenerReadLock.unlock();
+		return result;
+	}
+
 	/**
 	 * Gets the subscription listeners for a given prosumer port and (recursive) path.
 	 *
@@ -471,16 +958,14 @@ public final class ModuleActionHandler {
 	 * @param path the path
 	 * @return the subscription listeners
 	 */
-	private Set<DataElementEventListener> getSubscriptionListeners(final ProsumerPort prosumerPort, final String[] path) {
-		final Set<DataElementEventListener> result = new HashSet<DataElementEventListener>();
+	private Set<DataElementEventListener> getSubscriptionListeners(final ProsumerPort prosumerPort, final DataElementPath path) {
+		Set<DataElementEventListener> result;
 		this.subscriptionAndListenerReadLock.lock();
-		final Set<DataElementEventSubscription> subscriptions = this.notificationSubscriptions.get(prosumerPort);
+		final DataElementEventSubscriptionIndex subscriptions = this.notificationSubscriptions.get(prosumerPort);
 		if (subscriptions != null) {
-			for (final DataElementEventSubscription subscription : subscriptions) {
-				if (subscription.isIncluded(path)) {
-					result.add(subscription.getDataElementEventListener());
-				}
-			}
+			result = subscriptions.getIncludedListeners(path);
+		} else {
+			result = new HashSet<DataElementEventListener>();
 		}
 		this.subscriptionAndListenerReadLock.unlock();
 		return result;
@@ -504,9 +989,12 @@ public final class ModuleActionHandler {
 			throw new BrokerException("invalid arguments");
 		}
 		Set<DataElementEventSubscription> subscriptions = null;
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___GET_SUBSCRIPTIONS, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, prosumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER));
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___GET_SUBSCRIPTIONS, moduleId, prosumerPort.getPortId(), PortType.PROSUMER, null, null, null, null);
 		this.subscriptionAndListenerReadLock.lock();
-		subscriptions = this.notificationSubscriptions.get(prosumerPort);
+		final DataElementEventSubscriptionIndex index = this.notificationSubscriptions.get(prosumerPort);
+		if (index != null) {
+			subscriptions = ImmutableSet.copyOf(index.getAll());
+		}
 		this.subscriptionAndListenerReadLock.unlock();
 		try {
 			return ImmutableSet.copyOf(subscriptions);
@@ -535,16 +1023,14 @@ public final class ModuleActionHandler {
 		if (!ObjectValidator.checkArgsNotNull(moduleId, prosumerPort, includedPath) || !ObjectValidator.checkPath(includedPath) || !moduleId.equals(prosumerPort.getModuleId())) {
 			throw new BrokerException("invalid arguments");
 		}
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___GET_SUBSCRIPTION, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, prosumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, includedPath));
-		final Set<DataElementEventSubscription> result = new HashSet<DataElementEventSubscription>();
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___GET_SUBSCRIPTION, moduleId, prosumerPort.getPortId(), PortType.PROSUMER, null, null, null, includedPath);
+		Set<DataElementEventSubscription> result;
 		this.subscriptionAndListenerReadLock.lock();
-		final Set<DataElementEventSubscription> subscriptions = this.notificationSubscriptions.get(prosumerPort);
+		final DataElementEventSubscriptionIndex subscriptions = this.notificationSubscriptions.get(prosumerPort);
 		if (subscriptions != null) {
-			for (final DataElementEventSubscription subscription : subscriptions) {
-				if (subscription.isIncluded(includedPath)) {
-					result.add(subscription);
-				}
-			}
+			result = subscriptions.getIncluded(includedPath);
+		} else {
+			result = new HashSet<DataElementEventSubscription>();
 		}
 		this.subscriptionAndListenerReadLock.unlock();
 		try {
@@ -579,10 +1065,9 @@ public final class ModuleActionHandler {
 		if (sendingPort instanceof ProsumerPort) {
 			final ProsumerPort prosumerPort = (ProsumerPort) sendingPort;
 			final PortProviderTuple tuple = checkAndGetConnectedProvider(prosumerPort);
-			announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___GET_SUPPORTED_COMMANDS, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, sendingPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_MODULEID, tuple.providerPort.getModuleId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORTID, tuple.providerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORT_TYPE, PortType.PROVIDER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, path));
+			announceModuleActivity(ModuleActivityEventType.MOD_ACT___GET_SUPPORTED_COMMANDS, moduleId, sendingPort.getPortId(), PortType.PROSUMER, tuple.providerPort.getModuleId(), tuple.providerPort.getPortId(), PortType.PROVIDER, path);
 			try {
-				final Module proxy = this.timeLimiter.newProxy(tuple.provider, Module.class, Constants.TIMEOUT_SECONDS___MODULE_COMMUNICATION, TimeUnit.SECONDS);
-				final Set<String> result = proxy.getSupportedModuleCommands(tuple.providerPort, path);
+				final Set<String> result = callGetSupportedModuleCommands(tuple.provider, tuple.providerPort, path);
 				if (result == null) {
 					return result;
 				}
@@ -598,7 +1083,7 @@ public final class ModuleActionHandler {
 				return null;
 			} catch (final Exception e) {
 				if (e instanceof ModuleException) {
-					throw e;
+					throw (ModuleException) e;
 				} else {
 					this.logConnector.log(e);
 					throw new ModuleException("uncaught module exception received");
@@ -609,10 +1094,9 @@ public final class ModuleActionHandler {
 			final Set<PortProsumerTuple> tuples = getConnectedPortTuples(providerPort);
 			final Set<String> result = new HashSet<String>();
 			for (final PortProsumerTuple tuple : tuples) {
-				announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___GET_SUPPORTED_COMMANDS, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, sendingPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROVIDER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_MODULEID, tuple.prosumerPort.getModuleId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORTID, tuple.prosumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, path));
+				announceModuleActivity(ModuleActivityEventType.MOD_ACT___GET_SUPPORTED_COMMANDS, moduleId, sendingPort.getPortId(), PortType.PROVIDER, tuple.prosumerPort.getModuleId(), tuple.prosumerPort.getPortId(), PortType.PROSUMER, path);
 				try {
-					final Module proxy = this.timeLimiter.newProxy(tuple.prosumer, Module.class, Constants.TIMEOUT_SECONDS___MODULE_COMMUNICATION, TimeUnit.SECONDS);
-					final Set<String> curResults = proxy.getSupportedModuleCommands(tuple.prosumerPort, path);
+					final Set<String> curResults = callGetSupportedModuleCommands(tuple.prosumer, tuple.prosumerPort, path);
 					if (curResults != null) {
 						result.addAll(curResults);
 					}
@@ -654,7 +1138,7 @@ public final class ModuleActionHandler {
 			throw new BrokerException("invalid arguments");
 		}
 		final PortProviderTuple tuple = checkAndGetConnectedProvider(sendingProsumerPort);
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___GET_TYPE, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, sendingProsumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_MODULEID, tuple.providerPort.getModuleId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORTID, tuple.providerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORT_TYPE, PortType.PROVIDER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, path));
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___GET_TYPE, moduleId, sendingProsumerPort.getPortId(), PortType.PROSUMER, tuple.providerPort.getModuleId(), tuple.providerPort.getPortId(), PortType.PROVIDER, path);
 		try {
 			return tuple.provider.getType(tuple.providerPort, path);
 		} catch (final Exception e) {
@@ -667,6 +1151,32 @@ public final class ModuleActionHandler {
 		}
 	}
 
+	/**
+	 * Gets the type of an element asynchronously, see {@link #getType(String, ProsumerPort, String[])}.
+	 * <p>
+	 * Required rights: READ_DATA
+	 *
+	 * @param moduleId the module ID
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path
+	 * @return the future type (null value if no such element)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws AuthorizationException if rights are insufficient
+	 */
+	ListenableFuture<DataElementType> getTypeAsync(final String moduleId, final ProsumerPort sendingProsumerPort, final String[] path) throws BrokerException, AuthorizationException {
+		final PortProviderTuple tuple = checkAsyncCall(moduleId, sendingProsumerPort, ModuleRight.READ_DATA);
+		if (!ObjectValidator.checkPath(path)) {
+			throw new BrokerException("invalid arguments");
+		}
+		return submitAsyncCall(tuple, new Callable<DataElementType>() {
+
+			@Override
+			public DataElementType call() throws Exception {
+				return getType(moduleId, sendingProsumerPort, path);
+			}
+		});
+	}
+
 	/**
 	 * Calls stream listeners when a specific input stream is closed.
 	 *
@@ -685,114 +1195,332 @@ public final class ModuleActionHandler {
 	 * @return true, if connected
 	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
 	 */
-	boolean isConnected(final String moduleId, final Port port) throws BrokerException {
-		checkModuleState(moduleId);
-		if (!ObjectValidator.checkArgsNotNull(port)) {
+	boolean isConnected(final String moduleId, final Port port) throws BrokerException {
+		checkModuleState(moduleId);
+		if (!ObjectValidator.checkArgsNotNull(port)) {
+			throw new BrokerException("invalid arguments");
+		}
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___IS_CONNECTED, moduleId, port.getPortId(), null, null, null, null, null);
+		return this.broker.isConnected(moduleId, port);
+	}
+
+	/**
+	 * Checks if broker is running.
+	 *
+	 * @return true, if running
+	 */
+	boolean isRunning() {
+		return this.broker.isRunning();
+	}
+
+	/**
+	 * Checks if module is subscribed to events from a given port and path.
+	 * <p>
+	 * Required rights: RECEIVE_EVENTS
+	 *
+	 * @param moduleId the module ID
+	 * @param prosumerPort the prosumer port
+	 * @param includedPath the included path
+	 * @return true, if subscribed
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws AuthorizationException if rights are insufficient
+	 */
+	boolean isSubscribed(final String moduleId, final ProsumerPort prosumerPort, final String[] includedPath) throws BrokerException, AuthorizationException {
+		checkModuleState(moduleId);
+		this.authManager.verifyAllComponentRights(moduleId, ModuleRight.RECEIVE_EVENTS);
+		if (!ObjectValidator.checkArgsNotNull(moduleId, prosumerPort, includedPath) || !ObjectValidator.checkPath(includedPath) || !moduleId.equals(prosumerPort.getModuleId())) {
+			throw new BrokerException("invalid arguments");
+		}
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___IS_SUBSCRIBED, moduleId, prosumerPort.getPortId(), PortType.PROSUMER, null, null, null, includedPath);
+		boolean result = false;
+		this.subscriptionAndListenerReadLock.lock();
+		final DataElementEventSubscriptionIndex subscriptions = this.notificationSubscriptions.get(prosumerPort);
+		if (subscriptions != null) {
+			result = subscriptions.includes(includedPath);
+		}
+		this.subscriptionAndListenerReadLock.unlock();
+		return result;
+	}
+
+	/**
+	 * Lists the child elements under a given parent path with a cursor delivering them in batches, see
+	 * {@link #getChildElements(String, ProsumerPort, String[], boolean)}. Providers not implementing {@link CursorProvider} are emulated by splitting their
+	 * complete result. Open cursors are tracked like input streams and must be closed after use.
+	 * <p>
+	 * Required rights: READ_DATA
+	 *
+	 * @param moduleId the module ID
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path of the parent element
+	 * @param recursive set to true to get all children recursively (relative depth >= 1)
+	 * @param batchSize the maximum number of elements per batch (> 0)
+	 * @return the cursor (null if non existing/error or no children supported, for example within file elements)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws ModuleException if an exception in a connected module occurs (usually wraps such exceptions)
+	 * @throws AuthorizationException if rights are insufficient
+	 */
+	DataElementCursor listChildren(final String moduleId, final ProsumerPort sendingProsumerPort, final String[] path, final boolean recursive, final int batchSize) throws BrokerException,
+			ModuleException, AuthorizationException {
+		checkModuleState(moduleId);
+		this.authManager.verifyAllComponentRights(moduleId, ModuleRight.READ_DATA);
+		checkBrokerState();
+		if (!ObjectValidator.checkArgsNotNull(moduleId, sendingProsumerPort, path) || !ObjectValidator.checkPath(path) || !moduleId.equals(sendingProsumerPort.getModuleId()) || (batchSize <= 0)) {
+			throw new BrokerException("invalid arguments");
+		}
+		final PortProviderTuple tuple = checkAndGetConnectedProvider(sendingProsumerPort);
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___GET_CHILD_FSELEMENTS, moduleId, sendingProsumerPort.getPortId(), PortType.PROSUMER, tuple.providerPort.getModuleId(), tuple.providerPort.getPortId(), PortType.PROVIDER, path, ModuleActivityEventType.MOD_ACT_PROPKEY___RECURSIVE, Boolean.valueOf(recursive), null, null);
+		DataElementCursor cursor = null;
+		final long start = System.nanoTime();
+		try {
+			if (tuple.provider instanceof CursorProvider) {
+				cursor = ((CursorProvider) tuple.provider).listChildren(tuple.providerPort, path, recursive, batchSize);
+			} else {
+				final Set<DataElement> elements = tuple.provider.getChildElements(tuple.providerPort, path, recursive);
+				if (elements != null) {
+					cursor = DataElementCursorHelper.fromCollection(elements, batchSize);
+				}
+			}
+		} catch (final Exception e) {
+			if (e instanceof ModuleException) {
+				throw e;
+			} else {
+				this.logConnector.log(e);
+				throw new ModuleException("uncaught module exception received");
+			}
+		} finally {
+			recordOperation(tuple, ConnectionOperationType.GET_CHILD_ELEMENTS, start);
+		}
+		if (cursor == null) {
+			return null;
+		}
+		final DataElementCursor result = this.broker.wrapCursor(sendingProsumerPort, tuple.providerPort, cursor);
+		if (result == null) {
+			DataElementCursorHelper.closeQuietly(cursor);
+		}
+		return result;
+	}
+
+	/**
+	 * Moves an element from one path to another within the same port. If necessary parent folders for destination are created automatically. Will NOT overwrite
+	 * an existing destination element. See {@link module.iface.Provider#move(ProviderPort, String[], String[])} for more details.
+	 * <p>
+	 * Required rights: READ_DATA, WRITE_DATA
+	 *
+	 * @param moduleId the module ID
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param srcPath the source path
+	 * @param destPath the destination path
+	 * @return the result code (see Provider interface)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws ModuleException if an exception in a connected module occurs (usually wraps such exceptions)
+	 * @throws AuthorizationException if rights are insufficient
+	 */
+	int move(final String moduleId, final ProsumerPort sendingProsumerPort, final String[] srcPath, final String[] destPath) throws BrokerException, ModuleException, AuthorizationException {
+		checkModuleState(moduleId);
+		this.authManager.verifyAllComponentRights(moduleId, ModuleRight.READ_DATA, ModuleRight.WRITE_DATA);
+		checkBrokerState();
+		if (!ObjectValidator.checkArgsNotNull(moduleId, sendingProsumerPort, srcPath, destPath) || !ObjectValidator.checkPath(srcPath) || !ObjectValidator.checkPath(destPath) || !moduleId.equals(sendingProsumerPort.getModuleId())) {
+			throw new BrokerException("invalid arguments");
+		}
+		final PortProviderTuple tuple = checkAndGetConnectedProvider(sendingProsumerPort);
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___MOVE, moduleId, sendingProsumerPort.getPortId(), PortType.PROSUMER, tuple.providerPort.getModuleId(), tuple.providerPort.getPortId(), PortType.PROVIDER, srcPath, ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PATH, destPath, null, null);
+		final long start = System.nanoTime();
+		try {
+			return tuple.provider.move(tuple.providerPort, srcPath, destPath);
+		} catch (final Exception e) {
+			if (e instanceof ModuleException) {
+				throw e;
+			} else {
+				this.logConnector.log(e);
+				throw new ModuleException("uncaught module exception received");
+			}
+		} finally {
+			recordOperation(tuple, ConnectionOperationType.MOVE, start);
+		}
+	}
+
+	/**
+	 * Moves an element asynchronously, see {@link #move(String, ProsumerPort, String[], String[])}.
+	 * <p>
+	 * Required rights: READ_DATA, WRITE_DATA
+	 *
+	 * @param moduleId the module ID
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param srcPath the source path
+	 * @param destPath the destination path
+	 * @return the future result code (see Provider interface)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws AuthorizationException if rights are insufficient
+	 */
+	ListenableFuture<Integer> moveAsync(final String moduleId, final ProsumerPort sendingProsumerPort, final String[] srcPath, final String[] destPath) throws BrokerException, AuthorizationException {
+		final PortProviderTuple tuple = checkAsyncCall(moduleId, sendingProsumerPort, ModuleRight.READ_DATA, ModuleRight.WRITE_DATA);
+		if (!ObjectValidator.checkPath(srcPath) || !ObjectValidator.checkPath(destPath)) {
 			throw new BrokerException("invalid arguments");
 		}
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___IS_CONNECTED, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, port.getPortId()));
-		return this.broker.isConnected(moduleId, port);
+		return submitAsyncCall(tuple, new Callable<Integer>() {
+
+			@Override
+			public Integer call() throws Exception {
+				return move(moduleId, sendingProsumerPort, srcPath, destPath);
+			}
+		});
 	}
 
 	/**
-	 * Checks if broker is running.
+	 * Calls stream listeners when a specific output stream is closed.
 	 *
-	 * @return true, if running
+	 * @param tuple the tuple
+	 * @param path the path
 	 */
-	boolean isRunning() {
-		return this.broker.isRunning();
+	void outputStreamClosed(final PortTuple tuple, final String[] path) {
+		streamClosed(tuple, path, true);
 	}
 
 	/**
-	 * Checks if module is subscribed to events from a given port and path.
+	 * Reads data from an element at given path.
 	 * <p>
-	 * Required rights: RECEIVE_EVENTS
+	 * Required rights: READ_DATA
 	 *
 	 * @param moduleId the module ID
-	 * @param prosumerPort the prosumer port
-	 * @param includedPath the included path
-	 * @return true, if subscribed
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path
+	 * @return the input stream to read from (null if no such element or no data)
 	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws ModuleException if an exception in a connected module occurs (usually wraps such exceptions)
 	 * @throws AuthorizationException if rights are insufficient
 	 */
-	boolean isSubscribed(final String moduleId, final ProsumerPort prosumerPort, final String[] includedPath) throws BrokerException, AuthorizationException {
+	InputStream readData(final String moduleId, final ProsumerPort sendingProsumerPort, final String[] path) throws BrokerException, ModuleException, AuthorizationException {
 		checkModuleState(moduleId);
-		this.authManager.verifyAllComponentRights(moduleId, ModuleRight.RECEIVE_EVENTS);
-		if (!ObjectValidator.checkArgsNotNull(moduleId, prosumerPort, includedPath) || !ObjectValidator.checkPath(includedPath) || !moduleId.equals(prosumerPort.getModuleId())) {
+		this.authManager.verifyAllComponentRights(moduleId, ModuleRight.READ_DATA);
+		checkBrokerState();
+		if (!ObjectValidator.checkArgsNotNull(moduleId, sendingProsumerPort, path) || !ObjectValidator.checkPath(path) || !moduleId.equals(sendingProsumerPort.getModuleId())) {
 			throw new BrokerException("invalid arguments");
 		}
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___IS_SUBSCRIBED, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, prosumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, includedPath));
-		boolean result = false;
-		this.subscriptionAndListenerReadLock.lock();
-		if (!this.notificationSubscriptions.containsKey(prosumerPort)) {
-			result = false;
-		} else {
-			result = !getSubscriptions(moduleId, prosumerPort, includedPath).isEmpty();
+		final PortProviderTuple tuple = checkAndGetConnectedProvider(sendingProsumerPort);
+		InputStream in = null;
+		final long start = System.nanoTime();
+		try {
+			in = tuple.provider.readData(tuple.providerPort, path);
+		} catch (final Exception e) {
+			if (e instanceof ModuleException) {
+				throw e;
+			} else {
+				this.logConnector.log(e);
+				throw new ModuleException("uncaught module exception received");
+			}
+		} finally {
+			recordOperation(tuple, ConnectionOperationType.READ_DATA, start);
+		}
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___READ_DATA, moduleId, sendingProsumerPort.getPortId(), PortType.PROSUMER, tuple.providerPort.getModuleId(), tuple.providerPort.getPortId(), PortType.PROVIDER, path);
+		if (in == null) {
+			return null;
+		}
+		final InputStream result = this.broker.wrapInputStream(sendingProsumerPort, tuple.providerPort, in, path);
+		if (result == null) {
+			closeQuietly(in);
 		}
-		this.subscriptionAndListenerReadLock.unlock();
 		return result;
 	}
 
 	/**
-	 * Moves an element from one path to another within the same port. If necessary parent folders for destination are created automatically. Will NOT overwrite
-	 * an existing destination element. See {@link module.iface.Provider#move(ProviderPort, String[], String[])} for more details.
+	 * Reads a range of data from an element at given path. If the connected provider does not implement {@link RangedReadProvider} the range is emulated by
+	 * skipping and limiting its input stream.
 	 * <p>
-	 * Required rights: READ_DATA, WRITE_DATA
+	 * Required rights: READ_DATA
 	 *
 	 * @param moduleId the module ID
 	 * @param sendingProsumerPort the sending prosumer port
-	 * @param srcPath the source path
-	 * @param destPath the destination path
-	 * @return the result code (see Provider interface)
+	 * @param path the path
+	 * @param offset the offset of the first byte to read (>= 0)
+	 * @param length the maximum number of bytes to read (-1 to read until end of data)
+	 * @return the input stream to read from (empty if offset is beyond end of data, null if no such element or no data)
 	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
 	 * @throws ModuleException if an exception in a connected module occurs (usually wraps such exceptions)
 	 * @throws AuthorizationException if rights are insufficient
 	 */
-	int move(final String moduleId, final ProsumerPort sendingProsumerPort, final String[] srcPath, final String[] destPath) throws BrokerException, ModuleException, AuthorizationException {
+	InputStream readData(final String moduleId, final ProsumerPort sendingProsumerPort, final String[] path, final long offset, final long length) throws BrokerException, ModuleException,
+			AuthorizationException {
 		checkModuleState(moduleId);
-		this.authManager.verifyAllComponentRights(moduleId, ModuleRight.READ_DATA, ModuleRight.WRITE_DATA);
+		this.authManager.verifyAllComponentRights(moduleId, ModuleRight.READ_DATA);
 		checkBrokerState();
-		if (!ObjectValidator.checkArgsNotNull(moduleId, sendingProsumerPort, srcPath, destPath) || !ObjectValidator.checkPath(srcPath) || !ObjectValidator.checkPath(destPath) || !moduleId.equals(sendingProsumerPort.getModuleId())) {
+		if (!ObjectValidator.checkArgsNotNull(moduleId, sendingProsumerPort, path) || !ObjectValidator.checkPath(path) || !moduleId.equals(sendingProsumerPort.getModuleId())
+				|| !StreamRangeHelper.checkRange(offset, length)) {
 			throw new BrokerException("invalid arguments");
 		}
 		final PortProviderTuple tuple = checkAndGetConnectedProvider(sendingProsumerPort);
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___MOVE, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, sendingProsumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_MODULEID, tuple.providerPort.getModuleId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORTID, tuple.providerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORT_TYPE, PortType.PROVIDER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, srcPath).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PATH, destPath));
+		InputStream in = null;
+		final long start = System.nanoTime();
 		try {
-			return tuple.provider.move(tuple.providerPort, srcPath, destPath);
+			if (tuple.provider instanceof RangedReadProvider) {
+				in = ((RangedReadProvider) tuple.provider).readData(tuple.providerPort, path, offset, length);
+			} else {
+				in = tuple.provider.readData(tuple.providerPort, path);
+				if (in != null) {
+					in = StreamRangeHelper.skipAndLimit(in, offset, length);
+				}
+			}
 		} catch (final Exception e) {
 			if (e instanceof ModuleException) {
-				throw e;
+				throw (ModuleException) e;
 			} else {
 				this.logConnector.log(e);
 				throw new ModuleException("uncaught module exception received");
 			}
+		} finally {
+			recordOperation(tuple, ConnectionOperationType.READ_DATA, start);
+		}
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___READ_DATA, moduleId, sendingProsumerPort.getPortId(), PortType.PROSUMER, tuple.providerPort.getModuleId(), tuple.providerPort.getPortId(), PortType.PROVIDER, path);
+		if (in == null) {
+			return null;
+		}
+		final InputStream result = this.broker.wrapInputStream(sendingProsumerPort, tuple.providerPort, in, path);
+		if (result == null) {
+			closeQuietly(in);
 		}
+		return result;
 	}
 
 	/**
-	 * Calls stream listeners when a specific output stream is closed.
+	 * Opens an element for reading asynchronously, see {@link #readData(String, ProsumerPort, String[])}. The timeout only applies to opening the stream.
+	 * <p>
+	 * Required rights: READ_DATA
 	 *
-	 * @param tuple the tuple
+	 * @param moduleId the module ID
+	 * @param sendingProsumerPort the sending prosumer port
 	 * @param path the path
+	 * @return the future input stream (null value if no such element or no data)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws AuthorizationException if rights are insufficient
 	 */
-	void outputStreamClosed(final PortTuple tuple, final String[] path) {
-		streamClosed(tuple, path, true);
+	ListenableFuture<InputStream> readDataAsync(final String moduleId, final ProsumerPort sendingProsumerPort, final String[] path) throws BrokerException, AuthorizationException {
+		final PortProviderTuple tuple = checkAsyncCall(moduleId, sendingProsumerPort, ModuleRight.READ_DATA);
+		if (!ObjectValidator.checkPath(path)) {
+			throw new BrokerException("invalid arguments");
+		}
+		return submitAsyncCall(tuple, new Callable<InputStream>() {
+
+			@Override
+			public InputStream call() throws Exception {
+				return readData(moduleId, sendingProsumerPort, path);
+			}
+		});
 	}
 
 	/**
-	 * Reads data from an element at given path.
+	 * Reads data from an element at given path using a channel. If the connected provider does not implement {@link ChannelProvider} its input stream is
+	 * bridged.
 	 * <p>
 	 * Required rights: READ_DATA
 	 *
 	 * @param moduleId the module ID
 	 * @param sendingProsumerPort the sending prosumer port
 	 * @param path the path
-	 * @return the input stream to read from (null if no such element or no data)
+	 * @return the channel to read from (null if no such element or no data)
 	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
 	 * @throws ModuleException if an exception in a connected module occurs (usually wraps such exceptions)
 	 * @throws AuthorizationException if rights are insufficient
 	 */
-	InputStream readData(final String moduleId, final ProsumerPort sendingProsumerPort, final String[] path) throws BrokerException, ModuleException, AuthorizationException {
+	ModuleReadableByteChannel readDataChannel(final String moduleId, final ProsumerPort sendingProsumerPort, final String[] path) throws BrokerException, ModuleException, AuthorizationException {
 		checkModuleState(moduleId);
 		this.authManager.verifyAllComponentRights(moduleId, ModuleRight.READ_DATA);
 		checkBrokerState();
@@ -800,9 +1528,17 @@ public final class ModuleActionHandler {
 			throw new BrokerException("invalid arguments");
 		}
 		final PortProviderTuple tuple = checkAndGetConnectedProvider(sendingProsumerPort);
-		InputStream in = null;
+		ReadableByteChannel channel = null;
+		final long start = System.nanoTime();
 		try {
-			in = tuple.provider.readData(tuple.providerPort, path);
+			if (tuple.provider instanceof ChannelProvider) {
+				channel = ((ChannelProvider) tuple.provider).readDataChannel(tuple.providerPort, path);
+			} else {
+				final InputStream in = tuple.provider.readData(tuple.providerPort, path);
+				if (in != null) {
+					channel = Channels.newChannel(in);
+				}
+			}
 		} catch (final Exception e) {
 			if (e instanceof ModuleException) {
 				throw e;
@@ -810,13 +1546,31 @@ public final class ModuleActionHandler {
 				this.logConnector.log(e);
 				throw new ModuleException("uncaught module exception received");
 			}
+		} finally {
+			recordOperation(tuple, ConnectionOperationType.READ_DATA, start);
 		}
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___READ_DATA, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, sendingProsumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_MODULEID, tuple.providerPort.getModuleId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORTID, tuple.providerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORT_TYPE, PortType.PROVIDER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, path));
-		if (in != null) {
-			return this.broker.wrapInputStream(sendingProsumerPort, tuple.providerPort, in, path);
-		} else {
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___READ_DATA, moduleId, sendingProsumerPort.getPortId(), PortType.PROSUMER, tuple.providerPort.getModuleId(), tuple.providerPort.getPortId(), PortType.PROVIDER, path);
+		if (channel == null) {
 			return null;
 		}
+		final ModuleReadableByteChannel result = this.broker.wrapReadableChannel(sendingProsumerPort, tuple.providerPort, channel, path);
+		if (result == null) {
+			closeQuietly(channel);
+		}
+		return result;
+	}
+
+	/**
+	 * Records duration of a finished operation in the telemetry of the connection.
+	 *
+	 * @param tuple the tuple
+	 * @param type the operation type
+	 * @param startNanos the start time (see {@link System#nanoTime()})
+	 */
+	private void recordOperation(final PortProviderTuple tuple, final ConnectionOperationType type, final long startNanos) {
+		if (tuple.portTuple != null) {
+			tuple.portTuple.getTelemetry().recordOperation(type, System.nanoTime() - startNanos);
+		}
 	}
 
 	/**
@@ -834,7 +1588,7 @@ public final class ModuleActionHandler {
 		if (!ObjectValidator.checkArgsNotNull(moduleId, prosumer, portId)) {
 			throw new BrokerException("invalid arguments");
 		}
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___REGISTER_PROSUMER_PORT, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, portId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER));
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___REGISTER_PROSUMER_PORT, moduleId, portId, PortType.PROSUMER, null, null, null, null);
 		final ProsumerPort port = this.broker.registerProsumerPort(prosumer, moduleId, portId, maxConnections);
 		if (!ObjectValidator.checkPort(port)) {
 			throw new BrokerException("invalid arguments");
@@ -857,7 +1611,7 @@ public final class ModuleActionHandler {
 		if (!ObjectValidator.checkArgsNotNull(moduleId, provider, portId)) {
 			throw new BrokerException("invalid arguments");
 		}
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___REGISTER_PROVIDER_PORT, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, portId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROVIDER));
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___REGISTER_PROVIDER_PORT, moduleId, portId, PortType.PROVIDER, null, null, null, null);
 		final ProviderPort port = this.broker.registerProviderPort(provider, moduleId, portId, maxConnections);
 		if (!ObjectValidator.checkPort(port)) {
 			throw new BrokerException("invalid port");
@@ -882,7 +1636,7 @@ public final class ModuleActionHandler {
 		if (!ObjectValidator.checkArgsNotNull(moduleId, port) || !moduleId.equals(port.getModuleId()) || !this.broker.isValidPort(moduleId, port)) {
 			throw new BrokerException("invalid arguments");
 		}
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___REMOVE_ALL_STREAM_LISTENER, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, port.getPortId()));
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___REMOVE_ALL_STREAM_LISTENER, moduleId, port.getPortId(), null, null, null, null, null);
 		return this.streamCloseListeners.remove(port) != null;
 	}
 
@@ -895,7 +1649,7 @@ public final class ModuleActionHandler {
 	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
 	 */
 	boolean removeAllSubscriptionsInternal(final String moduleId, final ProsumerPort prosumerPort) throws BrokerException {
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___REMOVE_ALL_SUBSCRIPTIONS, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, prosumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER));
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___REMOVE_ALL_SUBSCRIPTIONS, moduleId, prosumerPort.getPortId(), PortType.PROSUMER, null, null, null, null);
 		boolean result = false;
 		this.subscriptionAndListenerWriteLock.lock();
 		result = this.notificationSubscriptions.remove(prosumerPort) != null;
@@ -921,7 +1675,7 @@ public final class ModuleActionHandler {
 		if (!ObjectValidator.checkArgsNotNull(moduleId, port, listener) || !moduleId.equals(port.getModuleId()) || !this.broker.isValidPort(moduleId, port)) {
 			throw new BrokerException("invalid arguments");
 		}
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___REMOVE_STREAM_LISTENER, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, port.getPortId()));
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___REMOVE_STREAM_LISTENER, moduleId, port.getPortId(), null, null, null, null, null);
 		boolean result = false;
 		this.subscriptionAndListenerWriteLock.lock();
 		final Set<StreamListener> listeners = this.streamCloseListeners.get(port);
@@ -951,8 +1705,8 @@ public final class ModuleActionHandler {
 			throw new BrokerException("invalid arguments");
 		}
 		final PortProviderTuple tuple = checkAndGetConnectedProvider(sendingProsumerPort);
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___GET_CONN_PROVIDER_STATUS, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, sendingProsumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_MODULEID, tuple.providerPort.getModuleId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORTID, tuple.providerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORT_TYPE, PortType.PROVIDER));
-		final ExecutorService service = this.moduleEventThreads.get(tuple.providerPort.getModuleId());
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___GET_CONN_PROVIDER_STATUS, moduleId, sendingProsumerPort.getPortId(), PortType.PROSUMER, tuple.providerPort.getModuleId(), tuple.providerPort.getPortId(), PortType.PROVIDER, null);
+		final ModuleEventExecutor service = this.moduleEventThreads.get(tuple.providerPort.getModuleId());
 		if (service != null) {
 			try {
 				service.execute(new Runnable() {
@@ -985,13 +1739,18 @@ public final class ModuleActionHandler {
 			throw new BrokerException("invalid arguments");
 		}
 		for (final PortProsumerTuple tuple : getConnectedPortTuples(sendingProviderPort)) {
-			final Set<DataElementEventListener> listeners = getSubscriptionListeners(tuple.prosumerPort, event.dataElement.getPath());
+			final Set<DataElementEventListener> listeners = getSubscriptionListeners(tuple.prosumerPort, event.dataElement.getDataElementPath());
 			if (this.authManager.hasRights(tuple.prosumerPort.getModuleId(), ModuleRight.RECEIVE_EVENTS) && !listeners.isEmpty()) {
-				announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___ELEMENT_EVENT, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, sendingProviderPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROVIDER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_MODULEID, tuple.prosumerPort.getModuleId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORTID, tuple.prosumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, event.dataElement.getPath()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___ELEMENT_EVENT_TYPE, event.eventType));
-				final ExecutorService service = this.moduleEventThreads.get(tuple.prosumerPort.getModuleId());
+				if (this.elementEventCoalescer.add(sendingProviderPort, tuple.prosumerPort, event)) {
+					// delivered when coalescing window ends
+					continue;
+				}
+				announceModuleActivity(ModuleActivityEventType.MOD_ACT___ELEMENT_EVENT, moduleId, sendingProviderPort.getPortId(), PortType.PROVIDER, tuple.prosumerPort.getModuleId(), tuple.prosumerPort.getPortId(), PortType.PROSUMER, event.dataElement.getPath(), ModuleActivityEventType.MOD_ACT_PROPKEY___ELEMENT_EVENT_TYPE, event.eventType, null, null);
+				final ModuleEventExecutor service = this.moduleEventThreads.get(tuple.prosumerPort.getModuleId());
 				if (service != null) {
 					try {
-						service.execute(new Runnable() {
+						// pending events for the same element may be coalesced if the queue is full
+						final boolean queued = service.execute(Arrays.asList(tuple.prosumerPort, event.dataElement.getDataElementPath()), new Runnable() {
 
 							@Override
 							public void run() {
@@ -1004,6 +1763,10 @@ public final class ModuleActionHandler {
 								}
 							}
 						});
+						if (!queued) {
+							// counted and reported (rate limited) by the executor, see ModuleEventQueueSummary
+							this.logConnector.log(LogEventLevelType.DEBUG, event.eventType + " event for " + event.dataElement.getDataElementPath() + " dropped, event queue of module " + tuple.prosumerPort.getModuleId() + " is full");
+						}
 					} catch (final RejectedExecutionException e) {
 						this.logConnector.log(e);
 					}
@@ -1014,6 +1777,49 @@ public final class ModuleActionHandler {
 		}
 	}
 
+	/**
+	 * Sends multiple element events to connected prosumers. Each subscribed prosumer receives all matching events of the batch within a single dispatch. Listeners
+	 * implementing {@link DataElementEventBatchListener} get them at once, all others one by one.
+	 *
+	 * @param moduleId the module ID
+	 * @param sendingProviderPort the sending provider port
+	 * @param events the events
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 */
+	void sendElementEvents(final String moduleId, final ProviderPort sendingProviderPort, final Collection<DataElementEvent> events) throws BrokerException {
+		checkModuleState(moduleId);
+		checkBrokerState();
+		if (!ObjectValidator.checkArgsNotNull(moduleId, sendingProviderPort, events) || !moduleId.equals(sendingProviderPort.getModuleId())) {
+			throw new BrokerException("invalid arguments");
+		}
+		for (final DataElementEvent event : events) {
+			if ((event == null) || !ObjectValidator.checkDataElement(event.dataElement)) {
+				throw new BrokerException("invalid arguments");
+			}
+		}
+		if (events.isEmpty()) {
+			return;
+		}
+		for (final PortProsumerTuple tuple : getConnectedPortTuples(sendingProviderPort)) {
+			if (!this.authManager.hasRights(tuple.prosumerPort.getModuleId(), ModuleRight.RECEIVE_EVENTS)) {
+				continue;
+			}
+			final Map<DataElementEventListener, List<DataElementEvent>> listenerEvents = getSubscriptionListenerEvents(tuple.prosumerPort, events);
+			if (listenerEvents.isEmpty()) {
+				continue;
+			}
+			if (this.elementEventCoalescer.getWindow(tuple.prosumerPort) > 0) {
+				for (final DataElementEvent event : events) {
+					this.elementEventCoalescer.add(sendingProviderPort, tuple.prosumerPort, event);
+				}
+				continue;
+			}
+			if (!dispatchElementEvents(moduleId, sendingProviderPort, tuple.prosumerPort, listenerEvents)) {
+				throw new BrokerException("unable to execute request");
+			}
+		}
+	}
+
 	/**
 	 * Sends a module command.
 	 * <p>
@@ -1046,10 +1852,9 @@ public final class ModuleActionHandler {
 		if (sendingPort instanceof ProsumerPort) {
 			final ProsumerPort prosumerPort = (ProsumerPort) sendingPort;
 			final PortProviderTuple tuple = checkAndGetConnectedProvider(prosumerPort);
-			announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___SEND_COMMAND, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, sendingPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_MODULEID, tuple.providerPort.getModuleId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORTID, tuple.providerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORT_TYPE, PortType.PROVIDER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, path).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___COMMAND, command).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PROPERTIES, properties));
-			final Module proxy = this.timeLimiter.newProxy(tuple.provider, Module.class, Constants.TIMEOUT_SECONDS___MODULE_COMMUNICATION, TimeUnit.SECONDS);
+			announceModuleActivity(ModuleActivityEventType.MOD_ACT___SEND_COMMAND, moduleId, sendingPort.getPortId(), PortType.PROSUMER, tuple.providerPort.getModuleId(), tuple.providerPort.getPortId(), PortType.PROVIDER, path, ModuleActivityEventType.MOD_ACT_PROPKEY___COMMAND, command, ModuleActivityEventType.MOD_ACT_PROPKEY___PROPERTIES, properties);
 			try {
-				final Map<String, String> result = proxy.onModuleCommand(tuple.providerPort, command, path, properties);
+				final Map<String, String> result = callOnModuleCommand(tuple.provider, tuple.providerPort, command, path, properties);
 				if (result == null) {
 					return result;
 				}
@@ -1065,7 +1870,7 @@ public final class ModuleActionHandler {
 				return null;
 			} catch (final Exception e) {
 				if (e instanceof ModuleException) {
-					throw e;
+					throw (ModuleException) e;
 				} else {
 					this.logConnector.log(e);
 					throw new ModuleException("uncaught module exception received");
@@ -1076,10 +1881,9 @@ public final class ModuleActionHandler {
 			final Set<PortProsumerTuple> tuples = getConnectedPortTuples(providerPort);
 			final Map<String, String> result = new HashMap<String, String>();
 			for (final PortProsumerTuple tuple : tuples) {
-				announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___SEND_COMMAND, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, sendingPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROVIDER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_MODULEID, tuple.prosumerPort.getModuleId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORTID, tuple.prosumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, path).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___COMMAND, command).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PROPERTIES, properties));
+				announceModuleActivity(ModuleActivityEventType.MOD_ACT___SEND_COMMAND, moduleId, sendingPort.getPortId(), PortType.PROVIDER, tuple.prosumerPort.getModuleId(), tuple.prosumerPort.getPortId(), PortType.PROSUMER, path, ModuleActivityEventType.MOD_ACT_PROPKEY___COMMAND, command, ModuleActivityEventType.MOD_ACT_PROPKEY___PROPERTIES, properties);
 				try {
-					final Module proxy = this.timeLimiter.newProxy(tuple.prosumer, Module.class, Constants.TIMEOUT_SECONDS___MODULE_COMMUNICATION, TimeUnit.SECONDS);
-					final Map<String, String> curResult = proxy.onModuleCommand(tuple.prosumerPort, command, path, properties);
+					final Map<String, String> curResult = callOnModuleCommand(tuple.prosumer, tuple.prosumerPort, command, path, properties);
 					if (curResult != null) {
 						result.putAll(curResult);
 					}
@@ -1118,8 +1922,8 @@ public final class ModuleActionHandler {
 			final ProviderPort providerPort = (ProviderPort) sendingPort;
 			final Set<PortProsumerTuple> tuples = getConnectedPortTuples(providerPort);
 			for (final PortProsumerTuple tuple : tuples) {
-				announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___STATE_CHANGE, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, sendingPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROVIDER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_MODULEID, tuple.prosumerPort.getModuleId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORTID, tuple.prosumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___STATE, event.state));
-				final ExecutorService service = this.moduleEventThreads.get(tuple.prosumerPort.getModuleId());
+				announceModuleActivity(ModuleActivityEventType.MOD_ACT___STATE_CHANGE, moduleId, sendingPort.getPortId(), PortType.PROVIDER, tuple.prosumerPort.getModuleId(), tuple.prosumerPort.getPortId(), PortType.PROSUMER, null, ModuleActivityEventType.MOD_ACT_PROPKEY___STATE, event.state, null, null);
+				final ModuleEventExecutor service = this.moduleEventThreads.get(tuple.prosumerPort.getModuleId());
 				if (service != null) {
 					try {
 						service.execute(new Runnable() {
@@ -1152,6 +1956,27 @@ public final class ModuleActionHandler {
 		this.controlInterfaceActionHandler = controlInterfaceActionHandler;
 	}
 
+	/**
+	 * Sets the element event coalescing window of a prosumer port. Within the window events for the same path are merged (for example ADD + MODIFY = ADD, ADD +
+	 * DELETE = nothing) and delivered together when the window ends.
+	 * <p>
+	 * Required rights: RECEIVE_EVENTS
+	 *
+	 * @param moduleId the module ID
+	 * @param prosumerPort the prosumer port
+	 * @param windowMillis the window in milliseconds (0 to disable coalescing, max {@link Constants#CORE___MAX_ELEMENT_EVENT_COALESCING_WINDOW_MILLIS})
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws AuthorizationException if rights are insufficient
+	 */
+	void setElementEventCoalescingWindow(final String moduleId, final ProsumerPort prosumerPort, final long windowMillis) throws BrokerException, AuthorizationException {
+		checkModuleState(moduleId);
+		this.authManager.verifyAllComponentRights(moduleId, ModuleRight.RECEIVE_EVENTS);
+		if (!ObjectValidator.checkArgsNotNull(moduleId, prosumerPort) || !moduleId.equals(prosumerPort.getModuleId()) || (windowMillis < 0) || (windowMillis > Constants.CORE___MAX_ELEMENT_EVENT_COALESCING_WINDOW_MILLIS)) {
+			throw new BrokerException("invalid arguments");
+		}
+		this.elementEventCoalescer.setWindow(prosumerPort, windowMillis);
+	}
+
 	/**
 	 * Calls stream listeners when a specific input/output stream is closed.
 	 *
@@ -1201,6 +2026,42 @@ public final class ModuleActionHandler {
 		}
 	}
 
+	/**
+	 * Runs a blocking call within the asynchronous call pool. Used for providers not implementing {@link AsyncProvider}. The call itself repeats all checks of
+	 * the blocking method, so state changes since submitting are respected. The timeout starts when the call begins, not while it is queued.
+	 *
+	 * @param <T> the result type
+	 * @param tuple the tuple
+	 * @param callable the blocking call
+	 * @return the future result with the broker's timeout applied
+	 * @throws BrokerException if the call could not be scheduled (for example because too many calls are queued)
+	 */
+	private <T> ListenableFuture<T> submitAsyncCall(final PortProviderTuple tuple, final Callable<T> callable) throws BrokerException {
+		final AtomicReference<Future<T>> futureReference = new AtomicReference<Future<T>>();
+		final SettableFuture<Void> started = SettableFuture.create();
+		final ListenableFuture<T> future;
+		try {
+			future = this.asyncCallExecutor.submit(new Callable<T>() {
+
+				@Override
+				public T call() throws Exception {
+					started.set(null);
+					final T result = callable.call();
+					final Future<T> submittedFuture = futureReference.get();
+					if ((submittedFuture != null) && submittedFuture.isCancelled() && (result instanceof Closeable)) {
+						// timed out or cancelled by caller, so nobody else will ever close the stream
+						((Closeable) result).close();
+					}
+					return result;
+				}
+			});
+		} catch (final RejectedExecutionException e) {
+			throw new BrokerException("unable to schedule asynchronous call");
+		}
+		futureReference.set(future);
+		return this.moduleCallTimeoutEngine.callAsync(tuple.providerPort.getModuleId(), future, started, Constants.TIMEOUT_SECONDS___MODULE_COMMUNICATION, TimeUnit.SECONDS);
+	}
+
 	/**
 	 * Subscribes to element events for a specific port and (recursive) path.
 	 * <p>
@@ -1221,17 +2082,17 @@ public final class ModuleActionHandler {
 		if (!ObjectValidator.checkArgsNotNull(moduleId, prosumerPort, path) || !moduleId.equals(prosumerPort.getModuleId()) || !ObjectValidator.checkPath(path)) {
 			throw new BrokerException("invalid arguments");
 		}
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___SUBSCRIBE, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, prosumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, path).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___RECURSIVE, new Boolean(recursive)));
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___SUBSCRIBE, moduleId, prosumerPort.getPortId(), PortType.PROSUMER, null, null, null, path, ModuleActivityEventType.MOD_ACT_PROPKEY___RECURSIVE, Boolean.valueOf(recursive), null, null);
 		boolean result = false;
 		this.subscriptionAndListenerWriteLock.lock();
-		Set<DataElementEventSubscription> subscriptions = this.notificationSubscriptions.get(prosumerPort);
+		DataElementEventSubscriptionIndex subscriptions = this.notificationSubscriptions.get(prosumerPort);
 		if (subscriptions == null) {
-			subscriptions = new HashSet<DataElementEventSubscription>();
+			subscriptions = new DataElementEventSubscriptionIndex();
 			this.notificationSubscriptions.put(prosumerPort, subscriptions);
 			subscriptions.add(new DataElementEventSubscription(path, recursive, dataElementEventListener));
 			result = true;
 		} else {
-			if (!isSubscribed(moduleId, prosumerPort, path)) {
+			if (!subscriptions.includes(path)) {
 				subscriptions.add(new DataElementEventSubscription(path, recursive, dataElementEventListener));
 			}
 			result = true;
@@ -1261,7 +2122,7 @@ public final class ModuleActionHandler {
 			throw new BrokerException("invalid arguments");
 		}
 		final PortProviderTuple tuple = checkAndGetConnectedProvider(sendingProsumerPort);
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___UNLOCK, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, sendingProsumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_MODULEID, tuple.providerPort.getModuleId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORTID, tuple.providerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORT_TYPE, PortType.PROVIDER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, path));
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___UNLOCK, moduleId, sendingProsumerPort.getPortId(), PortType.PROSUMER, tuple.providerPort.getModuleId(), tuple.providerPort.getPortId(), PortType.PROVIDER, path);
 		try {
 			return tuple.provider.unlock(tuple.providerPort, path);
 		} catch (final Exception e) {
@@ -1286,9 +2147,10 @@ public final class ModuleActionHandler {
 		if (!ObjectValidator.checkArgsNotNull(moduleId, prosumerPort) || !moduleId.equals(prosumerPort.getModuleId())) {
 			throw new BrokerException("invalid arguments");
 		}
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___UNREGISTER_PROSUMER_PORT, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, prosumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER));
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___UNREGISTER_PROSUMER_PORT, moduleId, prosumerPort.getPortId(), PortType.PROSUMER, null, null, null, null);
 		this.streamCloseListeners.remove(prosumerPort);
 		this.notificationSubscriptions.remove(prosumerPort);
+		this.elementEventCoalescer.remove(prosumerPort);
 		this.broker.unregisterProsumerPort(moduleId, prosumerPort);
 	}
 
@@ -1304,7 +2166,7 @@ public final class ModuleActionHandler {
 		if (!ObjectValidator.checkArgsNotNull(moduleId, providerPort) || !moduleId.equals(providerPort.getModuleId())) {
 			throw new BrokerException("invalid arguments");
 		}
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___UNREGISTER_PROVIDER_PORT, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, providerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROVIDER));
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___UNREGISTER_PROVIDER_PORT, moduleId, providerPort.getPortId(), PortType.PROVIDER, null, null, null, null);
 		this.streamCloseListeners.remove(providerPort);
 		this.broker.unregisterProviderPort(moduleId, providerPort);
 	}
@@ -1329,17 +2191,12 @@ public final class ModuleActionHandler {
 		if ((prosumerPort == null) || (moduleId == null) || !moduleId.equals(prosumerPort.getModuleId()) || (dataElementEventListener == null)) {
 			throw new BrokerException("invalid arguments");
 		}
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___UNSUBSCRIBE, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, prosumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER));
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___UNSUBSCRIBE, moduleId, prosumerPort.getPortId(), PortType.PROSUMER, null, null, null, null);
 		boolean result = false;
 		this.subscriptionAndListenerWriteLock.lock();
-		final Set<DataElementEventSubscription> subscriptions = this.notificationSubscriptions.get(prosumerPort);
+		final DataElementEventSubscriptionIndex subscriptions = this.notificationSubscriptions.get(prosumerPort);
 		if (subscriptions != null) {
-			for (final DataElementEventSubscription subscription : subscriptions) {
-				if (subscription.getDataElementEventListener().equals(dataElementEventListener)) {
-					subscriptions.remove(subscription);
-					result = true;
-				}
-			}
+			result = subscriptions.removeAll(dataElementEventListener);
 			if (subscriptions.isEmpty()) {
 				this.notificationSubscriptions.remove(prosumerPort);
 			}
@@ -1366,17 +2223,12 @@ public final class ModuleActionHandler {
 		if ((prosumerPort == null) || (moduleId == null) || !moduleId.equals(prosumerPort.getModuleId()) || !ObjectValidator.checkPath(path)) {
 			throw new BrokerException("invalid arguments");
 		}
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___UNSUBSCRIBE, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, prosumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, path));
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___UNSUBSCRIBE, moduleId, prosumerPort.getPortId(), PortType.PROSUMER, null, null, null, path);
 		boolean result = false;
 		this.subscriptionAndListenerWriteLock.lock();
-		final Set<DataElementEventSubscription> subscriptions = this.notificationSubscriptions.get(prosumerPort);
+		final DataElementEventSubscriptionIndex subscriptions = this.notificationSubscriptions.get(prosumerPort);
 		if (subscriptions != null) {
-			for (final DataElementEventSubscription subscription : subscriptions) {
-				if (Arrays.equals(subscription.getPath(), path)) {
-					subscriptions.remove(subscription);
-					result = true;
-				}
-			}
+			result = subscriptions.removeAll(path, null);
 			if (subscriptions.isEmpty()) {
 				this.notificationSubscriptions.remove(prosumerPort);
 			}
@@ -1404,17 +2256,12 @@ public final class ModuleActionHandler {
 		if ((prosumerPort == null) || (moduleId == null) || !moduleId.equals(prosumerPort.getModuleId()) || !ObjectValidator.checkPath(path) || (dataElementEventListener == null)) {
 			throw new BrokerException("invalid arguments");
 		}
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___UNSUBSCRIBE, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, prosumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, path));
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___UNSUBSCRIBE, moduleId, prosumerPort.getPortId(), PortType.PROSUMER, null, null, null, path);
 		boolean result = false;
 		this.subscriptionAndListenerWriteLock.lock();
-		final Set<DataElementEventSubscription> subscriptions = this.notificationSubscriptions.get(prosumerPort);
+		final DataElementEventSubscriptionIndex subscriptions = this.notificationSubscriptions.get(prosumerPort);
 		if (subscriptions != null) {
-			for (final DataElementEventSubscription subscription : subscriptions) {
-				if (Arrays.equals(subscription.getPath(), path) && subscription.getDataElementEventListener().equals(dataElementEventListener)) {
-					subscriptions.remove(subscription);
-					result = true;
-				}
-			}
+			result = subscriptions.removeAll(path, dataElementEventListener);
 			if (subscriptions.isEmpty()) {
 				this.notificationSubscriptions.remove(prosumerPort);
 			}
@@ -1465,6 +2312,7 @@ public final class ModuleActionHandler {
 		}
 		final PortProviderTuple tuple = checkAndGetConnectedProvider(sendingProsumerPort);
 		OutputStream out = null;
+		final long start = System.nanoTime();
 		try {
 			out = tuple.provider.writeData(tuple.providerPort, path);
 		} catch (final Exception e) {
@@ -1474,12 +2322,147 @@ public final class ModuleActionHandler {
 				this.logConnector.log(e);
 				throw new ModuleException("uncaught module exception received");
 			}
+		} finally {
+			recordOperation(tuple, ConnectionOperationType.WRITE_DATA, start);
 		}
-		announceModuleActivity(new ModuleActivityEvent(ModuleActivityEventType.MOD_ACT___WRITE_DATA, moduleId).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, sendingProsumerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, PortType.PROSUMER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_MODULEID, tuple.providerPort.getModuleId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORTID, tuple.providerPort.getPortId()).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORT_TYPE, PortType.PROVIDER).addProperty(ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, path));
-		if (out != null) {
-			return this.broker.wrapOutputStream(sendingProsumerPort, tuple.providerPort, out, path);
-		} else {
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___WRITE_DATA, moduleId, sendingProsumerPort.getPortId(), PortType.PROSUMER, tuple.providerPort.getModuleId(), tuple.providerPort.getPortId(), PortType.PROVIDER, path);
+		if (out == null) {
+			return null;
+		}
+		final OutputStream result = this.broker.wrapOutputStream(sendingProsumerPort, tuple.providerPort, out, path);
+		if (result == null) {
+			closeQuietly(out);
+		}
+		return result;
+	}
+
+	/**
+	 * Opens an element for writing asynchronously, see {@link #writeData(String, ProsumerPort, String[])}. The timeout only applies to opening the stream.
+	 * <p>
+	 * Required rights: READ_DATA, WRITE_DATA
+	 *
+	 * @param moduleId the module ID
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path
+	 * @return the future output stream (null value if read only)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws AuthorizationException if rights are insufficient
+	 */
+	ListenableFuture<OutputStream> writeDataAsync(final String moduleId, final ProsumerPort sendingProsumerPort, final String[] path) throws BrokerException, AuthorizationException {
+		final PortProviderTuple tuple = checkAsyncCall(moduleId, sendingProsumerPort, ModuleRight.READ_DATA, ModuleRight.WRITE_DATA);
+		if (!ObjectValidator.checkPath(path)) {
+			throw new BrokerException("invalid arguments");
+		}
+		return submitAsyncCall(tuple, new Callable<OutputStream>() {
+
+			@Override
+			public OutputStream call() throws Exception {
+				return writeData(moduleId, sendingProsumerPort, path);
+			}
+		});
+	}
+
+	/**
+	 * Writes data to an element at given path using a channel, creates it if necessary (including parent folders). If the connected provider does not implement
+	 * {@link ChannelProvider} its output stream is bridged.
+	 * <p>
+	 * Required rights: WRITE_DATA
+	 *
+	 * @param moduleId the module ID
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path
+	 * @return the channel to write to (null if read only)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws ModuleException if an exception in a connected module occurs (usually wraps such exceptions)
+	 * @throws AuthorizationException if rights are insufficient
+	 */
+	ModuleWritableByteChannel writeDataChannel(final String moduleId, final ProsumerPort sendingProsumerPort, final String[] path) throws BrokerException, ModuleException, AuthorizationException {
+		checkModuleState(moduleId);
+		this.authManager.verifyAllComponentRights(moduleId, ModuleRight.WRITE_DATA);
+		checkBrokerState();
+		if (!ObjectValidator.checkArgsNotNull(moduleId, sendingProsumerPort, path) || !ObjectValidator.checkPath(path) || !moduleId.equals(sendingProsumerPort.getModuleId())) {
+			throw new BrokerException("invalid arguments");
+		}
+		final PortProviderTuple tuple = checkAndGetConnectedProvider(sendingProsumerPort);
+		WritableByteChannel channel = null;
+		final long start = System.nanoTime();
+		try {
+			if (tuple.provider instanceof ChannelProvider) {
+				channel = ((ChannelProvider) tuple.provider).writeDataChannel(tuple.providerPort, path);
+			} else {
+				final OutputStream out = tuple.provider.writeData(tuple.providerPort, path);
+				if (out != null) {
+					channel = Channels.newChannel(out);
+				}
+			}
+		} catch (final Exception e) {
+			if (e instanceof ModuleException) {
+				throw e;
+			} else {
+				this.logConnector.log(e);
+				throw new ModuleException("uncaught module exception received");
+			}
+		} finally {
+			recordOperation(tuple, ConnectionOperationType.WRITE_DATA, start);
+		}
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___WRITE_DATA, moduleId, sendingProsumerPort.getPortId(), PortType.PROSUMER, tuple.providerPort.getModuleId(), tuple.providerPort.getPortId(), PortType.PROVIDER, path);
+		if (channel == null) {
+			return null;
+		}
+		final ModuleWritableByteChannel result = this.broker.wrapWritableChannel(sendingProsumerPort, tuple.providerPort, channel, path);
+		if (result == null) {
+			closeQuietly(channel);
+		}
+		return result;
+	}
+
+	/**
+	 * Patches an existing file by writing a block delta (see {@link DeltaWriteProvider}). There is no emulation, if the connected provider does not implement
+	 * {@link DeltaWriteProvider} null is returned and the whole content has to be written instead.
+	 * <p>
+	 * Required rights: WRITE_DATA
+	 *
+	 * @param moduleId the module ID
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path
+	 * @return the output stream to write the delta to (null if not supported, read only or no such file)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws ModuleException if an exception in a connected module occurs (usually wraps such exceptions)
+	 * @throws AuthorizationException if rights are insufficient
+	 */
+	OutputStream writeDataDelta(final String moduleId, final ProsumerPort sendingProsumerPort, final String[] path) throws BrokerException, ModuleException, AuthorizationException {
+		checkModuleState(moduleId);
+		this.authManager.verifyAllComponentRights(moduleId, ModuleRight.WRITE_DATA);
+		checkBrokerState();
+		if (!ObjectValidator.checkArgsNotNull(moduleId, sendingProsumerPort, path) || !ObjectValidator.checkPath(path) || !moduleId.equals(sendingProsumerPort.getModuleId())) {
+			throw new BrokerException("invalid arguments");
+		}
+		final PortProviderTuple tuple = checkAndGetConnectedProvider(sendingProsumerPort);
+		if (!(tuple.provider instanceof DeltaWriteProvider)) {
+			return null;
+		}
+		OutputStream out = null;
+		final long start = System.nanoTime();
+		try {
+			out = ((DeltaWriteProvider) tuple.provider).writeDataDelta(tuple.providerPort, path);
+		} catch (final Exception e) {
+			if (e instanceof ModuleException) {
+				throw e;
+			} else {
+				this.logConnector.log(e);
+				throw new ModuleException("uncaught module exception received");
+			}
+		} finally {
+			recordOperation(tuple, ConnectionOperationType.WRITE_DATA, start);
+		}
+		announceModuleActivity(ModuleActivityEventType.MOD_ACT___WRITE_DATA, moduleId, sendingProsumerPort.getPortId(), PortType.PROSUMER, tuple.providerPort.getModuleId(), tuple.providerPort.getPortId(), PortType.PROVIDER, path);
+		if (out == null) {
 			return null;
 		}
+		final OutputStream result = this.broker.wrapOutputStream(sendingProsumerPort, tuple.providerPort, out, path);
+		if (result == null) {
+			closeQuietly(out);
+		}
+		return result;
 	}
 }
@@ -0,0 +1,239 @@
+package framework.control;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import framework.model.event.ModuleActivityEvent;
+import framework.model.event.type.ModuleActivityEventType;
+import framework.model.type.PortType;
+
+/**
+ * Fixed size ring buffer transporting module activities from the broker to the control interface action handler. The buffer consists of preallocated slots
+ * with typed fields that are reused over and over again, so announcing a module activity does not allocate any event object or property map on the producer
+ * side. Producers never block: If the buffer is full the activity is dropped and counted. There must only be one consumer (see {@link #poll()}), it may wait
+ * for activities without polling (see {@link #poll(long, TimeUnit)}).
+ * <p>
+ * Implemented as a bounded multi producer queue with per slot sequence numbers (each slot knows if it is free or holds a published activity).
+ *
+ * @author Stefan Werner
+ */
+final class ModuleActivityRingBuffer {
+
+	/**
+	 * A reusable slot holding a single module activity.
+	 */
+	private static final class Slot {
+
+		private String activity;
+		private long creationDate;
+		private String destModuleId;
+		private String destPortId;
+		private PortType destPortType;
+		private String extraKey1;
+		private String extraKey2;
+		private Object extraValue1;
+		private Object extraValue2;
+		private String[] path;
+		private String portId;
+		private PortType portType;
+		private String sendingModuleId;
+		// equals position if free, position + 1 if published
+		private volatile long sequence;
+
+		/**
+		 * Instantiates a new slot.
+		 *
+		 * @param sequence the initial sequence
+		 */
+		private Slot(final long sequence) {
+			this.sequence = sequence;
+		}
+
+		/**
+		 * Releases all references so the GC may collect them.
+		 */
+		private void clear() {
+			this.activity = null;
+			this.destModuleId = null;
+			this.destPortId = null;
+			this.destPortType = null;
+			this.extraKey1 = null;
+			this.extraKey2 = null;
+			this.extraValue1 = null;
+			this.extraValue2 = null;
+			this.path = null;
+			this.portId = null;
+			this.portType = null;
+			this.sendingModuleId = null;
+		}
+	}
+
+	// set while the consumer is parked in poll(long, TimeUnit)
+	private volatile Thread waitingConsumer = null;
+	private final AtomicLong droppedCount = new AtomicLong();
+	private final int mask;
+	// only accessed by the single consumer
+	private long readSequence = 0;
+	private final Slot[] slots;
+	private final AtomicLong writeSequence = new AtomicLong();
+
+	/**
+	 * Instantiates a new module activity ring buffer.
+	 *
+	 * @param capacity the capacity (rounded up to the next power of two)
+	 */
+	ModuleActivityRingBuffer(final int capacity) {
+		int size = 1;
+		while (size < capacity) {
+			size <<= 1;
+		}
+		this.mask = size - 1;
+		this.slots = new Slot[size];
+		for (int i = 0; i < size; i++) {
+			this.slots[i] = new Slot(i);
+		}
+	}
+
+	/**
+	 * Gets the number of activities dropped because the buffer was full.
+	 *
+	 * @return the dropped count
+	 */
+	long getDroppedCount() {
+		return this.droppedCount.get();
+	}
+
+	/**
+	 * Takes the oldest published activity out of the buffer and converts it into a {@link ModuleActivityEvent}. Must only be called by a single consumer thread.
+	 *
+	 * @return the module activity event (null if buffer is empty)
+	 */
+	ModuleActivityEvent poll() {
+		final Slot slot = this.slots[(int) this.readSequence & this.mask];
+		if (slot.sequence != (this.readSequence + 1)) {
+			return null;
+		}
+		final ModuleActivityEvent event = new ModuleActivityEvent(slot.activity, slot.sendingModuleId, slot.creationDate);
+		putIfNotNull(event, ModuleActivityEventType.MOD_ACT_PROPKEY___PORTID, slot.portId);
+		putIfNotNull(event, ModuleActivityEventType.MOD_ACT_PROPKEY___PORT_TYPE, slot.portType);
+		putIfNotNull(event, ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_MODULEID, slot.destModuleId);
+		putIfNotNull(event, ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORTID, slot.destPortId);
+		putIfNotNull(event, ModuleActivityEventType.MOD_ACT_PROPKEY___DEST_PORT_TYPE, slot.destPortType);
+		putIfNotNull(event, ModuleActivityEventType.MOD_ACT_PROPKEY___PATH, slot.path);
+		putIfNotNull(event, slot.extraKey1, slot.extraValue1);
+		putIfNotNull(event, slot.extraKey2, slot.extraValue2);
+		slot.clear();
+		// free slot for the next round
+		slot.sequence = this.readSequence + this.slots.length;
+		this.readSequence++;
+		return event;
+	}
+
+	/**
+	 * Takes the oldest published activity out of the buffer, waiting up to the given time if the buffer is empty. Must only be called by a single consumer
+	 * thread.
+	 *
+	 * @param timeout the max time to wait
+	 * @param unit the time unit
+	 * @return the module activity event (null if timed out)
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	ModuleActivityEvent poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+		ModuleActivityEvent event = poll();
+		if (event != null) {
+			return event;
+		}
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		try {
+			while (true) {
+				// announce waiting before checking again, publish() signals after the slot was published (no lost wake-up)
+				this.waitingConsumer = Thread.currentThread();
+				event = poll();
+				if (event != null) {
+					return event;
+				}
+				final long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					return null;
+				}
+				LockSupport.parkNanos(this, remaining);
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+		} finally {
+			this.waitingConsumer = null;
+		}
+	}
+
+	/**
+	 * Publishes a module activity. Never blocks.
+	 *
+	 * @param activity the activity, see {@link framework.model.event.type.ModuleActivityEventType}
+	 * @param sendingModuleId the sending module ID
+	 * @param portId the port ID (may be null)
+	 * @param portType the port type (may be null)
+	 * @param destModuleId the destination module ID (may be null)
+	 * @param destPortId the destination port ID (may be null)
+	 * @param destPortType the destination port type (may be null)
+	 * @param path the path (may be null)
+	 * @param extraKey1 the key of an additional property (may be null)
+	 * @param extraValue1 the value of an additional property (may be null)
+	 * @param extraKey2 the key of another additional property (may be null)
+	 * @param extraValue2 the value of another additional property (may be null)
+	 * @return true, if published (false if dropped)
+	 */
+	boolean publish(final String activity, final String sendingModuleId, final String portId, final PortType portType, final String destModuleId, final String destPortId, final PortType destPortType, final String[] path, final String extraKey1, final Object extraValue1, final String extraKey2, final Object extraValue2) {
+		long position;
+		Slot slot;
+		while (true) {
+			position = this.writeSequence.get();
+			slot = this.slots[(int) position & this.mask];
+			final long diff = slot.sequence - position;
+			if (diff == 0) {
+				if (this.writeSequence.compareAndSet(position, position + 1)) {
+					break;
+				}
+			} else if (diff < 0) {
+				// consumer did not free the slot yet, buffer is full
+				this.droppedCount.incrementAndGet();
+				return false;
+			}
+			// otherwise another producer claimed this position, retry
+		}
+		slot.creationDate = System.currentTimeMillis();
+		slot.activity = activity;
+		slot.sendingModuleId = sendingModuleId;
+		slot.portId = portId;
+		slot.portType = portType;
+		slot.destModuleId = destModuleId;
+		slot.destPortId = destPortId;
+		slot.destPortType = destPortType;
+		slot.path = path;
+		slot.extraKey1 = extraKey1;
+		slot.extraValue1 = extraValue1;
+		slot.extraKey2 = extraKey2;
+		slot.extraValue2 = extraValue2;
+		// volatile write publishes all fields above to the consumer
+		slot.sequence = position + 1;
+		final Thread consumer = this.waitingConsumer;
+		if (consumer != null) {
+			LockSupport.unpark(consumer);
+		}
+		return true;
+	}
+
+	/**
+	 * Adds a property to an event if key and value are set.
+	 *
+	 * @param event the event
+	 * @param key the key
+	 * @param value the value
+	 */
+	private void putIfNotNull(final ModuleActivityEvent event, final String key, final Object value) {
+		if ((key != null) && (value != null)) {
+			event.addProperty(key, value);
+		}
+	}
+}
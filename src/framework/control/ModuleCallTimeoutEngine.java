@@ -0,0 +1,306 @@
+package framework.control;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedTimeoutException;
+
+import framework.model.event.type.LogEventLevelType;
+import framework.model.summary.ModuleCallTimeoutSummary;
+
+/**
+ * Enforces timeouts on calls to modules. In contrast to Guava's SimpleTimeLimiter neither a proxy nor an additional thread per call is created. Synchronous
+ * calls run on the calling thread, asynchronous calls are not blocking any thread at all. A single shared watchdog thread keeps track of all deadlines and
+ * interrupts (synchronous) or cancels (asynchronous) calls exceeding them. Calls that exceed their deadline are counted (in total and per module) and reported
+ * as {@link UncheckedTimeoutException} to the caller.
+ * <p>
+ * IMPORTANT: Modules ignoring interrupts cannot be stopped. In that case a synchronous caller stays blocked until the module returns and gets the timeout
+ * afterwards.
+ *
+ * @author Stefan Werner
+ */
+final class ModuleCallTimeoutEngine {
+
+	/**
+	 * Deadline of a synchronous call. Interrupts the calling thread when run before the call finished.
+	 */
+	private static final class CallDeadline implements Runnable {
+
+		private boolean finished = false;
+		private final Thread thread;
+		private boolean timedOut = false;
+
+		/**
+		 * Instantiates a new call deadline.
+		 *
+		 * @param thread the calling thread
+		 */
+		private CallDeadline(final Thread thread) {
+			this.thread = thread;
+		}
+
+		/**
+		 * Marks the call as finished, so the thread will not be interrupted anymore.
+		 *
+		 * @return true, if the deadline passed before (the thread has been interrupted)
+		 */
+		private synchronized boolean finish() {
+			this.finished = true;
+			return this.timedOut;
+		}
+
+		/* (non-Javadoc)
+		 *
+		 * @see java.lang.Runnable#run() */
+		@Override
+		public synchronized void run() {
+			if (!this.finished) {
+				this.timedOut = true;
+				this.thread.interrupt();
+			}
+		}
+	}
+
+	private final AtomicLong callCount = new AtomicLong();
+	private final LogConnector logConnector;
+	private final ConcurrentHashMap<String, AtomicLong> moduleTimeoutCounts = new ConcurrentHashMap<String, AtomicLong>();
+	private final AtomicLong timeoutCount = new AtomicLong();
+	// single thread keeping track of all deadlines
+	private final ScheduledThreadPoolExecutor watchdog;
+
+	/**
+	 * Instantiates a new module call timeout engine.
+	 *
+	 * @param logConnector the log connector
+	 */
+	ModuleCallTimeoutEngine(final LogConnector logConnector) {
+		this.logConnector = logConnector;
+		this.watchdog = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder().setNameFormat(ModuleCallTimeoutEngine.class.getSimpleName() + "-watchdog-%d").setDaemon(true).build());
+		this.watchdog.setRemoveOnCancelPolicy(true);
+	}
+
+	/**
+	 * Calls the given callable on the calling thread, enforcing a timeout. If the deadline passes the watchdog interrupts the calling thread, so the module can
+	 * abort its work. The interrupt set by the watchdog is cleared before the timeout is reported, interrupts of other sources are passed to the module like
+	 * for any direct call.
+	 *
+	 * @param <T> the result type
+	 * @param moduleId the ID of the called module (used for metrics, may be null)
+	 * @param callable the callable
+	 * @param timeout the timeout
+	 * @param unit the time unit
+	 * @return the result of the callable
+	 * @throws UncheckedTimeoutException if the deadline passed (even if the module returned a result afterwards)
+	 * @throws Exception the exception thrown by the callable
+	 */
+	<T> T call(final String moduleId, final Callable<T> callable, final long timeout, final TimeUnit unit) throws Exception {
+		this.callCount.incrementAndGet();
+		final CallDeadline deadline = new CallDeadline(Thread.currentThread());
+		final ScheduledFuture<?> scheduledDeadline = this.watchdog.schedule(deadline, timeout, unit);
+		final T result;
+		try {
+			result = callable.call();
+		} catch (final Throwable t) {
+			finishCall(moduleId, deadline, scheduledDeadline, null, timeout, unit);
+			throw t;
+		}
+		finishCall(moduleId, deadline, scheduledDeadline, result, timeout, unit);
+		return result;
+	}
+
+	/**
+	 * Enforces a timeout on an asynchronous call without blocking any thread. If the deadline passes the returned future fails with an
+	 * {@link UncheckedTimeoutException} and the given future is cancelled (interrupting it if running). Cancelling the returned future cancels the given one.
+	 * Results completing after the deadline are discarded, closeable results (like streams) are closed so they cannot leak. Calls that ignore cancellation and
+	 * complete later must release their results themselves.
+	 *
+	 * @param <T> the result type
+	 * @param moduleId the ID of the called module (used for metrics, may be null)
+	 * @param future the future of the call
+	 * @param timeout the timeout
+	 * @param unit the time unit
+	 * @return the future result
+	 */
+	<T> ListenableFuture<T> callAsync(final String moduleId, final ListenableFuture<T> future, final long timeout, final TimeUnit unit) {
+		return callAsync(moduleId, future, Futures.immediateFuture(null), timeout, unit);
+	}
+
+	/**
+	 * Enforces a timeout on an asynchronous call that may be queued before it actually starts, see {@link #callAsync(String, ListenableFuture, long, TimeUnit)}.
+	 * The deadline is set when the call starts, so time spent waiting in a queue does not count.
+	 *
+	 * @param <T> the result type
+	 * @param moduleId the ID of the called module (used for metrics, may be null)
+	 * @param future the future of the call
+	 * @param started completes when the call starts
+	 * @param timeout the timeout
+	 * @param unit the time unit
+	 * @return the future result
+	 */
+	<T> ListenableFuture<T> callAsync(final String moduleId, final ListenableFuture<T> future, final ListenableFuture<?> started, final long timeout, final TimeUnit unit) {
+		this.callCount.incrementAndGet();
+		final SettableFuture<T> result = SettableFuture.create();
+		final AtomicReference<ScheduledFuture<?>> deadline = new AtomicReference<ScheduledFuture<?>>();
+		started.addListener(new Runnable() {
+
+			@Override
+			public void run() {
+				if (result.isDone()) {
+					return;
+				}
+				deadline.set(ModuleCallTimeoutEngine.this.watchdog.schedule(new Runnable() {
+
+					@Override
+					public void run() {
+						if (result.setException(new UncheckedTimeoutException("call to module " + moduleId + " timed out after " + timeout + " " + unit))) {
+							countTimeout(moduleId);
+							future.cancel(true);
+						}
+					}
+				}, timeout, unit));
+				if (result.isDone()) {
+					// completed while scheduling
+					deadline.get().cancel(false);
+				}
+			}
+		}, MoreExecutors.directExecutor());
+		Futures.addCallback(future, new FutureCallback<T>() {
+
+			@Override
+			public void onFailure(final Throwable t) {
+				result.setException(t);
+			}
+
+			@Override
+			public void onSuccess(final T value) {
+				if (!result.set(value) && (value instanceof Closeable)) {
+					try {
+						((Closeable) value).close();
+					} catch (final IOException e) {
+						ModuleCallTimeoutEngine.this.logConnector.log(e);
+					}
+				}
+			}
+		}, MoreExecutors.directExecutor());
+		result.addListener(new Runnable() {
+
+			@Override
+			public void run() {
+				final ScheduledFuture<?> scheduledDeadline = deadline.get();
+				if (scheduledDeadline != null) {
+					scheduledDeadline.cancel(false);
+				}
+				if (result.isCancelled()) {
+					future.cancel(true);
+				}
+			}
+		}, MoreExecutors.directExecutor());
+		return result;
+	}
+
+	/**
+	 * Counts a timed out call.
+	 *
+	 * @param moduleId the module ID (may be null)
+	 */
+	private void countTimeout(final String moduleId) {
+		this.timeoutCount.incrementAndGet();
+		if (moduleId != null) {
+			AtomicLong count = this.moduleTimeoutCounts.get(moduleId);
+			if (count == null) {
+				count = new AtomicLong();
+				final AtomicLong existingCount = this.moduleTimeoutCounts.putIfAbsent(moduleId, count);
+				if (existingCount != null) {
+					count = existingCount;
+				}
+			}
+			count.incrementAndGet();
+		}
+		this.logConnector.log(LogEventLevelType.WARNING, "call to module " + moduleId + " timed out");
+	}
+
+	/**
+	 * Finishes a synchronous call. If the deadline passed meanwhile the interrupt of the watchdog is cleared, the timeout is counted and a late closeable result
+	 * is closed so it cannot leak.
+	 *
+	 * @param moduleId the module ID (may be null)
+	 * @param deadline the deadline of the call
+	 * @param scheduledDeadline the scheduled deadline
+	 * @param result the result of the call (may be null)
+	 * @param timeout the timeout
+	 * @param unit the time unit
+	 * @throws UncheckedTimeoutException if the deadline passed
+	 */
+	private void finishCall(final String moduleId, final CallDeadline deadline, final ScheduledFuture<?> scheduledDeadline, final Object result, final long timeout, final TimeUnit unit) {
+		scheduledDeadline.cancel(false);
+		if (!deadline.finish()) {
+			return;
+		}
+		Thread.interrupted();
+		countTimeout(moduleId);
+		if (result instanceof Closeable) {
+			try {
+				((Closeable) result).close();
+			} catch (final IOException e) {
+				this.logConnector.log(e);
+			}
+		}
+		throw new UncheckedTimeoutException("call to module " + moduleId + " timed out after " + timeout + " " + unit);
+	}
+
+	/**
+	 * Gets the total number of calls.
+	 *
+	 * @return the call count
+	 */
+	long getCallCount() {
+		return this.callCount.get();
+	}
+
+	/**
+	 * Gets the number of timed out calls per module.
+	 *
+	 * @return the timeout counts (module ID -> count)
+	 */
+	Map<String, Long> getModuleTimeoutCounts() {
+		final Map<String, Long> result = new HashMap<String, Long>();
+		for (final Map.Entry<String, AtomicLong> entry : this.moduleTimeoutCounts.entrySet()) {
+			result.put(entry.getKey(), entry.getValue().get());
+		}
+		return ImmutableMap.copyOf(result);
+	}
+
+	/**
+	 * Gets a summary of all calls and timeouts.
+	 *
+	 * @return the summary
+	 */
+	ModuleCallTimeoutSummary getSummary() {
+		return new ModuleCallTimeoutSummary(getCallCount(), getTimeoutCount(), getModuleTimeoutCounts());
+	}
+
+	/**
+	 * Gets the total number of timed out calls.
+	 *
+	 * @return the timeout count
+	 */
+	long getTimeoutCount() {
+		return this.timeoutCount.get();
+	}
+}
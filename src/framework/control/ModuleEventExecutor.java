@@ -0,0 +1,320 @@
+package framework.control;
+
+import helper.ThreadPoolHelper;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import framework.model.event.type.LogEventLevelType;
+import framework.model.summary.ModuleEventQueueSummary;
+import framework.model.type.EventQueueOverflowType;
+
+/**
+ * Delivers events, state changes and requests to a single module within one dedicated thread. In contrast to a plain single thread executor the queue is
+ * bounded, so a slow module cannot make the broker run out of memory. The capacity is counted in events, a task delivering a batch of events has the weight
+ * of the batch size. What happens if the queue is full is defined by an {@link EventQueueOverflowType}. Tasks may be given a key (for example port and path of
+ * an element), pending tasks with the same key are replaced when coalescing.
+ * <p>
+ * The overflow type only applies to keyed tasks. Tasks without a key (state changes, requests, event batches) are never coalesced or dropped right away:
+ * Their senders always wait for free space. If the block timeout passes the task is rejected with a {@link RejectedExecutionException} (counted as dropped
+ * and logged by the sender), so a module not taking tasks for longer than the block timeout may miss state changes as well.
+ *
+ * @author Stefan Werner
+ */
+final class ModuleEventExecutor {
+
+	/**
+	 * A queued task.
+	 */
+	private static final class Task {
+
+		private final long enqueueTime;
+		private final Object key;
+		// may be replaced by a newer task with the same key
+		private Runnable runnable;
+		private final int weight;
+
+		/**
+		 * Instantiates a new task.
+		 *
+		 * @param key the key (may be null)
+		 * @param runnable the runnable
+		 * @param weight the number of events delivered by the task
+		 */
+		private Task(final Object key, final Runnable runnable, final int weight) {
+			this.key = key;
+			this.runnable = runnable;
+			this.weight = weight;
+			this.enqueueTime = System.currentTimeMillis();
+		}
+	}
+
+	private static final long DROP_LOG_INTERVAL_MILLIS = 1000;
+
+	private final long blockTimeoutMillis;
+	private final int capacity;
+	private final AtomicLong coalescedCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+	private long lastDropLogTime = 0;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final LogConnector logConnector;
+	private final String moduleId;
+	private final Condition notEmpty = this.lock.newCondition();
+	private final Condition notFull = this.lock.newCondition();
+	private final EventQueueOverflowType overflowType;
+	private final Map<Object, Task> pendingKeyedTasks = new HashMap<Object, Task>();
+	private final ArrayDeque<Task> queue = new ArrayDeque<Task>();
+	// sum of the weights of all queued tasks
+	private int queuedWeight = 0;
+	private boolean shutdown = false;
+	private final Thread worker;
+
+	/**
+	 * Instantiates a new module event executor and starts its thread.
+	 *
+	 * @param moduleId the module ID
+	 * @param threadName the thread name
+	 * @param capacity the max number of queued tasks
+	 * @param overflowType the overflow type
+	 * @param blockTimeoutMillis the max time to block a sender (only used with {@link EventQueueOverflowType#BLOCK})
+	 * @param logConnector the log connector
+	 */
+	ModuleEventExecutor(final String moduleId, final String threadName, final int capacity, final EventQueueOverflowType overflowType, final long blockTimeoutMillis, final LogConnector logConnector) {
+		this.moduleId = moduleId;
+		this.capacity = Math.max(1, capacity);
+		this.overflowType = overflowType;
+		this.blockTimeoutMillis = blockTimeoutMillis;
+		this.logConnector = logConnector;
+		this.worker = ThreadPoolHelper.newThread(new Runnable() {
+
+			@Override
+			public void run() {
+				runWorker();
+			}
+		}, threadName);
+		this.worker.start();
+	}
+
+	/**
+	 * Waits for free space in the queue. Must be called while holding the lock.
+	 *
+	 * @param weight the weight of the task to queue
+	 * @return true, if there is space (false if timed out)
+	 * @throws InterruptedException if interrupted while waiting
+	 * @throws RejectedExecutionException if executor was shut down while waiting
+	 */
+	private boolean awaitSpace(final int weight) throws InterruptedException {
+		long nanos = TimeUnit.MILLISECONDS.toNanos(this.blockTimeoutMillis);
+		while (isFull(weight) && !this.shutdown && (nanos > 0)) {
+			nanos = this.notFull.awaitNanos(nanos);
+		}
+		if (this.shutdown) {
+			throw new RejectedExecutionException("event executor of module " + this.moduleId + " is shut down");
+		}
+		return !isFull(weight);
+	}
+
+	/**
+	 * Counts a dropped task and logs a warning (at most once per {@link #DROP_LOG_INTERVAL_MILLIS}). Must be called while holding the lock.
+	 */
+	private void drop() {
+		final long count = this.droppedCount.incrementAndGet();
+		final long now = System.currentTimeMillis();
+		if ((now - this.lastDropLogTime) >= ModuleEventExecutor.DROP_LOG_INTERVAL_MILLIS) {
+			this.lastDropLogTime = now;
+			this.logConnector.log(LogEventLevelType.WARNING, "event queue of module " + this.moduleId + " is full, " + count + " events dropped so far");
+		}
+	}
+
+	/**
+	 * Queues a task that must not be coalesced with others. It is never dropped: If the queue is full the caller waits for free space (except when called from
+	 * the worker itself, then the task is queued beyond capacity because the worker would wait for itself).
+	 *
+	 * @param runnable the runnable
+	 * @throws RejectedExecutionException if executor is shut down or the queue stays full for longer than the block timeout
+	 */
+	void execute(final Runnable runnable) {
+		execute(runnable, 1);
+	}
+
+	/**
+	 * Queues a task delivering multiple events that must not be coalesced with others, see {@link #execute(Runnable)}.
+	 *
+	 * @param runnable the runnable
+	 * @param weight the number of events delivered by the task
+	 * @throws RejectedExecutionException if executor is shut down or the queue stays full for longer than the block timeout
+	 */
+	void execute(final Runnable runnable, final int weight) {
+		this.lock.lock();
+		try {
+			if (this.shutdown) {
+				throw new RejectedExecutionException("event executor of module " + this.moduleId + " is shut down");
+			}
+			if (isFull(weight) && (Thread.currentThread() != this.worker) && !awaitSpace(weight)) {
+				this.droppedCount.incrementAndGet();
+				throw new RejectedExecutionException("event queue of module " + this.moduleId + " is full for more than " + this.blockTimeoutMillis + " ms");
+			}
+			queue(null, runnable, weight);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			this.droppedCount.incrementAndGet();
+			throw new RejectedExecutionException("interrupted while waiting for event queue of module " + this.moduleId);
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Queues a keyed task. If the queue is full the overflow type defines what happens: With coalescing a still pending task with the same key is replaced.
+	 *
+	 * @param key the key
+	 * @param runnable the runnable
+	 * @return true, if queued or coalesced (false if dropped, the drop is counted and logged but callers should note it too)
+	 * @throws RejectedExecutionException if executor is shut down
+	 */
+	boolean execute(final Object key, final Runnable runnable) {
+		if (key == null) {
+			execute(runnable);
+			return true;
+		}
+		this.lock.lock();
+		try {
+			if (this.shutdown) {
+				throw new RejectedExecutionException("event executor of module " + this.moduleId + " is shut down");
+			}
+			if (isFull(1)) {
+				if (this.overflowType == EventQueueOverflowType.COALESCE) {
+					final Task pendingTask = this.pendingKeyedTasks.get(key);
+					if (pendingTask != null) {
+						pendingTask.runnable = runnable;
+						this.coalescedCount.incrementAndGet();
+						return true;
+					}
+					drop();
+					return false;
+				} else if ((this.overflowType == EventQueueOverflowType.BLOCK) && (Thread.currentThread() != this.worker)) {
+					// never block our own worker, it would wait for itself
+					if (!awaitSpace(1)) {
+						drop();
+						return false;
+					}
+				} else {
+					drop();
+					return false;
+				}
+			}
+			queue(key, runnable, 1);
+			return true;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			drop();
+			return false;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Creates a summary of the current queue state.
+	 *
+	 * @return the module event queue summary
+	 */
+	ModuleEventQueueSummary getSummary() {
+		this.lock.lock();
+		final int depth = this.queuedWeight;
+		final Task oldestTask = this.queue.peek();
+		this.lock.unlock();
+		final long lag = oldestTask != null ? Math.max(0, System.currentTimeMillis() - oldestTask.enqueueTime) : 0;
+		return new ModuleEventQueueSummary(this.moduleId, depth, this.capacity, lag, this.droppedCount.get(), this.coalescedCount.get());
+	}
+
+	/**
+	 * Checks if a task of the given weight does not fit into the queue. A task heavier than the capacity is accepted if the queue is empty. Must be called while
+	 * holding the lock.
+	 *
+	 * @param weight the weight of the task
+	 * @return true, if full
+	 */
+	private boolean isFull(final int weight) {
+		return !this.queue.isEmpty() && ((this.queuedWeight + weight) > this.capacity);
+	}
+
+	/**
+	 * Adds a task to the queue. Must be called while holding the lock.
+	 *
+	 * @param key the key (may be null)
+	 * @param runnable the runnable
+	 * @param weight the weight
+	 */
+	private void queue(final Object key, final Runnable runnable, final int weight) {
+		final Task task = new Task(key, runnable, weight);
+		this.queue.add(task);
+		this.queuedWeight += weight;
+		if (key != null) {
+			this.pendingKeyedTasks.put(key, task);
+		}
+		this.notEmpty.signal();
+	}
+
+	/**
+	 * Runs queued tasks until shut down.
+	 */
+	private void runWorker() {
+		while (true) {
+			Runnable runnable;
+			this.lock.lock();
+			try {
+				while (this.queue.isEmpty() && !this.shutdown) {
+					this.notEmpty.await();
+				}
+				if (this.shutdown) {
+					return;
+				}
+				final Task task = this.queue.poll();
+				if ((task.key != null) && (this.pendingKeyedTasks.get(task.key) == task)) {
+					this.pendingKeyedTasks.remove(task.key);
+				}
+				runnable = task.runnable;
+				this.queuedWeight -= task.weight;
+				this.notFull.signalAll();
+			} catch (final InterruptedException e) {
+				if (this.shutdown) {
+					return;
+				}
+				// interrupt status left over by a module, keep on working
+				continue;
+			} finally {
+				this.lock.unlock();
+			}
+			try {
+				runnable.run();
+			} catch (final Exception e) {
+				this.logConnector.log(e);
+			} catch (final Throwable t) {
+				// keep the worker alive whatever a module throws (errors are wrapped because log events only hold exceptions)
+				this.logConnector.log(new Exception(t), "uncaught error in event thread of module " + this.moduleId + ": " + t);
+			}
+		}
+	}
+
+	/**
+	 * Discards all queued tasks and stops the thread (interrupting the currently running task).
+	 */
+	void shutdownNow() {
+		this.lock.lock();
+		this.shutdown = true;
+		this.queue.clear();
+		this.queuedWeight = 0;
+		this.pendingKeyedTasks.clear();
+		this.notEmpty.signalAll();
+		this.notFull.signalAll();
+		this.lock.unlock();
+		this.worker.interrupt();
+	}
+}
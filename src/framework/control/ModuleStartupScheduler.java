@@ -0,0 +1,226 @@
+package framework.control;
+
+import helper.ThreadPoolHelper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import framework.model.event.type.LogEventLevelType;
+
+/**
+ * Runs a task for every module of a given set concurrently on a bounded thread pool while respecting dependencies between modules: The task of a module is
+ * started only after the tasks of all modules it depends on (usually the providers it is connected to) are finished. Independent modules are processed in
+ * parallel. Dependency cycles do not block: If nothing is running anymore, all remaining modules are started regardless of their dependencies.
+ * <p>
+ * Instances are meant for a single {@link #run(ModuleTask, ProgressListener)} call.
+ *
+ * @author Stefan Werner
+ */
+final class ModuleStartupScheduler {
+
+	/**
+	 * Task executed for each module.
+	 */
+	interface ModuleTask {
+
+		/**
+		 * Runs the task for a module.
+		 *
+		 * @param moduleId the module ID
+		 */
+		void run(String moduleId);
+	}
+
+	/**
+	 * Gets notified whenever the task of a module is finished.
+	 */
+	interface ProgressListener {
+
+		/**
+		 * Called after the task of a module is finished (from the thread that ran the task, not concurrently).
+		 *
+		 * @param moduleId the module ID
+		 * @param finishedCount the number of finished modules
+		 * @param totalCount the total number of modules
+		 */
+		void onModuleFinished(String moduleId, int finishedCount, int totalCount);
+	}
+
+	// modules depending on a module
+	private final Map<String, Set<String>> dependents = new HashMap<String, Set<String>>();
+	private int finishedCount = 0;
+	private final Condition finishedCondition;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final LogConnector logConnector;
+	// module IDs in preferred start order
+	private final Set<String> moduleIds;
+	// modules not yet submitted
+	private final Set<String> pendingModuleIds;
+	private final ReentrantLock progressLock = new ReentrantLock();
+	// number of finished modules already reported to the listener
+	private int reportedCount = 0;
+	private int runningCount = 0;
+	private final int threadCount;
+	// number of not yet finished dependencies per module
+	private final Map<String, Integer> unfinishedDependencyCounts = new HashMap<String, Integer>();
+
+	/**
+	 * Instantiates a new module startup scheduler.
+	 *
+	 * @param moduleIds the module IDs (iteration order is used as preferred start order)
+	 * @param dependencies the dependencies (module ID -> IDs of modules it depends on), dependencies to modules not in the given set are ignored
+	 * @param threadCount the maximum number of concurrently processed modules
+	 * @param logConnector the log connector
+	 */
+	ModuleStartupScheduler(final Collection<String> moduleIds, final Map<String, Set<String>> dependencies, final int threadCount, final LogConnector logConnector) {
+		this.moduleIds = new LinkedHashSet<String>(moduleIds);
+		this.pendingModuleIds = new LinkedHashSet<String>(moduleIds);
+		this.threadCount = Math.max(1, Math.min(threadCount, this.moduleIds.size()));
+		this.logConnector = logConnector;
+		this.finishedCondition = this.lock.newCondition();
+		for (final String moduleId : this.moduleIds) {
+			int count = 0;
+			final Set<String> moduleDependencies = dependencies.get(moduleId);
+			if (moduleDependencies != null) {
+				for (final String dependency : moduleDependencies) {
+					if (!dependency.equals(moduleId) && this.moduleIds.contains(dependency)) {
+						Set<String> dependencyDependents = this.dependents.get(dependency);
+						if (dependencyDependents == null) {
+							dependencyDependents = new HashSet<String>();
+							this.dependents.put(dependency, dependencyDependents);
+						}
+						if (dependencyDependents.add(moduleId)) {
+							count++;
+						}
+					}
+				}
+			}
+			this.unfinishedDependencyCounts.put(moduleId, count);
+		}
+	}
+
+	/**
+	 * Marks a module as finished and submits all modules that became ready. Must be called with lock held.
+	 *
+	 * @param moduleId the module ID
+	 * @param executor the executor
+	 * @param task the task
+	 * @param listener the listener
+	 * @return the number of finished modules
+	 */
+	private int finish(final String moduleId, final ExecutorService executor, final ModuleTask task, final ProgressListener listener) {
+		this.finishedCount++;
+		this.runningCount--;
+		final Set<String> moduleDependents = this.dependents.get(moduleId);
+		if (moduleDependents != null) {
+			for (final String dependent : moduleDependents) {
+				this.unfinishedDependencyCounts.put(dependent, this.unfinishedDependencyCounts.get(dependent) - 1);
+			}
+		}
+		submitReadyModules(executor, task, listener, false);
+		return this.finishedCount;
+	}
+
+	/**
+	 * Runs the task for all modules and waits until all are finished.
+	 *
+	 * @param task the task
+	 * @param listener the progress listener (may be null)
+	 * @return true, if all tasks were executed (false if interrupted)
+	 */
+	boolean run(final ModuleTask task, final ProgressListener listener) {
+		if (this.moduleIds.isEmpty()) {
+			return true;
+		}
+		final ExecutorService executor = ThreadPoolHelper.newFixedThreadPool(this.threadCount, ModuleStartupScheduler.class.getSimpleName() + "-%d");
+		this.lock.lock();
+		try {
+			submitReadyModules(executor, task, listener, false);
+			while (this.reportedCount < this.moduleIds.size()) {
+				if ((this.runningCount == 0) && (this.reportedCount == this.finishedCount) && !this.pendingModuleIds.isEmpty()) {
+					this.logConnector.log(LogEventLevelType.WARNING, "dependency cycle between modules " + this.pendingModuleIds + ", starting them in default order");
+					submitReadyModules(executor, task, listener, true);
+				} else {
+					this.finishedCondition.await();
+				}
+			}
+			return true;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} finally {
+			this.lock.unlock();
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Submits all modules without unfinished dependencies. Must be called with lock held.
+	 *
+	 * @param executor the executor
+	 * @param task the task
+	 * @param listener the listener
+	 * @param ignoreDependencies set to true to submit all pending modules
+	 */
+	private void submitReadyModules(final ExecutorService executor, final ModuleTask task, final ProgressListener listener, final boolean ignoreDependencies) {
+		final List<String> readyModuleIds = new ArrayList<String>();
+		for (final String moduleId : this.pendingModuleIds) {
+			if (ignoreDependencies || (this.unfinishedDependencyCounts.get(moduleId) <= 0)) {
+				readyModuleIds.add(moduleId);
+			}
+		}
+		for (final String moduleId : readyModuleIds) {
+			this.pendingModuleIds.remove(moduleId);
+			this.runningCount++;
+			try {
+				executor.execute(new Runnable() {
+
+					@Override
+					public void run() {
+						try {
+							task.run(moduleId);
+						} catch (final Exception e) {
+							ModuleStartupScheduler.this.logConnector.log(e);
+						} finally {
+							// progress is reported in order, so listeners never see decreasing counts
+							ModuleStartupScheduler.this.progressLock.lock();
+							try {
+								int count;
+								ModuleStartupScheduler.this.lock.lock();
+								try {
+									count = finish(moduleId, executor, task, listener);
+								} finally {
+									ModuleStartupScheduler.this.lock.unlock();
+								}
+								if (listener != null) {
+									listener.onModuleFinished(moduleId, count, ModuleStartupScheduler.this.moduleIds.size());
+								}
+							} finally {
+								ModuleStartupScheduler.this.progressLock.unlock();
+								ModuleStartupScheduler.this.lock.lock();
+								ModuleStartupScheduler.this.reportedCount++;
+								ModuleStartupScheduler.this.finishedCondition.signalAll();
+								ModuleStartupScheduler.this.lock.unlock();
+							}
+						}
+					}
+				});
+			} catch (final RejectedExecutionException e) {
+				this.logConnector.log(e);
+				this.runningCount--;
+				this.finishedCount++;
+				this.reportedCount++;
+			}
+		}
+	}
+}
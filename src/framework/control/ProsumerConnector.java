@@ -2,17 +2,25 @@ package framework.control;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import module.iface.DataElementCursor;
 import module.iface.DataElementEventListener;
 import module.iface.Prosumer;
 import module.iface.StreamListener;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
 import framework.exception.AuthorizationException;
 import framework.exception.BrokerException;
 import framework.exception.ModuleException;
 import framework.model.DataElement;
 import framework.model.DataElementEventSubscription;
+import framework.model.ModuleReadableByteChannel;
+import framework.model.ModuleWritableByteChannel;
 import framework.model.Port;
 import framework.model.ProsumerPort;
 import framework.model.ProviderPort;
@@ -90,6 +98,24 @@ public final class ProsumerConnector {
 		return this.handler.createFolder(this.moduleId, sendingProsumerPort, path);
 	}
 
+	/**
+	 * Creates a folder asynchronously, see {@link #createFolder(ProsumerPort, String[])}. Failures of the call itself are reported through the future (wrapping
+	 * BrokerException, ModuleException, AuthorizationException or UncheckedTimeoutException if the provider did not answer within {@link
+	 * framework.constants.Constants#TIMEOUT_SECONDS___MODULE_COMMUNICATION}).
+	 * <p>
+	 * Required rights: READ_DATA, WRITE_DATA
+	 *
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path
+	 * @return the future result code (see Provider interface)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws AuthorizationException if rights are insufficient
+	 * @see framework.control.ModuleActionHandler#createFolderAsync(java.lang.String, framework.model.ProsumerPort, java.lang.String[])
+	 */
+	public ListenableFuture<Integer> createFolderAsync(final ProsumerPort sendingProsumerPort, final String[] path) throws BrokerException, AuthorizationException {
+		return this.handler.createFolderAsync(this.moduleId, sendingProsumerPort, path);
+	}
+
 	/**
 	 * Deletes an element at a given path. See {@link module.iface.Provider#delete(ProviderPort, String[])} for more details.
 	 * <p>
@@ -107,6 +133,24 @@ public final class ProsumerConnector {
 		return this.handler.delete(this.moduleId, sendingProsumerPort, path);
 	}
 
+	/**
+	 * Deletes an element asynchronously, see {@link #delete(ProsumerPort, String[])}. Failures of the call itself are reported through the future (wrapping
+	 * BrokerException, ModuleException, AuthorizationException or UncheckedTimeoutException if the provider did not answer within {@link
+	 * framework.constants.Constants#TIMEOUT_SECONDS___MODULE_COMMUNICATION}).
+	 * <p>
+	 * Required rights: READ_DATA, WRITE_DATA
+	 *
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path
+	 * @return the future result code (see Provider interface)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws AuthorizationException if rights are insufficient
+	 * @see framework.control.ModuleActionHandler#deleteAsync(java.lang.String, framework.model.ProsumerPort, java.lang.String[])
+	 */
+	public ListenableFuture<Integer> deleteAsync(final ProsumerPort sendingProsumerPort, final String[] path) throws BrokerException, AuthorizationException {
+		return this.handler.deleteAsync(this.moduleId, sendingProsumerPort, path);
+	}
+
 	/**
 	 * Gets the child elements under a given parent path.
 	 * <p>
@@ -125,6 +169,26 @@ public final class ProsumerConnector {
 		return this.handler.getChildElements(this.moduleId, sendingProsumerPort, path, recursive);
 	}
 
+	/**
+	 * Gets the child elements under a given parent path asynchronously, see {@link #getChildElements(ProsumerPort, String[], boolean)}. Many calls may be
+	 * pipelined without blocking a thread per call. Failures of the call itself are reported through the future (wrapping BrokerException, ModuleException,
+	 * AuthorizationException or UncheckedTimeoutException if the provider did not answer within {@link
+	 * framework.constants.Constants#TIMEOUT_SECONDS___MODULE_COMMUNICATION}).
+	 * <p>
+	 * Required rights: READ_DATA
+	 *
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path
+	 * @param recursive set to true to get all children recursively (relative depth >= 1)
+	 * @return the future child elements (null value if non existing/error or no children supported)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws AuthorizationException if rights are insufficient
+	 * @see framework.control.ModuleActionHandler#getChildElementsAsync(java.lang.String, framework.model.ProsumerPort, java.lang.String[], boolean)
+	 */
+	public ListenableFuture<Set<DataElement>> getChildElementsAsync(final ProsumerPort sendingProsumerPort, final String[] path, final boolean recursive) throws BrokerException, AuthorizationException {
+		return this.handler.getChildElementsAsync(this.moduleId, sendingProsumerPort, path, recursive);
+	}
+
 	/**
 	 * Gets the element at a given path.
 	 * <p>
@@ -142,6 +206,43 @@ public final class ProsumerConnector {
 		return this.handler.getElement(this.moduleId, sendingProsumerPort, path);
 	}
 
+	/**
+	 * Gets the element at a given path asynchronously, see {@link #getElement(ProsumerPort, String[])}. Many calls may be pipelined without blocking a thread
+	 * per call. Failures of the call itself are reported through the future (wrapping BrokerException, ModuleException, AuthorizationException or
+	 * UncheckedTimeoutException if the provider did not answer within {@link framework.constants.Constants#TIMEOUT_SECONDS___MODULE_COMMUNICATION}).
+	 * <p>
+	 * Required rights: READ_DATA
+	 *
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path
+	 * @return the future element (null value if non existing or error)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws AuthorizationException if rights are insufficient
+	 * @see framework.control.ModuleActionHandler#getElementAsync(java.lang.String, framework.model.ProsumerPort, java.lang.String[])
+	 */
+	public ListenableFuture<DataElement> getElementAsync(final ProsumerPort sendingProsumerPort, final String[] path) throws BrokerException, AuthorizationException {
+		return this.handler.getElementAsync(this.moduleId, sendingProsumerPort, path);
+	}
+
+	/**
+	 * Gets the elements at the given paths with a single call. Much cheaper than separate calls to {@link #getElement(ProsumerPort, String[])} if the
+	 * connected provider supports bulk lookups (for example one request per parent folder for remote stores), otherwise equivalent.
+	 * <p>
+	 * Required rights: READ_DATA
+	 *
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param paths the paths
+	 * @return the elements, keyed by their path as list (use {@link java.util.Arrays#asList(Object...)} for lookups), non existing elements and errors are
+	 *         left out
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws ModuleException if an exception in a connected module occurs (usually wraps such exceptions)
+	 * @throws AuthorizationException if rights are insufficient
+	 * @see framework.control.ModuleActionHandler#getElements(java.lang.String, framework.model.ProsumerPort, java.util.Collection)
+	 */
+	public Map<List<String>, DataElement> getElements(final ProsumerPort sendingProsumerPort, final Collection<String[]> paths) throws BrokerException, ModuleException, AuthorizationException {
+		return this.handler.getElements(this.moduleId, sendingProsumerPort, paths);
+	}
+
 	/**
 	 * Gets a new localization connector.
 	 *
@@ -225,6 +326,24 @@ public final class ProsumerConnector {
 		return this.handler.getType(this.moduleId, sendingProsumerPort, path);
 	}
 
+	/**
+	 * Gets the type of the element at a given path asynchronously, see {@link #getType(ProsumerPort, String[])}. Failures of the call itself are reported
+	 * through the future (wrapping BrokerException, ModuleException, AuthorizationException or UncheckedTimeoutException if the provider did not answer within
+	 * {@link framework.constants.Constants#TIMEOUT_SECONDS___MODULE_COMMUNICATION}).
+	 * <p>
+	 * Required rights: READ_DATA
+	 *
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path
+	 * @return the future type (null value if no such element)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws AuthorizationException if rights are insufficient
+	 * @see framework.control.ModuleActionHandler#getTypeAsync(java.lang.String, framework.model.ProsumerPort, java.lang.String[])
+	 */
+	public ListenableFuture<DataElementType> getTypeAsync(final ProsumerPort sendingProsumerPort, final String[] path) throws BrokerException, AuthorizationException {
+		return this.handler.getTypeAsync(this.moduleId, sendingProsumerPort, path);
+	}
+
 	/**
 	 * Checks if a given port is connected.
 	 *
@@ -263,6 +382,28 @@ public final class ProsumerConnector {
 		return this.handler.isSubscribed(this.moduleId, prosumerPort, path);
 	}
 
+	/**
+	 * Lists the child elements under a given parent path with a cursor delivering them in batches of at most batchSize elements. Unlike
+	 * {@link #getChildElements(ProsumerPort, String[], boolean)} huge (recursive) listings can be processed incrementally without holding all elements in
+	 * memory. The cursor must be closed after use, even if not fully consumed.
+	 * <p>
+	 * Required rights: READ_DATA
+	 *
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path of the parent element
+	 * @param recursive set to true to get all children recursively (relative depth >= 1)
+	 * @param batchSize the maximum number of elements per batch (> 0)
+	 * @return the cursor (null if non existing/error or no children supported, for example within file elements)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws ModuleException if an exception in a connected module occurs (usually wraps such exceptions)
+	 * @throws AuthorizationException if rights are insufficient
+	 * @see framework.control.ModuleActionHandler#listChildren(java.lang.String, framework.model.ProsumerPort, java.lang.String[], boolean, int)
+	 */
+	public DataElementCursor listChildren(final ProsumerPort sendingProsumerPort, final String[] path, final boolean recursive, final int batchSize) throws BrokerException, ModuleException,
+			AuthorizationException {
+		return this.handler.listChildren(this.moduleId, sendingProsumerPort, path, recursive, batchSize);
+	}
+
 	/**
 	 * Moves an element from one path to another within the same port. If necessary parent folders for destination are created automatically. Will NOT overwrite
 	 * an existing destination element. See {@link module.iface.Provider#move(ProviderPort, String[], String[])} for more details.
@@ -282,6 +423,25 @@ public final class ProsumerConnector {
 		return this.handler.move(this.moduleId, sendingProsumerPort, srcPath, destPath);
 	}
 
+	/**
+	 * Moves an element asynchronously, see {@link #move(ProsumerPort, String[], String[])}. Failures of the call itself are reported through the future
+	 * (wrapping BrokerException, ModuleException, AuthorizationException or UncheckedTimeoutException if the provider did not answer within {@link
+	 * framework.constants.Constants#TIMEOUT_SECONDS___MODULE_COMMUNICATION}).
+	 * <p>
+	 * Required rights: READ_DATA, WRITE_DATA
+	 *
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param srcPath the source path
+	 * @param destPath the destination path
+	 * @return the future result code (see Provider interface)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws AuthorizationException if rights are insufficient
+	 * @see framework.control.ModuleActionHandler#moveAsync(java.lang.String, framework.model.ProsumerPort, java.lang.String[], java.lang.String[])
+	 */
+	public ListenableFuture<Integer> moveAsync(final ProsumerPort sendingProsumerPort, final String[] srcPath, final String[] destPath) throws BrokerException, AuthorizationException {
+		return this.handler.moveAsync(this.moduleId, sendingProsumerPort, srcPath, destPath);
+	}
+
 	/**
 	 * Reads data from an element at given path.
 	 * <p>
@@ -299,6 +459,64 @@ public final class ProsumerConnector {
 		return this.handler.readData(this.moduleId, sendingProsumerPort, path);
 	}
 
+	/**
+	 * Reads a range of data from an element at given path, allowing random access without reading all preceding data. Works with all providers, the range is
+	 * emulated if a provider does not support ranged reads natively.
+	 * <p>
+	 * Required rights: READ_DATA
+	 *
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path
+	 * @param offset the offset of the first byte to read (>= 0)
+	 * @param length the maximum number of bytes to read (-1 to read until end of data)
+	 * @return the input stream to read from (empty if offset is beyond end of data, null if no such element or no data)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws ModuleException if an exception in a connected module occurs (usually wraps such exceptions)
+	 * @throws AuthorizationException if rights are insufficient
+	 * @see framework.control.ModuleActionHandler#readData(java.lang.String, framework.model.ProsumerPort, java.lang.String[], long, long)
+	 */
+	public InputStream readData(final ProsumerPort sendingProsumerPort, final String[] path, final long offset, final long length) throws BrokerException, ModuleException,
+			AuthorizationException {
+		return this.handler.readData(this.moduleId, sendingProsumerPort, path, offset, length);
+	}
+
+	/**
+	 * Opens an element for reading asynchronously, see {@link #readData(ProsumerPort, String[])}. The timeout only applies to opening the stream. Failures of
+	 * the call itself are reported through the future (wrapping BrokerException, ModuleException, AuthorizationException or UncheckedTimeoutException if the
+	 * provider did not answer within {@link framework.constants.Constants#TIMEOUT_SECONDS___MODULE_COMMUNICATION}).
+	 * <p>
+	 * Required rights: READ_DATA
+	 *
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path
+	 * @return the future input stream (null value if no such element or no data)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws AuthorizationException if rights are insufficient
+	 * @see framework.control.ModuleActionHandler#readDataAsync(java.lang.String, framework.model.ProsumerPort, java.lang.String[])
+	 */
+	public ListenableFuture<InputStream> readDataAsync(final ProsumerPort sendingProsumerPort, final String[] path) throws BrokerException, AuthorizationException {
+		return this.handler.readDataAsync(this.moduleId, sendingProsumerPort, path);
+	}
+
+	/**
+	 * Reads data from an element at given path using a channel. Use {@link ModuleReadableByteChannel#transferTo(java.nio.channels.WritableByteChannel)} to copy
+	 * data to a channel got from {@link #writeDataChannel(ProsumerPort, String[])}, this avoids copying data through the heap if both providers store files
+	 * locally. Works with all providers, streams are bridged if necessary.
+	 * <p>
+	 * Required rights: READ_DATA
+	 *
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path
+	 * @return the channel to read from (null if no such element or no data)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws ModuleException if an exception in a connected module occurs (usually wraps such exceptions)
+	 * @throws AuthorizationException if rights are insufficient
+	 * @see framework.control.ModuleActionHandler#readDataChannel(java.lang.String, framework.model.ProsumerPort, java.lang.String[])
+	 */
+	public ModuleReadableByteChannel readDataChannel(final ProsumerPort sendingProsumerPort, final String[] path) throws BrokerException, ModuleException, AuthorizationException {
+		return this.handler.readDataChannel(this.moduleId, sendingProsumerPort, path);
+	}
+
 	/**
 	 * Registers a prosumer port.
 	 *
@@ -375,6 +593,23 @@ public final class ProsumerConnector {
 		return this.handler.sendModuleCommand(this.moduleId, command, sendingPort, path, properties);
 	}
 
+	/**
+	 * Sets the element event coalescing window of a prosumer port. Events for the same path arriving within the window are merged (for example ADD + MODIFY =
+	 * ADD, ADD + DELETE = nothing, MODIFY + MODIFY = MODIFY with latest element) and delivered together when the window ends. Useful for prosumers that do not
+	 * need every single intermediate change.
+	 * <p>
+	 * Required rights: RECEIVE_EVENTS
+	 *
+	 * @param prosumerPort the prosumer port
+	 * @param windowMillis the window in milliseconds (0 to disable coalescing, which is the default)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws AuthorizationException if rights are insufficient
+	 * @see framework.control.ModuleActionHandler#setElementEventCoalescingWindow(java.lang.String, framework.model.ProsumerPort, long)
+	 */
+	public void setElementEventCoalescingWindow(final ProsumerPort prosumerPort, final long windowMillis) throws BrokerException, AuthorizationException {
+		this.handler.setElementEventCoalescingWindow(this.moduleId, prosumerPort, windowMillis);
+	}
+
 	/**
 	 * Subscribes to element events for a specific port and (recursive) path.
 	 * <p>
@@ -468,4 +703,59 @@ public final class ProsumerConnector {
 	public OutputStream writeData(final ProsumerPort sendingProsumerPort, final String[] path) throws BrokerException, ModuleException, AuthorizationException {
 		return this.handler.writeData(this.moduleId, sendingProsumerPort, path);
 	}
+
+	/**
+	 * Opens an element for writing asynchronously, see {@link #writeData(ProsumerPort, String[])}. The timeout only applies to opening the stream. Failures of
+	 * the call itself are reported through the future (wrapping BrokerException, ModuleException, AuthorizationException or UncheckedTimeoutException if the
+	 * provider did not answer within {@link framework.constants.Constants#TIMEOUT_SECONDS___MODULE_COMMUNICATION}).
+	 * <p>
+	 * Required rights: READ_DATA, WRITE_DATA
+	 *
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path
+	 * @return the future output stream (null value if read only)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws AuthorizationException if rights are insufficient
+	 * @see framework.control.ModuleActionHandler#writeDataAsync(java.lang.String, framework.model.ProsumerPort, java.lang.String[])
+	 */
+	public ListenableFuture<OutputStream> writeDataAsync(final ProsumerPort sendingProsumerPort, final String[] path) throws BrokerException, AuthorizationException {
+		return this.handler.writeDataAsync(this.moduleId, sendingProsumerPort, path);
+	}
+
+	/**
+	 * Writes data to an element at given path using a channel, creates it if necessary (including parent folders). Works with all providers, streams are bridged
+	 * if necessary.
+	 * <p>
+	 * Required rights: WRITE_DATA
+	 *
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path
+	 * @return the channel to write to (null if read only)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws ModuleException if an exception in a connected module occurs (usually wraps such exceptions)
+	 * @throws AuthorizationException if rights are insufficient
+	 * @see framework.control.ModuleActionHandler#writeDataChannel(java.lang.String, framework.model.ProsumerPort, java.lang.String[])
+	 */
+	public ModuleWritableByteChannel writeDataChannel(final ProsumerPort sendingProsumerPort, final String[] path) throws BrokerException, ModuleException, AuthorizationException {
+		return this.handler.writeDataChannel(this.moduleId, sendingProsumerPort, path);
+	}
+
+	/**
+	 * Patches an existing file by writing a block delta (see {@link helper.BlockDeltaHelper}) created against the signatures of its current content, so only
+	 * changed blocks are transferred. Not emulated: Returns null if the provider does not support it, use {@link #writeData(ProsumerPort, String[])} in that
+	 * case. Closing the stream fails if the delta could not be applied, the current content is kept then.
+	 * <p>
+	 * Required rights: WRITE_DATA
+	 *
+	 * @param sendingProsumerPort the sending prosumer port
+	 * @param path the path
+	 * @return the output stream to write the delta to (null if not supported, read only or no such file)
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @throws ModuleException if an exception in a connected module occurs (usually wraps such exceptions)
+	 * @throws AuthorizationException if rights are insufficient
+	 * @see framework.control.ModuleActionHandler#writeDataDelta(java.lang.String, framework.model.ProsumerPort, java.lang.String[])
+	 */
+	public OutputStream writeDataDelta(final ProsumerPort sendingProsumerPort, final String[] path) throws BrokerException, ModuleException, AuthorizationException {
+		return this.handler.writeDataDelta(this.moduleId, sendingProsumerPort, path);
+	}
 }
@@ -1,5 +1,6 @@
 package framework.control;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 
@@ -168,6 +169,18 @@ public final class ProviderConnector {
 		this.handler.sendElementEvent(this.moduleId, sendingProviderPort, new DataElementEvent(element, eventType));
 	}
 
+	/**
+	 * Sends multiple element events to connected prosumers at once. Prefer this over single events whenever a provider detects several changes in one go.
+	 *
+	 * @param sendingProviderPort the sending provider port
+	 * @param events the events
+	 * @throws BrokerException if in wrong state, illegal arguments given or some other error
+	 * @see framework.control.ModuleActionHandler#sendElementEvents(java.lang.String, framework.model.ProviderPort, java.util.Collection)
+	 */
+	public void sendElementEvents(final ProviderPort sendingProviderPort, final Collection<DataElementEvent> events) throws BrokerException {
+		this.handler.sendElementEvents(this.moduleId, sendingProviderPort, events);
+	}
+
 	/**
 	 * Sends a module command.
 	 * <p>
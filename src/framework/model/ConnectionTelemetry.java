@@ -0,0 +1,167 @@
+package framework.model;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.google.common.collect.ImmutableMap;
+
+import framework.constants.Constants;
+import framework.model.summary.ConnectionTelemetrySummary;
+import framework.model.summary.OperationTelemetrySummary;
+import framework.model.type.ConnectionOperationType;
+
+/**
+ * Live telemetry of a single connection: Throughput over rolling windows (updated while streams are open), open stream counts and call counts/latencies per
+ * operation type. All methods are lock free and safe to call concurrently.
+ * <p>
+ * Throughput is kept in one slot per second. A slot is reset by the first writer of a new second, so bytes written concurrently exactly at a second boundary may
+ * get lost. That is acceptable for monitoring purposes.
+ *
+ * @author Stefan Werner
+ */
+public final class ConnectionTelemetry {
+
+	private static final int SLOT_COUNT = Constants.CORE___TELEMETRY_LONG_WINDOW_SECONDS + 1;
+
+	private final AtomicLongArray byteSlots = new AtomicLongArray(ConnectionTelemetry.SLOT_COUNT);
+	private final Map<ConnectionOperationType, LatencyHistogram> histograms;
+	private final AtomicInteger openInputStreams = new AtomicInteger();
+	private final AtomicInteger openOutputStreams = new AtomicInteger();
+	// second each slot currently belongs to
+	private final AtomicLongArray slotSeconds = new AtomicLongArray(ConnectionTelemetry.SLOT_COUNT);
+
+	/**
+	 * Instantiates a new connection telemetry.
+	 */
+	public ConnectionTelemetry() {
+		final Map<ConnectionOperationType, LatencyHistogram> map = new EnumMap<ConnectionOperationType, LatencyHistogram>(ConnectionOperationType.class);
+		for (final ConnectionOperationType type : ConnectionOperationType.values()) {
+			map.put(type, new LatencyHistogram());
+		}
+		this.histograms = map;
+	}
+
+	/**
+	 * Adds transfered bytes to the current second.
+	 *
+	 * @param bytes the number of bytes
+	 */
+	public void addTransferedBytes(final long bytes) {
+		final long second = getCurrentSecond();
+		final int slot = (int) (second % ConnectionTelemetry.SLOT_COUNT);
+		final long slotSecond = this.slotSeconds.get(slot);
+		if ((slotSecond != second) && this.slotSeconds.compareAndSet(slot, slotSecond, second)) {
+			this.byteSlots.set(slot, 0);
+		}
+		this.byteSlots.addAndGet(slot, bytes);
+	}
+
+	/**
+	 * Gets the average throughput over the given number of past (completed) seconds.
+	 *
+	 * @param windowSeconds the window in seconds (at most {@link Constants#CORE___TELEMETRY_LONG_WINDOW_SECONDS})
+	 * @return the bytes per second
+	 */
+	public long getBytesPerSecond(final int windowSeconds) {
+		final int window = Math.max(1, Math.min(windowSeconds, Constants.CORE___TELEMETRY_LONG_WINDOW_SECONDS));
+		final long currentSecond = getCurrentSecond();
+		long bytes = 0;
+		for (long second = currentSecond - window; second < currentSecond; second++) {
+			final int slot = (int) (second % ConnectionTelemetry.SLOT_COUNT);
+			if (this.slotSeconds.get(slot) == second) {
+				bytes += this.byteSlots.get(slot);
+			}
+		}
+		return bytes / window;
+	}
+
+	/**
+	 * Gets the current second.
+	 *
+	 * @return the current second
+	 */
+	private long getCurrentSecond() {
+		return TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+	}
+
+	/**
+	 * Gets the latency histogram of a given operation type.
+	 *
+	 * @param type the operation type
+	 * @return the histogram
+	 */
+	public LatencyHistogram getHistogram(final ConnectionOperationType type) {
+		return this.histograms.get(type);
+	}
+
+	/**
+	 * Gets the number of open input streams.
+	 *
+	 * @return the open input streams
+	 */
+	public int getOpenInputStreams() {
+		return this.openInputStreams.get();
+	}
+
+	/**
+	 * Gets the number of open output streams.
+	 *
+	 * @return the open output streams
+	 */
+	public int getOpenOutputStreams() {
+		return this.openOutputStreams.get();
+	}
+
+	/**
+	 * Creates a summary of the current state.
+	 *
+	 * @return the connection telemetry summary
+	 */
+	public ConnectionTelemetrySummary getSummary() {
+		final Map<ConnectionOperationType, OperationTelemetrySummary> operationSummaries = new EnumMap<ConnectionOperationType, OperationTelemetrySummary>(ConnectionOperationType.class);
+		for (final Map.Entry<ConnectionOperationType, LatencyHistogram> entry : this.histograms.entrySet()) {
+			final LatencyHistogram histogram = entry.getValue();
+			operationSummaries.put(entry.getKey(), new OperationTelemetrySummary(entry.getKey(), histogram.getCount(), histogram.getMean(), histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99), histogram.getMax()));
+		}
+		return new ConnectionTelemetrySummary(getBytesPerSecond(Constants.CORE___TELEMETRY_SHORT_WINDOW_SECONDS), getBytesPerSecond(Constants.CORE___TELEMETRY_LONG_WINDOW_SECONDS), this.openInputStreams.get(), this.openOutputStreams.get(), ImmutableMap.copyOf(operationSummaries));
+	}
+
+	/**
+	 * Records a finished operation.
+	 *
+	 * @param type the operation type
+	 * @param durationNanos the duration in nanoseconds
+	 */
+	public void recordOperation(final ConnectionOperationType type, final long durationNanos) {
+		this.histograms.get(type).record(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+	}
+
+	/**
+	 * Updates the number of open input streams.
+	 *
+	 * @param opened true if a stream was opened, false if closed
+	 */
+	public void updateOpenInputStreams(final boolean opened) {
+		if (opened) {
+			this.openInputStreams.incrementAndGet();
+		} else {
+			this.openInputStreams.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Updates the number of open output streams.
+	 *
+	 * @param opened true if a stream was opened, false if closed
+	 */
+	public void updateOpenOutputStreams(final boolean opened) {
+		if (opened) {
+			this.openOutputStreams.incrementAndGet();
+		} else {
+			this.openOutputStreams.decrementAndGet();
+		}
+	}
+}
@@ -17,11 +17,32 @@ public final class DataElement implements Comparable<DataElement> {
 
 	private Map<String, String> additionalProperties;
 	private final long modificationDate;
-	private final String name;
-	private final String[] path;
+	private final DataElementPath path;
+	// legacy array representation of the path, built on first call of getPath() (races only build equal arrays twice)
+	private volatile String[] pathArray = null;
 	private final long size;
 	private final DataElementType type;
 
+	/**
+	 * Instantiates a new data element with an already interned path.
+	 *
+	 * @param path the path
+	 * @param type the type
+	 * @param size the size
+	 * @param modificationDate the modification date
+	 * @param additionalProperties the additional properties (may be null)
+	 */
+	public DataElement(final DataElementPath path, final DataElementType type, final long size, final long modificationDate, final Map<String, String> additionalProperties) {
+		this.path = path;
+		this.type = type;
+		this.size = size;
+		this.modificationDate = modificationDate;
+		this.additionalProperties = additionalProperties;
+		if (!ObjectValidator.checkDataElement(this)) {
+			throw new IllegalArgumentException();
+		}
+	}
+
 	/**
 	 * Instantiates a new data element with the given path and meta data set to default values:<br>
 	 * <code>type = DataElementType.NONEXISTENT_OR_UNKNOWN; size = 0; modificationDate = System.currentTimeMillis(); additionalProperties = null;</code>
@@ -29,12 +50,7 @@ public final class DataElement implements Comparable<DataElement> {
 	 * @param path the path
 	 */
 	public DataElement(final String[] path) {
-		if (path.length > 0) {
-			this.name = path[path.length - 1];
-		} else {
-			this.name = null;
-		}
-		this.path = path;
+		this.path = DataElementPath.of(path);
 		this.type = DataElementType.NONEXISTENT_OR_UNKNOWN;
 		this.size = 0;
 		this.modificationDate = System.currentTimeMillis();
@@ -51,17 +67,12 @@ public final class DataElement implements Comparable<DataElement> {
 	 * @param oldElement the old element
 	 */
 	public DataElement(final String[] newPath, final DataElement oldElement) {
-		if (newPath.length > 0) {
-			this.name = newPath[newPath.length - 1];
-		} else {
-			this.name = null;
-		}
-		this.path = newPath;
+		this.path = DataElementPath.of(newPath);
 		this.type = oldElement.getType();
 		this.size = oldElement.getSize();
 		this.modificationDate = oldElement.getModificationDate();
 		this.additionalProperties = oldElement.getAdditionalProperties();
-		if (!ObjectValidator.checkPath(this.path)) {
+		if (!ObjectValidator.checkPath(newPath)) {
 			throw new IllegalArgumentException();
 		}
 	}
@@ -76,12 +87,7 @@ public final class DataElement implements Comparable<DataElement> {
 	 * @param additionalProperties the additional properties
 	 */
 	public DataElement(final String[] path, final DataElementType type, final long size, final long modificationDate, final Map<String, String> additionalProperties) {
-		if (path.length > 0) {
-			this.name = path[path.length - 1];
-		} else {
-			this.name = null;
-		}
-		this.path = Arrays.copyOf(path, path.length);
+		this.path = DataElementPath.of(path);
 		this.type = type;
 		this.size = size;
 		this.modificationDate = modificationDate;
@@ -100,12 +106,7 @@ public final class DataElement implements Comparable<DataElement> {
 	 * @param modificationDate the modification date
 	 */
 	public DataElement(final String[] path, final DataElementType type, final Long size, final Long modificationDate) {
-		if (path.length > 0) {
-			this.name = path[path.length - 1];
-		} else {
-			this.name = null;
-		}
-		this.path = path;
+		this.path = DataElementPath.of(path);
 		this.type = type;
 		this.size = size;
 		this.modificationDate = modificationDate;
@@ -123,12 +124,7 @@ public final class DataElement implements Comparable<DataElement> {
 	 * @param additionalProperties the additional properties
 	 */
 	public DataElement(final String[] path, final Map<String, String> additionalProperties) {
-		if (path.length > 0) {
-			this.name = path[path.length - 1];
-		} else {
-			this.name = null;
-		}
-		this.path = path;
+		this.path = DataElementPath.of(path);
 		this.type = DataElementType.NONEXISTENT_OR_UNKNOWN;
 		this.size = 0;
 		this.modificationDate = System.currentTimeMillis();
@@ -180,7 +176,7 @@ public final class DataElement implements Comparable<DataElement> {
 	 * @return the cloned data element
 	 */
 	public DataElement cloneWithoutAdditionalProperties() {
-		return new DataElement(this.path, this.type, this.size, this.modificationDate);
+		return new DataElement(this.path, this.type, this.size, this.modificationDate, null);
 	}
 
 	/* (non-Javadoc)
@@ -188,7 +184,7 @@ public final class DataElement implements Comparable<DataElement> {
 	 * @see java.lang.Comparable#compareTo(java.lang.Object) */
 	@Override
 	public int compareTo(final DataElement arg0) {
-		return Arrays.toString(this.path).compareTo(Arrays.toString(arg0.path));
+		return this.path.compareTo(arg0.path);
 	}
 
 	/* (non-Javadoc)
@@ -209,7 +205,7 @@ public final class DataElement implements Comparable<DataElement> {
 		if (this.modificationDate != other.modificationDate) {
 			return false;
 		}
-		if (!Arrays.equals(this.path, other.path)) {
+		if (!this.path.equals(other.path)) {
 			return false;
 		}
 		if (this.size != other.size) {
@@ -259,18 +255,32 @@ public final class DataElement implements Comparable<DataElement> {
 	 * @return the name
 	 */
 	public String getName() {
-		return this.name;
+		return this.path.getName();
 	}
 
 	/**
-	 * Gets the path.
+	 * Gets the path as interned path object. Prefer this over {@link #getPath()} for comparisons and as map key.
 	 *
 	 * @return the path
 	 */
-	public String[] getPath() {
+	public DataElementPath getDataElementPath() {
 		return this.path;
 	}
 
+	/**
+	 * Gets the path.
+	 *
+	 * @return the path (the same array on every call, must not be modified)
+	 */
+	public String[] getPath() {
+		String[] result = this.pathArray;
+		if (result == null) {
+			result = this.path.toArray();
+			this.pathArray = result;
+		}
+		return result;
+	}
+
 	/**
 	 * Gets the size.
 	 *
@@ -320,7 +330,7 @@ public final class DataElement implements Comparable<DataElement> {
 		final int prime = 31;
 		int result = 1;
 		result = (prime * result) + (int) (this.modificationDate ^ (this.modificationDate >>> 32));
-		result = (prime * result) + Arrays.hashCode(this.path);
+		result = (prime * result) + this.path.hashCode();
 		result = (prime * result) + (int) (this.size ^ (this.size >>> 32));
 		result = (prime * result) + ((this.type == null) ? 0 : this.type.hashCode());
 		return result;
@@ -340,6 +350,6 @@ public final class DataElement implements Comparable<DataElement> {
 	 * @see java.lang.Object#toString() */
 	@Override
 	public String toString() {
-		return "DataElement [name=" + this.name + ", path=" + Arrays.toString(this.path) + ", size=" + this.size + ", modificationDate=" + this.modificationDate + ", additionalProperties=" + this.additionalProperties + ", type=" + this.type + "]";
+		return "DataElement [name=" + this.path.getName() + ", path=" + Arrays.toString(this.path.toArray()) + ", size=" + this.size + ", modificationDate=" + this.modificationDate + ", additionalProperties=" + this.additionalProperties + ", type=" + this.type + "]";
 	}
 }
@@ -12,7 +12,7 @@ import module.iface.DataElementEventListener;
 public final class DataElementEventSubscription {
 
 	private final DataElementEventListener dataElementEventListener;
-	private final String[] path;
+	private final DataElementPath path;
 	private final boolean recursive;
 
 	/**
@@ -23,7 +23,7 @@ public final class DataElementEventSubscription {
 	 * @param dataElementEventListener the data element event listener
 	 */
 	public DataElementEventSubscription(final String[] path, final boolean recursive, final DataElementEventListener dataElementEventListener) {
-		this.path = path;
+		this.path = DataElementPath.of(path);
 		this.recursive = recursive;
 		this.dataElementEventListener = dataElementEventListener;
 	}
@@ -50,7 +50,7 @@ public final class DataElementEventSubscription {
 		} else if (!this.dataElementEventListener.equals(other.dataElementEventListener)) {
 			return false;
 		}
-		if (!Arrays.equals(this.path, other.path)) {
+		if (!this.path.equals(other.path)) {
 			return false;
 		}
 		if (this.recursive != other.recursive) {
@@ -69,14 +69,23 @@ public final class DataElementEventSubscription {
 	}
 
 	/**
-	 * Gets the path.
+	 * Gets the path as interned path object.
 	 *
 	 * @return the path
 	 */
-	public String[] getPath() {
+	public DataElementPath getDataElementPath() {
 		return this.path;
 	}
 
+	/**
+	 * Gets the path.
+	 *
+	 * @return the path (a new array on every call)
+	 */
+	public String[] getPath() {
+		return this.path.toArray();
+	}
+
 	/* (non-Javadoc)
 	 *
 	 * @see java.lang.Object#hashCode() */
@@ -85,7 +94,7 @@ public final class DataElementEventSubscription {
 		final int prime = 31;
 		int result = 1;
 		result = (prime * result) + ((this.dataElementEventListener == null) ? 0 : this.dataElementEventListener.hashCode());
-		result = (prime * result) + Arrays.hashCode(this.path);
+		result = (prime * result) + this.path.hashCode();
 		result = (prime * result) + (this.recursive ? 1231 : 1237);
 		return result;
 	}
@@ -96,21 +105,24 @@ public final class DataElementEventSubscription {
 	 * @param otherPath the other path
 	 * @return true, if successful
 	 */
-	public boolean isIncluded(final String[] otherPath) {
-		if (otherPath.length < this.path.length) {
-			return false;
-		} else if ((otherPath.length == this.path.length) || ((otherPath.length > this.path.length) && this.recursive)) {
-			for (int i = 0; i < this.path.length; i++) {
-				if (!otherPath[i].equals(this.path[i])) {
-					return false;
-				}
-			}
-			return true;
+	public boolean isIncluded(final DataElementPath otherPath) {
+		if (otherPath.getDepth() == this.path.getDepth()) {
+			return otherPath.equals(this.path);
 		} else {
-			return false;
+			return this.recursive && this.path.isPrefixOf(otherPath);
 		}
 	}
 
+	/**
+	 * Checks if a given path is included in this subscription.
+	 *
+	 * @param otherPath the other path
+	 * @return true, if successful
+	 */
+	public boolean isIncluded(final String[] otherPath) {
+		return isIncluded(DataElementPath.of(otherPath));
+	}
+
 	/**
 	 * Checks if subscription is recursive.
 	 *
@@ -125,6 +137,6 @@ public final class DataElementEventSubscription {
 	 * @see java.lang.Object#toString() */
 	@Override
 	public String toString() {
-		return "DataElementEventSubscription [path=" + Arrays.toString(this.path) + ", recursive=" + this.recursive + ", dataElementEventListener=" + this.dataElementEventListener + "]";
+		return "DataElementEventSubscription [path=" + Arrays.toString(this.path.toArray()) + ", recursive=" + this.recursive + ", dataElementEventListener=" + this.dataElementEventListener + "]";
 	}
 }
@@ -0,0 +1,342 @@
+package framework.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import module.iface.DataElementEventListener;
+
+/**
+ * Prefix trie holding all data element event subscriptions of a single prosumer port. Subscriptions are stored at the node matching their path, separated into
+ * recursive and non-recursive ones. This way looking up the subscriptions including a given path only costs O(path depth) instead of comparing the path against
+ * every single subscription.
+ * <p>
+ * IMPORTANT: This class is not thread-safe. Used only inside the framework/broker which guards access by its subscription lock.
+ *
+ * @author Stefan Werner
+ */
+public final class DataElementEventSubscriptionIndex {
+
+	/**
+	 * A single node of the trie corresponding to one path element.
+	 */
+	private static final class Node {
+
+		private Map<String, Node> children = null;
+		private Set<DataElementEventSubscription> nonRecursiveSubscriptions = null;
+		private final Node parent;
+		private Set<DataElementEventSubscription> recursiveSubscriptions = null;
+		private final String segment;
+
+		/**
+		 * Instantiates a new node.
+		 *
+		 * @param parent the parent node (null for root)
+		 * @param segment the path element (null for root)
+		 */
+		private Node(final Node parent, final String segment) {
+			this.parent = parent;
+			this.segment = segment;
+		}
+
+		/**
+		 * Checks if node holds neither subscriptions nor children and may therefore be pruned.
+		 *
+		 * @return true, if unused
+		 */
+		private boolean isUnused() {
+			return ((this.children == null) || this.children.isEmpty()) && ((this.nonRecursiveSubscriptions == null) || this.nonRecursiveSubscriptions.isEmpty()) && ((this.recursiveSubscriptions == null) || this.recursiveSubscriptions.isEmpty());
+		}
+	}
+
+	private final Node root = new Node(null, null);
+	private final Set<DataElementEventSubscription> subscriptions = new HashSet<DataElementEventSubscription>();
+
+	/**
+	 * Adds a subscription.
+	 *
+	 * @param subscription the subscription
+	 * @return true, if added (false if already present)
+	 */
+	public boolean add(final DataElementEventSubscription subscription) {
+		if (!this.subscriptions.add(subscription)) {
+			return false;
+		}
+		Node node = this.root;
+		for (final String segment : subscription.getPath()) {
+			if (node.children == null) {
+				node.children = new HashMap<String, Node>();
+			}
+			Node child = node.children.get(segment);
+			if (child == null) {
+				child = new Node(node, segment);
+				node.children.put(segment, child);
+			}
+			node = child;
+		}
+		if (subscription.isRecursive()) {
+			if (node.recursiveSubscriptions == null) {
+				node.recursiveSubscriptions = new HashSet<DataElementEventSubscription>();
+			}
+			node.recursiveSubscriptions.add(subscription);
+		} else {
+			if (node.nonRecursiveSubscriptions == null) {
+				node.nonRecursiveSubscriptions = new HashSet<DataElementEventSubscription>();
+			}
+			node.nonRecursiveSubscriptions.add(subscription);
+		}
+		return true;
+	}
+
+	/**
+	 * Finds the node exactly matching a given path.
+	 *
+	 * @param path the path
+	 * @return the node (null if none)
+	 */
+	private Node findNode(final String[] path) {
+		Node node = this.root;
+		for (final String segment : path) {
+			if (node.children == null) {
+				return null;
+			}
+			node = node.children.get(segment);
+			if (node == null) {
+				return null;
+			}
+		}
+		return node;
+	}
+
+	/**
+	 * Gets all subscriptions.
+	 *
+	 * @return the subscriptions (unmodifiable view)
+	 */
+	public Set<DataElementEventSubscription> getAll() {
+		return Collections.unmodifiableSet(this.subscriptions);
+	}
+
+	/**
+	 * Gets all subscriptions that include a given path (see {@link DataElementEventSubscription#isIncluded(String[])}).
+	 *
+	 * @param path the path
+	 * @return the subscriptions (not null)
+	 */
+	public Set<DataElementEventSubscription> getIncluded(final String[] path) {
+		final Set<DataElementEventSubscription> result = new HashSet<DataElementEventSubscription>();
+		Node node = this.root;
+		for (int i = 0; i <= path.length; i++) {
+			if (node.recursiveSubscriptions != null) {
+				result.addAll(node.recursiveSubscriptions);
+			}
+			if (i == path.length) {
+				if (node.nonRecursiveSubscriptions != null) {
+					result.addAll(node.nonRecursiveSubscriptions);
+				}
+			} else {
+				if (node.children == null) {
+					break;
+				}
+				node = node.children.get(path[i]);
+				if (node == null) {
+					break;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets all subscriptions that include a given path, see {@link #getIncluded(String[])}. The path is walked without copying it.
+	 *
+	 * @param path the path
+	 * @return the subscriptions (not null)
+	 */
+	public Set<DataElementEventSubscription> getIncluded(final DataElementPath path) {
+		final Set<DataElementEventSubscription> result = new HashSet<DataElementEventSubscription>();
+		final int depth = path.getDepth();
+		Node node = this.root;
+		for (int i = 0; i <= depth; i++) {
+			if (node.recursiveSubscriptions != null) {
+				result.addAll(node.recursiveSubscriptions);
+			}
+			if (i == depth) {
+				if (node.nonRecursiveSubscriptions != null) {
+					result.addAll(node.nonRecursiveSubscriptions);
+				}
+			} else {
+				if (node.children == null) {
+					break;
+				}
+				node = node.children.get(path.getSegment(i));
+				if (node == null) {
+					break;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the listeners of all subscriptions that include a given path, see {@link #getIncludedListeners(String[])}.
+	 *
+	 * @param path the path
+	 * @return the listeners (not null)
+	 */
+	public Set<DataElementEventListener> getIncludedListeners(final DataElementPath path) {
+		final Set<DataElementEventListener> result = new HashSet<DataElementEventListener>();
+		for (final DataElementEventSubscription subscription : getIncluded(path)) {
+			result.add(subscription.getDataElementEventListener());
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the listeners of all subscriptions that include a given path.
+	 *
+	 * @param path the path
+	 * @return the listeners (not null)
+	 */
+	public Set<DataElementEventListener> getIncludedListeners(final String[] path) {
+		final Set<DataElementEventListener> result = new HashSet<DataElementEventListener>();
+		for (final DataElementEventSubscription subscription : getIncluded(path)) {
+			result.add(subscription.getDataElementEventListener());
+		}
+		return result;
+	}
+
+	/**
+	 * Checks if there is at least one subscription including a given path.
+	 *
+	 * @param path the path
+	 * @return true, if included
+	 */
+	public boolean includes(final String[] path) {
+		Node node = this.root;
+		for (int i = 0; i <= path.length; i++) {
+			if ((node.recursiveSubscriptions != null) && !node.recursiveSubscriptions.isEmpty()) {
+				return true;
+			}
+			if (i == path.length) {
+				return (node.nonRecursiveSubscriptions != null) && !node.nonRecursiveSubscriptions.isEmpty();
+			}
+			if (node.children == null) {
+				return false;
+			}
+			node = node.children.get(path[i]);
+			if (node == null) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks if empty.
+	 *
+	 * @return true, if there are no subscriptions
+	 */
+	public boolean isEmpty() {
+		return this.subscriptions.isEmpty();
+	}
+
+	/**
+	 * Removes nodes that became unused, starting at a given node and going up to the root.
+	 *
+	 * @param node the node to start at
+	 */
+	private void prune(Node node) {
+		while ((node != this.root) && node.isUnused()) {
+			node.parent.children.remove(node.segment);
+			node = node.parent;
+		}
+	}
+
+	/**
+	 * Removes a subscription.
+	 *
+	 * @param subscription the subscription
+	 * @return true, if removed
+	 */
+	public boolean remove(final DataElementEventSubscription subscription) {
+		if (!this.subscriptions.remove(subscription)) {
+			return false;
+		}
+		final Node node = findNode(subscription.getPath());
+		if (node != null) {
+			if (subscription.isRecursive()) {
+				if (node.recursiveSubscriptions != null) {
+					node.recursiveSubscriptions.remove(subscription);
+				}
+			} else if (node.nonRecursiveSubscriptions != null) {
+				node.nonRecursiveSubscriptions.remove(subscription);
+			}
+			prune(node);
+		}
+		return true;
+	}
+
+	/**
+	 * Removes all subscriptions of a given listener.
+	 *
+	 * @param dataElementEventListener the data element event listener
+	 * @return true, if at least one subscription was removed
+	 */
+	public boolean removeAll(final DataElementEventListener dataElementEventListener) {
+		boolean result = false;
+		for (final DataElementEventSubscription subscription : new HashSet<DataElementEventSubscription>(this.subscriptions)) {
+			if (subscription.getDataElementEventListener().equals(dataElementEventListener)) {
+				result |= remove(subscription);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Removes all subscriptions with exactly the given path, optionally only those of a given listener.
+	 *
+	 * @param path the path
+	 * @param dataElementEventListener the data element event listener (may be null to remove subscriptions of all listeners)
+	 * @return true, if at least one subscription was removed
+	 */
+	public boolean removeAll(final String[] path, final DataElementEventListener dataElementEventListener) {
+		final Node node = findNode(path);
+		if (node == null) {
+			return false;
+		}
+		final Set<DataElementEventSubscription> toRemove = new HashSet<DataElementEventSubscription>();
+		if (node.recursiveSubscriptions != null) {
+			toRemove.addAll(node.recursiveSubscriptions);
+		}
+		if (node.nonRecursiveSubscriptions != null) {
+			toRemove.addAll(node.nonRecursiveSubscriptions);
+		}
+		boolean result = false;
+		for (final DataElementEventSubscription subscription : toRemove) {
+			if ((dataElementEventListener == null) || subscription.getDataElementEventListener().equals(dataElementEventListener)) {
+				result |= remove(subscription);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the number of subscriptions.
+	 *
+	 * @return the number of subscriptions
+	 */
+	public int size() {
+		return this.subscriptions.size();
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString() */
+	@Override
+	public String toString() {
+		return "DataElementEventSubscriptionIndex [subscriptions=" + this.subscriptions + "]";
+	}
+}
@@ -0,0 +1,250 @@
+package framework.model;
+
+import java.util.Arrays;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Immutable path of a data element. Paths are interned: There is at most one instance per distinct path, so equal paths are usually identical objects and
+ * comparing them is cheap. Every path points to its parent path and only stores its last segment, so paths below the same folder share all common segments
+ * (segment strings are interned as well). The hash code is computed once and equals {@link Arrays#hashCode(Object[])} of the corresponding array.
+ * <p>
+ * Modules still exchange paths as String arrays, use {@link #of(String...)} and {@link #toArray()} to convert between both representations. To walk a path
+ * from the root without copying it use {@link #getDepth()} and {@link #getSegment(int)}. Instances are thread-safe.
+ *
+ * @author Stefan Werner
+ */
+public final class DataElementPath implements Comparable<DataElementPath> {
+
+	private static final Interner<DataElementPath> PATH_INTERNER = Interners.newWeakInterner();
+	private static final Interner<String> SEGMENT_INTERNER = Interners.newWeakInterner();
+	// the empty path
+	public static final DataElementPath ROOT = new DataElementPath(null, null);
+
+	/**
+	 * Gets the interned path for the given path array.
+	 *
+	 * @param path the path array
+	 * @return the path
+	 * @throws IllegalArgumentException if the path array contains null elements
+	 */
+	public static DataElementPath of(final String... path) {
+		DataElementPath result = DataElementPath.ROOT;
+		for (final String segment : path) {
+			result = result.child(segment);
+		}
+		return result;
+	}
+
+	private final int depth;
+	private final int hash;
+	private final DataElementPath parent;
+	private final String segment;
+
+	/**
+	 * Instantiates a new (not yet interned) data element path.
+	 *
+	 * @param parent the parent path (null for root)
+	 * @param segment the last segment (null for root)
+	 */
+	private DataElementPath(final DataElementPath parent, final String segment) {
+		this.parent = parent;
+		this.segment = segment;
+		if (parent == null) {
+			this.depth = 0;
+			this.hash = 1;
+		} else {
+			this.depth = parent.depth + 1;
+			this.hash = (31 * parent.hash) + segment.hashCode();
+		}
+	}
+
+	/**
+	 * Appends the segments separated by "/" to a string builder.
+	 *
+	 * @param builder the builder
+	 */
+	private void appendTo(final StringBuilder builder) {
+		if (this.parent.parent != null) {
+			this.parent.appendTo(builder);
+			builder.append('/');
+		}
+		builder.append(this.segment);
+	}
+
+	/**
+	 * Gets the interned child path with the given segment appended.
+	 *
+	 * @param segment the segment
+	 * @return the child path
+	 * @throws IllegalArgumentException if segment is null
+	 */
+	public DataElementPath child(final String segment) {
+		if (segment == null) {
+			throw new IllegalArgumentException("invalid path segment");
+		}
+		return DataElementPath.PATH_INTERNER.intern(new DataElementPath(this, DataElementPath.SEGMENT_INTERNER.intern(segment)));
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.lang.Comparable#compareTo(java.lang.Object) */
+	@Override
+	public int compareTo(final DataElementPath other) {
+		if (this == other) {
+			return 0;
+		}
+		// bring both paths to the same depth, a path is sorted before all of its children
+		DataElementPath a = getAncestor(Math.min(this.depth, other.depth));
+		DataElementPath b = other.getAncestor(a.depth);
+		if (a.equals(b)) {
+			return this.depth - other.depth;
+		}
+		// find the first differing segments below a common parent
+		while (!a.parent.equals(b.parent)) {
+			a = a.parent;
+			b = b.parent;
+		}
+		return a.segment.compareTo(b.segment);
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.lang.Object#equals(java.lang.Object) */
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof DataElementPath)) {
+			return false;
+		}
+		final DataElementPath other = (DataElementPath) obj;
+		if ((this.hash != other.hash) || (this.depth != other.depth) || (this.parent == null)) {
+			return false;
+		}
+		return this.segment.equals(other.segment) && this.parent.equals(other.parent);
+	}
+
+	/**
+	 * Gets the ancestor at the given depth.
+	 *
+	 * @param ancestorDepth the depth of the ancestor (0 to depth of this path)
+	 * @return the ancestor (this path if depth is equal)
+	 */
+	private DataElementPath getAncestor(final int ancestorDepth) {
+		DataElementPath result = this;
+		while (result.depth > ancestorDepth) {
+			result = result.parent;
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the depth (number of segments).
+	 *
+	 * @return the depth (0 for root)
+	 */
+	public int getDepth() {
+		return this.depth;
+	}
+
+	/**
+	 * Gets the name (last segment).
+	 *
+	 * @return the name (null for root)
+	 */
+	public String getName() {
+		return this.segment;
+	}
+
+	/**
+	 * Gets the segment at the given index without copying the path. The parent chain is walked, so the cost is O(depth - index) (paths are short, nothing is
+	 * cached per path).
+	 *
+	 * @param index the index (0 to depth - 1)
+	 * @return the segment
+	 * @throws ArrayIndexOutOfBoundsException if index is out of range
+	 */
+	public String getSegment(final int index) {
+		if ((index < 0) || (index >= this.depth)) {
+			throw new ArrayIndexOutOfBoundsException(index);
+		}
+		return getAncestor(index + 1).segment;
+	}
+
+	/**
+	 * Gets the parent path.
+	 *
+	 * @return the parent path (null for root)
+	 */
+	public DataElementPath getParent() {
+		return this.parent;
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.lang.Object#hashCode() */
+	@Override
+	public int hashCode() {
+		return this.hash;
+	}
+
+	/**
+	 * Checks if this path is equal to or an ancestor of another path.
+	 *
+	 * @param other the other path
+	 * @return true, if prefix
+	 */
+	public boolean isPrefixOf(final DataElementPath other) {
+		return (other.depth >= this.depth) && equals(other.getAncestor(this.depth));
+	}
+
+	/**
+	 * Checks if one path is a prefix of the other (paths are equal or one contains the other).
+	 *
+	 * @param other the other path
+	 * @return true, if related
+	 */
+	public boolean isRelated(final DataElementPath other) {
+		return (this.depth <= other.depth) ? isPrefixOf(other) : other.isPrefixOf(this);
+	}
+
+	/**
+	 * Checks if this is the root (empty) path.
+	 *
+	 * @return true, if root
+	 */
+	public boolean isRoot() {
+		return this.parent == null;
+	}
+
+	/**
+	 * Converts this path to a new path array.
+	 *
+	 * @return the path array
+	 */
+	public String[] toArray() {
+		final String[] result = new String[this.depth];
+		DataElementPath path = this;
+		for (int i = this.depth - 1; i >= 0; i--) {
+			result[i] = path.segment;
+			path = path.parent;
+		}
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString() */
+	@Override
+	public String toString() {
+		if (this.parent == null) {
+			return "";
+		}
+		final StringBuilder builder = new StringBuilder();
+		appendTo(builder);
+		return builder.toString();
+	}
+}
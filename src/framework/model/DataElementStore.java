@@ -0,0 +1,371 @@
+package framework.model;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import framework.model.type.DataElementType;
+
+/**
+ * Memory compact collection of data elements with at most one element per path. Meta data is kept column-wise in primitive arrays instead of one
+ * {@link DataElement} object per entry, paths are the interned {@link DataElementPath} objects (sharing their segments with all other paths) and lookups by path
+ * use an open addressing hash table of plain ints. {@link DataElement} objects are only created on demand as views of the stored values.
+ * <p>
+ * Views are independent from the store except for additional properties: The property map of an element is stored and handed out by reference (like a cached
+ * element object would be), so it must not be modified afterwards.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Stefan Werner
+ */
+public final class DataElementStore extends AbstractCollection<DataElement> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final DataElementType[] TYPES = DataElementType.values();
+
+	/**
+	 * Spreads the hash code of a path to all bits.
+	 *
+	 * @param hash the hash code
+	 * @return the spread hash code
+	 */
+	private static int spread(final int hash) {
+		final int h = hash * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private int count = 0;
+	private long[] modificationDates;
+	// modification counter to detect concurrent modifications during iteration
+	private int modCount = 0;
+	private DataElementPath[] paths;
+	// null until the first element with additional properties is added
+	private Map<String, String>[] properties = null;
+	private long[] sizes;
+	// index + 1 of the entry for each slot, 0 if slot is empty
+	private int[] table;
+	// type ordinal, -1 for null
+	private byte[] types;
+
+	/**
+	 * Instantiates a new empty data element store.
+	 */
+	public DataElementStore() {
+		this(DataElementStore.DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Instantiates a new empty data element store.
+	 *
+	 * @param expectedSize the expected number of elements
+	 */
+	public DataElementStore(final int expectedSize) {
+		final int capacity = Math.max(expectedSize, DataElementStore.DEFAULT_CAPACITY);
+		this.paths = new DataElementPath[capacity];
+		this.types = new byte[capacity];
+		this.sizes = new long[capacity];
+		this.modificationDates = new long[capacity];
+		this.table = new int[tableSizeFor(capacity)];
+	}
+
+	/**
+	 * Adds an element, replacing a stored element with the same path.
+	 *
+	 * @param element the element
+	 * @return true, if store was changed (always true)
+	 */
+	@Override
+	public boolean add(final DataElement element) {
+		put(element);
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.util.AbstractCollection#clear() */
+	@Override
+	public void clear() {
+		Arrays.fill(this.paths, 0, this.count, null);
+		if (this.properties != null) {
+			Arrays.fill(this.properties, 0, this.count, null);
+		}
+		Arrays.fill(this.table, 0);
+		this.count = 0;
+		this.modCount++;
+	}
+
+	/**
+	 * Checks if the store contains an element equal to the given one (same path and meta data).
+	 *
+	 * @param obj the object
+	 * @return true, if contained
+	 */
+	@Override
+	public boolean contains(final Object obj) {
+		if (!(obj instanceof DataElement)) {
+			return false;
+		}
+		final DataElement element = (DataElement) obj;
+		final int index = indexOf(element.getDataElementPath());
+		return (index >= 0) && element.equals(view(index));
+	}
+
+	/**
+	 * Checks if the store contains an element with the given path.
+	 *
+	 * @param path the path
+	 * @return true, if contained
+	 */
+	public boolean containsPath(final DataElementPath path) {
+		return indexOf(path) >= 0;
+	}
+
+	/**
+	 * Makes sure the column arrays can hold the given number of elements.
+	 *
+	 * @param minCapacity the minimum capacity
+	 */
+	@SuppressWarnings("unchecked")
+	private void ensureCapacity(final int minCapacity) {
+		if (minCapacity <= this.paths.length) {
+			return;
+		}
+		final int capacity = Math.max(minCapacity, this.paths.length + (this.paths.length >> 1));
+		this.paths = Arrays.copyOf(this.paths, capacity);
+		this.types = Arrays.copyOf(this.types, capacity);
+		this.sizes = Arrays.copyOf(this.sizes, capacity);
+		this.modificationDates = Arrays.copyOf(this.modificationDates, capacity);
+		if (this.properties != null) {
+			this.properties = Arrays.copyOf(this.properties, capacity);
+		}
+		final int tableSize = tableSizeFor(capacity);
+		if (tableSize > this.table.length) {
+			this.table = new int[tableSize];
+			for (int i = 0; i < this.count; i++) {
+				this.table[findSlot(this.paths[i])] = i + 1;
+			}
+		}
+	}
+
+	/**
+	 * Finds the slot of a path, either the slot containing it or the empty slot where it would be inserted.
+	 *
+	 * @param path the path
+	 * @return the slot
+	 */
+	private int findSlot(final DataElementPath path) {
+		final int mask = this.table.length - 1;
+		int slot = DataElementStore.spread(path.hashCode()) & mask;
+		int entry;
+		while (((entry = this.table[slot]) != 0) && !this.paths[entry - 1].equals(path)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Gets a view of the element with the given path.
+	 *
+	 * @param path the path
+	 * @return the element (null if not contained)
+	 */
+	public DataElement get(final DataElementPath path) {
+		final int index = indexOf(path);
+		return index >= 0 ? view(index) : null;
+	}
+
+	/**
+	 * Gets the index of the entry with the given path.
+	 *
+	 * @param path the path
+	 * @return the index (-1 if not contained)
+	 */
+	private int indexOf(final DataElementPath path) {
+		if (path == null) {
+			return -1;
+		}
+		return this.table[findSlot(path)] - 1;
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.util.AbstractCollection#iterator() */
+	@Override
+	public Iterator<DataElement> iterator() {
+		return new Iterator<DataElement>() {
+
+			private int expectedModCount = DataElementStore.this.modCount;
+			private DataElementPath lastPath = null;
+			private int next = 0;
+
+			@Override
+			public boolean hasNext() {
+				return this.next < DataElementStore.this.count;
+			}
+
+			@Override
+			public DataElement next() {
+				if (this.expectedModCount != DataElementStore.this.modCount) {
+					throw new ConcurrentModificationException();
+				}
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				this.lastPath = DataElementStore.this.paths[this.next];
+				return view(this.next++);
+			}
+
+			@Override
+			public void remove() {
+				if (this.lastPath == null) {
+					throw new IllegalStateException();
+				}
+				if (this.expectedModCount != DataElementStore.this.modCount) {
+					throw new ConcurrentModificationException();
+				}
+				// last entry is moved to the removed position, so visit that position again
+				removePath(this.lastPath);
+				this.lastPath = null;
+				this.next--;
+				this.expectedModCount = DataElementStore.this.modCount;
+			}
+		};
+	}
+
+	/**
+	 * Adds an element, replacing a stored element with the same path.
+	 *
+	 * @param element the element
+	 * @return true, if an element with the same path was replaced
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public boolean put(final DataElement element) {
+		final DataElementPath path = element.getDataElementPath();
+		int slot = findSlot(path);
+		int index = this.table[slot] - 1;
+		final boolean replaced = index >= 0;
+		if (!replaced) {
+			if (this.count == this.paths.length) {
+				// the table may be rebuilt
+				ensureCapacity(this.count + 1);
+				slot = findSlot(path);
+			}
+			index = this.count++;
+			this.paths[index] = path;
+			this.table[slot] = index + 1;
+			this.modCount++;
+		}
+		final DataElementType type = element.getType();
+		this.types[index] = (byte) (type == null ? -1 : type.ordinal());
+		this.sizes[index] = element.getSize();
+		this.modificationDates[index] = element.getModificationDate();
+		if (element.hasAdditionalProperties()) {
+			if (this.properties == null) {
+				this.properties = new Map[this.paths.length];
+			}
+			this.properties[index] = element.getAdditionalProperties();
+		} else if (this.properties != null) {
+			this.properties[index] = null;
+		}
+		return replaced;
+	}
+
+	/**
+	 * Removes the given element if an equal element (same path and meta data) is stored.
+	 *
+	 * @param obj the object
+	 * @return true, if removed
+	 */
+	@Override
+	public boolean remove(final Object obj) {
+		if (contains(obj)) {
+			removePath(((DataElement) obj).getDataElementPath());
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Removes the element with the given path.
+	 *
+	 * @param path the path
+	 * @return a view of the removed element (null if not contained)
+	 */
+	public DataElement removePath(final DataElementPath path) {
+		if (path == null) {
+			return null;
+		}
+		final int mask = this.table.length - 1;
+		int slot = findSlot(path);
+		final int index = this.table[slot] - 1;
+		if (index < 0) {
+			return null;
+		}
+		final DataElement result = view(index);
+		// backward shift deletion keeps all probe sequences intact without tombstones
+		int next = slot;
+		while (true) {
+			next = (next + 1) & mask;
+			final int entry = this.table[next];
+			if (entry == 0) {
+				break;
+			}
+			final int home = DataElementStore.spread(this.paths[entry - 1].hashCode()) & mask;
+			if (((next - home) & mask) >= ((next - slot) & mask)) {
+				this.table[slot] = entry;
+				slot = next;
+			}
+		}
+		this.table[slot] = 0;
+		// move last entry into the gap to keep the columns dense
+		final int last = --this.count;
+		if (index != last) {
+			this.table[findSlot(this.paths[last])] = index + 1;
+			this.paths[index] = this.paths[last];
+			this.types[index] = this.types[last];
+			this.sizes[index] = this.sizes[last];
+			this.modificationDates[index] = this.modificationDates[last];
+			if (this.properties != null) {
+				this.properties[index] = this.properties[last];
+			}
+		}
+		this.paths[last] = null;
+		if (this.properties != null) {
+			this.properties[last] = null;
+		}
+		this.modCount++;
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.util.AbstractCollection#size() */
+	@Override
+	public int size() {
+		return this.count;
+	}
+
+	/**
+	 * Gets the hash table size for the given capacity (power of two, load factor below 2/3).
+	 *
+	 * @param capacity the capacity
+	 * @return the table size
+	 */
+	private int tableSizeFor(final int capacity) {
+		return Integer.highestOneBit(capacity + (capacity >> 1)) << 1;
+	}
+
+	/**
+	 * Creates a data element view of an entry.
+	 *
+	 * @param index the index
+	 * @return the element
+	 */
+	private DataElement view(final int index) {
+		final byte type = this.types[index];
+		return new DataElement(this.paths[index], type < 0 ? null : DataElementStore.TYPES[type], this.sizes[index], this.modificationDates[index], this.properties == null ? null : this.properties[index]);
+	}
+}
@@ -0,0 +1,125 @@
+package framework.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free histogram of latencies in microseconds. Like HdrHistogram values are recorded into exponentially growing buckets that are split into a fixed number
+ * of linear sub buckets, so memory usage is constant and the relative error of every reported value is below 1 / {@value #SUB_BUCKET_COUNT}. Values larger than
+ * the highest trackable value are clamped.
+ *
+ * @author Stefan Werner
+ */
+public final class LatencyHistogram {
+
+	private static final int HIGHEST_BIT = 40;
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKET_COUNT = 1 << LatencyHistogram.SUB_BUCKET_BITS;
+	private static final long HIGHEST_TRACKABLE_VALUE = (1L << (LatencyHistogram.HIGHEST_BIT + 1)) - 1;
+
+	/**
+	 * Gets the bucket index of a value.
+	 *
+	 * @param value the value (>= 0)
+	 * @return the index
+	 */
+	private static int getIndex(final long value) {
+		if (value < LatencyHistogram.SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		final int shift = (63 - Long.numberOfLeadingZeros(value)) - LatencyHistogram.SUB_BUCKET_BITS;
+		return ((shift + 1) << LatencyHistogram.SUB_BUCKET_BITS) + (int) ((value >>> shift) & (LatencyHistogram.SUB_BUCKET_COUNT - 1));
+	}
+
+	/**
+	 * Gets the highest value that falls into the bucket with the given index.
+	 *
+	 * @param index the index
+	 * @return the highest value
+	 */
+	private static long getHighestValue(final int index) {
+		if (index < LatencyHistogram.SUB_BUCKET_COUNT) {
+			return index;
+		}
+		final int shift = (index >>> LatencyHistogram.SUB_BUCKET_BITS) - 1;
+		final long lowestValue = (long) (LatencyHistogram.SUB_BUCKET_COUNT + (index & (LatencyHistogram.SUB_BUCKET_COUNT - 1))) << shift;
+		return (lowestValue + (1L << shift)) - 1;
+	}
+
+	private final AtomicLongArray counts = new AtomicLongArray(LatencyHistogram.getIndex(LatencyHistogram.HIGHEST_TRACKABLE_VALUE) + 1);
+	private final AtomicLong maxValue = new AtomicLong();
+	private final AtomicLong totalCount = new AtomicLong();
+	private final AtomicLong totalValue = new AtomicLong();
+
+	/**
+	 * Gets the number of recorded values.
+	 *
+	 * @return the count
+	 */
+	public long getCount() {
+		return this.totalCount.get();
+	}
+
+	/**
+	 * Gets the highest recorded value.
+	 *
+	 * @return the max value in microseconds
+	 */
+	public long getMax() {
+		return this.maxValue.get();
+	}
+
+	/**
+	 * Gets the mean of all recorded values.
+	 *
+	 * @return the mean in microseconds (0 if nothing recorded)
+	 */
+	public long getMean() {
+		final long count = this.totalCount.get();
+		if (count == 0) {
+			return 0;
+		}
+		return this.totalValue.get() / count;
+	}
+
+	/**
+	 * Gets the value at a given percentile. The result is the highest value of the bucket containing the percentile (never higher than the max value).
+	 *
+	 * @param percentile the percentile (0.0 - 100.0)
+	 * @return the value in microseconds (0 if nothing recorded)
+	 */
+	public long getValueAtPercentile(final double percentile) {
+		long count = 0;
+		for (int i = 0; i < this.counts.length(); i++) {
+			count += this.counts.get(i);
+		}
+		if (count == 0) {
+			return 0;
+		}
+		final long countAtPercentile = Math.max(1, (long) Math.ceil((Math.min(percentile, 100.0) / 100.0) * count));
+		long cumulativeCount = 0;
+		for (int i = 0; i < this.counts.length(); i++) {
+			cumulativeCount += this.counts.get(i);
+			if (cumulativeCount >= countAtPercentile) {
+				return Math.min(LatencyHistogram.getHighestValue(i), this.maxValue.get());
+			}
+		}
+		return this.maxValue.get();
+	}
+
+	/**
+	 * Records a value.
+	 *
+	 * @param micros the value in microseconds (negative values are recorded as 0)
+	 */
+	public void record(final long micros) {
+		final long value = Math.min(Math.max(micros, 0), LatencyHistogram.HIGHEST_TRACKABLE_VALUE);
+		this.counts.incrementAndGet(LatencyHistogram.getIndex(value));
+		this.totalValue.addAndGet(value);
+		this.totalCount.incrementAndGet();
+		long max = this.maxValue.get();
+		while ((value > max) && !this.maxValue.compareAndSet(max, value)) {
+			max = this.maxValue.get();
+		}
+	}
+}
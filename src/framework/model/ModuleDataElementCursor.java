@@ -0,0 +1,86 @@
+package framework.model;
+
+import java.io.IOException;
+import java.util.List;
+
+import module.iface.DataElementCursor;
+
+import com.google.common.collect.ImmutableList;
+
+import framework.control.Broker;
+
+/**
+ * Wraps a data element cursor before forwarding it to connected modules. Open cursors are tracked like {@link ModuleInputStream}s, so they are closed if the
+ * connection goes down. Returned batches are immutable copies.
+ * <p>
+ * IMPORTANT: Exceptions thrown by encapsulated cursors are currently forwarded to calling modules. This can be seen as a security risk (information leakage)
+ * and should be avoided in the future!
+ *
+ * @author Stefan Werner
+ */
+public class ModuleDataElementCursor implements DataElementCursor {
+
+	private final Broker broker;
+	private volatile boolean closed = false;
+	private final DataElementCursor cursor;
+	private final PortTuple portTuple;
+
+	/**
+	 * Instantiates a new module data element cursor.
+	 *
+	 * @param cursor the cursor
+	 * @param broker the broker
+	 * @param portTuple the port tuple
+	 */
+	public ModuleDataElementCursor(final DataElementCursor cursor, final Broker broker, final PortTuple portTuple) {
+		this.cursor = cursor;
+		this.broker = broker;
+		this.portTuple = portTuple;
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.io.Closeable#close() */
+	@Override
+	public void close() throws IOException {
+		if (this.closed) {
+			return;
+		}
+		try {
+			this.closed = true;
+			this.cursor.close();
+		} finally {
+			this.broker.removeCursor(this.portTuple, this);
+		}
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see module.iface.DataElementCursor#nextBatch() */
+	@Override
+	public List<DataElement> nextBatch() throws IOException {
+		if (this.closed) {
+			throw new IOException("cursor closed");
+		}
+		List<DataElement> batch;
+		do {
+			batch = this.cursor.nextBatch();
+			if (batch == null) {
+				return null;
+			}
+		} while (batch.isEmpty());
+		try {
+			return ImmutableList.copyOf(batch);
+		} catch (final NullPointerException e) {
+			throw new IOException("NULL element found in returned batch");
+		}
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString() */
+	@Override
+	public String toString() {
+		return this.cursor.toString();
+	}
+}
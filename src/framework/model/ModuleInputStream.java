@@ -21,6 +21,8 @@ public class ModuleInputStream extends InputStream {
 	private final InputStream InputStream;
 	private final String[] path;
 	private final PortTuple portTuple;
+	// part of dataTransfered already added to the connection telemetry (single bytes are reported in bulk)
+	private long reportedDataTransfered = 0;
 
 	/**
 	 * Instantiates a new module input stream.
@@ -49,6 +51,7 @@ public class ModuleInputStream extends InputStream {
 	public void close() throws IOException {
 		try {
 			this.closed = true;
+			reportTransferedBytes();
 			this.InputStream.close();
 		} finally {
 			this.broker.removeInputStream(this.portTuple, this, this.path, this.dataTransfered);
@@ -85,6 +88,7 @@ public class ModuleInputStream extends InputStream {
 		final int i = this.InputStream.read(arg0);
 		if (i > 0) {
 			this.dataTransfered += i;
+			reportTransferedBytes();
 		}
 		return i;
 	}
@@ -97,10 +101,22 @@ public class ModuleInputStream extends InputStream {
 		final int i = this.InputStream.read(arg0, arg1, arg2);
 		if (i > 0) {
 			this.dataTransfered += i;
+			reportTransferedBytes();
 		}
 		return i;
 	}
 
+	/**
+	 * Adds all bytes transfered since the last call to the connection telemetry.
+	 */
+	private void reportTransferedBytes() {
+		final long unreported = this.dataTransfered - this.reportedDataTransfered;
+		if (unreported > 0) {
+			this.portTuple.getTelemetry().addTransferedBytes(unreported);
+			this.reportedDataTransfered = this.dataTransfered;
+		}
+	}
+
 	@Override
 	public void reset() throws IOException {
 		if (this.closed) {
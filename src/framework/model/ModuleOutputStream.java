@@ -21,6 +21,8 @@ public class ModuleOutputStream extends OutputStream {
 	private final OutputStream outputStream;
 	private final String[] path;
 	private final PortTuple portTuple;
+	// part of dataTransfered already added to the connection telemetry (single bytes are reported in bulk)
+	private long reportedDataTransfered = 0;
 
 	/**
 	 * Instantiates a new module output stream.
@@ -41,6 +43,7 @@ public class ModuleOutputStream extends OutputStream {
 	public void close() throws IOException {
 		try {
 			this.closed = true;
+			reportTransferedBytes();
 			this.outputStream.close();
 		} finally {
 			this.broker.removeOutputStream(this.portTuple, this, this.path, this.dataTransfered);
@@ -52,9 +55,21 @@ public class ModuleOutputStream extends OutputStream {
 		if (this.closed) {
 			throw new IOException("stream closed");
 		}
+		reportTransferedBytes();
 		this.outputStream.flush();
 	}
 
+	/**
+	 * Adds all bytes transfered since the last call to the connection telemetry.
+	 */
+	private void reportTransferedBytes() {
+		final long unreported = this.dataTransfered - this.reportedDataTransfered;
+		if (unreported > 0) {
+			this.portTuple.getTelemetry().addTransferedBytes(unreported);
+			this.reportedDataTransfered = this.dataTransfered;
+		}
+	}
+
 	@Override
 	public String toString() {
 		return this.outputStream.toString();
@@ -67,6 +82,7 @@ public class ModuleOutputStream extends OutputStream {
 		}
 		this.outputStream.write(arg0);
 		this.dataTransfered += arg0.length;
+		reportTransferedBytes();
 	}
 
 	@Override
@@ -76,6 +92,7 @@ public class ModuleOutputStream extends OutputStream {
 		}
 		this.outputStream.write(arg0, arg1, arg2);
 		this.dataTransfered += arg2;
+		reportTransferedBytes();
 	}
 
 	@Override
@@ -0,0 +1,188 @@
+package framework.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+import framework.control.Broker;
+
+/**
+ * Wraps a readable channel before forwarding it to connected modules. This way the framework keeps control on channels the same way it does with
+ * {@link ModuleInputStream}s.
+ * <p>
+ * Use {@link #transferTo(WritableByteChannel)} to copy data to another channel: If both ends are backed by files (or the target is a socket) data is moved by
+ * the operating system without ever being copied to the heap (see {@link FileChannel#transferTo(long, long, WritableByteChannel)}).
+ * <p>
+ * IMPORTANT: Exceptions thrown by encapsulated channels are currently forwarded to calling modules. This can be seen as a security risk (information leakage)
+ * and should be avoided in the future!
+ *
+ * @author Stefan Werner
+ */
+public class ModuleReadableByteChannel implements ReadableByteChannel {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	// upper bound of bytes moved by a single FileChannel.transferTo(...) call, so telemetry shows the progress of long transfers
+	private static final long TRANSFER_CHUNK_SIZE = 8 * 1024 * 1024;
+
+	private final Broker broker;
+	// created on first use of transferTo(...) and reused afterwards
+	private ByteBuffer buffer;
+	private final ReadableByteChannel channel;
+	private volatile boolean closed = false;
+	private long dataTransfered = 0;
+	private final String[] path;
+	private final PortTuple portTuple;
+
+	/**
+	 * Instantiates a new module readable byte channel.
+	 *
+	 * @param channel the channel
+	 * @param broker the broker
+	 * @param portTuple the port tuple
+	 * @param path the path
+	 */
+	public ModuleReadableByteChannel(final ReadableByteChannel channel, final Broker broker, final PortTuple portTuple, final String[] path) {
+		this.channel = channel;
+		this.broker = broker;
+		this.portTuple = portTuple;
+		this.path = path;
+	}
+
+	/**
+	 * Adds bytes read from the encapsulated channel.
+	 *
+	 * @param bytes the bytes
+	 */
+	private void addTransferedBytes(final long bytes) {
+		this.dataTransfered += bytes;
+		this.portTuple.getTelemetry().addTransferedBytes(bytes);
+	}
+
+	/**
+	 * Adds bytes copied by {@link #transferTo(WritableByteChannel)} to this channel and the target channel.
+	 *
+	 * @param bytes the bytes
+	 * @param moduleTarget the target channel (may be null)
+	 */
+	private void addTransferedBytes(final long bytes, final ModuleWritableByteChannel moduleTarget) {
+		addTransferedBytes(bytes);
+		if (moduleTarget != null) {
+			moduleTarget.addTransferedBytes(bytes);
+		}
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.nio.channels.Channel#close() */
+	@Override
+	public void close() throws IOException {
+		try {
+			this.closed = true;
+			this.channel.close();
+		} finally {
+			this.broker.removeInputStream(this.portTuple, this, this.path, this.dataTransfered);
+		}
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.nio.channels.Channel#isOpen() */
+	@Override
+	public boolean isOpen() {
+		return !this.closed && this.channel.isOpen();
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.nio.channels.ReadableByteChannel#read(java.nio.ByteBuffer) */
+	@Override
+	public int read(final ByteBuffer dst) throws IOException {
+		if (this.closed) {
+			throw new ClosedChannelException();
+		}
+		final int i = this.channel.read(dst);
+		if (i > 0) {
+			addTransferedBytes(i);
+		}
+		return i;
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString() */
+	@Override
+	public String toString() {
+		return this.channel.toString();
+	}
+
+	/**
+	 * Copies all remaining data to the given channel (neither channel is closed). Accounting of both channels is kept if the target is a
+	 * {@link ModuleWritableByteChannel} as well.
+	 * <p>
+	 * The fastest available way is used: {@link FileChannel#transferTo(long, long, WritableByteChannel)} if this channel is backed by a file,
+	 * {@link FileChannel#transferFrom(ReadableByteChannel, long, long)} if the target is backed by a file and a buffer (reused for all calls) otherwise.
+	 * Telemetry is updated after every chunk.
+	 *
+	 * @param target the target channel
+	 * @return the number of bytes copied
+	 * @throws IOException if an I/O exception has occurred
+	 */
+	public long transferTo(final WritableByteChannel target) throws IOException {
+		if (this.closed) {
+			throw new ClosedChannelException();
+		}
+		ModuleWritableByteChannel moduleTarget = null;
+		WritableByteChannel innerTarget = target;
+		if (target instanceof ModuleWritableByteChannel) {
+			moduleTarget = (ModuleWritableByteChannel) target;
+			moduleTarget.checkOpen();
+			innerTarget = moduleTarget.getChannel();
+		}
+		long total = 0;
+		if (this.channel instanceof FileChannel) {
+			final FileChannel fileChannel = (FileChannel) this.channel;
+			long position = fileChannel.position();
+			final long size = fileChannel.size();
+			while (position < size) {
+				final long n = fileChannel.transferTo(position, Math.min(size - position, ModuleReadableByteChannel.TRANSFER_CHUNK_SIZE), innerTarget);
+				if (n <= 0) {
+					// target does not take any more data this way, continue below
+					break;
+				}
+				position += n;
+				total += n;
+				addTransferedBytes(n, moduleTarget);
+			}
+			fileChannel.position(position);
+		} else if (innerTarget instanceof FileChannel) {
+			final FileChannel fileChannel = (FileChannel) innerTarget;
+			long position = fileChannel.position();
+			long n;
+			while ((n = fileChannel.transferFrom(this.channel, position, ModuleReadableByteChannel.BUFFER_SIZE)) > 0) {
+				position += n;
+				total += n;
+				addTransferedBytes(n, moduleTarget);
+			}
+			fileChannel.position(position);
+		}
+		if (this.buffer == null) {
+			this.buffer = ByteBuffer.allocate(ModuleReadableByteChannel.BUFFER_SIZE);
+		}
+		final ByteBuffer buffer = this.buffer;
+		buffer.clear();
+		while (this.channel.read(buffer) >= 0) {
+			buffer.flip();
+			int n = 0;
+			while (buffer.hasRemaining()) {
+				n += innerTarget.write(buffer);
+			}
+			buffer.clear();
+			total += n;
+			addTransferedBytes(n, moduleTarget);
+		}
+		return total;
+	}
+}
@@ -0,0 +1,114 @@
+package framework.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+
+import framework.control.Broker;
+
+/**
+ * Wraps a writable channel before forwarding it to connected modules. This way the framework keeps control on channels the same way it does with
+ * {@link ModuleOutputStream}s.
+ * <p>
+ * IMPORTANT: Exceptions thrown by encapsulated channels are currently forwarded to calling modules. This can be seen as a security risk (information leakage)
+ * and should be avoided in the future!
+ *
+ * @author Stefan Werner
+ */
+public class ModuleWritableByteChannel implements WritableByteChannel {
+
+	private final Broker broker;
+	private final WritableByteChannel channel;
+	private volatile boolean closed = false;
+	private long dataTransfered = 0;
+	private final String[] path;
+	private final PortTuple portTuple;
+
+	/**
+	 * Instantiates a new module writable byte channel.
+	 *
+	 * @param channel the channel
+	 * @param broker the broker
+	 * @param portTuple the port tuple
+	 * @param path the path
+	 */
+	public ModuleWritableByteChannel(final WritableByteChannel channel, final Broker broker, final PortTuple portTuple, final String[] path) {
+		this.channel = channel;
+		this.broker = broker;
+		this.portTuple = portTuple;
+		this.path = path;
+	}
+
+	/**
+	 * Adds bytes written to the encapsulated channel by someone else (see {@link ModuleReadableByteChannel#transferTo(WritableByteChannel)}).
+	 *
+	 * @param bytes the bytes
+	 */
+	void addTransferedBytes(final long bytes) {
+		this.dataTransfered += bytes;
+		this.portTuple.getTelemetry().addTransferedBytes(bytes);
+	}
+
+	/**
+	 * Checks if channel is still open.
+	 *
+	 * @throws ClosedChannelException if closed
+	 */
+	void checkOpen() throws ClosedChannelException {
+		if (this.closed) {
+			throw new ClosedChannelException();
+		}
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.nio.channels.Channel#close() */
+	@Override
+	public void close() throws IOException {
+		try {
+			this.closed = true;
+			this.channel.close();
+		} finally {
+			this.broker.removeOutputStream(this.portTuple, this, this.path, this.dataTransfered);
+		}
+	}
+
+	/**
+	 * Gets the encapsulated channel.
+	 *
+	 * @return the channel
+	 */
+	WritableByteChannel getChannel() {
+		return this.channel;
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.nio.channels.Channel#isOpen() */
+	@Override
+	public boolean isOpen() {
+		return !this.closed && this.channel.isOpen();
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString() */
+	@Override
+	public String toString() {
+		return this.channel.toString();
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.nio.channels.WritableByteChannel#write(java.nio.ByteBuffer) */
+	@Override
+	public int write(final ByteBuffer src) throws IOException {
+		checkOpen();
+		final int i = this.channel.write(src);
+		if (i > 0) {
+			addTransferedBytes(i);
+		}
+		return i;
+	}
+}
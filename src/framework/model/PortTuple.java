@@ -1,5 +1,7 @@
 package framework.model;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Represents a connection between two ports. Used only inside the framework/broker.
  *
@@ -7,11 +9,13 @@ package framework.model;
  */
 public final class PortTuple {
 
-	private long dataTransfered = 0;
-	private long latestRefreshDate = 0;
+	// updated by concurrently closed streams without any broker lock
+	private final AtomicLong dataTransfered = new AtomicLong();
+	private volatile long latestRefreshDate = 0;
 	private final int priority;
 	private final ProsumerPort prosumerPort;
 	private final ProviderPort providerPort;
+	private final ConnectionTelemetry telemetry = new ConnectionTelemetry();
 
 	/**
 	 * Instantiates a new port tuple.
@@ -26,6 +30,15 @@ public final class PortTuple {
 		this.priority = priority;
 	}
 
+	/**
+	 * Adds to the amount of data transfered. Thread safe.
+	 *
+	 * @param dataTransfered the data transfered
+	 */
+	public void addDataTransfered(final long dataTransfered) {
+		this.dataTransfered.addAndGet(dataTransfered);
+	}
+
 	@Override
 	public boolean equals(final Object obj) {
 		if (this == obj) {
@@ -61,7 +74,7 @@ public final class PortTuple {
 	 * @return the amount of data transfered
 	 */
 	public long getDataTransfered() {
-		return this.dataTransfered;
+		return this.dataTransfered.get();
 	}
 
 	/**
@@ -100,6 +113,15 @@ public final class PortTuple {
 		return this.providerPort;
 	}
 
+	/**
+	 * Gets the live telemetry of this connection.
+	 *
+	 * @return the telemetry
+	 */
+	public ConnectionTelemetry getTelemetry() {
+		return this.telemetry;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -109,15 +131,6 @@ public final class PortTuple {
 		return result;
 	}
 
-	/**
-	 * Sets the data transfered.
-	 *
-	 * @param dataTransfered the new data transfered
-	 */
-	public void setDataTransfered(final long dataTransfered) {
-		this.dataTransfered = dataTransfered;
-	}
-
 	/**
 	 * Sets the latest refresh date.
 	 *
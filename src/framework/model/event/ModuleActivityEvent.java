@@ -25,7 +25,18 @@ public class ModuleActivityEvent implements GeneralEvent {
 	 * @param sendingModuleId the sending module ID
 	 */
 	public ModuleActivityEvent(final String activity, final String sendingModuleId) {
-		this.creationDate = System.currentTimeMillis();
+		this(activity, sendingModuleId, System.currentTimeMillis());
+	}
+
+	/**
+	 * Instantiates a new module activity event with a given creation date (used if the activity has been recorded earlier).
+	 *
+	 * @param activity the activity, see {@link framework.model.event.type.ModuleActivityEventType}.
+	 * @param sendingModuleId the sending module ID
+	 * @param creationDate the creation date
+	 */
+	public ModuleActivityEvent(final String activity, final String sendingModuleId, final long creationDate) {
+		this.creationDate = creationDate;
 		this.activity = activity;
 		this.sendingModuleId = sendingModuleId;
 		this.properties = new TreeMap<String, Object>(String.CASE_INSENSITIVE_ORDER);
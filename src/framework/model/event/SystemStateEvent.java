@@ -13,6 +13,10 @@ import framework.model.event.type.SystemStateType;
 public final class SystemStateEvent implements GeneralEvent {
 
 	public final long creationDate;
+	// number of modules already processed in the current state (only valid if progressTotal > 0)
+	public final int progressDone;
+	// total number of modules to process in the current state, 0 if no progress information
+	public final int progressTotal;
 	public final SystemStateType systemStateType;
 
 	/**
@@ -21,7 +25,20 @@ public final class SystemStateEvent implements GeneralEvent {
 	 * @param systemStateType the system state type
 	 */
 	public SystemStateEvent(final SystemStateType systemStateType) {
+		this(systemStateType, 0, 0);
+	}
+
+	/**
+	 * Instantiates a new system state event with progress information (for example how many modules are already started while starting up).
+	 *
+	 * @param systemStateType the system state type
+	 * @param progressDone the number of modules already processed
+	 * @param progressTotal the total number of modules to process
+	 */
+	public SystemStateEvent(final SystemStateType systemStateType, final int progressDone, final int progressTotal) {
 		this.systemStateType = systemStateType;
+		this.progressDone = progressDone;
+		this.progressTotal = progressTotal;
 		this.creationDate = System.currentTimeMillis();
 	}
 
@@ -30,7 +47,7 @@ public final class SystemStateEvent implements GeneralEvent {
 	 * @see java.lang.Object#toString() */
 	@Override
 	public String toString() {
-		return "SystemStateEvent [" + Core.getDefaultDateFormat().format(new Date(this.creationDate)) + ", systemStateType=" + this.systemStateType + "]";
+		return "SystemStateEvent [" + Core.getDefaultDateFormat().format(new Date(this.creationDate)) + ", systemStateType=" + this.systemStateType + (this.progressTotal > 0 ? ", progress=" + this.progressDone + "/" + this.progressTotal : "") + "]";
 	}
 
 }
@@ -13,6 +13,7 @@ public final class ConnectionSummary implements Summary {
 	private final int priority;
 	private final PortSummary prosumerPortSummary;
 	private final PortSummary providerPortSummary;
+	private final ConnectionTelemetrySummary telemetrySummary;
 
 	/**
 	 * Instantiates a new connection summary.
@@ -27,6 +28,7 @@ public final class ConnectionSummary implements Summary {
 		this.dataTransfered = 0;
 		this.priority = 0;
 		this.latestRefreshDate = System.currentTimeMillis();
+		this.telemetrySummary = null;
 	}
 
 	/**
@@ -40,12 +42,28 @@ public final class ConnectionSummary implements Summary {
 	 * @param lastUpdate the last update
 	 */
 	public ConnectionSummary(final PortSummary prosumerPortSummary, final PortSummary providerPortSummary, final boolean isActive, final int priority, final long dataTransfered, final long lastUpdate) {
+		this(prosumerPortSummary, providerPortSummary, isActive, priority, dataTransfered, lastUpdate, null);
+	}
+
+	/**
+	 * Instantiates a new connection summary.
+	 *
+	 * @param prosumerPortSummary the prosumer port summary
+	 * @param providerPortSummary the provider port summary
+	 * @param isActive the is active
+	 * @param priority the priority
+	 * @param dataTransfered the data transfered
+	 * @param lastUpdate the last update
+	 * @param telemetrySummary the telemetry summary (may be null)
+	 */
+	public ConnectionSummary(final PortSummary prosumerPortSummary, final PortSummary providerPortSummary, final boolean isActive, final int priority, final long dataTransfered, final long lastUpdate, final ConnectionTelemetrySummary telemetrySummary) {
 		this.prosumerPortSummary = prosumerPortSummary;
 		this.providerPortSummary = providerPortSummary;
 		this.isActive = isActive;
 		this.dataTransfered = dataTransfered;
 		this.priority = priority;
 		this.latestRefreshDate = lastUpdate;
+		this.telemetrySummary = telemetrySummary;
 	}
 
 	/* (non-Javadoc)
@@ -125,6 +143,15 @@ public final class ConnectionSummary implements Summary {
 		return this.providerPortSummary;
 	}
 
+	/**
+	 * Gets the live telemetry of the connection (throughput, open streams, operation latencies).
+	 *
+	 * @return the telemetry summary (null if not available, for example for connections not created by the broker)
+	 */
+	public ConnectionTelemetrySummary getTelemetrySummary() {
+		return this.telemetrySummary;
+	}
+
 	/* (non-Javadoc)
 	 *
 	 * @see java.lang.Object#hashCode() */
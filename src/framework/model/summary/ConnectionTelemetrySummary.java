@@ -0,0 +1,99 @@
+package framework.model.summary;
+
+import java.util.Map;
+
+import framework.model.type.ConnectionOperationType;
+
+/**
+ * Summarizes the live telemetry of a connection between two ports (throughput, open streams and operation latencies).
+ *
+ * @author Stefan Werner
+ */
+public final class ConnectionTelemetrySummary implements Summary {
+
+	private final long bytesPerSecondLong;
+	private final long bytesPerSecondShort;
+	private final int openInputStreams;
+	private final int openOutputStreams;
+	private final Map<ConnectionOperationType, OperationTelemetrySummary> operationSummaries;
+
+	/**
+	 * Instantiates a new connection telemetry summary.
+	 *
+	 * @param bytesPerSecondShort the bytes per second over the short window
+	 * @param bytesPerSecondLong the bytes per second over the long window
+	 * @param openInputStreams the number of open input streams
+	 * @param openOutputStreams the number of open output streams
+	 * @param operationSummaries the operation summaries
+	 */
+	public ConnectionTelemetrySummary(final long bytesPerSecondShort, final long bytesPerSecondLong, final int openInputStreams, final int openOutputStreams, final Map<ConnectionOperationType, OperationTelemetrySummary> operationSummaries) {
+		this.bytesPerSecondShort = bytesPerSecondShort;
+		this.bytesPerSecondLong = bytesPerSecondLong;
+		this.openInputStreams = openInputStreams;
+		this.openOutputStreams = openOutputStreams;
+		this.operationSummaries = operationSummaries;
+	}
+
+	/**
+	 * Gets the bytes per second over the long window (see {@link framework.constants.Constants#CORE___TELEMETRY_LONG_WINDOW_SECONDS}).
+	 *
+	 * @return the bytes per second
+	 */
+	public long getBytesPerSecondLong() {
+		return this.bytesPerSecondLong;
+	}
+
+	/**
+	 * Gets the bytes per second over the short window (see {@link framework.constants.Constants#CORE___TELEMETRY_SHORT_WINDOW_SECONDS}).
+	 *
+	 * @return the bytes per second
+	 */
+	public long getBytesPerSecondShort() {
+		return this.bytesPerSecondShort;
+	}
+
+	/**
+	 * Gets the number of open input streams.
+	 *
+	 * @return the open input streams
+	 */
+	public int getOpenInputStreams() {
+		return this.openInputStreams;
+	}
+
+	/**
+	 * Gets the number of open output streams.
+	 *
+	 * @return the open output streams
+	 */
+	public int getOpenOutputStreams() {
+		return this.openOutputStreams;
+	}
+
+	/**
+	 * Gets the summary of a given operation type.
+	 *
+	 * @param operationType the operation type
+	 * @return the operation summary
+	 */
+	public OperationTelemetrySummary getOperationSummary(final ConnectionOperationType operationType) {
+		return this.operationSummaries.get(operationType);
+	}
+
+	/**
+	 * Gets the summaries of all operation types.
+	 *
+	 * @return the operation summaries
+	 */
+	public Map<ConnectionOperationType, OperationTelemetrySummary> getOperationSummaries() {
+		return this.operationSummaries;
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString() */
+	@Override
+	public String toString() {
+		return "ConnectionTelemetrySummary [bytesPerSecondShort=" + this.bytesPerSecondShort + ", bytesPerSecondLong=" + this.bytesPerSecondLong + ", openInputStreams=" + this.openInputStreams + ", openOutputStreams=" + this.openOutputStreams + ", operationSummaries=" + this.operationSummaries + "]";
+	}
+}
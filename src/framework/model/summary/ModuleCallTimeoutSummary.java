@@ -0,0 +1,63 @@
+package framework.model.summary;
+
+import java.util.Map;
+
+/**
+ * Summarizes the timeouts of calls to modules (total and per module). Useful to find modules that do not answer in time.
+ *
+ * @author Stefan Werner
+ */
+public final class ModuleCallTimeoutSummary implements Summary {
+
+	private final long callCount;
+	private final Map<String, Long> moduleTimeoutCounts;
+	private final long timeoutCount;
+
+	/**
+	 * Instantiates a new module call timeout summary.
+	 *
+	 * @param callCount the total number of calls
+	 * @param timeoutCount the total number of timed out calls
+	 * @param moduleTimeoutCounts the number of timed out calls per module (module ID -> count)
+	 */
+	public ModuleCallTimeoutSummary(final long callCount, final long timeoutCount, final Map<String, Long> moduleTimeoutCounts) {
+		this.callCount = callCount;
+		this.timeoutCount = timeoutCount;
+		this.moduleTimeoutCounts = moduleTimeoutCounts;
+	}
+
+	/**
+	 * Gets the total number of calls.
+	 *
+	 * @return the call count
+	 */
+	public long getCallCount() {
+		return this.callCount;
+	}
+
+	/**
+	 * Gets the number of timed out calls per module. Calls not attributed to a module are only included in the total count.
+	 *
+	 * @return the timeout counts (module ID -> count)
+	 */
+	public Map<String, Long> getModuleTimeoutCounts() {
+		return this.moduleTimeoutCounts;
+	}
+
+	/**
+	 * Gets the total number of timed out calls.
+	 *
+	 * @return the timeout count
+	 */
+	public long getTimeoutCount() {
+		return this.timeoutCount;
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString() */
+	@Override
+	public String toString() {
+		return "ModuleCallTimeoutSummary [callCount=" + this.callCount + ", timeoutCount=" + this.timeoutCount + ", moduleTimeoutCounts=" + this.moduleTimeoutCounts + "]";
+	}
+}
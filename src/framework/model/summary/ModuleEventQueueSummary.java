@@ -0,0 +1,97 @@
+package framework.model.summary;
+
+/**
+ * Summarizes the state of the event queue of a module (events, state changes and requests waiting to be delivered to the module).
+ *
+ * @author Stefan Werner
+ */
+public final class ModuleEventQueueSummary implements Summary {
+
+	private final int capacity;
+	private final long coalescedCount;
+	private final long droppedCount;
+	private final long lagMillis;
+	private final String moduleId;
+	private final int queueDepth;
+
+	/**
+	 * Instantiates a new module event queue summary.
+	 *
+	 * @param moduleId the module ID
+	 * @param queueDepth the number of queued events
+	 * @param capacity the capacity
+	 * @param lagMillis the age of the oldest queued event in milliseconds
+	 * @param droppedCount the number of dropped events
+	 * @param coalescedCount the number of coalesced events
+	 */
+	public ModuleEventQueueSummary(final String moduleId, final int queueDepth, final int capacity, final long lagMillis, final long droppedCount, final long coalescedCount) {
+		this.moduleId = moduleId;
+		this.queueDepth = queueDepth;
+		this.capacity = capacity;
+		this.lagMillis = lagMillis;
+		this.droppedCount = droppedCount;
+		this.coalescedCount = coalescedCount;
+	}
+
+	/**
+	 * Gets the capacity.
+	 *
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Gets the number of events replaced by newer events for the same element.
+	 *
+	 * @return the coalesced count
+	 */
+	public long getCoalescedCount() {
+		return this.coalescedCount;
+	}
+
+	/**
+	 * Gets the number of dropped events.
+	 *
+	 * @return the dropped count
+	 */
+	public long getDroppedCount() {
+		return this.droppedCount;
+	}
+
+	/**
+	 * Gets the age of the oldest queued event.
+	 *
+	 * @return the lag in milliseconds (0 if queue is empty)
+	 */
+	public long getLagMillis() {
+		return this.lagMillis;
+	}
+
+	/**
+	 * Gets the module ID.
+	 *
+	 * @return the module ID
+	 */
+	public String getModuleId() {
+		return this.moduleId;
+	}
+
+	/**
+	 * Gets the number of queued events.
+	 *
+	 * @return the queue depth
+	 */
+	public int getQueueDepth() {
+		return this.queueDepth;
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString() */
+	@Override
+	public String toString() {
+		return "ModuleEventQueueSummary [moduleId=" + this.moduleId + ", queueDepth=" + this.queueDepth + ", capacity=" + this.capacity + ", lagMillis=" + this.lagMillis + ", droppedCount=" + this.droppedCount + ", coalescedCount=" + this.coalescedCount + "]";
+	}
+}
@@ -0,0 +1,99 @@
+package framework.model.summary;
+
+import framework.model.type.ConnectionOperationType;
+
+/**
+ * Summarizes call count and latencies of a single operation type on a connection. All latencies are in microseconds.
+ *
+ * @author Stefan Werner
+ */
+public final class OperationTelemetrySummary implements Summary {
+
+	private final long callCount;
+	private final long maxLatency;
+	private final long meanLatency;
+	private final long medianLatency;
+	private final long ninetyNinthPercentileLatency;
+	private final ConnectionOperationType operationType;
+
+	/**
+	 * Instantiates a new operation telemetry summary.
+	 *
+	 * @param operationType the operation type
+	 * @param callCount the call count
+	 * @param meanLatency the mean latency
+	 * @param medianLatency the median latency
+	 * @param ninetyNinthPercentileLatency the 99th percentile latency
+	 * @param maxLatency the max latency
+	 */
+	public OperationTelemetrySummary(final ConnectionOperationType operationType, final long callCount, final long meanLatency, final long medianLatency, final long ninetyNinthPercentileLatency, final long maxLatency) {
+		this.operationType = operationType;
+		this.callCount = callCount;
+		this.meanLatency = meanLatency;
+		this.medianLatency = medianLatency;
+		this.ninetyNinthPercentileLatency = ninetyNinthPercentileLatency;
+		this.maxLatency = maxLatency;
+	}
+
+	/**
+	 * Gets the call count.
+	 *
+	 * @return the call count
+	 */
+	public long getCallCount() {
+		return this.callCount;
+	}
+
+	/**
+	 * Gets the max latency.
+	 *
+	 * @return the max latency
+	 */
+	public long getMaxLatency() {
+		return this.maxLatency;
+	}
+
+	/**
+	 * Gets the mean latency.
+	 *
+	 * @return the mean latency
+	 */
+	public long getMeanLatency() {
+		return this.meanLatency;
+	}
+
+	/**
+	 * Gets the median latency.
+	 *
+	 * @return the median latency
+	 */
+	public long getMedianLatency() {
+		return this.medianLatency;
+	}
+
+	/**
+	 * Gets the 99th percentile latency.
+	 *
+	 * @return the 99th percentile latency
+	 */
+	public long getNinetyNinthPercentileLatency() {
+		return this.ninetyNinthPercentileLatency;
+	}
+
+	/**
+	 * Gets the operation type.
+	 *
+	 * @return the operation type
+	 */
+	public ConnectionOperationType getOperationType() {
+		return this.operationType;
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString() */
+	@Override
+	public String toString() {
+		return "OperationTelemetrySummary [operationType=" + this.operationType + ", callCount=" + this.callCount + ", meanLatency=" + this.meanLatency + ", medianLatency=" + this.medianLatency + ", ninetyNinthPercentileLatency=" + this.ninetyNinthPercentileLatency + ", maxLatency=" + this.maxLatency + "]";
+	}
+}
@@ -0,0 +1,10 @@
+package framework.model.type;
+
+/**
+ * Types of operations on a connection that are measured by the broker.
+ *
+ * @author Stefan Werner
+ */
+public enum ConnectionOperationType {
+	GET_CHILD_ELEMENTS, GET_ELEMENT, GET_ELEMENTS, MOVE, READ_DATA, WRITE_DATA
+}
@@ -0,0 +1,16 @@
+package framework.model.type;
+
+/**
+ * Types of behavior when the event queue of a module is full. They only apply to single element events, state changes, requests and event batches are never
+ * dropped (their senders always wait for free space).
+ * <ul>
+ * <li>BLOCK: The sender waits (up to a timeout) for free space, the event is dropped if the timeout passes.</li>
+ * <li>COALESCE: A pending event for the same element is replaced by the new one, otherwise the new event is dropped.</li>
+ * <li>DROP: The new event is dropped.</li>
+ * </ul>
+ *
+ * @author Stefan Werner
+ */
+public enum EventQueueOverflowType {
+	BLOCK, COALESCE, DROP
+}
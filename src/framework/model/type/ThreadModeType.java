@@ -0,0 +1,14 @@
+package framework.model.type;
+
+/**
+ * Types of threads backing the worker pools of framework and modules.
+ * <ul>
+ * <li>PLATFORM: Classic platform (OS) threads.</li>
+ * <li>VIRTUAL: Virtual threads (requires a Java 21+ runtime, falls back to PLATFORM otherwise).</li>
+ * </ul>
+ *
+ * @author Stefan Werner
+ */
+public enum ThreadModeType {
+	PLATFORM, VIRTUAL
+}
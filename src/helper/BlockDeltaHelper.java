@@ -0,0 +1,423 @@
+package helper;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/**
+ * Creates and applies rsync-like block deltas. The side holding the new content matches it against the {@link BlockSignatures} of the old content (rolling a
+ * weak checksum byte by byte and confirming hits with the strong hash), so only data not found in any old block has to be transferred. The side holding the
+ * old content rebuilds the new content from its own blocks and the transferred data.
+ * <p>
+ * Delta format (big endian): Header (int magic, int block size), followed by operations, each starting with a single byte: {@link #OP___COPY} (int first
+ * block index, int block count), {@link #OP___DATA} (int length, data) and {@link #OP___END} (SHA-256 hash of the new content, 32 bytes). The hash lets the
+ * receiving side detect deltas applied to other content than the signatures were computed from.
+ *
+ * @author Stefan Werner
+ */
+public final class BlockDeltaHelper {
+
+	/**
+	 * Maps weak checksums to the indexes of the blocks having them. Open addressing with linear probing on primitive arrays, so looking up the checksum of every
+	 * window position does not box it.
+	 */
+	private static final class WeakChecksumIndex {
+
+		private final int[] checksums;
+		private final int mask;
+		// 32 - log2(capacity), selects the high bits of the multiplicative hash
+		private final int shift;
+		// null marks free slots
+		private final int[][] indexes;
+
+		/**
+		 * Instantiates a new weak checksum index for all blocks of the given signatures.
+		 *
+		 * @param signatures the signatures
+		 */
+		private WeakChecksumIndex(final BlockSignatures signatures) {
+			// power of two with a load factor of at most 0.5
+			final int capacity = Integer.highestOneBit(Math.max(signatures.getBlockCount(), 1) * 2) * 2;
+			this.checksums = new int[capacity];
+			this.indexes = new int[capacity][];
+			this.mask = capacity - 1;
+			this.shift = Integer.numberOfLeadingZeros(capacity) + 1;
+			for (int i = 0; i < signatures.getBlockCount(); i++) {
+				final int checksum = signatures.getWeakChecksum(i);
+				final int slot = findSlot(checksum);
+				final int[] blockIndexes = this.indexes[slot];
+				if (blockIndexes == null) {
+					this.checksums[slot] = checksum;
+					this.indexes[slot] = new int[] { i };
+				} else {
+					final int[] newIndexes = Arrays.copyOf(blockIndexes, blockIndexes.length + 1);
+					newIndexes[blockIndexes.length] = i;
+					this.indexes[slot] = newIndexes;
+				}
+			}
+		}
+
+		/**
+		 * Finds the slot holding the given checksum or the free slot to put it in.
+		 *
+		 * @param checksum the checksum
+		 * @return the slot
+		 */
+		private int findSlot(final int checksum) {
+			// Fibonacci hashing: unlike the low bits the high bits of the product depend on all bits of the checksum (weak checksums of similar data cluster)
+			int slot = (checksum * 0x9E3779B9) >>> this.shift;
+			while ((this.indexes[slot] != null) && (this.checksums[slot] != checksum)) {
+				slot = (slot + 1) & this.mask;
+			}
+			return slot;
+		}
+
+		/**
+		 * Gets the indexes of all blocks with the given checksum.
+		 *
+		 * @param checksum the checksum
+		 * @return the block indexes (null if none)
+		 */
+		private int[] get(final int checksum) {
+			return this.indexes[findSlot(checksum)];
+		}
+	}
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int MAGIC = 0x48444C54;
+	private static final byte OP___COPY = 1;
+	private static final byte OP___DATA = 2;
+	private static final byte OP___END = 0;
+
+	/**
+	 * Applies a delta. The new content is written to the target channel, copied blocks are read from the basis channel. Nothing is closed.
+	 *
+	 * @param delta the delta
+	 * @param basis the old content the delta was created against
+	 * @param target the channel to write the new content to
+	 * @return the size of the new content
+	 * @throws IOException if an I/O error occurs, the delta is invalid or the new content does not match the expected content hash
+	 */
+	public static long applyDelta(final InputStream delta, final FileChannel basis, final WritableByteChannel target) throws IOException {
+		final DataInputStream in = new DataInputStream(delta);
+		if (in.readInt() != BlockDeltaHelper.MAGIC) {
+			throw new IOException("invalid delta header");
+		}
+		final long blockSize = in.readInt();
+		if (blockSize <= 0) {
+			throw new IOException("invalid delta block size");
+		}
+		final MessageDigest digest = ContentHashHelper.newDigest();
+		final ByteBuffer buffer = ByteBuffer.allocate(BlockDeltaHelper.BUFFER_SIZE);
+		long written = 0;
+		while (true) {
+			final byte op = in.readByte();
+			if (op == BlockDeltaHelper.OP___COPY) {
+				long position = in.readInt() * blockSize;
+				long remaining = in.readInt() * blockSize;
+				if ((position < 0) || (remaining < 0) || ((position + remaining) > basis.size())) {
+					throw new IOException("delta refers to blocks beyond end of basis");
+				}
+				while (remaining > 0) {
+					buffer.clear();
+					buffer.limit((int) Math.min(buffer.capacity(), remaining));
+					final int read = basis.read(buffer, position);
+					if (read < 0) {
+						throw new EOFException();
+					}
+					position += read;
+					remaining -= read;
+					written += writeDigested(buffer, digest, target);
+				}
+			} else if (op == BlockDeltaHelper.OP___DATA) {
+				int remaining = in.readInt();
+				if (remaining < 0) {
+					throw new IOException("invalid delta data length");
+				}
+				while (remaining > 0) {
+					buffer.clear();
+					final int n = Math.min(buffer.capacity(), remaining);
+					in.readFully(buffer.array(), 0, n);
+					buffer.position(n);
+					remaining -= n;
+					written += writeDigested(buffer, digest, target);
+				}
+			} else if (op == BlockDeltaHelper.OP___END) {
+				final byte[] expectedHash = new byte[32];
+				in.readFully(expectedHash);
+				if (!Arrays.equals(expectedHash, digest.digest())) {
+					throw new IOException("content hash mismatch after applying delta");
+				}
+				return written;
+			} else {
+				throw new IOException("invalid delta operation " + op);
+			}
+		}
+	}
+
+	/**
+	 * Creates a delta transforming content with the given signatures into the content read from the given stream. The stream is read once until its end but
+	 * not closed, the delta output is not closed either.
+	 *
+	 * @param in the new content
+	 * @param basis the signatures of the old content
+	 * @param delta the output stream to write the delta to
+	 * @param newSignatures the builder to pass the new content to (may be null)
+	 * @return the content hash of the new content (see {@link ContentHashHelper})
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static String createDelta(final InputStream in, final BlockSignatures basis, final OutputStream delta, final BlockSignatures.Builder newSignatures) throws IOException {
+		final int blockSize = basis.getBlockSize();
+		final WeakChecksumIndex blocksByWeakChecksum = new WeakChecksumIndex(basis);
+		final MessageDigest contentDigest = ContentHashHelper.newDigest();
+		final MessageDigest strongDigest = BlockSignatures.newStrongDigest();
+		final DataOutputStream out = new DataOutputStream(delta);
+		out.writeInt(BlockDeltaHelper.MAGIC);
+		out.writeInt(blockSize);
+
+		final byte[] buffer = new byte[Math.max(4 * blockSize, BlockDeltaHelper.BUFFER_SIZE)];
+		// valid data is buffer[0, limit), the window to match is buffer[pos, pos + blockSize), unmatched data waiting to be written starts at dataStart
+		int limit = 0;
+		int pos = 0;
+		int dataStart = 0;
+		boolean endOfStream = false;
+		boolean checksumValid = false;
+		int checksum = 0;
+		// pending run of copied blocks, merged into a single operation
+		int copyFirst = -1;
+		int copyCount = 0;
+		while (true) {
+			if ((limit - pos) < blockSize) {
+				if (endOfStream) {
+					break;
+				}
+				// write pending data and move the remaining window to the start of the buffer before reading more
+				if (pos > dataStart) {
+					copyFirst = writeCopy(out, copyFirst, copyCount);
+					writeData(out, buffer, dataStart, pos - dataStart);
+				}
+				System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+				limit -= pos;
+				pos = 0;
+				dataStart = 0;
+				while (!endOfStream && (limit < buffer.length)) {
+					final int read = in.read(buffer, limit, buffer.length - limit);
+					if (read < 0) {
+						endOfStream = true;
+					} else {
+						contentDigest.update(buffer, limit, read);
+						if (newSignatures != null) {
+							newSignatures.update(buffer, limit, read);
+						}
+						limit += read;
+					}
+				}
+				continue;
+			}
+			if (!checksumValid) {
+				checksum = BlockSignatures.weakChecksum(buffer, pos, blockSize);
+				checksumValid = true;
+			}
+			int match = -1;
+			final int[] candidates = blocksByWeakChecksum.get(checksum);
+			if (candidates != null) {
+				final long strongHash = BlockSignatures.strongHash(strongDigest, buffer, pos, blockSize);
+				for (final int candidate : candidates) {
+					if (basis.getStrongHash(candidate) == strongHash) {
+						match = candidate;
+						// prefer continuing the current run
+						if ((copyFirst >= 0) && (candidate == (copyFirst + copyCount))) {
+							break;
+						}
+					}
+				}
+			}
+			if (match >= 0) {
+				if (pos > dataStart) {
+					copyFirst = writeCopy(out, copyFirst, copyCount);
+					writeData(out, buffer, dataStart, pos - dataStart);
+				}
+				if ((copyFirst >= 0) && (match == (copyFirst + copyCount))) {
+					copyCount++;
+				} else {
+					writeCopy(out, copyFirst, copyCount);
+					copyFirst = match;
+					copyCount = 1;
+				}
+				pos += blockSize;
+				dataStart = pos;
+				checksumValid = false;
+			} else if ((pos + blockSize) < limit) {
+				checksum = BlockSignatures.rollWeakChecksum(checksum, buffer[pos], buffer[pos + blockSize], blockSize);
+				pos++;
+			} else {
+				pos++;
+				checksumValid = false;
+			}
+		}
+		copyFirst = writeCopy(out, copyFirst, copyCount);
+		writeData(out, buffer, dataStart, limit - dataStart);
+		out.writeByte(BlockDeltaHelper.OP___END);
+		final byte[] hash = contentDigest.digest();
+		out.write(hash);
+		out.flush();
+		return ContentHashHelper.toHexString(hash);
+	}
+
+	/**
+	 * Checks if a delta is complete (terminated by its end operation) without applying it. Deltas whose creation was aborted (e.g. because reading the new
+	 * content failed) are truncated and must not be applied. Data is skipped, so checking is cheap compared to applying. The stream is not closed.
+	 *
+	 * @param delta the delta
+	 * @return true, if complete
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static boolean isComplete(final InputStream delta) throws IOException {
+		final DataInputStream in = new DataInputStream(delta);
+		try {
+			if (in.readInt() != BlockDeltaHelper.MAGIC) {
+				return false;
+			}
+			in.readInt();
+			while (true) {
+				final byte op = in.readByte();
+				if (op == BlockDeltaHelper.OP___COPY) {
+					skipFully(in, 8);
+				} else if (op == BlockDeltaHelper.OP___DATA) {
+					final int length = in.readInt();
+					if (length < 0) {
+						return false;
+					}
+					skipFully(in, length);
+				} else if (op == BlockDeltaHelper.OP___END) {
+					skipFully(in, 32);
+					return true;
+				} else {
+					return false;
+				}
+			}
+		} catch (final EOFException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Skips the given number of bytes.
+	 *
+	 * @param in the input
+	 * @param count the number of bytes
+	 * @throws IOException if an I/O error occurs (EOFException if the end of the stream is reached before)
+	 */
+	private static void skipFully(final DataInputStream in, final int count) throws IOException {
+		int remaining = count;
+		while (remaining > 0) {
+			final int skipped = in.skipBytes(remaining);
+			if (skipped <= 0) {
+				// skipBytes does not distinguish end of stream from not skipping
+				in.readByte();
+				remaining--;
+			} else {
+				remaining -= skipped;
+			}
+		}
+	}
+
+	/**
+	 * Wraps a writable channel, so all data written to it is also passed to a signature builder.
+	 *
+	 * @param channel the channel
+	 * @param signatures the signature builder
+	 * @return the wrapping channel (closing it closes the given channel)
+	 */
+	public static WritableByteChannel signingChannel(final WritableByteChannel channel, final BlockSignatures.Builder signatures) {
+		return new WritableByteChannel() {
+
+			@Override
+			public void close() throws IOException {
+				channel.close();
+			}
+
+			@Override
+			public boolean isOpen() {
+				return channel.isOpen();
+			}
+
+			@Override
+			public int write(final ByteBuffer src) throws IOException {
+				final ByteBuffer signatureView = src.duplicate();
+				final int written = channel.write(src);
+				signatureView.limit(signatureView.position() + written);
+				signatures.update(signatureView);
+				return written;
+			}
+		};
+	}
+
+	/**
+	 * Writes a pending run of copied blocks.
+	 *
+	 * @param out the delta output
+	 * @param first the first block index (-1 if none pending)
+	 * @param count the number of blocks
+	 * @return -1 (no run pending anymore)
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static int writeCopy(final DataOutputStream out, final int first, final int count) throws IOException {
+		if (first >= 0) {
+			out.writeByte(BlockDeltaHelper.OP___COPY);
+			out.writeInt(first);
+			out.writeInt(count);
+		}
+		return -1;
+	}
+
+	/**
+	 * Writes unmatched data.
+	 *
+	 * @param out the delta output
+	 * @param data the data
+	 * @param offset the offset
+	 * @param length the length
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static void writeData(final DataOutputStream out, final byte[] data, final int offset, final int length) throws IOException {
+		if (length > 0) {
+			out.writeByte(BlockDeltaHelper.OP___DATA);
+			out.writeInt(length);
+			out.write(data, offset, length);
+		}
+	}
+
+	/**
+	 * Writes a buffer completely and updates a digest.
+	 *
+	 * @param buffer the buffer (filled, not yet flipped)
+	 * @param digest the digest
+	 * @param target the target
+	 * @return the number of bytes written
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static int writeDigested(final ByteBuffer buffer, final MessageDigest digest, final WritableByteChannel target) throws IOException {
+		buffer.flip();
+		digest.update(buffer.array(), 0, buffer.limit());
+		final int length = buffer.limit();
+		while (buffer.hasRemaining()) {
+			target.write(buffer);
+		}
+		return length;
+	}
+
+	/**
+	 * Instantiates a new block delta helper.
+	 */
+	private BlockDeltaHelper() {
+	}
+}
@@ -0,0 +1,288 @@
+package helper;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import com.google.common.io.BaseEncoding;
+
+/**
+ * Block signatures of file content for delta synchronization (see {@link BlockDeltaHelper}): The content is split into blocks of fixed size, for every full
+ * block a weak rolling checksum and a strong hash are kept. A trailing partial block has no signature, it is always transferred. Signatures are immutable and
+ * can be stored as string (see {@link #toString()} and {@link #parse(String)}).
+ *
+ * @author Stefan Werner
+ */
+public final class BlockSignatures {
+
+	/**
+	 * Builder computing signatures incrementally from content passed in arbitrary chunks.
+	 */
+	public static final class Builder {
+
+		private final byte[] block;
+		private int blockFill = 0;
+		private int count = 0;
+		private final MessageDigest digest = BlockSignatures.newStrongDigest();
+		private long[] strongHashes = new long[16];
+		private int[] weakChecksums = new int[16];
+
+		/**
+		 * Instantiates a new builder.
+		 *
+		 * @param blockSize the block size
+		 */
+		public Builder(final int blockSize) {
+			this.block = new byte[blockSize];
+		}
+
+		/**
+		 * Builds the signatures of all content passed so far.
+		 *
+		 * @return the block signatures
+		 */
+		public BlockSignatures build() {
+			final int[] weak = new int[this.count];
+			final long[] strong = new long[this.count];
+			System.arraycopy(this.weakChecksums, 0, weak, 0, this.count);
+			System.arraycopy(this.strongHashes, 0, strong, 0, this.count);
+			return new BlockSignatures(this.block.length, weak, strong);
+		}
+
+		/**
+		 * Passes content.
+		 *
+		 * @param data the data
+		 * @param offset the offset
+		 * @param length the length
+		 */
+		public void update(final byte[] data, final int offset, final int length) {
+			int pos = offset;
+			final int end = offset + length;
+			while (pos < end) {
+				final int n = Math.min(end - pos, this.block.length - this.blockFill);
+				System.arraycopy(data, pos, this.block, this.blockFill, n);
+				this.blockFill += n;
+				pos += n;
+				if (this.blockFill == this.block.length) {
+					if (this.count == this.weakChecksums.length) {
+						final int[] weak = new int[this.count * 2];
+						final long[] strong = new long[this.count * 2];
+						System.arraycopy(this.weakChecksums, 0, weak, 0, this.count);
+						System.arraycopy(this.strongHashes, 0, strong, 0, this.count);
+						this.weakChecksums = weak;
+						this.strongHashes = strong;
+					}
+					this.weakChecksums[this.count] = BlockSignatures.weakChecksum(this.block, 0, this.block.length);
+					this.strongHashes[this.count] = BlockSignatures.strongHash(this.digest, this.block, 0, this.block.length);
+					this.count++;
+					this.blockFill = 0;
+				}
+			}
+		}
+
+		/**
+		 * Passes content. The buffer's position is advanced to its limit.
+		 *
+		 * @param data the data
+		 */
+		public void update(final ByteBuffer data) {
+			if (data.hasArray()) {
+				update(data.array(), data.arrayOffset() + data.position(), data.remaining());
+				data.position(data.limit());
+			} else {
+				final byte[] chunk = new byte[Math.min(data.remaining(), this.block.length)];
+				while (data.hasRemaining()) {
+					final int n = Math.min(data.remaining(), chunk.length);
+					data.get(chunk, 0, n);
+					update(chunk, 0, n);
+				}
+			}
+		}
+	}
+
+	// upper bound of blocks per file keeping stored signatures small (about 32 KiB base64 encoded), block size grows for large files instead
+	private static final int MAX_BLOCK_COUNT = 2 * 1024;
+	private static final int MAX_BLOCK_SIZE = 16 * 1024 * 1024;
+	private static final int MIN_BLOCK_SIZE = 64 * 1024;
+	private static final String STRONG_HASH_ALGORITHM = "MD5";
+
+	/**
+	 * Gets the block size used for content of given size: At least 64 KiB, larger for files with more than 2048 blocks (always a power of two, at
+	 * most 16 MiB).
+	 *
+	 * @param size the content size
+	 * @return the block size
+	 */
+	public static int getBlockSize(final long size) {
+		int blockSize = BlockSignatures.MIN_BLOCK_SIZE;
+		while (((size / blockSize) > BlockSignatures.MAX_BLOCK_COUNT) && (blockSize < BlockSignatures.MAX_BLOCK_SIZE)) {
+			blockSize <<= 1;
+		}
+		return blockSize;
+	}
+
+	/**
+	 * Creates a digest for strong block hashes.
+	 *
+	 * @return the message digest
+	 */
+	static MessageDigest newStrongDigest() {
+		try {
+			return MessageDigest.getInstance(BlockSignatures.STRONG_HASH_ALGORITHM);
+		} catch (final NoSuchAlgorithmException e) {
+			// every Java platform has to support MD5
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Parses signatures stored by {@link #toString()}.
+	 *
+	 * @param s the string
+	 * @return the block signatures (null if invalid)
+	 */
+	public static BlockSignatures parse(final String s) {
+		if (s == null) {
+			return null;
+		}
+		final ByteBuffer buffer;
+		try {
+			buffer = ByteBuffer.wrap(BaseEncoding.base64().decode(s));
+		} catch (final IllegalArgumentException e) {
+			return null;
+		}
+		if (buffer.remaining() < 8) {
+			return null;
+		}
+		final int blockSize = buffer.getInt();
+		final int count = buffer.getInt();
+		if ((blockSize <= 0) || (count < 0) || (buffer.remaining() != (count * 12L))) {
+			return null;
+		}
+		final int[] weak = new int[count];
+		final long[] strong = new long[count];
+		for (int i = 0; i < count; i++) {
+			weak[i] = buffer.getInt();
+			strong[i] = buffer.getLong();
+		}
+		return new BlockSignatures(blockSize, weak, strong);
+	}
+
+	/**
+	 * Rolls a weak checksum one byte forward.
+	 *
+	 * @param checksum the checksum of the current block
+	 * @param removed the byte leaving the block
+	 * @param added the byte entering the block
+	 * @param blockSize the block size
+	 * @return the checksum of the next block
+	 */
+	static int rollWeakChecksum(final int checksum, final byte removed, final byte added, final int blockSize) {
+		final int a = ((checksum - (removed & 0xff)) + (added & 0xff)) & 0xffff;
+		final int b = (((checksum >>> 16) - (blockSize * (removed & 0xff))) + a) & 0xffff;
+		return a | (b << 16);
+	}
+
+	/**
+	 * Computes the strong hash of a block (the first 64 bits of its MD5 hash, collisions are caught by the content hash checked when applying a delta).
+	 *
+	 * @param digest the digest to use (see {@link #newStrongDigest()})
+	 * @param data the data
+	 * @param offset the offset
+	 * @param length the length
+	 * @return the strong hash
+	 */
+	static long strongHash(final MessageDigest digest, final byte[] data, final int offset, final int length) {
+		digest.update(data, offset, length);
+		return ByteBuffer.wrap(digest.digest()).getLong();
+	}
+
+	/**
+	 * Computes the weak rolling checksum of a block (as used by rsync: two 16 bit sums, see {@link #rollWeakChecksum(int, byte, byte, int)}).
+	 *
+	 * @param data the data
+	 * @param offset the offset
+	 * @param length the length
+	 * @return the weak checksum
+	 */
+	static int weakChecksum(final byte[] data, final int offset, final int length) {
+		int a = 0;
+		int b = 0;
+		for (int i = 0; i < length; i++) {
+			a += data[offset + i] & 0xff;
+			b += (length - i) * (data[offset + i] & 0xff);
+		}
+		return (a & 0xffff) | ((b & 0xffff) << 16);
+	}
+
+	private final int blockSize;
+	private final long[] strongHashes;
+	private final int[] weakChecksums;
+
+	/**
+	 * Instantiates new block signatures.
+	 *
+	 * @param blockSize the block size
+	 * @param weakChecksums the weak checksums
+	 * @param strongHashes the strong hashes
+	 */
+	private BlockSignatures(final int blockSize, final int[] weakChecksums, final long[] strongHashes) {
+		this.blockSize = blockSize;
+		this.weakChecksums = weakChecksums;
+		this.strongHashes = strongHashes;
+	}
+
+	/**
+	 * Gets the number of (full) blocks.
+	 *
+	 * @return the block count
+	 */
+	public int getBlockCount() {
+		return this.weakChecksums.length;
+	}
+
+	/**
+	 * Gets the block size.
+	 *
+	 * @return the block size
+	 */
+	public int getBlockSize() {
+		return this.blockSize;
+	}
+
+	/**
+	 * Gets the strong hash of a block.
+	 *
+	 * @param index the block index
+	 * @return the strong hash
+	 */
+	long getStrongHash(final int index) {
+		return this.strongHashes[index];
+	}
+
+	/**
+	 * Gets the weak checksum of a block.
+	 *
+	 * @param index the block index
+	 * @return the weak checksum
+	 */
+	int getWeakChecksum(final int index) {
+		return this.weakChecksums[index];
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString() */
+	@Override
+	public String toString() {
+		final ByteBuffer buffer = ByteBuffer.allocate(8 + (this.weakChecksums.length * 12));
+		buffer.putInt(this.blockSize);
+		buffer.putInt(this.weakChecksums.length);
+		for (int i = 0; i < this.weakChecksums.length; i++) {
+			buffer.putInt(this.weakChecksums[i]);
+			buffer.putLong(this.strongHashes[i]);
+		}
+		return BaseEncoding.base64().encode(buffer.array());
+	}
+}
@@ -0,0 +1,111 @@
+package helper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import com.google.common.io.BaseEncoding;
+
+import framework.constants.GenericModuleCommandProperties;
+
+/**
+ * Computes content hashes of data elements. All modules use the same algorithm ({@link GenericModuleCommandProperties#VALUE_CONTENT_HASH_ALGORITHM___SHA_256})
+ * and the same lower case hex representation, so hashes computed by different modules can be compared directly.
+ *
+ * @author Stefan Werner
+ */
+public final class ContentHashHelper {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Wraps a writable channel, so all data written to it also updates the given digest.
+	 *
+	 * @param channel the channel
+	 * @param digest the digest
+	 * @return the wrapping channel (closing it closes the given channel)
+	 */
+	public static WritableByteChannel digestingChannel(final WritableByteChannel channel, final MessageDigest digest) {
+		return new WritableByteChannel() {
+
+			@Override
+			public void close() throws IOException {
+				channel.close();
+			}
+
+			@Override
+			public boolean isOpen() {
+				return channel.isOpen();
+			}
+
+			@Override
+			public int write(final ByteBuffer src) throws IOException {
+				final ByteBuffer digestView = src.duplicate();
+				final int written = channel.write(src);
+				digestView.limit(digestView.position() + written);
+				digest.update(digestView);
+				return written;
+			}
+		};
+	}
+
+	/**
+	 * Reads a stream until its end and computes the hash of its content. The stream is not closed.
+	 *
+	 * @param in the input stream
+	 * @return the hash as hex string
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static String hash(final InputStream in) throws IOException {
+		final MessageDigest digest = ContentHashHelper.newDigest();
+		final byte[] buffer = new byte[ContentHashHelper.BUFFER_SIZE];
+		int read;
+		while ((read = in.read(buffer)) >= 0) {
+			digest.update(buffer, 0, read);
+		}
+		return ContentHashHelper.toHexString(digest);
+	}
+
+	/**
+	 * Creates a new digest for the content hash algorithm.
+	 *
+	 * @return the message digest
+	 */
+	public static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(GenericModuleCommandProperties.VALUE_CONTENT_HASH_ALGORITHM___SHA_256);
+		} catch (final NoSuchAlgorithmException e) {
+			// every Java platform has to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Completes the digest and gets the hash as hex string.
+	 *
+	 * @param digest the digest
+	 * @return the hash as lower case hex string
+	 */
+	public static String toHexString(final MessageDigest digest) {
+		return ContentHashHelper.toHexString(digest.digest());
+	}
+
+	/**
+	 * Gets a completed hash as hex string.
+	 *
+	 * @param hash the hash
+	 * @return the hash as lower case hex string
+	 */
+	public static String toHexString(final byte[] hash) {
+		return BaseEncoding.base16().lowerCase().encode(hash);
+	}
+
+	/**
+	 * Instantiates a new content hash helper.
+	 */
+	private ContentHashHelper() {
+	}
+}
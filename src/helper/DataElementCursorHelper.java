@@ -0,0 +1,85 @@
+package helper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import module.iface.DataElementCursor;
+import framework.model.DataElement;
+
+/**
+ * Contains static methods to create and consume {@link DataElementCursor}s.
+ *
+ * @author Stefan Werner
+ */
+public final class DataElementCursorHelper {
+
+	/**
+	 * Closes a cursor, ignoring I/O errors.
+	 *
+	 * @param cursor the cursor (may be null)
+	 */
+	public static void closeQuietly(final DataElementCursor cursor) {
+		if (cursor != null) {
+			try {
+				cursor.close();
+			} catch (final IOException e) {
+				// ignored
+			}
+		}
+	}
+
+	/**
+	 * Creates a cursor over an already complete collection of elements.
+	 *
+	 * @param elements the elements (not copied, must not be modified while the cursor is in use)
+	 * @param batchSize the maximum number of elements per batch (> 0)
+	 * @return the cursor
+	 */
+	public static DataElementCursor fromCollection(final Collection<DataElement> elements, final int batchSize) {
+		final Iterator<DataElement> iterator = elements.iterator();
+		return new DataElementCursor() {
+
+			private boolean closed = false;
+
+			@Override
+			public void close() {
+				this.closed = true;
+			}
+
+			@Override
+			public List<DataElement> nextBatch() throws IOException {
+				if (this.closed) {
+					throw new IOException("cursor closed");
+				}
+				return DataElementCursorHelper.nextBatch(iterator, batchSize);
+			}
+		};
+	}
+
+	/**
+	 * Gets the next batch of elements from an iterator.
+	 *
+	 * @param iterator the iterator
+	 * @param batchSize the maximum number of elements in the batch (> 0)
+	 * @return the batch (null if iterator has no more elements)
+	 */
+	public static List<DataElement> nextBatch(final Iterator<DataElement> iterator, final int batchSize) {
+		if (!iterator.hasNext()) {
+			return null;
+		}
+		final List<DataElement> batch = new ArrayList<DataElement>(Math.min(batchSize, 1024));
+		while (iterator.hasNext() && (batch.size() < batchSize)) {
+			batch.add(iterator.next());
+		}
+		return batch;
+	}
+
+	/**
+	 * Instantiates a new data element cursor helper.
+	 */
+	private DataElementCursorHelper() {
+	}
+}
@@ -84,7 +84,7 @@ public final class ObjectValidator {
 	 * @return true, if OK
 	 */
 	public static boolean checkDataElement(final DataElement element) {
-		if ((element == null) || (element.getPath() == null)) {
+		if ((element == null) || (element.getDataElementPath() == null)) {
 			return false;
 		}
 		return ObjectValidator.checkDataElementValues(element.getModificationDate(), element.getSize()) && ObjectValidator.checkPath(element.getPath()) && (!element.hasAdditionalProperties() || ObjectValidator.checkMapForNullKeysOrValues(element.getAdditionalProperties()));
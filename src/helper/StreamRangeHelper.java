@@ -0,0 +1,79 @@
+package helper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Contains static methods to restrict streams to a range of their data. Used to emulate ranged reads for providers not supporting them natively and by
+ * providers whose data source can only be positioned but not limited.
+ *
+ * @author Stefan Werner
+ */
+public final class StreamRangeHelper {
+
+	/**
+	 * Checks range arguments.
+	 *
+	 * @param offset the offset (must be >= 0)
+	 * @param length the length (must be >= -1, -1 meaning until end of data)
+	 * @return true, if OK
+	 */
+	public static boolean checkRange(final long offset, final long length) {
+		return (offset >= 0) && (length >= -1);
+	}
+
+	/**
+	 * Limits a stream already positioned at the start of a range.
+	 *
+	 * @param in the input stream
+	 * @param length the maximum number of bytes to read (-1 to read until end of data)
+	 * @return the limited input stream (closing it closes the given stream)
+	 */
+	public static InputStream limit(final InputStream in, final long length) {
+		if (length < 0) {
+			return in;
+		}
+		return ByteStreams.limit(in, length);
+	}
+
+	/**
+	 * Skips to the start of a range and limits the stream to its length. If the stream ends before the offset is reached it is closed and an empty stream is
+	 * returned.
+	 *
+	 * @param in the input stream positioned at the start of data
+	 * @param offset the offset of the first byte to read
+	 * @param length the maximum number of bytes to read (-1 to read until end of data)
+	 * @return the input stream for the range (closing it closes the given stream)
+	 * @throws IOException if an I/O error occurs (the given stream is closed in this case)
+	 */
+	public static InputStream skipAndLimit(final InputStream in, final long offset, final long length) throws IOException {
+		try {
+			long remaining = offset;
+			while (remaining > 0) {
+				final long skipped = in.skip(remaining);
+				if (skipped > 0) {
+					remaining -= skipped;
+				} else if (in.read() >= 0) {
+					// skip() may return 0 before end of data, so make sure by reading a single byte
+					remaining--;
+				} else {
+					in.close();
+					return new ByteArrayInputStream(new byte[0]);
+				}
+			}
+		} catch (final IOException e) {
+			in.close();
+			throw e;
+		}
+		return StreamRangeHelper.limit(in, length);
+	}
+
+	/**
+	 * Instantiates a new stream range helper.
+	 */
+	private StreamRangeHelper() {
+	}
+}
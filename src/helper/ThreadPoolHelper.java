@@ -0,0 +1,178 @@
+package helper;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import framework.constants.Constants;
+import framework.model.type.ThreadModeType;
+
+/**
+ * Creates threads and thread pools for framework and modules according to the system wide {@link ThreadModeType}. In mode VIRTUAL pools are backed by virtual
+ * threads, so blocking I/O through the broker does not tie up platform threads. Virtual threads are created via reflection (the code base targets Java 7), if
+ * the runtime does not support them platform threads are used instead.
+ * <p>
+ * Only the type of threads changes, never the semantics of a pool: Single thread executors still run tasks one after another (keeping per module ordering)
+ * and fixed pools keep their max concurrency. The mode must be set before pools are created, usually by {@link framework.control.Core} at startup.
+ *
+ * @author Stefan Werner
+ */
+public final class ThreadPoolHelper {
+
+	// factory creating unstarted virtual threads (null if not supported by runtime)
+	private static final ThreadFactory VIRTUAL_THREAD_FACTORY = ThreadPoolHelper.createVirtualThreadFactory();
+
+	private static volatile ThreadModeType threadMode = Constants.CORE___THREAD_MODE;
+
+	/**
+	 * Creates a factory for virtual threads using Thread.ofVirtual().factory() (Java 21+).
+	 *
+	 * @return the virtual thread factory (null if not supported)
+	 */
+	private static ThreadFactory createVirtualThreadFactory() {
+		try {
+			final Method ofVirtual = Thread.class.getMethod("ofVirtual");
+			final Object builder = ofVirtual.invoke(null);
+			final Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+			return (ThreadFactory) factory.invoke(builder);
+		} catch (final Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Gets the thread mode actually used (VIRTUAL only if requested and supported by runtime).
+	 *
+	 * @return the effective thread mode
+	 */
+	public static ThreadModeType getEffectiveThreadMode() {
+		if ((ThreadPoolHelper.threadMode == ThreadModeType.VIRTUAL) && ThreadPoolHelper.isVirtualThreadSupported()) {
+			return ThreadModeType.VIRTUAL;
+		}
+		return ThreadModeType.PLATFORM;
+	}
+
+	/**
+	 * Gets the requested thread mode.
+	 *
+	 * @return the thread mode
+	 */
+	public static ThreadModeType getThreadMode() {
+		return ThreadPoolHelper.threadMode;
+	}
+
+	/**
+	 * Checks if virtual threads are supported by the current runtime.
+	 *
+	 * @return true, if supported
+	 */
+	public static boolean isVirtualThreadSupported() {
+		return ThreadPoolHelper.VIRTUAL_THREAD_FACTORY != null;
+	}
+
+	/**
+	 * Creates a new pool creating threads as needed and reusing idle ones.
+	 *
+	 * @param nameFormat the thread name format (see {@link ThreadFactoryBuilder#setNameFormat(String)})
+	 * @return the executor service
+	 */
+	public static ExecutorService newCachedThreadPool(final String nameFormat) {
+		return Executors.newCachedThreadPool(ThreadPoolHelper.newThreadFactory(nameFormat));
+	}
+
+	/**
+	 * Creates a new work-stealing pool. Fork/join worker threads are always platform threads regardless of the thread mode.
+	 *
+	 * @param parallelism the parallelism (number of threads actively running tasks)
+	 * @param nameFormat the thread name format (with a single %d for the thread number)
+	 * @return the fork/join pool
+	 */
+	public static ForkJoinPool newForkJoinPool(final int parallelism, final String nameFormat) {
+		return new ForkJoinPool(parallelism, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+
+			private final AtomicInteger threadCount = new AtomicInteger();
+
+			@Override
+			public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+				final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+				thread.setName(String.format(nameFormat, this.threadCount.getAndIncrement()));
+				return thread;
+			}
+		}, null, false);
+	}
+
+	/**
+	 * Creates a new pool with a fixed number of threads.
+	 *
+	 * @param threadCount the thread count
+	 * @param nameFormat the thread name format (see {@link ThreadFactoryBuilder#setNameFormat(String)})
+	 * @return the executor service
+	 */
+	public static ExecutorService newFixedThreadPool(final int threadCount, final String nameFormat) {
+		return Executors.newFixedThreadPool(threadCount, ThreadPoolHelper.newThreadFactory(nameFormat));
+	}
+
+	/**
+	 * Creates a new executor running tasks one after another in a single thread.
+	 *
+	 * @param nameFormat the thread name format (see {@link ThreadFactoryBuilder#setNameFormat(String)})
+	 * @return the executor service
+	 */
+	public static ExecutorService newSingleThreadExecutor(final String nameFormat) {
+		return Executors.newSingleThreadExecutor(ThreadPoolHelper.newThreadFactory(nameFormat));
+	}
+
+	/**
+	 * Creates a new (unstarted) thread.
+	 *
+	 * @param runnable the runnable
+	 * @param name the thread name
+	 * @return the thread
+	 */
+	public static Thread newThread(final Runnable runnable, final String name) {
+		if (ThreadPoolHelper.getEffectiveThreadMode() == ThreadModeType.VIRTUAL) {
+			final Thread thread = ThreadPoolHelper.VIRTUAL_THREAD_FACTORY.newThread(runnable);
+			thread.setName(name);
+			return thread;
+		}
+		return new Thread(runnable, name);
+	}
+
+	/**
+	 * Creates a new thread factory.
+	 *
+	 * @param nameFormat the thread name format (see {@link ThreadFactoryBuilder#setNameFormat(String)})
+	 * @return the thread factory
+	 */
+	public static ThreadFactory newThreadFactory(final String nameFormat) {
+		final ThreadFactoryBuilder builder = new ThreadFactoryBuilder().setNameFormat(nameFormat);
+		if (ThreadPoolHelper.getEffectiveThreadMode() == ThreadModeType.VIRTUAL) {
+			// virtual threads are always daemon threads, so daemon flag must not be set here
+			builder.setThreadFactory(ThreadPoolHelper.VIRTUAL_THREAD_FACTORY);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Sets the thread mode for all threads and pools created from now on.
+	 *
+	 * @param threadMode the new thread mode
+	 */
+	public static void setThreadMode(final ThreadModeType threadMode) {
+		if (threadMode != null) {
+			ThreadPoolHelper.threadMode = threadMode;
+		}
+	}
+
+	/**
+	 * Instantiates a new thread pool helper.
+	 */
+	private ThreadPoolHelper() {
+	}
+}
@@ -30,8 +30,11 @@ import java.util.Set;
 import java.util.concurrent.locks.ReentrantLock;
 
 import module.iface.AbstractProsumerProvider;
+import module.iface.CursorProvider;
+import module.iface.DataElementCursor;
 import module.iface.DataElementEventListener;
 import module.iface.ErrorCode;
+import module.iface.RangedReadProvider;
 
 import com.google.common.collect.ImmutableSet;
 
@@ -48,7 +51,7 @@ import db.iface.ComponentConfigurationController;
  * -> Extend AbstractProvider, change (uncomment corresponding) constructor and remove DataElementEventListener, PROSUMER METHODS section and ProsumerPort
  * stuff.
  */
-public class ProviderProsumerProxyExampleModule extends AbstractProsumerProvider implements DataElementEventListener {
+public class ProviderProsumerProxyExampleModule extends AbstractProsumerProvider implements CursorProvider, RangedReadProvider, DataElementEventListener {
 
 	// DATABASE STUFF
 
@@ -425,6 +428,19 @@ public class ProviderProsumerProxyExampleModule extends AbstractProsumerProvider
 		this.stateLock.unlock();
 	}
 
+	/* (non-Javadoc)
+	 * 
+	 * @see module.iface.CursorProvider#listChildren(framework.model.ProviderPort, java.lang.String[], boolean, int) */
+	@Override
+	public DataElementCursor listChildren(final ProviderPort port, final String[] path, final boolean recursive, final int batchSize) throws ModuleException {
+		checkForOperationalStateAndPort(port);
+		try {
+			return this.prosumerConnector.listChildren(this.prosumerPort, path, recursive, batchSize);
+		} catch (BrokerException | AuthorizationException e) {
+			throw new ModuleException(e);
+		}
+	}
+
 	/**
 	 * May write.
 	 *
@@ -628,6 +644,19 @@ public class ProviderProsumerProxyExampleModule extends AbstractProsumerProvider
 		}
 	}
 
+	/* (non-Javadoc)
+	 * 
+	 * @see module.iface.RangedReadProvider#readData(framework.model.ProviderPort, java.lang.String[], long, long) */
+	@Override
+	public InputStream readData(final ProviderPort port, final String[] path, final long offset, final long length) throws ModuleException {
+		checkForOperationalStateAndPort(port);
+		try {
+			return this.prosumerConnector.readData(this.prosumerPort, path, offset, length);
+		} catch (BrokerException | AuthorizationException e) {
+			throw new ModuleException(e);
+		}
+	}
+
 	/* (non-Javadoc)
 	 * 
 	 * @see module.iface.Provider#unlock(framework.model.ProviderPort, java.lang.String[]) */
@@ -0,0 +1,43 @@
+package module.iface;
+
+import java.util.Set;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import framework.exception.ModuleException;
+import framework.model.DataElement;
+import framework.model.ProviderPort;
+
+/**
+ * Optional extension for providers able to answer metadata requests asynchronously, for example by using a non-blocking network client. Implementing this
+ * interface allows prosumers to pipeline many requests without the broker blocking a thread per outstanding call.
+ * <p>
+ * Providers not implementing this interface are still accessible by asynchronous calls, the broker runs their blocking methods within a bounded thread pool.
+ * <p>
+ * IMPORTANT: Methods must return quickly and must not block. The broker enforces timeouts by failing and cancelling the returned futures.
+ *
+ * @author Stefan Werner
+ */
+public interface AsyncProvider extends Provider {
+
+	/**
+	 * Gets the child elements under a given parent path asynchronously. See {@link Provider#getChildElements(ProviderPort, String[], boolean)} for details.
+	 *
+	 * @param port the port
+	 * @param path the path
+	 * @param recursive set to true to get all children recursively (relative depth >= 1)
+	 * @return the future child elements (null value if non existing/error or no children supported)
+	 * @throws ModuleException if an exception occurs before the request could be started
+	 */
+	public ListenableFuture<Set<DataElement>> getChildElementsAsync(ProviderPort port, String[] path, boolean recursive) throws ModuleException;
+
+	/**
+	 * Gets the element at a given path asynchronously. See {@link Provider#getElement(ProviderPort, String[])} for details.
+	 *
+	 * @param port the port
+	 * @param path the path
+	 * @return the future element (null value if non existing or error)
+	 * @throws ModuleException if an exception occurs before the request could be started
+	 */
+	public ListenableFuture<DataElement> getElementAsync(ProviderPort port, String[] path) throws ModuleException;
+}
@@ -0,0 +1,31 @@
+package module.iface;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import framework.exception.ModuleException;
+import framework.model.DataElement;
+import framework.model.ProviderPort;
+
+/**
+ * Optional extension for providers able to look up many elements at once cheaper than one by one, for example by a single request per parent folder.
+ * <p>
+ * Providers not implementing this interface are still accessible by bulk lookups, the broker calls
+ * {@link Provider#getElement(ProviderPort, String[])} for each path.
+ *
+ * @author Stefan Werner
+ */
+public interface BulkProvider extends Provider {
+
+	/**
+	 * Gets the elements at the given paths.
+	 *
+	 * @param port the port
+	 * @param paths the paths
+	 * @return the elements, keyed by their requested path as list (equal to {@link java.util.Arrays#asList(Object...)} of the path), non existing elements
+	 *         and errors are left out
+	 * @throws ModuleException if an exception occurs
+	 */
+	public Map<List<String>, DataElement> getElements(ProviderPort port, Collection<String[]> paths) throws ModuleException;
+}
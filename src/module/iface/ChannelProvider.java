@@ -0,0 +1,40 @@
+package module.iface;
+
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+import framework.exception.ModuleException;
+import framework.model.ProviderPort;
+
+/**
+ * Optional extension for providers able to offer data as NIO channels, for example backed by files. Channels allow zero copy transfers between providers (see
+ * {@link framework.model.ModuleReadableByteChannel#transferTo(java.nio.channels.WritableByteChannel)}).
+ * <p>
+ * Providers not implementing this interface are still accessible by channels, the broker bridges their streams automatically.
+ *
+ * @author Stefan Werner
+ */
+public interface ChannelProvider extends Provider {
+
+	/**
+	 * Reads data from an element at given path. Returning a {@link java.nio.channels.FileChannel} (or any other {@link java.nio.channels.SeekableByteChannel})
+	 * is recommended if possible.
+	 *
+	 * @param port the port
+	 * @param path the path
+	 * @return the channel to read from (null if no such element or no data)
+	 * @throws ModuleException if an exception occurs
+	 */
+	public ReadableByteChannel readDataChannel(ProviderPort port, String[] path) throws ModuleException;
+
+	/**
+	 * Writes data to an element at given path, creates it if necessary (including parent folders). Returning a {@link java.nio.channels.FileChannel} is
+	 * recommended if possible.
+	 *
+	 * @param port the port
+	 * @param path the path
+	 * @return the channel to write to (null if read only)
+	 * @throws ModuleException if an exception occurs
+	 */
+	public WritableByteChannel writeDataChannel(ProviderPort port, String[] path) throws ModuleException;
+}
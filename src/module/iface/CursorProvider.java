@@ -0,0 +1,28 @@
+package module.iface;
+
+import framework.exception.ModuleException;
+import framework.model.ProviderPort;
+
+/**
+ * Optional extension for providers able to list child elements incrementally, for example by walking directories lazily or by fetching pages from a remote
+ * server.
+ * <p>
+ * Providers not implementing this interface are still accessible by cursors, the broker splits the result of
+ * {@link Provider#getChildElements(ProviderPort, String[], boolean)} into batches.
+ *
+ * @author Stefan Werner
+ */
+public interface CursorProvider extends Provider {
+
+	/**
+	 * Lists the child elements under a given parent path.
+	 *
+	 * @param port the port
+	 * @param path the path
+	 * @param recursive set to true to get all children recursively (relative depth >= 1)
+	 * @param batchSize the maximum number of elements per batch (> 0)
+	 * @return the cursor (null if non existing/error or no children supported, for example within file elements)
+	 * @throws ModuleException if an exception occurs
+	 */
+	public DataElementCursor listChildren(ProviderPort port, String[] path, boolean recursive, int batchSize) throws ModuleException;
+}
@@ -0,0 +1,26 @@
+package module.iface;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+import framework.model.DataElement;
+
+/**
+ * Cursor over the child elements of a folder, delivering them in batches. Large listings can be processed incrementally this way, without ever holding all
+ * elements in memory.
+ * <p>
+ * Cursors must be closed after use (even if not fully consumed) to release the resources of the providing module. Cursors are not thread-safe.
+ *
+ * @author Stefan Werner
+ */
+public interface DataElementCursor extends Closeable {
+
+	/**
+	 * Gets the next batch of elements. Batches are never empty and contain at most the batch size requested on creation.
+	 *
+	 * @return the next batch (null if there are no more elements)
+	 * @throws IOException if an I/O error occurs or the cursor is already closed
+	 */
+	public List<DataElement> nextBatch() throws IOException;
+}
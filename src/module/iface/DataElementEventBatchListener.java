@@ -0,0 +1,23 @@
+package module.iface;
+
+import java.util.List;
+
+import framework.model.ProsumerPort;
+import framework.model.event.DataElementEvent;
+
+/**
+ * Prosumer listener able to receive multiple element events at once. Listeners only implementing {@link DataElementEventListener} still receive batches sent by
+ * providers, the broker will call {@link DataElementEventListener#onElementEvent(ProsumerPort, DataElementEvent)} for every single event in that case.
+ *
+ * @author Stefan Werner
+ */
+public interface DataElementEventBatchListener extends DataElementEventListener {
+
+	/**
+	 * Receives a batch of element events (in the order they were sent).
+	 *
+	 * @param port the port
+	 * @param events the events (never empty)
+	 */
+	public void onElementEvents(ProsumerPort port, List<DataElementEvent> events);
+}
@@ -0,0 +1,32 @@
+package module.iface;
+
+import helper.BlockDeltaHelper;
+
+import java.io.OutputStream;
+
+import framework.exception.ModuleException;
+import framework.model.ProviderPort;
+
+/**
+ * Optional extension for providers able to patch an existing file by applying a block delta (see {@link BlockDeltaHelper}), so only changed blocks have to be
+ * transferred instead of the whole content. Implementing this interface advertises that support.
+ * <p>
+ * There is no emulation for other providers, prosumers have to fall back to {@link Provider#writeData(ProviderPort, String[])}.
+ *
+ * @author Stefan Werner
+ */
+public interface DeltaWriteProvider extends Provider {
+
+	/**
+	 * Opens an existing file for patching. The data written has to be a delta created against the block signatures of the current content. The new content
+	 * replaces the current one when the stream is closed. If the delta cannot be applied (for example because the file was modified after its signatures were
+	 * computed) closing the stream fails and the current content is kept. An incomplete delta (see {@link BlockDeltaHelper#isComplete(java.io.InputStream)}) is
+	 * never applied, so prosumers abort a transfer by closing the stream without completing the delta.
+	 *
+	 * @param port the port
+	 * @param path the path
+	 * @return the output stream to write the delta to (null if read only or no such file)
+	 * @throws ModuleException if an exception occurs
+	 */
+	public OutputStream writeDataDelta(ProviderPort port, String[] path) throws ModuleException;
+}
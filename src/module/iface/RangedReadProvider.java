@@ -0,0 +1,31 @@
+package module.iface;
+
+import java.io.InputStream;
+
+import framework.exception.ModuleException;
+import framework.model.ProviderPort;
+
+/**
+ * Optional extension for providers able to read parts of an element without reading all preceding data, for example by positional file reads or HTTP range
+ * requests. Implementing this interface advertises that support.
+ * <p>
+ * Providers not implementing this interface are still accessible by ranged reads, the broker emulates them by skipping and limiting the stream got from
+ * {@link Provider#readData(ProviderPort, String[])}.
+ *
+ * @author Stefan Werner
+ */
+public interface RangedReadProvider extends Provider {
+
+	/**
+	 * Reads a range of data from an element at given path.
+	 *
+	 * @param port the port
+	 * @param path the path
+	 * @param offset the offset of the first byte to read (>= 0)
+	 * @param length the maximum number of bytes to read (-1 to read until end of data)
+	 * @return the input stream to read from, ending after at most length bytes or end of data (empty if offset is beyond end of data, null if no such element
+	 *         or no data)
+	 * @throws ModuleException if an exception occurs
+	 */
+	public InputStream readData(ProviderPort port, String[] path, long offset, long length) throws ModuleException;
+}
@@ -1,15 +1,27 @@
 package module.niostorage.control;
 
+import helper.BlockDeltaHelper;
 import helper.CommandResultHelper;
 import helper.ConfigValue;
+import helper.ContentHashHelper;
 import helper.PersistentConfigurationHelper;
-import helper.TextFormatHelper;
+import helper.StreamRangeHelper;
+import helper.ThreadPoolHelper;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystemNotFoundException;
 import java.nio.file.FileSystems;
@@ -20,6 +32,8 @@ import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchEvent.Kind;
@@ -27,39 +41,59 @@ import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.spi.FileSystemProvider;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import module.iface.AbstractProvider;
+import module.iface.BulkProvider;
+import module.iface.ChannelProvider;
+import module.iface.CursorProvider;
+import module.iface.DataElementCursor;
+import module.iface.DeltaWriteProvider;
 import module.iface.ErrorCode;
 import module.iface.Provider;
+import module.iface.RangedReadProvider;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import db.iface.ComponentConfigurationController;
 import framework.constants.Constants;
 import framework.constants.GenericControlInterfaceCommands;
+import framework.constants.GenericModuleCommandProperties;
+import framework.constants.GenericModuleCommands;
 import framework.control.LogConnector;
 import framework.control.ProviderConnector;
 import framework.exception.BrokerException;
 import framework.exception.DatabaseException;
 import framework.exception.ModuleException;
 import framework.model.DataElement;
+import framework.model.DataElementPath;
+import framework.model.DataElementStore;
 import framework.model.Port;
 import framework.model.ProviderPort;
+import framework.model.event.DataElementEvent;
 import framework.model.event.type.DataElementEventType;
 import framework.model.event.type.LogEventLevelType;
 import framework.model.type.DataElementType;
@@ -72,7 +106,135 @@ import framework.model.type.ModuleStateType;
  *
  * @author Stefan Werner
  */
-public class NIOStorageModule extends AbstractProvider {
+public class NIOStorageModule extends AbstractProvider implements BulkProvider, ChannelProvider, CursorProvider, DeltaWriteProvider, RangedReadProvider {
+
+	/**
+	 * Cursor walking a directory tree lazily (depth first). Only one directory stream per level is open at a time, so memory usage does not depend on the
+	 * number of elements. Symbolic links are followed, but never into one of the directories currently being walked (loops).
+	 */
+	private class DirectoryCursor implements DataElementCursor {
+
+		private final int batchSize;
+		private boolean closed = false;
+		// directories currently being walked, innermost first
+		private final Deque<DirectoryLevel> levels = new ArrayDeque<DirectoryLevel>();
+		private final int maxDepth;
+
+		/**
+		 * Instantiates a new directory cursor.
+		 *
+		 * @param dir the directory
+		 * @param recursive set to true to walk all subdirectories
+		 * @param batchSize the batch size
+		 * @throws IOException if the directory cannot be opened
+		 */
+		private DirectoryCursor(final Path dir, final boolean recursive, final int batchSize) throws IOException {
+			this.batchSize = batchSize;
+			this.maxDepth = recursive ? Constants.MAX_PATH_DEPTH : 1;
+			this.levels.push(new DirectoryLevel(dir));
+		}
+
+		/* (non-Javadoc)
+		 *
+		 * @see java.io.Closeable#close() */
+		@Override
+		public void close() {
+			this.closed = true;
+			while (!this.levels.isEmpty()) {
+				this.levels.pop().close();
+			}
+		}
+
+		/**
+		 * Checks if a directory is already being walked.
+		 *
+		 * @param dir the directory
+		 * @return true, if being walked
+		 */
+		private boolean isWalking(final Path dir) {
+			for (final DirectoryLevel level : this.levels) {
+				try {
+					if (Files.isSameFile(level.dir, dir)) {
+						return true;
+					}
+				} catch (final IOException e) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/* (non-Javadoc)
+		 *
+		 * @see module.iface.DataElementCursor#nextBatch() */
+		@Override
+		public List<DataElement> nextBatch() throws IOException {
+			if (this.closed) {
+				throw new IOException("cursor closed");
+			}
+			final List<DataElement> batch = new ArrayList<DataElement>();
+			try {
+				while ((batch.size() < this.batchSize) && !this.levels.isEmpty()) {
+					final DirectoryLevel level = this.levels.peek();
+					if (!level.iterator.hasNext()) {
+						this.levels.pop().close();
+						continue;
+					}
+					final Path child = level.iterator.next();
+					final DataElement element = getElementInternal(getPathArray(NIOStorageModule.this.basePath.relativize(child)), child);
+					if (element == null) {
+						continue;
+					}
+					if ((element.getType() == DataElementType.FOLDER) && (this.levels.size() < this.maxDepth) && !isWalking(child)) {
+						// like getChildElements(...) only folders that are not walked (below max depth) are children themselves
+						try {
+							this.levels.push(new DirectoryLevel(child));
+							continue;
+						} catch (final IOException e) {
+							NIOStorageModule.this.logConnector.log(e);
+						}
+					}
+					batch.add(element);
+				}
+			} catch (final DirectoryIteratorException e) {
+				throw e.getCause();
+			}
+			return batch.isEmpty() ? null : batch;
+		}
+	}
+
+	/**
+	 * Open directory of a {@link DirectoryCursor}.
+	 */
+	private static class DirectoryLevel {
+
+		private final Path dir;
+		private final Iterator<Path> iterator;
+		private final DirectoryStream<Path> stream;
+
+		/**
+		 * Instantiates a new directory level.
+		 *
+		 * @param dir the directory
+		 * @throws IOException if the directory cannot be opened
+		 */
+		private DirectoryLevel(final Path dir) throws IOException {
+			this.dir = dir;
+			this.stream = Files.newDirectoryStream(dir);
+			this.iterator = this.stream.iterator();
+		}
+
+		/**
+		 * Closes the directory stream, ignoring I/O errors.
+		 */
+		private void close() {
+			try {
+				this.stream.close();
+			} catch (final IOException e) {
+				// ignored
+			}
+		}
+	}
 
 	/**
 	 * Element change monitor utilizing the NIO watcher service.
@@ -118,6 +280,9 @@ public class NIOStorageModule extends AbstractProvider {
 					if (context instanceof Path) {
 						final Path name = (Path) context;
 						final Path child = dir.resolve(name);
+						if (isPatchFile(child)) {
+							continue;
+						}
 
 						if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
 							try {
@@ -145,30 +310,30 @@ public class NIOStorageModule extends AbstractProvider {
 
 							@Override
 							public void run() {
+								final List<DataElementEvent> elementEvents = new ArrayList<DataElementEvent>(events.size());
 								for (final Path path : events.keySet()) {
 									final Kind<?> kind = events.get(path);
 									final String[] pathArray = getPathArray(NIOStorageModule.this.basePath.relativize(path));
 									if (pathArray != null) {
 										final DataElement fsElement = getElementInternal(pathArray, path);
 										if (fsElement != null) {
-											try {
-												if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
-													NIOStorageModule.this.providerConnector.sendElementEvent(NIOStorageModule.this.port, fsElement, DataElementEventType.ADD);
-												} else if (kind == StandardWatchEventKinds.ENTRY_MODIFY) {
-													NIOStorageModule.this.providerConnector.sendElementEvent(NIOStorageModule.this.port, fsElement, DataElementEventType.MODIFY);
-												}
-											} catch (final BrokerException e) {
-												NIOStorageModule.this.logConnector.log(e);
+											if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
+												elementEvents.add(new DataElementEvent(fsElement, DataElementEventType.ADD));
+											} else if (kind == StandardWatchEventKinds.ENTRY_MODIFY) {
+												elementEvents.add(new DataElementEvent(fsElement, DataElementEventType.MODIFY));
 											}
 										} else if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
-											try {
-												NIOStorageModule.this.providerConnector.sendElementEvent(NIOStorageModule.this.port, new DataElement(pathArray), DataElementEventType.DELETE);
-											} catch (final BrokerException e) {
-												NIOStorageModule.this.logConnector.log(e);
-											}
+											elementEvents.add(new DataElementEvent(new DataElement(pathArray), DataElementEventType.DELETE));
 										}
 									}
 								}
+								if (!elementEvents.isEmpty()) {
+									try {
+										NIOStorageModule.this.providerConnector.sendElementEvents(NIOStorageModule.this.port, elementEvents);
+									} catch (final BrokerException e) {
+										NIOStorageModule.this.logConnector.log(e);
+									}
+								}
 							}
 						});
 					} catch (final RejectedExecutionException e) {
@@ -189,49 +354,58 @@ public class NIOStorageModule extends AbstractProvider {
 	 */
 	private class InternalMonitorThread extends Thread {
 
-		private Map<String, DataElement> elementMap;
+		// compact snapshot of all elements seen in the last run
+		private DataElementStore elementMap;
 
 		@Override
 		public void run() {
 			while (!isInterrupted()) {
 				try {
-					final Map<String, DataElement> newElementMap = new ConcurrentHashMap<String, DataElement>();
-					final Set<DataElement> newElements = getChildElements(NIOStorageModule.this.port, new String[0], true);
-					if (newElements != null) {
-						if (this.elementMap != null) {
-							boolean error = false;
-							for (final DataElement newElement : newElements) {
-								if (newElement == null) {
-									error = true;
-									continue;
-								}
-								final String internalPath = TextFormatHelper.getPathString(newElement.getPath());
-								if (internalPath != null) {
-									newElementMap.put(internalPath, newElement);
-									final DataElement element = this.elementMap.remove(internalPath);
-									if (element == null) {
-										try {
-											NIOStorageModule.this.providerConnector.sendElementEvent(NIOStorageModule.this.port, newElement, DataElementEventType.ADD);
-										} catch (final BrokerException e) {
-											NIOStorageModule.this.logConnector.log(e);
-										}
-									} else if (!element.equals(newElement)) {
-										try {
-											NIOStorageModule.this.providerConnector.sendElementEvent(NIOStorageModule.this.port, newElement, DataElementEventType.MODIFY);
-										} catch (final BrokerException e) {
-											NIOStorageModule.this.logConnector.log(e);
+					mayRead();
+					final DataElementCursor cursor = listChildrenInternal(new String[0], true, NIOStorageModule.MONITOR_BATCH_SIZE);
+					if (cursor != null) {
+						final DataElementStore newElementMap = new DataElementStore(this.elementMap != null ? this.elementMap.size() : NIOStorageModule.MONITOR_BATCH_SIZE);
+						boolean error = false;
+						try {
+							List<DataElement> batch;
+							while ((batch = cursor.nextBatch()) != null) {
+								// events are sent per batch instead of after the complete listing
+								final List<DataElementEvent> elementEvents = new ArrayList<DataElementEvent>();
+								for (final DataElement newElement : batch) {
+									newElementMap.put(newElement);
+									if (this.elementMap != null) {
+										final DataElement element = this.elementMap.removePath(newElement.getDataElementPath());
+										if (element == null) {
+											elementEvents.add(new DataElementEvent(newElement, DataElementEventType.ADD));
+										} else if (!element.equals(newElement)) {
+											elementEvents.add(new DataElementEvent(newElement, DataElementEventType.MODIFY));
 										}
 									}
-								} else {
-									error = true;
 								}
+								sendElementEvents(elementEvents);
+							}
+						} catch (final IOException e) {
+							NIOStorageModule.this.logConnector.log(e);
+							error = true;
+						} finally {
+							try {
+								cursor.close();
+							} catch (final IOException e) {
+								// ignored
 							}
+						}
+						if (this.elementMap != null) {
 							if (!error) {
-								for (final DataElement element : this.elementMap.values()) {
-									try {
-										NIOStorageModule.this.providerConnector.sendElementEvent(NIOStorageModule.this.port, element, DataElementEventType.DELETE);
-									} catch (final BrokerException e) {
-										NIOStorageModule.this.logConnector.log(e);
+								final List<DataElementEvent> elementEvents = new ArrayList<DataElementEvent>();
+								for (final DataElement element : this.elementMap) {
+									elementEvents.add(new DataElementEvent(element, DataElementEventType.DELETE));
+								}
+								sendElementEvents(elementEvents);
+							} else {
+								// elements not seen due to errors are kept to be compared again next time
+								for (final DataElement element : this.elementMap) {
+									if (!newElementMap.containsPath(element.getDataElementPath())) {
+										newElementMap.put(element);
 									}
 								}
 							}
@@ -251,6 +425,21 @@ public class NIOStorageModule extends AbstractProvider {
 				}
 			}
 		}
+
+		/**
+		 * Sends element events to connected modules.
+		 *
+		 * @param elementEvents the element events (nothing is sent if empty)
+		 */
+		private void sendElementEvents(final List<DataElementEvent> elementEvents) {
+			if (!elementEvents.isEmpty()) {
+				try {
+					NIOStorageModule.this.providerConnector.sendElementEvents(NIOStorageModule.this.port, elementEvents);
+				} catch (final BrokerException e) {
+					NIOStorageModule.this.logConnector.log(e);
+				}
+			}
+		}
 	}
 
 	private static final String CONFIG_PROP_KEY___FORCE_RO = "force_ro";
@@ -268,7 +457,18 @@ public class NIOStorageModule extends AbstractProvider {
 	private static final int DEFAULT_CONFIG_VALUE___MEDIUM_REFRESH_INTERVAL_SECS = 900;
 	private static final int DEFAULT_CONFIG_VALUE___MIN_REFRESH_INTERVAL_SECS = 300;
 	private static final boolean DEFAULT_CONFIG_VALUE___USE_INTERNAL_MONITORING = false;
+	private static final int FILE_TYPE_CACHE___EXPIRE_SECONDS = 10;
+	private static final int FILE_TYPE_CACHE___MAX_ENTRIES = 1000;
+	// larger files are not hashed on GET_CONTENT_HASH, hashing them might exceed the module call timeout
+	private static final long MAX_CONTENT_HASH_FILE_SIZE = 64 * 1024 * 1024;
+	// bulk lookups with fewer paths are done sequentially
+	private static final int MIN_PARALLEL_STAT_COUNT = 16;
+	// number of elements compared at once by internal monitor
+	private static final int MONITOR_BATCH_SIZE = 1000;
+	// suffix of the temporary files written while applying a delta, they are neither listed nor monitored
+	private static final String PATCH_FILE_SUFFIX = ".niostorage-patch";
 	private static final String PORT_ID = "port";
+	private static final int STAT_THREAD_COUNT = 8;
 
 	private Path basePath = null;
 	private PersistentConfigurationHelper configHelper;
@@ -276,6 +476,9 @@ public class NIOStorageModule extends AbstractProvider {
 	private int currentRefreshInterval = NIOStorageModule.DEFAULT_CONFIG_VALUE___MIN_REFRESH_INTERVAL_SECS;
 	private ExecutorService eventWorkerThread;
 	private FileSystem fileSystem = null;
+	// whether paths denote regular files, asked for supported module commands (usually repeatedly for the same elements)
+	private final Cache<DataElementPath, Boolean> fileTypeCache = CacheBuilder.newBuilder().maximumSize(NIOStorageModule.FILE_TYPE_CACHE___MAX_ENTRIES)
+			.expireAfterWrite(NIOStorageModule.FILE_TYPE_CACHE___EXPIRE_SECONDS, TimeUnit.SECONDS).build();
 	private boolean forceReadOnly = false;
 	private final Map<WatchKey, Path> keys = new HashMap<WatchKey, Path>();
 	private final int maxRefreshIntervalSeconds = NIOStorageModule.DEFAULT_CONFIG_VALUE___MAX_REFRESH_INTERVAL_SECS;
@@ -290,6 +493,7 @@ public class NIOStorageModule extends AbstractProvider {
 	private boolean readOnly = false;
 	private boolean ready = false;
 	private boolean running = false;
+	private ExecutorService statWorkerThreads;
 	private WatchService watcher;
 
 	/**
@@ -303,6 +507,34 @@ public class NIOStorageModule extends AbstractProvider {
 		super(providerBrokerConnector, componentConfiguration, logConnector);
 	}
 
+	/**
+	 * Applies a block delta to a file. The patched content is written to a hidden sibling file first (ignored by listings and monitors, see
+	 * {@link #isPatchFile(Path)}) and moved over the file afterwards, so the file is never left partially patched.
+	 *
+	 * @param absPath the absolute path of the file
+	 * @param deltaPath the path of the buffered delta
+	 * @throws IOException if an I/O error occurs, the delta is incomplete or does not match the current content
+	 */
+	private void applyDelta(final Path absPath, final Path deltaPath) throws IOException {
+		try (InputStream delta = new BufferedInputStream(Files.newInputStream(deltaPath))) {
+			// the prosumer aborted creating the delta, nothing to apply
+			if (!BlockDeltaHelper.isComplete(delta)) {
+				throw new IOException("incomplete delta discarded, content of " + absPath + " kept");
+			}
+		}
+		final Path patchedPath = absPath.resolveSibling("." + absPath.getFileName() + "." + UUID.randomUUID() + NIOStorageModule.PATCH_FILE_SUFFIX);
+		try {
+			try (InputStream delta = new BufferedInputStream(Files.newInputStream(deltaPath));
+					FileChannel basis = FileChannel.open(absPath, StandardOpenOption.READ);
+					FileChannel target = FileChannel.open(patchedPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+				BlockDeltaHelper.applyDelta(delta, basis, target);
+			}
+			Files.move(patchedPath, absPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(patchedPath);
+		}
+	}
+
 	/* (non-Javadoc)
 	 *
 	 * @see module.iface.Provider#checkAndLock(framework.model.ProviderPort, java.lang.String[]) */
@@ -383,6 +615,9 @@ public class NIOStorageModule extends AbstractProvider {
 		if (this.eventWorkerThread != null) {
 			this.eventWorkerThread.shutdown();
 		}
+		if (this.statWorkerThreads != null) {
+			this.statWorkerThreads.shutdown();
+		}
 	}
 
 	/* (non-Javadoc)
@@ -411,6 +646,7 @@ public class NIOStorageModule extends AbstractProvider {
 					this.logConnector.log(e);
 				}
 				this.eventWorkerThread = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat(threadNamePrefix).build());
+				this.statWorkerThreads = ThreadPoolHelper.newFixedThreadPool(NIOStorageModule.STAT_THREAD_COUNT, threadNamePrefix.replace("%d", "stat-%d"));
 				if (Files.isReadable(this.basePath)) {
 					if (!Files.isWritable(this.basePath)) {
 						this.logConnector.log(LogEventLevelType.WARNING, "readonly filesystem");
@@ -508,6 +744,52 @@ public class NIOStorageModule extends AbstractProvider {
 		return getElementInternal(path, getAbsolutePath(path));
 	}
 
+	/* (non-Javadoc)
+	 *
+	 * @see module.iface.BulkProvider#getElements(framework.model.ProviderPort, java.util.Collection) */
+	@Override
+	public Map<List<String>, DataElement> getElements(final ProviderPort port, final Collection<String[]> paths) throws ModuleException {
+		mayRead();
+		final Map<List<String>, DataElement> result = new HashMap<List<String>, DataElement>();
+		final Map<List<String>, Future<DataElement>> futures = new HashMap<List<String>, Future<DataElement>>();
+		final ExecutorService statWorkers = this.statWorkerThreads;
+		for (final String[] path : paths) {
+			final Path absPath = getAbsolutePath(path);
+			if ((statWorkers != null) && (paths.size() >= NIOStorageModule.MIN_PARALLEL_STAT_COUNT)) {
+				try {
+					futures.put(Arrays.asList(path), statWorkers.submit(new Callable<DataElement>() {
+
+						@Override
+						public DataElement call() {
+							return getElementInternal(path, absPath);
+						}
+					}));
+					continue;
+				} catch (final RejectedExecutionException e) {
+					// shutting down, stat remaining paths sequentially
+				}
+			}
+			final DataElement element = getElementInternal(path, absPath);
+			if (element != null) {
+				result.put(Arrays.asList(path), element);
+			}
+		}
+		for (final Map.Entry<List<String>, Future<DataElement>> entry : futures.entrySet()) {
+			try {
+				final DataElement element = entry.getValue().get();
+				if (element != null) {
+					result.put(entry.getKey(), element);
+				}
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ModuleException(e);
+			} catch (final ExecutionException e) {
+				this.logConnector.log(e);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Gets an element (internal method)
 	 *
@@ -516,6 +798,9 @@ public class NIOStorageModule extends AbstractProvider {
 	 * @return the element internal
 	 */
 	private DataElement getElementInternal(final String[] pathArray, final Path path) {
+		if (isPatchFile(path)) {
+			return null;
+		}
 		try {
 			final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
 			long modTime = 0;
@@ -568,7 +853,12 @@ public class NIOStorageModule extends AbstractProvider {
 
 	@Override
 	public Set<String> getSupportedModuleCommands(final Port port, final String[] path) {
-		return new HashSet<String>(); // currently no commands supported
+		final Set<String> result = new HashSet<String>();
+		// hashing a local file is cheap compared to transferring it
+		if ((path != null) && (this.basePath != null) && isRegularFile(path)) {
+			result.add(GenericModuleCommands.GET_CONTENT_HASH);
+		}
+		return result;
 	}
 
 	/* (non-Javadoc)
@@ -686,6 +976,17 @@ public class NIOStorageModule extends AbstractProvider {
 		}
 	}
 
+	/**
+	 * Checks if a path denotes a temporary file written by {@link #applyDelta(Path, Path)}.
+	 *
+	 * @param path the path
+	 * @return true, if patch file
+	 */
+	private boolean isPatchFile(final Path path) {
+		final Path fileName = path.getFileName();
+		return (fileName != null) && fileName.toString().endsWith(NIOStorageModule.PATCH_FILE_SUFFIX);
+	}
+
 	/* (non-Javadoc)
 	 *
 	 * @see module.iface.Module#isReady() */
@@ -694,6 +995,52 @@ public class NIOStorageModule extends AbstractProvider {
 		return this.ready && checkRights();
 	}
 
+	/**
+	 * Checks if a path denotes a regular file. Results are cached for {@link #FILE_TYPE_CACHE___EXPIRE_SECONDS}.
+	 *
+	 * @param path the path
+	 * @return true, if regular file
+	 */
+	private boolean isRegularFile(final String[] path) {
+		final DataElementPath key = DataElementPath.of(path);
+		Boolean result = this.fileTypeCache.getIfPresent(key);
+		if (result == null) {
+			result = Files.isRegularFile(getAbsolutePath(path));
+			this.fileTypeCache.put(key, result);
+		}
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see module.iface.CursorProvider#listChildren(framework.model.ProviderPort, java.lang.String[], boolean, int) */
+	@Override
+	public DataElementCursor listChildren(final ProviderPort port, final String[] path, final boolean recursive, final int batchSize) throws ModuleException {
+		mayRead();
+		return listChildrenInternal(path, recursive, batchSize);
+	}
+
+	/**
+	 * Lists child elements with a cursor (internal method).
+	 *
+	 * @param path the path
+	 * @param recursive set to true to get all children recursively
+	 * @param batchSize the batch size
+	 * @return the cursor (null if no such folder or error)
+	 */
+	private DataElementCursor listChildrenInternal(final String[] path, final boolean recursive, final int batchSize) {
+		final Path absPath = getAbsolutePath(path);
+		if (!Files.isDirectory(absPath)) {
+			return null;
+		}
+		try {
+			return new DirectoryCursor(absPath, recursive, batchSize);
+		} catch (final IOException e) {
+			this.logConnector.log(e);
+			return null;
+		}
+	}
+
 	/**
 	 * Checks if the module may read data.
 	 *
@@ -843,6 +1190,21 @@ public class NIOStorageModule extends AbstractProvider {
 
 	@Override
 	public Map<String, String> onModuleCommand(final Port port, final String command, final String[] path, final Map<String, String> properties) {
+		if (GenericModuleCommands.GET_CONTENT_HASH.equals(command) && (path != null)) {
+			try {
+				mayRead();
+				final Path absPath = getAbsolutePath(path);
+				if (!Files.isRegularFile(absPath) || (Files.size(absPath) > NIOStorageModule.MAX_CONTENT_HASH_FILE_SIZE)) {
+					return CommandResultHelper.getDefaultResultFail(GenericModuleCommandProperties.KEY___REASON, GenericModuleCommandProperties.VALUE_REASON___UNAVAILABLE);
+				}
+				try (InputStream in = Files.newInputStream(absPath)) {
+					return CommandResultHelper.getDefaultResultOk(GenericModuleCommandProperties.KEY___CONTENT_HASH, ContentHashHelper.hash(in), GenericModuleCommandProperties.KEY___CONTENT_HASH_ALGORITHM,
+							GenericModuleCommandProperties.VALUE_CONTENT_HASH_ALGORITHM___SHA_256);
+				}
+			} catch (ModuleException | IOException e) {
+				this.logConnector.log(e);
+			}
+		}
 		return CommandResultHelper.getDefaultResultFail();
 	}
 
@@ -895,6 +1257,31 @@ public class NIOStorageModule extends AbstractProvider {
 		}
 	}
 
+	/**
+	 * Checks if writing is allowed and creates parent folders if necessary.
+	 *
+	 * @param port the port
+	 * @param path the path to write to
+	 * @return the absolute path (null if not writable)
+	 * @throws ModuleException if an exception occurs
+	 */
+	private Path prepareWrite(final ProviderPort port, final String[] path) throws ModuleException {
+		if (path.length == 0) {
+			return null;
+		}
+		if (!mayReadWrite()) {
+			return null;
+		}
+		final Path absPath = getAbsolutePath(path);
+		if (Files.notExists(absPath.getParent())) {
+			final int i = createFolder(port, Arrays.copyOfRange(path, 0, path.length - 1));
+			if (i != 0) {
+				return null;
+			}
+		}
+		return absPath;
+	}
+
 	/* (non-Javadoc)
 	 *
 	 * @see module.iface.Provider#readData(framework.model.ProviderPort, java.lang.String[]) */
@@ -910,6 +1297,47 @@ public class NIOStorageModule extends AbstractProvider {
 		}
 	}
 
+	/* (non-Javadoc)
+	 *
+	 * @see module.iface.RangedReadProvider#readData(framework.model.ProviderPort, java.lang.String[], long, long) */
+	@Override
+	public InputStream readData(final ProviderPort port, final String[] path, final long offset, final long length) throws ModuleException {
+		mayRead();
+		final Path absPath = getAbsolutePath(path);
+		FileChannel channel = null;
+		try {
+			channel = FileChannel.open(absPath, StandardOpenOption.READ);
+			// reading beyond end of file simply returns end of stream, so no size check necessary
+			channel.position(offset);
+			return StreamRangeHelper.limit(Channels.newInputStream(channel), length);
+		} catch (final IOException e) {
+			this.logConnector.log(e);
+			if (channel != null) {
+				try {
+					channel.close();
+				} catch (final IOException e1) {
+					this.logConnector.log(e1);
+				}
+			}
+			return null;
+		}
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see module.iface.ChannelProvider#readDataChannel(framework.model.ProviderPort, java.lang.String[]) */
+	@Override
+	public ReadableByteChannel readDataChannel(final ProviderPort port, final String[] path) throws ModuleException {
+		mayRead();
+		final Path absPath = getAbsolutePath(path);
+		try {
+			return FileChannel.open(absPath, StandardOpenOption.READ);
+		} catch (final IOException e) {
+			this.logConnector.log(e);
+			return null;
+		}
+	}
+
 	/**
 	 * Deletes an element and all of it's children.
 	 *
@@ -1008,21 +1436,73 @@ public class NIOStorageModule extends AbstractProvider {
 	 * @see module.iface.Provider#writeData(framework.model.ProviderPort, java.lang.String[]) */
 	@Override
 	public OutputStream writeData(final ProviderPort port, final String[] path) throws ModuleException {
-		if (path.length == 0) {
+		final Path absPath = prepareWrite(port, path);
+		if (absPath == null) {
 			return null;
 		}
-		if (!mayReadWrite()) {
+		try {
+			return Files.newOutputStream(absPath);
+		} catch (final IOException e) {
+			this.logConnector.log(e);
+			return null;
+		}
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see module.iface.ChannelProvider#writeDataChannel(framework.model.ProviderPort, java.lang.String[]) */
+	@Override
+	public WritableByteChannel writeDataChannel(final ProviderPort port, final String[] path) throws ModuleException {
+		final Path absPath = prepareWrite(port, path);
+		if (absPath == null) {
+			return null;
+		}
+		try {
+			return FileChannel.open(absPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+		} catch (final IOException e) {
+			this.logConnector.log(e);
+			return null;
+		}
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see module.iface.DeltaWriteProvider#writeDataDelta(framework.model.ProviderPort, java.lang.String[]) */
+	@Override
+	public OutputStream writeDataDelta(final ProviderPort port, final String[] path) throws ModuleException {
+		if ((path.length == 0) || !mayReadWrite()) {
 			return null;
 		}
 		final Path absPath = getAbsolutePath(path);
-		if (Files.notExists(absPath.getParent())) {
-			final int i = createFolder(port, Arrays.copyOfRange(path, 0, path.length - 1));
-			if (i != 0) {
-				return null;
-			}
+		if (!Files.isRegularFile(absPath)) {
+			return null;
 		}
 		try {
-			return Files.newOutputStream(absPath);
+			// buffer the delta outside of the storage, it is applied when the stream is closed
+			final Path deltaPath = Files.createTempFile(NIOStorageModule.class.getSimpleName() + "-", ".delta");
+			return new FilterOutputStream(new BufferedOutputStream(Files.newOutputStream(deltaPath))) {
+
+				private boolean closed = false;
+
+				@Override
+				public void close() throws IOException {
+					if (this.closed) {
+						return;
+					}
+					this.closed = true;
+					try {
+						super.close();
+						applyDelta(absPath, deltaPath);
+					} finally {
+						Files.deleteIfExists(deltaPath);
+					}
+				}
+
+				@Override
+				public void write(final byte[] b, final int off, final int len) throws IOException {
+					this.out.write(b, off, len);
+				}
+			};
 		} catch (final IOException e) {
 			this.logConnector.log(e);
 			return null;
@@ -2,23 +2,29 @@ package module.pgpcrypto.control;
 
 import helper.CommandResultHelper;
 import helper.ConfigValue;
+import helper.DataElementCursorHelper;
 import helper.PersistentConfigurationHelper;
 import helper.TextFormatHelper;
+import helper.ThreadPoolHelper;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 import module.iface.AbstractProsumerProvider;
+import module.iface.CursorProvider;
+import module.iface.DataElementCursor;
 import module.iface.DataElementEventListener;
 import module.iface.Provider;
 import module.pgpcrypto.model.CryptoActionInfo;
@@ -29,7 +35,6 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Sets;
 import com.google.common.io.ByteStreams;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import db.iface.ComponentConfigurationController;
 import framework.constants.GenericControlInterfaceCommandProperties;
@@ -45,6 +50,7 @@ import framework.exception.BrokerException;
 import framework.exception.DatabaseException;
 import framework.exception.ModuleException;
 import framework.model.DataElement;
+import framework.model.DataElementPath;
 import framework.model.Port;
 import framework.model.ProsumerPort;
 import framework.model.ProviderPort;
@@ -69,7 +75,60 @@ import framework.model.type.ModuleStateType;
  *
  * @author Stefan Werner
  */
-public class PGPCryptoModule extends AbstractProsumerProvider implements DataElementEventListener {
+public class PGPCryptoModule extends AbstractProsumerProvider implements CursorProvider, DataElementEventListener {
+
+	/**
+	 * Cursor decrypting the elements of a cursor on the encrypted side. FOLDERINFO files and elements that cannot be decrypted are left out, so batches may be
+	 * smaller than requested.
+	 */
+	private class DecryptingCursor implements DataElementCursor {
+
+		private final DataElementCursor encCursor;
+
+		/**
+		 * Instantiates a new decrypting cursor.
+		 *
+		 * @param encCursor the cursor on the encrypted side
+		 */
+		private DecryptingCursor(final DataElementCursor encCursor) {
+			this.encCursor = encCursor;
+		}
+
+		/* (non-Javadoc)
+		 * 
+		 * @see java.io.Closeable#close() */
+		@Override
+		public void close() throws IOException {
+			this.encCursor.close();
+		}
+
+		/* (non-Javadoc)
+		 * 
+		 * @see module.iface.DataElementCursor#nextBatch() */
+		@Override
+		public List<DataElement> nextBatch() throws IOException {
+			List<DataElement> encElements;
+			while ((encElements = this.encCursor.nextBatch()) != null) {
+				final List<DataElement> decElements = new ArrayList<DataElement>(encElements.size());
+				for (final DataElement encElement : encElements) {
+					if (encElement.getName().equals(PGPCryptoModule.FOLDERINFO_FILENAME)) {
+						// ignore FOLDERINFO files
+						continue;
+					} else {
+						final DataElement decElement = decryptElement(encElement, false);
+						// ignore elements that cannot be decrypted
+						if (decElement != null) {
+							decElements.add(decElement);
+						}
+					}
+				}
+				if (!decElements.isEmpty()) {
+					return decElements;
+				}
+			}
+			return null;
+		}
+	}
 
 	private static final long CACHE___EXPIRE_MINUTES = 120;
 	public static final Integer CAPABILITY_ASYMMETRIC_CIPHER_SIZES = 3;
@@ -137,9 +196,9 @@ public class PGPCryptoModule extends AbstractProsumerProvider implements DataEle
 	private ProsumerPort keyPort;
 	private boolean keyPortConnected = false;
 	private boolean keyPortReady = false;
-	private final Set<String> lockedPaths = new ConcurrentSkipListSet<String>();
+	private final Set<DataElementPath> lockedPaths = Collections.newSetFromMap(new ConcurrentHashMap<DataElementPath, Boolean>());
 	private final boolean moveConflictingElements = false;
-	private Cache<String, String[]> noAccessCache;
+	private Cache<DataElementPath, String[]> noAccessCache;
 	private boolean running = false;
 	private boolean started = false;
 	private final ReentrantLock stateLock = new ReentrantLock(true);
@@ -280,7 +339,7 @@ public class PGPCryptoModule extends AbstractProsumerProvider implements DataEle
 					boolean result = false;
 					try {
 						this.prosumerConnector.move(this.encPort, subPath, subConflictPath);
-						this.noAccessCache.put(getInternalPathString(subConflictPath), subConflictPath);
+						this.noAccessCache.put(getInternalPath(subConflictPath), subConflictPath);
 						result = true;
 					} catch (BrokerException | ModuleException | AuthorizationException e) {
 						this.logConnector.log(e);
@@ -452,7 +511,7 @@ public class PGPCryptoModule extends AbstractProsumerProvider implements DataEle
 		} else if (forceReload && (encryptedPath.length > 1) && encryptedPath[encryptedPath.length - 1].endsWith(PGPCryptoModule.FOLDERINFO_FILENAME)) {
 			// folder info file was updated -> invalidate cache data (if any)
 			this.elementNameCache.invalidate(encryptedPath[encryptedPath.length - 2]);
-			this.noAccessCache.invalidate(getInternalPathString(Arrays.copyOfRange(encryptedPath, 0, encryptedPath.length - 1)));
+			this.noAccessCache.invalidate(getInternalPath(Arrays.copyOfRange(encryptedPath, 0, encryptedPath.length - 1)));
 			return null;
 		}
 		final String[] result = new String[encryptedPath.length];
@@ -460,7 +519,7 @@ public class PGPCryptoModule extends AbstractProsumerProvider implements DataEle
 			String part = this.elementNameCache.getIfPresent(encryptedPath[i]);
 			if (part == null) {
 				final String[] subPath = Arrays.copyOfRange(encryptedPath, 0, i + 1);
-				final String subIntPath = getInternalPathString(subPath);
+				final DataElementPath subIntPath = getInternalPath(subPath);
 				if (this.noAccessCache.getIfPresent(subIntPath) != null) {
 					return null;
 				}
@@ -479,7 +538,7 @@ public class PGPCryptoModule extends AbstractProsumerProvider implements DataEle
 		}
 		final int i = encryptedPath.length - 1;
 		String part = null;
-		final String intEncPath = getInternalPathString(encryptedPath);
+		final DataElementPath intEncPath = getInternalPath(encryptedPath);
 		if (!forceReload) {
 			part = this.elementNameCache.getIfPresent(encryptedPath[i]);
 			if (part == null) {
@@ -677,19 +736,13 @@ public class PGPCryptoModule extends AbstractProsumerProvider implements DataEle
 	}
 
 	/**
-	 * Gets an internal path string representation.
-	 * <p>
-	 * TODO: Do we really need this? At least move to helper?
+	 * Gets the internal (interned) path representation used as key for locks and caches.
 	 *
 	 * @param path the path
-	 * @return the internal path string
+	 * @return the internal path
 	 */
-	private String getInternalPathString(final String[] path) {
-		String s = "";
-		for (final String p : path) {
-			s += p + "/\\";
-		}
-		return s;
+	private DataElementPath getInternalPath(final String[] path) {
+		return DataElementPath.of(path);
 	}
 
 	/* (non-Javadoc)
@@ -731,7 +784,7 @@ public class PGPCryptoModule extends AbstractProsumerProvider implements DataEle
 		this.stateLock.lock();
 		try {
 			final String threadNamePrefix = this.componentConfiguration.getComponentName() + "-" + this.getClass().getSimpleName() + "-%d";
-			this.executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat(threadNamePrefix).build());
+			this.executor = ThreadPoolHelper.newCachedThreadPool(threadNamePrefix);
 			initializeConfig();
 			this.componentConfiguration.initializeElementDomains(PGPCryptoModule.PORTID_DEC, PGPCryptoModule.PORTID_ENC);
 			this.encPort = this.prosumerConnector.registerProsumerPort(this, PGPCryptoModule.PORTID_ENC, 1);
@@ -830,6 +883,29 @@ public class PGPCryptoModule extends AbstractProsumerProvider implements DataEle
 		return this.initialized && checkRights();
 	}
 
+	/* (non-Javadoc)
+	 * 
+	 * @see module.iface.CursorProvider#listChildren(framework.model.ProviderPort, java.lang.String[], boolean, int) */
+	@Override
+	public DataElementCursor listChildren(final ProviderPort port, final String[] path, final boolean recursive, final int batchSize) throws ModuleException {
+		checkRunning();
+		try {
+			if (this.prosumerConnector.isConnected(this.encPort)) {
+				final String[] encPath = encryptPath(path);
+				if (encPath != null) {
+					final DataElementCursor encCursor = this.prosumerConnector.listChildren(this.encPort, encPath, recursive, batchSize);
+					if (encCursor != null) {
+						return new DecryptingCursor(encCursor);
+					}
+				}
+				return null;
+			}
+		} catch (BrokerException | AuthorizationException e) {
+			this.logConnector.log(e);
+		}
+		return DataElementCursorHelper.fromCollection(Collections.<DataElement> emptySet(), batchSize);
+	}
+
 	/**
 	 * Locks a path.
 	 *
@@ -842,7 +918,7 @@ public class PGPCryptoModule extends AbstractProsumerProvider implements DataEle
 		}
 		boolean result = false;
 		this.stateLock.lock();
-		final String intPath = getInternalPathString(path);
+		final DataElementPath intPath = getInternalPath(path);
 		if (!this.lockedPaths.contains(intPath)) {
 			this.lockedPaths.add(intPath);
 			result = true;
@@ -1070,7 +1146,7 @@ public class PGPCryptoModule extends AbstractProsumerProvider implements DataEle
 	public void onElementEvent(final ProsumerPort port, final DataElementEvent event) {
 		final DataElement element = event.dataElement;
 		final DataElementEventType type = event.eventType;
-		if ((port == this.encPort) && !this.lockedPaths.contains(getInternalPathString(element.getPath()))) {
+		if ((port == this.encPort) && !this.lockedPaths.contains(element.getDataElementPath())) {
 			final DataElement decElement = decryptElement(element, event.eventType != DataElementEventType.DELETE);
 			// ignore elements that cannot be accessed/decrypted
 			if (decElement != null) {
@@ -1309,7 +1385,7 @@ public class PGPCryptoModule extends AbstractProsumerProvider implements DataEle
 		}
 		boolean result = false;
 		this.stateLock.lock();
-		final String intPath = getInternalPathString(path);
+		final DataElementPath intPath = getInternalPath(path);
 		if (this.lockedPaths.contains(intPath)) {
 			this.lockedPaths.remove(intPath);
 			result = true;
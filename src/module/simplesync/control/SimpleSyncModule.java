@@ -1,6 +1,8 @@
 package module.simplesync.control;
 
 import framework.constants.GenericControlInterfaceCommands;
+import framework.constants.GenericModuleCommandProperties;
+import framework.constants.GenericModuleCommands;
 import framework.constants.ModuleRight;
 import framework.control.LogConnector;
 import framework.control.ProsumerConnector;
@@ -9,6 +11,9 @@ import framework.exception.BrokerException;
 import framework.exception.DatabaseException;
 import framework.exception.ModuleException;
 import framework.model.DataElement;
+import framework.model.DataElementPath;
+import framework.model.ModuleReadableByteChannel;
+import framework.model.ModuleWritableByteChannel;
 import framework.model.Port;
 import framework.model.ProsumerPort;
 import framework.model.event.DataElementEvent;
@@ -16,36 +21,48 @@ import framework.model.event.ProviderStateEvent;
 import framework.model.event.type.LogEventLevelType;
 import framework.model.type.DataElementType;
 import framework.model.type.ModuleStateType;
+import helper.BlockDeltaHelper;
+import helper.BlockSignatures;
 import helper.CommandResultHelper;
 import helper.ConfigValue;
+import helper.ContentHashHelper;
+import helper.DataElementCursorHelper;
 import helper.PersistentConfigurationHelper;
+import helper.ThreadPoolHelper;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channel;
+import java.security.MessageDigest;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.locks.ReentrantLock;
 
 import module.iface.AbstractProsumer;
-import module.iface.DataElementEventListener;
+import module.iface.DataElementCursor;
+import module.iface.DataElementEventBatchListener;
 import module.iface.ErrorCode;
 import module.iface.Provider;
 import module.simplesync.constants.SimpleSyncConstants;
+import module.simplesync.model.JobPriorityComperator;
 import module.simplesync.model.SyncJob;
 import module.simplesync.model.type.SyncJobType;
 
-import org.apache.commons.io.IOUtils;
-
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
-import com.google.common.io.ByteStreams;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import db.iface.ComponentConfigurationController;
 
@@ -54,18 +71,90 @@ import db.iface.ComponentConfigurationController;
  *
  * @author Stefan Werner
  */
-public class SimpleSyncModule extends AbstractProsumer implements DataElementEventListener {
+public class SimpleSyncModule extends AbstractProsumer implements DataElementEventBatchListener {
+
+	/**
+	 * Result of a successful file copy.
+	 */
+	private static final class FileCopyResult {
+
+		private final String contentHash;
+		// block signatures of the copied content (null if not computed)
+		private final BlockSignatures signatures;
+
+		/**
+		 * Instantiates a new file copy result.
+		 *
+		 * @param contentHash the content hash
+		 * @param signatures the block signatures (may be null)
+		 */
+		private FileCopyResult(final String contentHash, final BlockSignatures signatures) {
+			this.contentHash = contentHash;
+			this.signatures = signatures;
+		}
+	}
+
+	/**
+	 * Task doing the full recursive synchronization of a single folder. Sub folders are forked as separate tasks as soon as they are listed, so idle threads of
+	 * the pool steal them and several folders are listed concurrently. Jobs are queued while listing.
+	 */
+	private final class FullSyncTask extends RecursiveTask<Boolean> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String[] basePath;
+		private final ProsumerPort port;
+
+		/**
+		 * Instantiates a new full sync task.
+		 *
+		 * @param port the port
+		 * @param basePath the base path
+		 */
+		private FullSyncTask(final ProsumerPort port, final String[] basePath) {
+			this.port = port;
+			this.basePath = basePath;
+		}
+
+		/* (non-Javadoc)
+		 *
+		 * @see java.util.concurrent.RecursiveTask#compute() */
+		@Override
+		protected Boolean compute() {
+			final List<FullSyncTask> subTasks = new ArrayList<FullSyncTask>();
+			final boolean result = doFullSync(this.port, this.basePath, subTasks);
+			// join in reverse order, so tasks not yet stolen are run by this thread
+			for (int i = subTasks.size() - 1; i >= 0; i--) {
+				subTasks.get(i).join();
+			}
+			return result;
+		}
+	}
 
 	// TODO: Move everything to SimpleSyncConstants.
 	private static final String[] CONFIG_ELEMET_PATH = { "config" };
 	private static final String CONFIG_PROP_KEY___COMPARE_CONTENT = "compare_content";
+	private static final String CONFIG_PROP_KEY___DELTA_SYNC_MIN_SIZE = "delta_sync_min_size";
+	private static final String CONFIG_PROP_KEY___FULL_SYNC_CONCURRENCY = "full_sync_concurrency";
 	private static final String CONFIG_PROP_KEY___SYNC_DELETE = "sync_delete";
 	private static final String CONFIG_PROP_KEY___SYNC_ONLY_EXISTING_ON_2 = "sync_only_existing_on_2";
 	private static final String CONFLICT_SUFFIX = "CONFLICT";
 	private static final String DB_DOMAIN1 = SimpleSyncModule.PORT1_ID;
 	private static final String DB_DOMAIN2 = SimpleSyncModule.PORT2_ID;
+	// files of at least this size get block signatures and modifications are transferred as block delta if possible
+	private static final long DEFAULT_DELTA_SYNC_MIN_SIZE = 64L * 1024 * 1024;
+	// number of folders listed concurrently per port during full recursive synchronization
+	private static final int DEFAULT_FULL_SYNC_CONCURRENCY = 4;
 	private static final String DELETED_SUFFIX = "DELETED";
 	private static final String DOMAIN_CONFIG = "config";
+	// block signatures prefixed by size and modification date of the signed version ("<size>:<date>:<signatures>"), see ELEMENT_PROP_KEY___CONTENT_HASH
+	private static final String ELEMENT_PROP_KEY___BLOCK_SIGNATURES = "sync_block_signatures";
+	// content hash prefixed by size and modification date of the hashed version ("<size>:<date>:<hash>"), database properties are never removed, so the prefix
+	// tells if the hash is still valid
+	private static final String ELEMENT_PROP_KEY___CONTENT_HASH = "sync_content_hash";
+	private static final int FULL_SYNC_BATCH_SIZE = 1000;
+	// larger block signatures (only for files beyond 64 GiB, see BlockSignatures.getBlockSize(long)) are not stored in the database
+	private static final int MAX_BLOCK_SIGNATURES_LENGTH = 64 * 1024;
 	private static final String PORT1_ID = "storage1";
 	private static final String PORT2_ID = "storage2";
 	private static final String[] TMP_STORAGE_BASEPATH = { "simple_sync_module_tmp" };
@@ -73,7 +162,11 @@ public class SimpleSyncModule extends AbstractProsumer implements DataElementEve
 
 	private boolean compareContent = true;
 	private PersistentConfigurationHelper config;
+	private long deltaSyncMinSize = SimpleSyncModule.DEFAULT_DELTA_SYNC_MIN_SIZE;
 	private ExecutorService executor;
+	private int fullSyncConcurrency = SimpleSyncModule.DEFAULT_FULL_SYNC_CONCURRENCY;
+	private ForkJoinPool fullSyncPool1;
+	private ForkJoinPool fullSyncPool2;
 	private final int maxConcurrentTransfers = 10;
 	private ProsumerPort port1;
 	private boolean port1Connected = false;
@@ -193,49 +286,118 @@ public class SimpleSyncModule extends AbstractProsumer implements DataElementEve
 	}
 
 	/**
-	 * Compare of two elements.
+	 * Gets the block signatures stored in the database for the current content of a file.
 	 *
-	 * @param port1 the port1
-	 * @param path1 the path1
-	 * @param port2 the port2
-	 * @param path2 the path2
-	 * @return the result, 0 = equal, 1 = not equal, -1 = IO error
+	 * @param element the current provider element (may be null)
+	 * @param dbElement the database element (may be null)
+	 * @return the block signatures (null if none or outdated)
 	 */
-	private int compareContent(final ProsumerPort port1, final String[] path1, final ProsumerPort port2, final String[] path2) {
-		int result = -1;
-		InputStream in1 = null;
-		InputStream in2 = null;
+	private BlockSignatures getBlockSignatures(final DataElement element, final DataElement dbElement) {
+		if ((element == null) || (dbElement == null) || (element.getType() != DataElementType.FILE)) {
+			return null;
+		}
+		final String storedValue = dbElement.getAdditionalProperty(SimpleSyncModule.ELEMENT_PROP_KEY___BLOCK_SIGNATURES);
+		final String prefix = element.getSize() + ":" + element.getModificationDate() + ":";
+		if ((storedValue != null) && storedValue.startsWith(prefix)) {
+			return BlockSignatures.parse(storedValue.substring(prefix.length()));
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the content hash of a file without transferring it if possible: The hash stored in the database is used if it was computed for the current size and
+	 * modification date, otherwise the provider is asked via {@link GenericModuleCommands#GET_CONTENT_HASH}. Only if both fail the content is read and hashed.
+	 *
+	 * @param port the port
+	 * @param element the current provider element
+	 * @param dbElement the database element (may be null)
+	 * @return the content hash (null on read error)
+	 */
+	private String getContentHash(final ProsumerPort port, final DataElement element, final DataElement dbElement) {
+		if (dbElement != null) {
+			final String storedValue = dbElement.getAdditionalProperty(SimpleSyncModule.ELEMENT_PROP_KEY___CONTENT_HASH);
+			final String prefix = element.getSize() + ":" + element.getModificationDate() + ":";
+			if ((storedValue != null) && storedValue.startsWith(prefix)) {
+				return storedValue.substring(prefix.length());
+			}
+		}
 		try {
-			in1 = this.prosumerConnector.readData(port1, path1);
-			in2 = this.prosumerConnector.readData(port2, path2);
-			if ((in1 != null) && (in2 != null)) {
-				if (IOUtils.contentEquals(in1, in2)) {
-					// TODO: This uses an internal buffer -> does not work without EOF -> own solution?
-					// BTW: This is the ONLY remaining reason to keep Apache Commons IO dependency... ;)
-					result = 0;
-				} else {
-					result = 1;
-				}
+			final Map<String, String> result = this.prosumerConnector.sendModuleCommand(port, GenericModuleCommands.GET_CONTENT_HASH, element.getPath(), null);
+			if (CommandResultHelper.isOK(result) && GenericModuleCommandProperties.VALUE_CONTENT_HASH_ALGORITHM___SHA_256.equals(result.get(GenericModuleCommandProperties.KEY___CONTENT_HASH_ALGORITHM))
+					&& (result.get(GenericModuleCommandProperties.KEY___CONTENT_HASH) != null)) {
+				return result.get(GenericModuleCommandProperties.KEY___CONTENT_HASH);
 			}
-		} catch (IOException | BrokerException | ModuleException | AuthorizationException e) {
+		} catch (BrokerException | ModuleException | AuthorizationException e) {
 			this.logConnector.log(e);
-		} finally {
-			if (in1 != null) {
-				try {
-					in1.close();
-				} catch (final IOException e) {
-					this.logConnector.log(e);
-				}
+		}
+		try (InputStream in = this.prosumerConnector.readData(port, element.getPath())) {
+			if (in != null) {
+				return ContentHashHelper.hash(in);
 			}
-			if (in2 != null) {
+		} catch (IOException | BrokerException | ModuleException | AuthorizationException e) {
+			this.logConnector.log(e);
+		}
+		return null;
+	}
+
+	/**
+	 * Copies data between two channels and computes the content hash (and block signatures if requested) on the way. Data is read from the source through the
+	 * heap for hashing, the copy from temporary storage to the destination is moved without copying it through the heap if both providers support it (see
+	 * {@link ModuleReadableByteChannel#transferTo(java.nio.channels.WritableByteChannel)}).
+	 *
+	 * @param in the channel to read from
+	 * @param out the channel to write to
+	 * @param signatures the builder to compute block signatures with (may be null)
+	 * @return the content hash
+	 * @throws IOException if an I/O exception has occurred
+	 * @throws BrokerException if channels get interrupted by broker
+	 * @throws ModuleException on another error
+	 * @throws AuthorizationException if module is not authorized to read/write data
+	 */
+	private String channelCopy(final ModuleReadableByteChannel in, final ModuleWritableByteChannel out, final BlockSignatures.Builder signatures) throws IOException, BrokerException, ModuleException,
+			AuthorizationException {
+		final String[] tmpPath = getTmpStoragePath();
+		final MessageDigest digest = ContentHashHelper.newDigest();
+
+		if (tmpPath != null) {
+			// a temporary storage is available -> use it
+			try {
+				final ModuleWritableByteChannel tmpOut = this.prosumerConnector.writeDataChannel(this.tmpPort, tmpPath);
+				in.transferTo(ContentHashHelper.digestingChannel(signatures == null ? tmpOut : BlockDeltaHelper.signingChannel(tmpOut, signatures), digest));
+				closeChannel(in);
+				closeChannel(tmpOut);
+				final ModuleReadableByteChannel tmpIn = this.prosumerConnector.readDataChannel(this.tmpPort, tmpPath);
+				tmpIn.transferTo(out);
+				closeChannel(tmpIn);
+				closeChannel(out);
+			} finally {
+				// always try to delete tmp file
 				try {
-					in2.close();
-				} catch (final IOException e) {
+					this.prosumerConnector.delete(this.tmpPort, tmpPath);
+				} catch (BrokerException | ModuleException e) {
 					this.logConnector.log(e);
 				}
 			}
+		} else {
+			// no temporary storage -> direct copy
+			in.transferTo(ContentHashHelper.digestingChannel(signatures == null ? out : BlockDeltaHelper.signingChannel(out, signatures), digest));
+			closeChannel(in);
+			closeChannel(out);
+		}
+		return ContentHashHelper.toHexString(digest);
+	}
+
+	/**
+	 * Closes a channel, logging exceptions.
+	 *
+	 * @param channel the channel
+	 */
+	private void closeChannel(final Channel channel) {
+		try {
+			channel.close();
+		} catch (final IOException e) {
+			this.logConnector.log(e);
 		}
-		return result;
 	}
 
 	/**
@@ -251,27 +413,80 @@ public class SimpleSyncModule extends AbstractProsumer implements DataElementEve
 	private boolean copyElement(final ProsumerPort srcPort, final String[] srcPath, final ProsumerPort destPort, final String[] destPath, final DataElementType type) {
 		try {
 			if (type == DataElementType.FILE) {
-				final InputStream in = this.prosumerConnector.readData(srcPort, srcPath);
-				final OutputStream out = this.prosumerConnector.writeData(destPort, destPath);
-				if ((in != null) && (out != null)) {
-					streamCopy(in, out);
-					return true;
-				} else {
-					return false;
-				}
+				return copyFile(srcPort, srcPath, destPort, destPath, -1, null) != null;
 			} else if (type == DataElementType.FOLDER) {
 				this.prosumerConnector.createFolder(destPort, destPath);
 			} else {
 				// will retry later if type is unhandled
 				return false;
 			}
-		} catch (IOException | BrokerException | ModuleException | AuthorizationException e) {
+		} catch (BrokerException | ModuleException | AuthorizationException e) {
 			this.logConnector.log(e);
 			return false;
 		}
 		return true;
 	}
 
+	/**
+	 * Creates a synchronization job for an element event.
+	 *
+	 * @param port the port the event was received on
+	 * @param event the event
+	 * @return the sync job (null if event type is unhandled)
+	 */
+	private SyncJob createEventJob(final ProsumerPort port, final DataElementEvent event) {
+		switch (event.eventType) {
+		case ADD:
+			return new SyncJob(port, event.dataElement, SyncJobType.ADD, true);
+		case DELETE:
+			return new SyncJob(port, event.dataElement, SyncJobType.DELETE, true);
+		case MODIFY:
+			return new SyncJob(port, event.dataElement, SyncJobType.MODIFY, true);
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Copies a file. If block signatures of the current destination content are given and the file is large enough, only a block delta is transferred if the
+	 * destination supports it (falling back to a full copy otherwise).
+	 *
+	 * @param srcPort the source port
+	 * @param srcPath the source path
+	 * @param destPort the destination port
+	 * @param destPath the destination path
+	 * @param srcSize the size of the source file (used to decide about delta transfer and block signatures, -1 if unknown)
+	 * @param destSignatures the block signatures of the current destination content (may be null)
+	 * @return the result (null if not successful)
+	 */
+	private FileCopyResult copyFile(final ProsumerPort srcPort, final String[] srcPath, final ProsumerPort destPort, final String[] destPath, final long srcSize, final BlockSignatures destSignatures) {
+		final boolean deltaSync = (this.deltaSyncMinSize >= 0) && (srcSize >= this.deltaSyncMinSize);
+		if (deltaSync && (destSignatures != null)) {
+			final FileCopyResult result = deltaCopyFile(srcPort, srcPath, destPort, destPath, srcSize, destSignatures);
+			if (result != null) {
+				return result;
+			}
+		}
+		try {
+			final ModuleReadableByteChannel in = this.prosumerConnector.readDataChannel(srcPort, srcPath);
+			final ModuleWritableByteChannel out = this.prosumerConnector.writeDataChannel(destPort, destPath);
+			if ((in != null) && (out != null)) {
+				final BlockSignatures.Builder signatures = deltaSync ? new BlockSignatures.Builder(BlockSignatures.getBlockSize(srcSize)) : null;
+				final String contentHash = channelCopy(in, out, signatures);
+				return new FileCopyResult(contentHash, signatures == null ? null : signatures.build());
+			}
+			if (in != null) {
+				closeChannel(in);
+			}
+			if (out != null) {
+				closeChannel(out);
+			}
+		} catch (IOException | BrokerException | ModuleException | AuthorizationException e) {
+			this.logConnector.log(e);
+		}
+		return null;
+	}
+
 	/**
 	 * Deletes children of given parent path in database.
 	 *
@@ -296,42 +511,106 @@ public class SimpleSyncModule extends AbstractProsumer implements DataElementEve
 	}
 
 	/**
-	 * Does a full recursive synchronization (best effort, may fail).
+	 * Transfers a modified file as block delta against the signatures of the current destination content (see {@link BlockDeltaHelper}): The source is read
+	 * once, only data not found in any destination block is sent. The destination verifies the content hash of the patched file.
+	 *
+	 * @param srcPort the source port
+	 * @param srcPath the source path
+	 * @param destPort the destination port
+	 * @param destPath the destination path
+	 * @param srcSize the size of the source file
+	 * @param destSignatures the block signatures of the current destination content
+	 * @return the result (null if not supported by destination or not successful, the destination is unmodified then)
+	 */
+	private FileCopyResult deltaCopyFile(final ProsumerPort srcPort, final String[] srcPath, final ProsumerPort destPort, final String[] destPath, final long srcSize, final BlockSignatures destSignatures) {
+		final BlockSignatures.Builder signatures = new BlockSignatures.Builder(BlockSignatures.getBlockSize(srcSize));
+		try (InputStream in = this.prosumerConnector.readData(srcPort, srcPath)) {
+			if (in == null) {
+				return null;
+			}
+			final String contentHash;
+			// if creating the delta fails the stream is closed with an incomplete delta, which is discarded by the destination
+			try (OutputStream out = this.prosumerConnector.writeDataDelta(destPort, destPath)) {
+				if (out == null) {
+					return null;
+				}
+				contentHash = BlockDeltaHelper.createDelta(in, destSignatures, out, signatures);
+			}
+			return new FileCopyResult(contentHash, signatures.build());
+		} catch (IOException | BrokerException | ModuleException | AuthorizationException e) {
+			this.logConnector.log(e);
+			this.logConnector.log(LogEventLevelType.DEBUG, "delta transfer failed -> full copy: " + getPortPathString(destPort, destPath));
+			return null;
+		}
+	}
+
+	/**
+	 * Does the full synchronization of a single folder (best effort, may fail). Child elements are listed incrementally in batches, the jobs of every batch
+	 * are queued and a task for every sub folder is forked immediately, so only the database children not seen yet are held in memory. DELETE jobs for
+	 * database children missing in reality are queued after the listing is complete (the job manager orders jobs by path anyway, see
+	 * {@link JobPriorityComperator}).
 	 *
 	 * @param port the port
 	 * @param basePath the base path
+	 * @param subTasks the list to add forked sub folder tasks to
 	 * @return true, if successful
 	 */
-	private boolean doFullRecursiveSync(final ProsumerPort port, final String[] basePath) {
+	private boolean doFullSync(final ProsumerPort port, final String[] basePath, final List<FullSyncTask> subTasks) {
 		try {
-			Set<DataElement> realChildren;
+			DataElementCursor realChildren;
 			try {
-				realChildren = this.prosumerConnector.getChildElements(port, basePath, false);
+				realChildren = this.prosumerConnector.listChildren(port, basePath, false, SimpleSyncModule.FULL_SYNC_BATCH_SIZE);
 			} catch (final AuthorizationException e1) {
 				this.logConnector.log(e1);
 				return false;
 			}
 
 			if (realChildren != null) {
+				// known children of the database not (yet) found in reality
+				Map<DataElementPath, DataElement> dbChildren = null;
 				try {
-					final Set<DataElement> dbChildren = this.componentConfiguration.getChildElements(getDBDomain(port), basePath);
-
-					if (dbChildren != null) {
-						dbChildren.removeAll(realChildren);
-						for (final DataElement dbChild : dbChildren) {
-							final SyncJob job = new SyncJob(port, dbChild, SyncJobType.DELETE, false);
-							this.syncJobManager.queueJob(job);
+					final Set<DataElement> dbChildSet = this.componentConfiguration.getChildElements(getDBDomain(port), basePath);
+					if (dbChildSet != null) {
+						dbChildren = new HashMap<DataElementPath, DataElement>(dbChildSet.size() * 2);
+						for (final DataElement dbChild : dbChildSet) {
+							dbChildren.put(dbChild.getDataElementPath(), dbChild);
 						}
 					}
 				} catch (IllegalArgumentException | DatabaseException e) {
 					this.logConnector.log(e);
 				}
-				for (final DataElement realChild : realChildren) {
-					if (realChild.getType() == DataElementType.FOLDER) {
-						doFullRecursiveSync(port, realChild.getPath());
+				try {
+					List<DataElement> batch;
+					while ((batch = realChildren.nextBatch()) != null) {
+						final List<SyncJob> jobs = new ArrayList<SyncJob>(batch.size());
+						for (final DataElement realChild : batch) {
+							if (dbChildren != null) {
+								final DataElement dbChild = dbChildren.remove(realChild.getDataElementPath());
+								if ((dbChild != null) && !dbChild.equals(realChild)) {
+									jobs.add(new SyncJob(port, dbChild, SyncJobType.DELETE, false));
+								}
+							}
+							if (realChild.getType() == DataElementType.FOLDER) {
+								final FullSyncTask subTask = new FullSyncTask(port, realChild.getPath());
+								subTask.fork();
+								subTasks.add(subTask);
+							}
+							jobs.add(new SyncJob(port, realChild, SyncJobType.INIT, false));
+						}
+						this.syncJobManager.queueJobs(jobs);
+					}
+				} catch (final IOException e) {
+					this.logConnector.log(e);
+					return false;
+				} finally {
+					DataElementCursorHelper.closeQuietly(realChildren);
+				}
+				if (dbChildren != null) {
+					final List<SyncJob> jobs = new ArrayList<SyncJob>(dbChildren.size());
+					for (final DataElement dbChild : dbChildren.values()) {
+						jobs.add(new SyncJob(port, dbChild, SyncJobType.DELETE, false));
 					}
-					final SyncJob job = new SyncJob(port, realChild, SyncJobType.INIT, false);
-					this.syncJobManager.queueJob(job);
+					this.syncJobManager.queueJobs(jobs);
 				}
 				return true;
 			} else {
@@ -343,6 +622,28 @@ public class SimpleSyncModule extends AbstractProsumer implements DataElementEve
 		}
 	}
 
+	/**
+	 * Does a full recursive synchronization (best effort, may fail). Folders are listed in parallel by the full sync pool of the port, the calling thread
+	 * blocks until the whole tree is done.
+	 *
+	 * @param port the port
+	 * @param basePath the base path
+	 * @return true, if successful
+	 */
+	private boolean doFullRecursiveSync(final ProsumerPort port, final String[] basePath) {
+		final ForkJoinPool pool = getFullSyncPool(port);
+		if (pool == null) {
+			return false;
+		}
+		try {
+			return pool.invoke(new FullSyncTask(port, basePath));
+		} catch (RejectedExecutionException | CancellationException e) {
+			// module shut down in between
+			this.logConnector.log(e);
+			return false;
+		}
+	}
+
 	/* (non-Javadoc)
 	 *
 	 * @see module.iface.Module#shutdown() */
@@ -456,6 +757,21 @@ public class SimpleSyncModule extends AbstractProsumer implements DataElementEve
 		return newPath;
 	}
 
+	/**
+	 * Gets the full sync pool of a port.
+	 *
+	 * @param port the port
+	 * @return the pool (null if not running)
+	 */
+	private ForkJoinPool getFullSyncPool(final ProsumerPort port) {
+		if (port.equals(this.port1)) {
+			return this.fullSyncPool1;
+		} else if (port.equals(this.port2)) {
+			return this.fullSyncPool2;
+		}
+		return null;
+	}
+
 	/**
 	 * Gets the other port.
 	 *
@@ -552,9 +868,11 @@ public class SimpleSyncModule extends AbstractProsumer implements DataElementEve
 		} catch (final DatabaseException e) {
 			this.logConnector.log(e);
 		}
-		this.executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat(threadNamePrefix).build());
+		this.executor = ThreadPoolHelper.newCachedThreadPool(threadNamePrefix);
 		this.syncDelete = this.config.getBoolean(SimpleSyncModule.CONFIG_PROP_KEY___SYNC_DELETE, this.syncDelete);
 		this.compareContent = this.config.getBoolean(SimpleSyncModule.CONFIG_PROP_KEY___COMPARE_CONTENT, this.compareContent);
+		this.fullSyncConcurrency = Math.max(1, this.config.getInteger(SimpleSyncModule.CONFIG_PROP_KEY___FULL_SYNC_CONCURRENCY, this.fullSyncConcurrency));
+		this.deltaSyncMinSize = this.config.getLong(SimpleSyncModule.CONFIG_PROP_KEY___DELTA_SYNC_MIN_SIZE, this.deltaSyncMinSize);
 		try {
 			this.componentConfiguration.initializeElementDomains(SimpleSyncModule.DB_DOMAIN1, SimpleSyncModule.DB_DOMAIN2);
 			this.port1 = this.prosumerConnector.registerProsumerPort(this, SimpleSyncModule.PORT1_ID, 1);
@@ -592,7 +910,14 @@ public class SimpleSyncModule extends AbstractProsumer implements DataElementEve
 			final ConfigValue configValueOnlyExisting = new ConfigValue(SimpleSyncModule.CONFIG_PROP_KEY___SYNC_ONLY_EXISTING_ON_2);
 			configValueOnlyExisting.setCurrentValueBoolean(this.syncOnlyExistingOn2);
 			configValueOnlyExisting.setDescriptionString("Only synchronize elements that already exist on storage2.");
-			return CommandResultHelper.getDefaultResultOk(SimpleSyncModule.CONFIG_PROP_KEY___COMPARE_CONTENT, configValueCompCont.toString(), SimpleSyncModule.CONFIG_PROP_KEY___SYNC_DELETE, configValueSyncDel.toString(), SimpleSyncModule.CONFIG_PROP_KEY___SYNC_ONLY_EXISTING_ON_2, configValueOnlyExisting.toString());
+			final ConfigValue configValueFullSyncConc = new ConfigValue(SimpleSyncModule.CONFIG_PROP_KEY___FULL_SYNC_CONCURRENCY);
+			configValueFullSyncConc.setCurrentValueInteger(this.fullSyncConcurrency);
+			configValueFullSyncConc.setDescriptionString("Number of folders listed concurrently per storage during full synchronization (applied on next start).");
+			final ConfigValue configValueDeltaMinSize = new ConfigValue(SimpleSyncModule.CONFIG_PROP_KEY___DELTA_SYNC_MIN_SIZE);
+			configValueDeltaMinSize.setCurrentValueLong(this.deltaSyncMinSize);
+			configValueDeltaMinSize.setDescriptionString("Minimum file size in bytes for transferring modifications as block delta (-1 to disable).");
+			return CommandResultHelper.getDefaultResultOk(SimpleSyncModule.CONFIG_PROP_KEY___COMPARE_CONTENT, configValueCompCont.toString(), SimpleSyncModule.CONFIG_PROP_KEY___SYNC_DELETE, configValueSyncDel.toString(), SimpleSyncModule.CONFIG_PROP_KEY___SYNC_ONLY_EXISTING_ON_2, configValueOnlyExisting.toString(), SimpleSyncModule.CONFIG_PROP_KEY___FULL_SYNC_CONCURRENCY, configValueFullSyncConc.toString(),
+					SimpleSyncModule.CONFIG_PROP_KEY___DELTA_SYNC_MIN_SIZE, configValueDeltaMinSize.toString());
 		} else if (command.equals(GenericControlInterfaceCommands.SET_CONFIG_PROPERTIES) && (properties != null)) {
 			boolean result = false;
 			final ConfigValue configValueCompCont = new ConfigValue(SimpleSyncModule.CONFIG_PROP_KEY___COMPARE_CONTENT, properties.get(SimpleSyncModule.CONFIG_PROP_KEY___COMPARE_CONTENT));
@@ -613,6 +938,18 @@ public class SimpleSyncModule extends AbstractProsumer implements DataElementEve
 				this.config.updateBoolean(SimpleSyncModule.CONFIG_PROP_KEY___SYNC_ONLY_EXISTING_ON_2, this.syncOnlyExistingOn2);
 				result = true;
 			}
+			final ConfigValue configValueFullSyncConc = new ConfigValue(SimpleSyncModule.CONFIG_PROP_KEY___FULL_SYNC_CONCURRENCY, properties.get(SimpleSyncModule.CONFIG_PROP_KEY___FULL_SYNC_CONCURRENCY));
+			if (configValueFullSyncConc.isValid() && (configValueFullSyncConc.getCurrentValueInteger() != null) && (configValueFullSyncConc.getCurrentValueInteger() > 0)) {
+				this.fullSyncConcurrency = configValueFullSyncConc.getCurrentValueInteger();
+				this.config.updateInteger(SimpleSyncModule.CONFIG_PROP_KEY___FULL_SYNC_CONCURRENCY, this.fullSyncConcurrency);
+				result = true;
+			}
+			final ConfigValue configValueDeltaMinSize = new ConfigValue(SimpleSyncModule.CONFIG_PROP_KEY___DELTA_SYNC_MIN_SIZE, properties.get(SimpleSyncModule.CONFIG_PROP_KEY___DELTA_SYNC_MIN_SIZE));
+			if (configValueDeltaMinSize.isValid() && (configValueDeltaMinSize.getCurrentValueLong() != null)) {
+				this.deltaSyncMinSize = configValueDeltaMinSize.getCurrentValueLong();
+				this.config.updateLong(SimpleSyncModule.CONFIG_PROP_KEY___DELTA_SYNC_MIN_SIZE, this.deltaSyncMinSize);
+				result = true;
+			}
 			if (result) {
 				return CommandResultHelper.getDefaultResultOk();
 			}
@@ -622,24 +959,27 @@ public class SimpleSyncModule extends AbstractProsumer implements DataElementEve
 
 	@Override
 	public void onElementEvent(final ProsumerPort port, final DataElementEvent event) {
-		final DataElement element = event.dataElement;
-		SyncJob job;
-		switch (event.eventType) {
-		case ADD:
-			job = new SyncJob(port, element, SyncJobType.ADD, true);
-			this.syncJobManager.queueJob(job);
-			break;
-		case DELETE:
-			job = new SyncJob(port, element, SyncJobType.DELETE, true);
+		final SyncJob job = createEventJob(port, event);
+		if (job != null) {
 			this.syncJobManager.queueJob(job);
-			break;
-		case MODIFY:
-			job = new SyncJob(port, element, SyncJobType.MODIFY, true);
-			this.syncJobManager.queueJob(job);
-			break;
 		}
 	}
 
+	/* (non-Javadoc)
+	 *
+	 * @see module.iface.DataElementEventBatchListener#onElementEvents(framework.model.ProsumerPort, java.util.List) */
+	@Override
+	public void onElementEvents(final ProsumerPort port, final List<DataElementEvent> events) {
+		final List<SyncJob> jobs = new ArrayList<SyncJob>(events.size());
+		for (final DataElementEvent event : events) {
+			final SyncJob job = createEventJob(port, event);
+			if (job != null) {
+				jobs.add(job);
+			}
+		}
+		this.syncJobManager.queueJobs(jobs);
+	}
+
 	@Override
 	public Map<String, String> onModuleCommand(final Port port, final String command, final String[] path, final Map<String, String> properties) {
 		if ((command == null) || command.isEmpty()) {
@@ -745,6 +1085,14 @@ public class SimpleSyncModule extends AbstractProsumer implements DataElementEve
 		}
 		setMaxConcurrentTransfers(0);
 		this.syncJobManager.stop();
+		if (this.fullSyncPool1 != null) {
+			this.fullSyncPool1.shutdownNow();
+			this.fullSyncPool1 = null;
+		}
+		if (this.fullSyncPool2 != null) {
+			this.fullSyncPool2.shutdownNow();
+			this.fullSyncPool2 = null;
+		}
 	}
 
 	/**
@@ -758,8 +1106,21 @@ public class SimpleSyncModule extends AbstractProsumer implements DataElementEve
 		} catch (BrokerException | AuthorizationException e) {
 			this.logConnector.log(e);
 		}
-		if (!doFullRecursiveSync(this.port1, new String[0]) || !doFullRecursiveSync(this.port2, new String[0])) {
-			this.logConnector.log(LogEventLevelType.WARNING, "unable to run full initial recursive sync on one or more ports");
+		this.fullSyncPool1 = ThreadPoolHelper.newForkJoinPool(this.fullSyncConcurrency, SimpleSyncModule.class.getSimpleName() + "-scan-" + SimpleSyncModule.PORT1_ID + "-%d");
+		this.fullSyncPool2 = ThreadPoolHelper.newForkJoinPool(this.fullSyncConcurrency, SimpleSyncModule.class.getSimpleName() + "-scan-" + SimpleSyncModule.PORT2_ID + "-%d");
+		// scan both ports concurrently
+		final ForkJoinTask<Boolean> fullSync1 = this.fullSyncPool1.submit(new FullSyncTask(this.port1, new String[0]));
+		final ForkJoinTask<Boolean> fullSync2 = this.fullSyncPool2.submit(new FullSyncTask(this.port2, new String[0]));
+		try {
+			final boolean fullSync1Result = fullSync1.join();
+			final boolean fullSync2Result = fullSync2.join();
+			if (!fullSync1Result || !fullSync2Result) {
+				this.logConnector.log(LogEventLevelType.WARNING, "unable to run full initial recursive sync on one or more ports");
+			}
+		} catch (final CancellationException e) {
+			// module shut down in between
+			this.logConnector.log(e);
+			return;
 		}
 		this.syncJobManager.start();
 		setMaxConcurrentTransfers(this.maxConcurrentTransfers);
@@ -809,80 +1170,13 @@ public class SimpleSyncModule extends AbstractProsumer implements DataElementEve
 		} else if (this.syncThreads.size() < max) {
 			final int diff = max - this.syncThreads.size();
 			for (int i = 0; i < diff; i++) {
-				final Thread t = new Thread(this.syncHandler);
+				final Thread t = ThreadPoolHelper.newThread(this.syncHandler, SimpleSyncModule.class.getSimpleName() + "-sync-" + this.syncThreads.size());
 				this.syncThreads.add(t);
 				t.start();
 			}
 		}
 	}
 
-	/**
-	 * Copies two streams.
-	 *
-	 * @param in the input stream to read from
-	 * @param out the output stream to write to
-	 * @throws IOException if an I/O exception has occurred
-	 * @throws BrokerException if streams get interrupted by broker
-	 * @throws ModuleException on another error
-	 * @throws AuthorizationException if module is not authorized to read/write data
-	 */
-	private void streamCopy(final InputStream in, final OutputStream out) throws IOException, BrokerException, ModuleException, AuthorizationException {
-		final String[] tmpPath = getTmpStoragePath();
-
-		if (tmpPath != null) {
-			// a temporary storage is available -> use it
-			try {
-				final OutputStream tmpOut = this.prosumerConnector.writeData(this.tmpPort, tmpPath);
-				ByteStreams.copy(in, tmpOut);
-				try {
-					in.close();
-				} catch (final IOException e) {
-					this.logConnector.log(e);
-				}
-				try {
-					tmpOut.flush();
-					tmpOut.close();
-				} catch (final IOException e) {
-					this.logConnector.log(e);
-				}
-				final InputStream tmpIn = this.prosumerConnector.readData(this.tmpPort, tmpPath);
-				ByteStreams.copy(tmpIn, out);
-				try {
-					tmpIn.close();
-				} catch (final IOException e) {
-					this.logConnector.log(e);
-				}
-				try {
-					out.flush();
-					out.close();
-				} catch (final IOException e) {
-					this.logConnector.log(e);
-				}
-			} finally {
-				// always try to delete tmp file
-				try {
-					this.prosumerConnector.delete(this.tmpPort, tmpPath);
-				} catch (BrokerException | ModuleException e) {
-					this.logConnector.log(e);
-				}
-			}
-		} else {
-			// no temporary storage -> direct copy
-			ByteStreams.copy(in, out);
-			try {
-				in.close();
-			} catch (final IOException e) {
-				this.logConnector.log(e);
-			}
-			try {
-				out.flush();
-				out.close();
-			} catch (final IOException e) {
-				this.logConnector.log(e);
-			}
-		}
-	}
-
 	/**
 	 * The location where the core synchronization is done. Here we decide what to do for each synchronization job based on data inside the job and updated data
 	 * from connected modules.
@@ -1001,14 +1295,16 @@ public class SimpleSyncModule extends AbstractProsumer implements DataElementEve
 			// copy
 			// FOLDERS: if destination does not exist -> create, -> update db
 			if ((providerDestElement == null) || ((dbDestElem != null) && providerDestElement.equals(dbDestElem) && (providerSrcElement.getType() == providerDestElement.getType()))) {
-				if ((providerSrcElement.getType() == DataElementType.FILE) && copyElement(srcPort, srcElement.getPath(), destPort, srcElement.getPath(), providerSrcElement.getType())) {
+				final FileCopyResult copyResult = providerSrcElement.getType() == DataElementType.FILE ? copyFile(srcPort, srcElement.getPath(), destPort, srcElement.getPath(), providerSrcElement.getSize(),
+						getBlockSignatures(providerDestElement, dbDestElem)) : null;
+				if (copyResult != null) {
 					try {
-						// refresh destination element and store attributes in database
-						providerDestElement = this.prosumerConnector.getElement(destPort, srcElement.getPath());
+						// refresh destination element and store attributes, content hash and block signatures in database
+						providerDestElement = withBlockSignatures(withContentHash(this.prosumerConnector.getElement(destPort, srcElement.getPath()), copyResult.contentHash), copyResult.signatures);
 						this.componentConfiguration.storeElement(getDBDomain(destPort), srcElement.getPath(), providerDestElement);
 
-						// refresh source element and store attributes in database
-						providerSrcElement = this.prosumerConnector.getElement(srcPort, srcElement.getPath());
+						// refresh source element and store attributes, content hash and block signatures in database
+						providerSrcElement = withBlockSignatures(withContentHash(this.prosumerConnector.getElement(srcPort, srcElement.getPath()), copyResult.contentHash), copyResult.signatures);
 						if ((dbSrcElem != null) && (dbSrcElem.getType() == DataElementType.FOLDER) && (providerSrcElement.getType() == DataElementType.FILE)) {
 							deleteDBChildren(getDBDomain(srcPort), srcElement.getPath());
 						}
@@ -1076,8 +1372,9 @@ public class SimpleSyncModule extends AbstractProsumer implements DataElementEve
 				boolean done = false;
 				if ((dbDestElem == null) && (providerSrcElement.getType() == DataElementType.FILE) && (providerDestElement.getType() == DataElementType.FILE)) {
 					if (this.compareContent) {
-						final int i = compareContent(srcPort, srcElement.getPath(), destPort, srcElement.getPath());
-						if (i == -1) {
+						final String srcContentHash = getContentHash(srcPort, providerSrcElement, dbSrcElem);
+						final String destContentHash = srcContentHash == null ? null : getContentHash(destPort, providerDestElement, dbDestElem);
+						if (destContentHash == null) {
 							this.logConnector.log(LogEventLevelType.DEBUG, "read error while comparing content -> retry: " + srcElement);
 							if (destLockResult == 0) {
 								unlock(destPort, srcElement.getPath());
@@ -1086,7 +1383,9 @@ public class SimpleSyncModule extends AbstractProsumer implements DataElementEve
 								unlock(srcPort, srcElement.getPath());
 							}
 							return 1;
-						} else if (i == 0) {
+						} else if (srcContentHash.equals(destContentHash)) {
+							providerSrcElement = withContentHash(providerSrcElement, srcContentHash);
+							providerDestElement = withContentHash(providerDestElement, destContentHash);
 							done = true;
 						}
 					}
@@ -1591,4 +1890,41 @@ public class SimpleSyncModule extends AbstractProsumer implements DataElementEve
 		}
 		return result;
 	}
+
+	/**
+	 * Gets a copy of an element with block signatures (prefixed by size and modification date of the element) as additional property.
+	 *
+	 * @param element the element (may be null)
+	 * @param signatures the block signatures (may be null)
+	 * @return the element copy (the given element if element or signatures are null or the signatures exceed {@link #MAX_BLOCK_SIGNATURES_LENGTH})
+	 */
+	private DataElement withBlockSignatures(final DataElement element, final BlockSignatures signatures) {
+		if ((element == null) || (signatures == null)) {
+			return element;
+		}
+		final String encodedSignatures = signatures.toString();
+		if (encodedSignatures.length() > SimpleSyncModule.MAX_BLOCK_SIGNATURES_LENGTH) {
+			return element;
+		}
+		final DataElement result = element.clone();
+		result.addAdditionalProperty(SimpleSyncModule.ELEMENT_PROP_KEY___BLOCK_SIGNATURES, element.getSize() + ":" + element.getModificationDate() + ":" + encodedSignatures);
+		return result;
+	}
+
+	/**
+	 * Gets a copy of an element with the content hash (prefixed by size and modification date of the element) as additional property. Provider elements may be
+	 * shared, so they are never modified.
+	 *
+	 * @param element the element (may be null)
+	 * @param contentHash the content hash
+	 * @return the element copy (null if element is null)
+	 */
+	private DataElement withContentHash(final DataElement element, final String contentHash) {
+		if (element == null) {
+			return null;
+		}
+		final DataElement result = element.clone();
+		result.addAdditionalProperty(SimpleSyncModule.ELEMENT_PROP_KEY___CONTENT_HASH, element.getSize() + ":" + element.getModificationDate() + ":" + contentHash);
+		return result;
+	}
 }
@@ -1,27 +1,81 @@
 package module.simplesync.control;
 
-import helper.TextFormatHelper;
-
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.PriorityQueue;
 import java.util.TreeSet;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.DelayQueue;
-import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
 import module.simplesync.model.JobPriorityComperator;
 import module.simplesync.model.SyncJob;
+import module.simplesync.model.SyncPathIndex;
 import module.simplesync.model.type.SyncJobType;
+import framework.model.DataElementPath;
 
 /**
  * Manager class to filter, queue, (re)check and postpone synchronization jobs.
+ * <p>
+ * Paths of jobs being processed and of queued jobs are tracked in {@link SyncPathIndex} tries, so conflicts between related paths are found in O(path depth)
+ * regardless of the number of jobs. All pending jobs (delayed, queued or held) are additionally indexed by source port, path and type to detect duplicates in
+ * constant time.
  *
  * @author Stefan Werner
  */
 public class SyncJobManager {
 
+	/**
+	 * Key identifying duplicate jobs.
+	 */
+	private static final class JobKey {
+
+		private final DataElementPath path;
+		private final String portId;
+		private final SyncJobType type;
+
+		/**
+		 * Instantiates a new job key.
+		 *
+		 * @param job the job
+		 * @param type the type (may differ from job type)
+		 */
+		private JobKey(final SyncJob job, final SyncJobType type) {
+			this.path = job.getElement().getDataElementPath();
+			this.portId = job.getSourcePort().getPortId();
+			this.type = type;
+		}
+
+		/* (non-Javadoc)
+		 *
+		 * @see java.lang.Object#equals(java.lang.Object) */
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof JobKey)) {
+				return false;
+			}
+			final JobKey other = (JobKey) obj;
+			return this.path.equals(other.path) && (this.type == other.type) && ((this.portId == null) ? (other.portId == null) : this.portId.equals(other.portId));
+		}
+
+		/* (non-Javadoc)
+		 *
+		 * @see java.lang.Object#hashCode() */
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = (prime * result) + this.path.hashCode();
+			result = (prime * result) + ((this.portId == null) ? 0 : this.portId.hashCode());
+			result = (prime * result) + this.type.hashCode();
+			return result;
+		}
+	}
+
 	private static final int JOB_TRANSFER_INTERVAL_SECONDS = 1;
 	private static final int JOB_WAIT_INTERVALS_COUNT = 5;
 
@@ -41,10 +95,9 @@ public class SyncJobManager {
 					final TreeSet<SyncJob> jobs = new TreeSet<SyncJob>(new JobPriorityComperator());
 					SyncJobManager.this.delayedJobsQueue.drainTo(jobs);
 					for (final SyncJob job : jobs) {
-						final String intPath = getInternalPathString(job.getElement().getPath());
-						final String depPath = getJobDependency(intPath);
+						final DataElementPath depPath = getJobDependency(job.getElement().getDataElementPath());
 						if (depPath == null) {
-							SyncJobManager.this.jobQueue.add(job);
+							enqueue(job);
 						} else {
 							TreeSet<SyncJob> otherJobs = SyncJobManager.this.jobDependencies.get(depPath);
 							if (otherJobs == null) {
@@ -61,11 +114,17 @@ public class SyncJobManager {
 	};
 	private Thread delayedJobsHandlerThread;
 	private final DelayQueue<SyncJob> delayedJobsQueue = new DelayQueue<SyncJob>();
-	private final HashMap<String, TreeSet<SyncJob>> jobDependencies = new HashMap<String, TreeSet<SyncJob>>();
+	private final HashMap<DataElementPath, TreeSet<SyncJob>> jobDependencies = new HashMap<DataElementPath, TreeSet<SyncJob>>();
 	private final ReentrantLock jobLock = new ReentrantLock(true);
-	private final BlockingQueue<SyncJob> jobQueue = new PriorityBlockingQueue<SyncJob>(10, new JobPriorityComperator());
+	private final Condition jobQueueNotEmpty = this.jobLock.newCondition();
+	// only accessed with job lock held, so taking a job and removing it from the pending jobs is atomic
+	private final PriorityQueue<SyncJob> jobQueue = new PriorityQueue<SyncJob>(10, new JobPriorityComperator());
 	private long lastJobReceivedTime = 0;
-	private final HashSet<String> pathsInProcessing = new HashSet<String>();
+	private final SyncPathIndex pathsInProcessing = new SyncPathIndex();
+	// all jobs in delayed jobs queue, job queue or job dependencies (except forced transfers, they are never deduplicated)
+	private final HashMap<JobKey, SyncJob> pendingJobs = new HashMap<JobKey, SyncJob>();
+	// paths of all jobs in job queue
+	private final SyncPathIndex queuedPaths = new SyncPathIndex();
 
 	/**
 	 * Checks held jobs. Jobs may be held when another job on the same path is being processed. If that job is done held jobs can be released.
@@ -73,76 +132,63 @@ public class SyncJobManager {
 	 * @param finishedJob the finished job
 	 */
 	private void checkHeldJobs(final SyncJob finishedJob) {
-		final String doneIntPath = getInternalPathString(finishedJob.getElement().getPath());
 		this.jobLock.lock();
-		final TreeSet<SyncJob> otherJobs = this.jobDependencies.remove(doneIntPath);
+		final TreeSet<SyncJob> otherJobs = this.jobDependencies.remove(finishedJob.getElement().getDataElementPath());
 		if (otherJobs != null) {
 			final SyncJob newJob = otherJobs.pollFirst();
 			if (newJob != null) {
-				final String intPath = getInternalPathString(newJob.getElement().getPath());
 				if (!otherJobs.isEmpty()) {
-					this.jobDependencies.put(intPath, otherJobs);
+					this.jobDependencies.put(newJob.getElement().getDataElementPath(), otherJobs);
 				}
-				this.jobQueue.add(newJob);
+				enqueue(newJob);
 			}
 		}
 		this.jobLock.unlock();
 	}
 
 	/**
-	 * Gets an internal path string.
+	 * Adds a job to the job queue. Must be called with job lock held.
 	 *
-	 * @param path the path
-	 * @return the internal path string
+	 * @param job the job
 	 */
-	private String getInternalPathString(final String[] path) {
-		return TextFormatHelper.getPathString(path);
+	private void enqueue(final SyncJob job) {
+		this.queuedPaths.add(job.getElement().getDataElementPath());
+		this.jobQueue.add(job);
+		this.jobQueueNotEmpty.signal();
 	}
 
 	/**
-	 * Gets the internal path of the active job we need to wait for before the given path can be processed, null if none.
+	 * Gets the path of the active job we need to wait for before the given path can be processed, null if none.
 	 *
-	 * @param intPath the internal path
+	 * @param path the path
 	 * @return the job dependency
 	 */
-	private String getJobDependency(final String intPath) {
+	private DataElementPath getJobDependency(final DataElementPath path) {
 		this.jobLock.lock();
-		String depPath = null;
-		for (final String otherPath : this.pathsInProcessing) {
-			if (otherPath.startsWith(intPath) || intPath.startsWith(otherPath)) {
-				depPath = otherPath;
-				break;
-			}
-		}
+		DataElementPath depPath = this.pathsInProcessing.findRelated(path);
 		if (depPath == null) {
-			for (final SyncJob otherJob : this.jobQueue) {
-				final String otherPath = getInternalPathString(otherJob.getElement().getPath());
-				if (otherPath.startsWith(intPath) || intPath.startsWith(otherPath)) {
-					depPath = otherPath;
-					break;
-				}
-			}
+			depPath = this.queuedPaths.findRelated(path);
 		}
 		this.jobLock.unlock();
 		return depPath;
 	}
 
 	/**
-	 * Checks if given job currently on hold.
+	 * Gets the pending job the given job duplicates. ADD and MODIFY jobs are duplicates of each other.
 	 *
 	 * @param job the job
-	 * @return true, if on hold
+	 * @return the pending job (null if none)
 	 */
-	private boolean isJobCurrentlyHold(final SyncJob job) {
-		this.jobLock.lock();
-		for (final TreeSet<SyncJob> jobs : this.jobDependencies.values()) {
-			if (jobs.contains(job)) {
-				this.jobLock.unlock();
-				return true;
+	private SyncJob getPendingDuplicate(final SyncJob job) {
+		SyncJob result = this.pendingJobs.get(new JobKey(job, job.getType()));
+		if (result == null) {
+			if (job.getType() == SyncJobType.ADD) {
+				result = this.pendingJobs.get(new JobKey(job, SyncJobType.MODIFY));
+			} else if (job.getType() == SyncJobType.MODIFY) {
+				result = this.pendingJobs.get(new JobKey(job, SyncJobType.ADD));
 			}
 		}
-		this.jobLock.unlock();
-		return false;
+		return result;
 	}
 
 	/**
@@ -152,52 +198,83 @@ public class SyncJobManager {
 	 * @return true, if OK
 	 */
 	boolean lockPath(final String[] path) {
-		final String intPath = getInternalPathString(path);
-		if ((path == null) || (path.length == 0) || intPath.isEmpty()) {
+		if ((path == null) || (path.length == 0)) {
 			return false;
 		}
-		boolean result = true;
-		this.jobLock.lock();
-		if (this.pathsInProcessing.contains(intPath)) {
-			result = false;
-		} else {
-			for (final String otherPath : this.pathsInProcessing) {
-				if (otherPath.startsWith(intPath) || intPath.startsWith(otherPath)) {
-					result = false;
-					break;
-				}
-			}
+		return lockPath(DataElementPath.of(path));
+	}
+
+	/**
+	 * Locks a path.
+	 *
+	 * @param path the path
+	 * @return true, if OK
+	 */
+	private boolean lockPath(final DataElementPath path) {
+		if (path.isRoot()) {
+			return false;
 		}
+		this.jobLock.lock();
+		final boolean result = this.pathsInProcessing.findRelated(path) == null;
 		if (result) {
-			this.pathsInProcessing.add(intPath);
+			this.pathsInProcessing.add(path);
 		}
 		this.jobLock.unlock();
 		return result;
 	}
 
 	/**
-	 * Queues a job.
+	 * Queues a job. If an equal job (same source port, path and type) is already pending the new job is dropped. A pending ADD or MODIFY job for the same path
+	 * is updated with the element of a new ADD or MODIFY job instead.
 	 *
 	 * @param job the job
-	 * @return true, if successful
+	 * @return true, if queued as new job
 	 */
 	public boolean queueJob(final SyncJob job) {
 		boolean result = false;
-		final String intPath = getInternalPathString(job.getElement().getPath());
 		this.jobLock.lock();
-		if (this.pathsInProcessing.contains(intPath)) {
+		if (this.pathsInProcessing.contains(job.getElement().getDataElementPath())) {
 			this.jobLock.unlock();
 			return false;
 		}
-		if ((job.getType() == SyncJobType.FORCE_TRANSFER) || (!this.delayedJobsQueue.contains(job) && !this.jobQueue.contains(job) && !isJobCurrentlyHold(job))) {
-			this.delayedJobsQueue.add(job);
+		if (job.getType() == SyncJobType.FORCE_TRANSFER) {
 			result = true;
+		} else {
+			final SyncJob pendingJob = getPendingDuplicate(job);
+			if (pendingJob == null) {
+				this.pendingJobs.put(new JobKey(job, job.getType()), job);
+				result = true;
+			} else if ((job.getType() == SyncJobType.ADD) || (job.getType() == SyncJobType.MODIFY)) {
+				// path is equal, so position in all queues stays valid
+				pendingJob.setElement(job.getElement());
+			}
+		}
+		if (result) {
+			this.delayedJobsQueue.add(job);
 			this.lastJobReceivedTime = System.currentTimeMillis();
 		}
 		this.jobLock.unlock();
 		return result;
 	}
 
+	/**
+	 * Queues multiple jobs at once (acquiring the job lock only once).
+	 *
+	 * @param jobs the jobs
+	 * @return the number of queued jobs
+	 */
+	public int queueJobs(final Collection<SyncJob> jobs) {
+		int result = 0;
+		this.jobLock.lock();
+		for (final SyncJob job : jobs) {
+			if (queueJob(job)) {
+				result++;
+			}
+		}
+		this.jobLock.unlock();
+		return result;
+	}
+
 	/**
 	 * Removes a finished job from processing list.
 	 *
@@ -206,7 +283,7 @@ public class SyncJobManager {
 	 */
 	boolean removeJobFromProcessingList(final SyncJob job) {
 		this.jobLock.lock();
-		final boolean result = this.pathsInProcessing.remove(getInternalPathString(job.getElement().getPath()));
+		final boolean result = this.pathsInProcessing.remove(job.getElement().getDataElementPath());
 		if (result) {
 			checkHeldJobs(job);
 		}
@@ -223,7 +300,7 @@ public class SyncJobManager {
 	boolean requeueJob(final SyncJob job) {
 		boolean result;
 		this.jobLock.lock();
-		this.pathsInProcessing.remove(getInternalPathString(job.getElement().getPath()));
+		this.pathsInProcessing.remove(job.getElement().getDataElementPath());
 		result = queueJob(job);
 		this.jobLock.unlock();
 		return result;
@@ -254,11 +331,22 @@ public class SyncJobManager {
 	 * @throws InterruptedException if interrupted while blocked
 	 */
 	SyncJob take() throws InterruptedException {
-		final SyncJob job = this.jobQueue.take();
-		this.jobLock.lock();
-		lockPath(job.getElement().getPath());
-		this.jobLock.unlock();
-		return job;
+		this.jobLock.lockInterruptibly();
+		try {
+			SyncJob job;
+			while ((job = this.jobQueue.poll()) == null) {
+				this.jobQueueNotEmpty.await();
+			}
+			this.queuedPaths.remove(job.getElement().getDataElementPath());
+			final JobKey key = new JobKey(job, job.getType());
+			if (this.pendingJobs.get(key) == job) {
+				this.pendingJobs.remove(key);
+			}
+			lockPath(job.getElement().getDataElementPath());
+			return job;
+		} finally {
+			this.jobLock.unlock();
+		}
 	}
 
 	/**
@@ -269,7 +357,7 @@ public class SyncJobManager {
 	 */
 	boolean unlockPath(final String[] path) {
 		this.jobLock.lock();
-		final boolean result = this.pathsInProcessing.remove(getInternalPathString(path));
+		final boolean result = this.pathsInProcessing.remove(DataElementPath.of(path));
 		this.jobLock.unlock();
 		return result;
 	}
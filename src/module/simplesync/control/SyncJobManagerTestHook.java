@@ -0,0 +1,60 @@
+package module.simplesync.control;
+
+import java.util.Collection;
+
+import module.simplesync.model.SyncJob;
+
+/**
+ * Gives tests and benchmarks outside of this package access to the package private life cycle of a {@link SyncJobManager}: Jobs are queued, taken and
+ * finished like the synchronization worker threads do. Not used by the module itself.
+ *
+ * @author Stefan Werner
+ */
+public final class SyncJobManagerTestHook {
+
+	private final SyncJobManager manager = new SyncJobManager();
+
+	/**
+	 * Finishes a taken job, removing it from the processing list.
+	 *
+	 * @param job the job
+	 * @return true, if successful
+	 */
+	public boolean finish(final SyncJob job) {
+		return this.manager.removeJobFromProcessingList(job);
+	}
+
+	/**
+	 * Queues multiple jobs at once.
+	 *
+	 * @param jobs the jobs
+	 * @return the number of queued jobs
+	 */
+	public int queueJobs(final Collection<SyncJob> jobs) {
+		return this.manager.queueJobs(jobs);
+	}
+
+	/**
+	 * Starts the manager.
+	 */
+	public void start() {
+		this.manager.start();
+	}
+
+	/**
+	 * Stops the manager.
+	 */
+	public void stop() {
+		this.manager.stop();
+	}
+
+	/**
+	 * Gets the next synchronization job. Blocks is none.
+	 *
+	 * @return the sync job
+	 * @throws InterruptedException if interrupted while blocked
+	 */
+	public SyncJob take() throws InterruptedException {
+		return this.manager.take();
+	}
+}
@@ -2,9 +2,11 @@ package module.simplesync.model;
 
 import java.util.Comparator;
 
+import framework.model.DataElementPath;
+
 /**
  * Comparator used to find the most "important" job. The higher the depth of the path the higher the priority. Jobs with the same path depth are sorted
- * alphabetically.
+ * alphabetically. Jobs for the same path and source port (e.g. DELETE followed by ADD) are sorted in creation order.
  *
  * @author Stefan Werner
  */
@@ -15,21 +17,24 @@ public class JobPriorityComperator implements Comparator<SyncJob> {
 	 * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object) */
 	@Override
 	public int compare(final SyncJob arg0, final SyncJob arg1) {
-		final int delta = arg1.getElement().getPath().length - arg0.getElement().getPath().length;
+		final DataElementPath arg0Path = arg0.getElement().getDataElementPath();
+		final DataElementPath arg1Path = arg1.getElement().getDataElementPath();
+		final int delta = arg1Path.getDepth() - arg0Path.getDepth();
 		if (delta < 0) {
 			return -1;
 		} else if (delta > 0) {
 			return 1;
 		} else {
-			final String[] arg0Path = arg0.getElement().getPath();
-			final String[] arg1Path = arg1.getElement().getPath();
-			for (int i = 0; i < arg0.getElement().getPath().length; i++) {
-				final int result = arg0Path[i].compareTo(arg1Path[i]);
-				if (result != 0) {
-					return result;
-				}
+			final int result = arg0Path.compareTo(arg1Path);
+			if (result != 0) {
+				return result;
+			}
+			final int portResult = arg0.getSourcePort().getPortId().compareTo(arg1.getSourcePort().getPortId());
+			if (portResult != 0) {
+				return portResult;
 			}
-			return arg0.getSourcePort().getPortId().compareTo(arg1.getSourcePort().getPortId());
+			// duplicates are already filtered by the job manager, so all remaining jobs for the same path are kept in creation order
+			return Long.compare(arg0.getSequenceNumber(), arg1.getSequenceNumber());
 		}
 	}
 }
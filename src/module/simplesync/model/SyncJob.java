@@ -1,9 +1,9 @@
 package module.simplesync.model;
 
-import java.util.Arrays;
 import java.util.Random;
 import java.util.concurrent.Delayed;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import module.simplesync.model.type.SyncJobType;
 import framework.model.DataElement;
@@ -26,6 +26,7 @@ public final class SyncJob implements Delayed {
 	// job will be removed when exceeding this delay count
 	private static final int RETRY_COUNT_DEFAULT_MAX = 50;
 	private static final int RETRY_DELAY_MULTIPLICATOR = 1;
+	private static final AtomicLong SEQUENCE = new AtomicLong();
 	private final long creationDate;
 	private long currentDelay;
 	private DataElement element;
@@ -35,6 +36,8 @@ public final class SyncJob implements Delayed {
 	private Random random;
 	private int retryCount = 0;
 	private int retryCountMax = SyncJob.RETRY_COUNT_DEFAULT_MAX;
+	// creation order, unlike the creation date unique for every job
+	private final long sequenceNumber = SyncJob.SEQUENCE.getAndIncrement();
 	private final ProsumerPort sourcePort;
 	private final SyncJobType type;
 
@@ -88,7 +91,7 @@ public final class SyncJob implements Delayed {
 			return false;
 		}
 		final SyncJob other = (SyncJob) obj;
-		if (!Arrays.equals(this.element.getPath(), other.getElement().getPath())) {
+		if (!this.element.getDataElementPath().equals(other.getElement().getDataElementPath())) {
 			return false;
 		}
 		if (this.sourcePort.getPortId() == null) {
@@ -173,6 +176,15 @@ public final class SyncJob implements Delayed {
 		return this.retryCountMax;
 	}
 
+	/**
+	 * Gets the sequence number reflecting the creation order of jobs.
+	 *
+	 * @return the sequence number
+	 */
+	public long getSequenceNumber() {
+		return this.sequenceNumber;
+	}
+
 	/**
 	 * Gets the source port.
 	 *
@@ -198,7 +210,7 @@ public final class SyncJob implements Delayed {
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = (prime * result) + Arrays.hashCode(this.element.getPath());
+		result = (prime * result) + this.element.getDataElementPath().hashCode();
 		result = (prime * result) + ((this.sourcePort.getPortId() == null) ? 0 : this.sourcePort.getPortId().hashCode());
 		return result;
 	}
@@ -0,0 +1,190 @@
+package module.simplesync.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import framework.model.DataElementPath;
+
+/**
+ * Prefix trie counting the paths of synchronization jobs (for example all jobs being processed or all queued jobs). Every node corresponds to one path segment
+ * and knows how many entries are stored at its own path and below it, so finding an entry related to a given path (equal, ancestor or descendant) only costs
+ * O(path depth) instead of comparing the path against every single entry. The same path may be added multiple times, it is contained until removed as often.
+ * <p>
+ * IMPORTANT: This class is not thread-safe. Used only inside the SyncJobManager which guards access by its job lock.
+ *
+ * @author Stefan Werner
+ */
+public final class SyncPathIndex {
+
+	/**
+	 * A single node of the trie corresponding to one path segment.
+	 */
+	private static final class Node {
+
+		private Map<String, Node> children = null;
+		// number of entries at this path
+		private int count = 0;
+		private final Node parent;
+		// the path, set as soon as an entry is stored at this node
+		private DataElementPath path = null;
+		private final String segment;
+		// number of entries at this path and below
+		private int subtreeCount = 0;
+
+		/**
+		 * Instantiates a new node.
+		 *
+		 * @param parent the parent node (null for root)
+		 * @param segment the path segment (null for root)
+		 */
+		private Node(final Node parent, final String segment) {
+			this.parent = parent;
+			this.segment = segment;
+		}
+	}
+
+	private final Node root = new Node(null, null);
+
+	/**
+	 * Adds a path.
+	 *
+	 * @param path the path
+	 */
+	public void add(final DataElementPath path) {
+		Node node = this.root;
+		node.subtreeCount++;
+		for (int i = 0; i < path.getDepth(); i++) {
+			final String segment = path.getSegment(i);
+			if (node.children == null) {
+				node.children = new HashMap<String, Node>();
+			}
+			Node child = node.children.get(segment);
+			if (child == null) {
+				child = new Node(node, segment);
+				node.children.put(segment, child);
+			}
+			node = child;
+			node.subtreeCount++;
+		}
+		node.count++;
+		node.path = path;
+	}
+
+	/**
+	 * Removes all paths.
+	 */
+	public void clear() {
+		this.root.children = null;
+		this.root.count = 0;
+		this.root.subtreeCount = 0;
+		this.root.path = null;
+	}
+
+	/**
+	 * Checks if the given path is contained.
+	 *
+	 * @param path the path
+	 * @return true, if contained
+	 */
+	public boolean contains(final DataElementPath path) {
+		final Node node = findNode(path);
+		return (node != null) && (node.count > 0);
+	}
+
+	/**
+	 * Finds the node exactly matching a given path.
+	 *
+	 * @param path the path
+	 * @return the node (null if none)
+	 */
+	private Node findNode(final DataElementPath path) {
+		Node node = this.root;
+		for (int i = 0; i < path.getDepth(); i++) {
+			if (node.children == null) {
+				return null;
+			}
+			node = node.children.get(path.getSegment(i));
+			if (node == null) {
+				return null;
+			}
+		}
+		return node;
+	}
+
+	/**
+	 * Finds a contained path related to the given path, that is the path itself, one of its ancestors or one of its descendants. Ancestors are preferred over
+	 * descendants.
+	 *
+	 * @param path the path
+	 * @return the related path (null if none)
+	 */
+	public DataElementPath findRelated(final DataElementPath path) {
+		Node node = this.root;
+		for (int i = 0; i < path.getDepth(); i++) {
+			if (node.count > 0) {
+				return node.path;
+			}
+			if (node.children == null) {
+				return null;
+			}
+			node = node.children.get(path.getSegment(i));
+			if (node == null) {
+				return null;
+			}
+		}
+		if (node.subtreeCount == 0) {
+			return null;
+		}
+		// empty nodes are pruned, so every child leads to at least one entry
+		while (node.count == 0) {
+			node = node.children.values().iterator().next();
+		}
+		return node.path;
+	}
+
+	/**
+	 * Checks if empty.
+	 *
+	 * @return true, if empty
+	 */
+	public boolean isEmpty() {
+		return this.root.subtreeCount == 0;
+	}
+
+	/**
+	 * Removes a path once.
+	 *
+	 * @param path the path
+	 * @return true, if removed (false if not contained)
+	 */
+	public boolean remove(final DataElementPath path) {
+		Node node = findNode(path);
+		if ((node == null) || (node.count == 0)) {
+			return false;
+		}
+		node.count--;
+		if (node.count == 0) {
+			node.path = null;
+		}
+		while (node != null) {
+			node.subtreeCount--;
+			if ((node.subtreeCount == 0) && (node.parent != null)) {
+				node.parent.children.remove(node.segment);
+				if (node.parent.children.isEmpty()) {
+					node.parent.children = null;
+				}
+			}
+			node = node.parent;
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the number of contained paths (counting multiple additions of the same path).
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return this.root.subtreeCount;
+	}
+}
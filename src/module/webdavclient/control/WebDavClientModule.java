@@ -3,13 +3,18 @@ package module.webdavclient.control;
 import helper.CommandResultHelper;
 import helper.ConfigValue;
 import helper.PersistentConfigurationHelper;
+import helper.StreamRangeHelper;
 import helper.TextFormatHelper;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -22,13 +27,18 @@ import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
 
 import module.iface.AbstractProvider;
+import module.iface.BulkProvider;
 import module.iface.ErrorCode;
+import module.iface.RangedReadProvider;
 import module.webdavclient.model.WebDavOutputStream;
 
+import org.apache.http.HttpStatus;
+
 import com.github.sardine.DavResource;
 import com.github.sardine.Sardine;
 import com.github.sardine.SardineFactory;
 import com.github.sardine.impl.SardineException;
+import com.github.sardine.impl.io.ConsumingInputStream;
 import com.google.common.base.CharMatcher;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableSet;
@@ -46,6 +56,7 @@ import framework.exception.ModuleException;
 import framework.model.DataElement;
 import framework.model.Port;
 import framework.model.ProviderPort;
+import framework.model.event.DataElementEvent;
 import framework.model.event.type.DataElementEventType;
 import framework.model.event.type.LogEventLevelType;
 import framework.model.type.DataElementType;
@@ -56,7 +67,7 @@ import framework.model.type.ModuleStateType;
  *
  * @author Stefan Werner
  */
-public class WebDavClientModule extends AbstractProvider {
+public class WebDavClientModule extends AbstractProvider implements BulkProvider, RangedReadProvider {
 
 	/**
 	 * Internal element change monitor with regular element checks.
@@ -74,6 +85,7 @@ public class WebDavClientModule extends AbstractProvider {
 					if (newElements != null) {
 						if (this.elementMap != null) {
 							boolean error = false;
+							final List<DataElementEvent> elementEvents = new ArrayList<DataElementEvent>();
 							for (final DataElement newElement : newElements) {
 								if (newElement == null) {
 									error = true;
@@ -84,17 +96,9 @@ public class WebDavClientModule extends AbstractProvider {
 									newElementMap.put(internalPath, newElement);
 									final DataElement element = this.elementMap.remove(internalPath);
 									if (element == null) {
-										try {
-											WebDavClientModule.this.providerConnector.sendElementEvent(WebDavClientModule.this.providerPort, newElement, DataElementEventType.ADD);
-										} catch (final BrokerException e) {
-											WebDavClientModule.this.logConnector.log(e);
-										}
+										elementEvents.add(new DataElementEvent(newElement, DataElementEventType.ADD));
 									} else if (!element.equals(newElement)) {
-										try {
-											WebDavClientModule.this.providerConnector.sendElementEvent(WebDavClientModule.this.providerPort, newElement, DataElementEventType.MODIFY);
-										} catch (final BrokerException e) {
-											WebDavClientModule.this.logConnector.log(e);
-										}
+										elementEvents.add(new DataElementEvent(newElement, DataElementEventType.MODIFY));
 									}
 								} else {
 									error = true;
@@ -102,11 +106,14 @@ public class WebDavClientModule extends AbstractProvider {
 							}
 							if (!error) {
 								for (final DataElement element : this.elementMap.values()) {
-									try {
-										WebDavClientModule.this.providerConnector.sendElementEvent(WebDavClientModule.this.providerPort, element, DataElementEventType.DELETE);
-									} catch (final BrokerException e) {
-										WebDavClientModule.this.logConnector.log(e);
-									}
+									elementEvents.add(new DataElementEvent(element, DataElementEventType.DELETE));
+								}
+							}
+							if (!elementEvents.isEmpty()) {
+								try {
+									WebDavClientModule.this.providerConnector.sendElementEvents(WebDavClientModule.this.providerPort, elementEvents);
+								} catch (final BrokerException e) {
+									WebDavClientModule.this.logConnector.log(e);
 								}
 							}
 						}
@@ -310,6 +317,21 @@ public class WebDavClientModule extends AbstractProvider {
 		return result;
 	}
 
+	/**
+	 * Creates a data element from a resource.
+	 *
+	 * @param path the path of the element
+	 * @param resource the resource
+	 * @return the data element
+	 */
+	private DataElement createDataElement(final String[] path, final DavResource resource) {
+		if (resource.isDirectory()) {
+			return new DataElement(path, DataElementType.FOLDER, 0l, resource.getModified().getTime());
+		} else {
+			return new DataElement(path, DataElementType.FILE, resource.getContentLength(), resource.getModified().getTime());
+		}
+	}
+
 	/* (non-Javadoc)
 	 * 
 	 * @see module.iface.Provider#delete(framework.model.ProviderPort, java.lang.String[]) */
@@ -505,11 +527,7 @@ public class WebDavClientModule extends AbstractProvider {
 							} else {
 								newPath = ObjectArrays.concat(sanitizedPath, resource.getName());
 							}
-							if (resource.isDirectory()) {
-								result.add(new DataElement(newPath, DataElementType.FOLDER, 0l, resource.getModified().getTime()));
-							} else {
-								result.add(new DataElement(newPath, DataElementType.FILE, resource.getContentLength(), resource.getModified().getTime()));
-							}
+							result.add(createDataElement(newPath, resource));
 						}
 					}
 				}
@@ -551,6 +569,76 @@ public class WebDavClientModule extends AbstractProvider {
 		return result;
 	}
 
+	/* (non-Javadoc)
+	 * 
+	 * @see module.iface.BulkProvider#getElements(framework.model.ProviderPort, java.util.Collection) */
+	@Override
+	public Map<List<String>, DataElement> getElements(final ProviderPort port, final Collection<String[]> paths) throws ModuleException {
+		final Map<List<String>, DataElement> result = new HashMap<List<String>, DataElement>();
+		this.stateReadLock.lock();
+		try {
+			checkForOperationalStateAndPort(port);
+			// group by parent folder, so all siblings are looked up by a single PROPFIND with depth 1
+			final Map<List<String>, List<String[]>> pathsByParent = new HashMap<List<String>, List<String[]>>();
+			for (final String[] path : paths) {
+				if (path.length == 0) {
+					result.put(Arrays.asList(path), new DataElement(path, DataElementType.FOLDER, 0l, 0l));
+					continue;
+				}
+				final List<String> parent = Arrays.asList(Arrays.copyOf(path, path.length - 1));
+				List<String[]> siblings = pathsByParent.get(parent);
+				if (siblings == null) {
+					siblings = new ArrayList<String[]>();
+					pathsByParent.put(parent, siblings);
+				}
+				siblings.add(path);
+			}
+			for (final List<String[]> siblings : pathsByParent.values()) {
+				if (siblings.size() == 1) {
+					// a single depth 0 request is cheaper
+					final String[] sanitizedPath = checkAndSanitizePath(siblings.get(0));
+					final DataElement element = getDataElement(sanitizedPath, getAddress(sanitizedPath));
+					if (element != null) {
+						result.put(Arrays.asList(siblings.get(0)), element);
+					}
+					continue;
+				}
+				final String parentAddress = getParentAddress(checkAndSanitizePath(siblings.get(0)));
+				final Map<String, DavResource> resourcesByName = new HashMap<String, DavResource>();
+				try {
+					final List<DavResource> resources = this.sardine.list(parentAddress, 1);
+					if (resources != null) {
+						// parent folder itself is part of the result and has the shortest path, but may have the same name as one of its children
+						DavResource parentResource = null;
+						for (final DavResource resource : resources) {
+							if ((parentResource == null) || (resource.getPath().length() < parentResource.getPath().length())) {
+								parentResource = resource;
+							}
+						}
+						for (final DavResource resource : resources) {
+							if (resource != parentResource) {
+								resourcesByName.put(resource.getName(), resource);
+							}
+						}
+					}
+				} catch (final IOException e) {
+					if (!(e instanceof SardineException) || !e.getMessage().contains("404")) {
+						this.logConnector.log(e, "unable to list remote folder " + parentAddress);
+					}
+				}
+				for (final String[] path : siblings) {
+					final DavResource resource = resourcesByName.get(path[path.length - 1]);
+					if (resource != null) {
+						result.put(Arrays.asList(path), createDataElement(checkAndSanitizePath(path), resource));
+					}
+				}
+			}
+		} finally {
+			this.stateReadLock.unlock();
+		}
+		return result;
+	}
+
 	/**
 	 * Gets the parent address of a given path.
 	 *
@@ -909,6 +997,51 @@ public class WebDavClientModule extends AbstractProvider {
 		return result;
 	}
 
+	/* (non-Javadoc)
+	 * 
+	 * @see module.iface.RangedReadProvider#readData(framework.model.ProviderPort, java.lang.String[], long, long) */
+	@Override
+	public InputStream readData(final ProviderPort port, String[] path, final long offset, final long length) throws ModuleException {
+		if ((offset == 0) && (length < 0)) {
+			return readData(port, path);
+		}
+		InputStream result = null;
+		this.stateReadLock.lock();
+		try {
+			checkForOperationalStateAndPort(port);
+			path = checkAndSanitizePath(path);
+			final String address = getAddress(path);
+			if ((address != null) && (length != 0)) {
+				final Map<String, String> headers = new HashMap<String, String>();
+				headers.put("Range", "bytes=" + offset + "-" + (length > 0 ? String.valueOf((offset + length) - 1) : ""));
+				// ranges refer to the encoded content, so compression must not be used here
+				headers.put("Accept-Encoding", "identity");
+				try {
+					result = this.sardine.get(address, headers);
+					if ((result instanceof ConsumingInputStream) && (((ConsumingInputStream) result).getStatusCode() == HttpStatus.SC_PARTIAL_CONTENT)) {
+						result = StreamRangeHelper.limit(result, length);
+					} else {
+						// server ignored range header and sends whole content
+						result = StreamRangeHelper.skipAndLimit(result, offset, length);
+					}
+				} catch (final SardineException e) {
+					if (e.getStatusCode() == HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE) {
+						result = new ByteArrayInputStream(new byte[0]);
+					} else {
+						this.logConnector.log(e, "unable to read data from " + address);
+					}
+				} catch (final IOException e) {
+					this.logConnector.log(e, "unable to read data from " + address);
+				}
+			} else if (address != null) {
+				result = new ByteArrayInputStream(new byte[0]);
+			}
+		} finally {
+			this.stateReadLock.unlock();
+		}
+		return result;
+	}
+
 	/**
 	 * Sets up and starts the webDAV client and connection.
 	 *
@@ -0,0 +1,224 @@
+package testing.benchmark;
+
+import helper.BlockDeltaHelper;
+import helper.BlockSignatures;
+import helper.ContentHashHelper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
+
+import testing.integration.PositiveInteger;
+
+/**
+ * Measures block delta transfer (see {@link BlockDeltaHelper}) of a large modified file: A file of random content is written and signed, then a new version
+ * with some small modified regions and a single insertion (shifting all following data) is streamed through delta creation. Reported are the delta size
+ * compared to the file size and the time to create and apply the delta. The applied result is verified by its content hash.
+ * <p>
+ * Needs about twice the file size of free space in the default temporary folder.
+ * <p>
+ * <code>
+ * Options:
+ *   -c, --changes
+ *      Number of modified 4 KiB regions.
+ *      Default: 16
+ *   -h, /h, --help
+ *      Display this help / usage information.
+ *      Default: false
+ *   -s, --size
+ *      File size in MiB.
+ *      Default: 1024
+ * </code>
+ *
+ * @author Stefan Werner
+ */
+public class BlockDeltaBenchmark {
+
+	/**
+	 * Stream of reproducible random content, optionally with some regions inverted.
+	 */
+	private static final class ContentInputStream extends InputStream {
+
+		private static final int CHUNK_SIZE = 64 * 1024;
+
+		private final long[] changedOffsets;
+		private final byte[] chunk = new byte[ContentInputStream.CHUNK_SIZE];
+		private long chunkIndex = -1;
+		private long position;
+		private final long size;
+
+		/**
+		 * Instantiates a new content input stream.
+		 *
+		 * @param position the start position
+		 * @param size the content size
+		 * @param changedOffsets the offsets of changed regions
+		 */
+		private ContentInputStream(final long position, final long size, final long[] changedOffsets) {
+			this.position = position;
+			this.size = size;
+			this.changedOffsets = changedOffsets;
+		}
+
+		/* (non-Javadoc)
+		 *
+		 * @see java.io.InputStream#read() */
+		@Override
+		public int read() throws IOException {
+			final byte[] b = new byte[1];
+			return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+		}
+
+		/* (non-Javadoc)
+		 *
+		 * @see java.io.InputStream#read(byte[], int, int) */
+		@Override
+		public int read(final byte[] b, final int off, final int len) throws IOException {
+			if (this.position >= this.size) {
+				return -1;
+			}
+			final long index = this.position / ContentInputStream.CHUNK_SIZE;
+			if (index != this.chunkIndex) {
+				new Random(index).nextBytes(this.chunk);
+				this.chunkIndex = index;
+			}
+			final int chunkOffset = (int) (this.position % ContentInputStream.CHUNK_SIZE);
+			final int n = (int) Math.min(Math.min(len, ContentInputStream.CHUNK_SIZE - chunkOffset), this.size - this.position);
+			System.arraycopy(this.chunk, chunkOffset, b, off, n);
+			for (final long changedOffset : this.changedOffsets) {
+				final long from = Math.max(changedOffset, this.position);
+				final long to = Math.min(changedOffset + BlockDeltaBenchmark.CHANGE_SIZE, this.position + n);
+				for (long p = from; p < to; p++) {
+					final int i = off + (int) (p - this.position);
+					b[i] = (byte) ~b[i];
+				}
+			}
+			this.position += n;
+			return n;
+		}
+	}
+
+	private static final int CHANGE_SIZE = 4 * 1024;
+	private static final int INSERTION_SIZE = 1000;
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void main(final String[] args) throws IOException {
+		final BlockDeltaBenchmark benchmark = new BlockDeltaBenchmark(args);
+		benchmark.run();
+	}
+
+	@Parameter(names = { "-c", "--changes" }, description = "Number of modified 4 KiB regions.", validateWith = PositiveInteger.class)
+	private int changeCount = 16;
+	@Parameter(names = { "-h", "/h", "--help" }, description = "Display this help / usage information.", help = true)
+	private boolean help;
+	@Parameter(names = { "-s", "--size" }, description = "File size in MiB.", validateWith = PositiveInteger.class)
+	private int sizeMiB = 1024;
+
+	/**
+	 * Instantiates a new block delta benchmark.
+	 *
+	 * @param args the args
+	 */
+	public BlockDeltaBenchmark(final String[] args) {
+		final JCommander jCommander = new JCommander(this, args);
+		if (this.help) {
+			jCommander.usage();
+			System.exit(0);
+		}
+	}
+
+	/**
+	 * Opens the new version of the content: Old content with inverted changed regions and random data inserted in the middle.
+	 *
+	 * @param size the size of the old content
+	 * @param changedOffsets the sorted offsets of changed regions
+	 * @return the input stream
+	 */
+	private InputStream openNewVersion(final long size, final long[] changedOffsets) {
+		final long insertAt = size / 2;
+		final byte[] inserted = new byte[BlockDeltaBenchmark.INSERTION_SIZE];
+		new Random(-1).nextBytes(inserted);
+		final InputStream head = ByteStreams.limit(new ContentInputStream(0, size, changedOffsets), insertAt);
+		final InputStream tail = new ContentInputStream(insertAt, size, changedOffsets);
+		return new SequenceInputStream(new SequenceInputStream(head, new ByteArrayInputStream(inserted)), tail);
+	}
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	private void run() throws IOException {
+		final long size = this.sizeMiB * 1024L * 1024L;
+		final long[] changedOffsets = new long[this.changeCount];
+		final Random random = new Random(42);
+		for (int i = 0; i < this.changeCount; i++) {
+			changedOffsets[i] = (long) (random.nextDouble() * (size - BlockDeltaBenchmark.CHANGE_SIZE));
+		}
+		Arrays.sort(changedOffsets);
+		System.out.println("size: " + this.sizeMiB + " MiB, changed regions: " + this.changeCount + " x " + BlockDeltaBenchmark.CHANGE_SIZE + " bytes, insertion: " + BlockDeltaBenchmark.INSERTION_SIZE
+				+ " bytes");
+
+		final Path basisPath = Files.createTempFile(BlockDeltaBenchmark.class.getSimpleName() + "-", ".basis");
+		final Path deltaPath = Files.createTempFile(BlockDeltaBenchmark.class.getSimpleName() + "-", ".delta");
+		final Path targetPath = Files.createTempFile(BlockDeltaBenchmark.class.getSimpleName() + "-", ".target");
+		try {
+			long start = System.nanoTime();
+			final BlockSignatures.Builder builder = new BlockSignatures.Builder(BlockSignatures.getBlockSize(size));
+			try (InputStream in = new ContentInputStream(0, size, new long[0]); OutputStream out = Files.newOutputStream(basisPath)) {
+				final byte[] buffer = new byte[64 * 1024];
+				int read;
+				while ((read = in.read(buffer)) >= 0) {
+					builder.update(buffer, 0, read);
+					out.write(buffer, 0, read);
+				}
+			}
+			final BlockSignatures signatures = builder.build();
+			System.out.println("wrote and signed basis in " + ((System.nanoTime() - start) / 1000000) + " ms, block size: " + signatures.getBlockSize() + ", stored signatures: "
+					+ signatures.toString().length() + " chars");
+
+			start = System.nanoTime();
+			final String contentHash;
+			final long deltaSize;
+			try (InputStream in = openNewVersion(size, changedOffsets); CountingOutputStream out = new CountingOutputStream(Files.newOutputStream(deltaPath))) {
+				contentHash = BlockDeltaHelper.createDelta(in, signatures, out, null);
+				deltaSize = out.getCount();
+			}
+			final long createMillis = System.nanoTime() - start;
+			System.out.println("created delta of " + deltaSize + " bytes (" + String.format("%.3f", (deltaSize * 100.0) / size) + " % of file size) in " + (createMillis / 1000000) + " ms");
+
+			start = System.nanoTime();
+			final long newSize;
+			try (InputStream delta = Files.newInputStream(deltaPath); FileChannel basis = FileChannel.open(basisPath, StandardOpenOption.READ);
+					FileChannel target = FileChannel.open(targetPath, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				newSize = BlockDeltaHelper.applyDelta(delta, basis, target);
+			}
+			System.out.println("applied delta in " + ((System.nanoTime() - start) / 1000000) + " ms, new size: " + newSize);
+			try (InputStream in = Files.newInputStream(targetPath)) {
+				System.out.println("content hash verified: " + contentHash.equals(ContentHashHelper.hash(in)));
+			}
+		} finally {
+			Files.deleteIfExists(basisPath);
+			Files.deleteIfExists(deltaPath);
+			Files.deleteIfExists(targetPath);
+		}
+	}
+}
@@ -0,0 +1,766 @@
+package testing.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import module.iface.AbstractProsumer;
+import module.iface.AbstractProsumerProvider;
+import module.iface.AbstractProvider;
+import module.iface.DataElementEventListener;
+import module.iface.Module;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+
+import db.iface.BaseConfigurationController;
+import framework.constants.ModuleRight;
+import framework.control.BrokerTestHook;
+import framework.control.LogConnector;
+import framework.control.ProsumerConnector;
+import framework.control.ProviderConnector;
+import framework.exception.AuthorizationException;
+import framework.exception.BrokerException;
+import framework.exception.ModuleException;
+import framework.model.DataElement;
+import framework.model.Port;
+import framework.model.ProsumerPort;
+import framework.model.ProviderPort;
+import framework.model.event.DataElementEvent;
+import framework.model.event.ProviderStateEvent;
+import framework.model.event.type.DataElementEventType;
+import framework.model.event.type.LogEventSourceType;
+import framework.model.summary.ConnectionSummary;
+import framework.model.summary.PortSummary;
+import framework.model.type.DataElementType;
+import framework.model.type.PortType;
+import testing.integration.PositiveInteger;
+
+/**
+ * Measures the dispatch overhead of the broker: A minimal in-memory provider (modelled on module.example.control.ProviderProsumerProxyExampleModule) is
+ * connected to a minimal prosumer through a chain of 0, 1 and 3 forwarding proxy modules, all running in an in-process {@link framework.control.Broker} without database. For
+ * every chain length ops/s and allocated bytes/op are reported for getElement, getChildElements, readData (1 KiB and 1 MiB) and sendElementEvent (provider to
+ * prosumer, including event delivery).
+ * <p>
+ * This is a plain main method benchmark (no JMH available in this source tree), the broker is set up through {@link BrokerTestHook}. Allocations are summed
+ * over all threads and require a HotSpot based JVM.
+ * <p>
+ * <code>
+ * Options:
+ *   -c, --children
+ *      Number of child elements returned by getChildElements.
+ *      Default: 100
+ *   -d, --duration
+ *      Duration of every measurement (and warm up) in milliseconds.
+ *      Default: 2000
+ *   -h, /h, --help
+ *      Display this help / usage information.
+ *      Default: false
+ * </code>
+ *
+ * @author Stefan Werner
+ */
+public class BrokerDispatchBenchmark {
+
+	/**
+	 * A single measured operation.
+	 */
+	private interface Operation {
+
+		/**
+		 * Runs the operation once.
+		 *
+		 * @param i the iteration number
+		 * @throws Exception if anything goes wrong
+		 */
+		void run(long i) throws Exception;
+	}
+
+	/**
+	 * Prosumer at the end of the chain, counts received events.
+	 */
+	private static final class BenchProsumer extends AbstractProsumer implements DataElementEventListener {
+
+		private final AtomicLong receivedEvents = new AtomicLong();
+		private ProsumerPort prosumerPort;
+
+		/**
+		 * Instantiates a new bench prosumer.
+		 *
+		 * @param prosumerConnector the prosumer connector
+		 * @param logConnector the log connector
+		 */
+		private BenchProsumer(final ProsumerConnector prosumerConnector, final LogConnector logConnector) {
+			super(prosumerConnector, null, logConnector);
+		}
+
+		@Override
+		public void enterShutdown() {
+		}
+
+		@Override
+		public void enterStartup() {
+		}
+
+		@Override
+		public void exitShutdown() {
+		}
+
+		@Override
+		public void exitStartup() {
+		}
+
+		@Override
+		public Set<String> getSupportedControlInterfaceCommands() {
+			return null;
+		}
+
+		@Override
+		public Set<String> getSupportedModuleCommands(final Port port, final String[] path) {
+			return null;
+		}
+
+		@Override
+		public void initialize() {
+			try {
+				this.prosumerPort = this.prosumerConnector.registerProsumerPort(this, BrokerDispatchBenchmark.PORT_ID___PROSUMER, 1);
+			} catch (final BrokerException e) {
+				this.logConnector.log(e);
+			}
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public Map<String, String> onControlInterfaceCommand(final String command, final Map<String, String> properties) {
+			return null;
+		}
+
+		@Override
+		public void onElementEvent(final ProsumerPort port, final DataElementEvent event) {
+			this.receivedEvents.incrementAndGet();
+		}
+
+		@Override
+		public Map<String, String> onModuleCommand(final Port port, final String command, final String[] path, final Map<String, String> properties) {
+			return null;
+		}
+
+		@Override
+		public void onPortConnection(final Port port) {
+		}
+
+		@Override
+		public void onPortDisconnection(final Port port) {
+		}
+
+		@Override
+		public void onProviderStateEvent(final Port port, final ProviderStateEvent event) {
+		}
+
+		/**
+		 * Subscribes to all element events of the connected provider.
+		 *
+		 * @throws BrokerException if not subscribed
+		 * @throws AuthorizationException if not authorized
+		 */
+		private void subscribe() throws BrokerException, AuthorizationException {
+			this.prosumerConnector.subscribe(this.prosumerPort, new String[0], true, this);
+		}
+	}
+
+	/**
+	 * In-memory provider at the start of the chain.
+	 */
+	private static final class BenchProvider extends AbstractProvider {
+
+		private final Set<DataElement> children = new HashSet<DataElement>();
+		private final byte[] largeData = new byte[1024 * 1024];
+		private ProviderPort providerPort;
+		private final byte[] smallData = new byte[1024];
+
+		/**
+		 * Instantiates a new bench provider.
+		 *
+		 * @param providerConnector the provider connector
+		 * @param logConnector the log connector
+		 * @param childCount the number of child elements
+		 */
+		private BenchProvider(final ProviderConnector providerConnector, final LogConnector logConnector, final int childCount) {
+			super(providerConnector, null, logConnector);
+			for (int i = 0; i < childCount; i++) {
+				this.children.add(new DataElement(new String[] { "folder", "file" + i }, DataElementType.FILE, 1024L, 1400000000000L, null));
+			}
+		}
+
+		@Override
+		public int checkAndLock(final ProviderPort port, final String[] path) throws ModuleException {
+			return 0;
+		}
+
+		@Override
+		public int createFolder(final ProviderPort port, final String[] path) throws ModuleException {
+			return 0;
+		}
+
+		@Override
+		public int delete(final ProviderPort port, final String[] path) throws ModuleException {
+			return 0;
+		}
+
+		@Override
+		public void enterShutdown() {
+		}
+
+		@Override
+		public void enterStartup() {
+		}
+
+		@Override
+		public void exitShutdown() {
+		}
+
+		@Override
+		public void exitStartup() {
+		}
+
+		@Override
+		public Set<DataElement> getChildElements(final ProviderPort port, final String[] path, final boolean recursive) throws ModuleException {
+			return this.children;
+		}
+
+		@Override
+		public DataElement getElement(final ProviderPort port, final String[] path) throws ModuleException {
+			return new DataElement(path, DataElementType.FILE, 1024L, 1400000000000L, null);
+		}
+
+		@Override
+		public Set<String> getSupportedControlInterfaceCommands() {
+			return null;
+		}
+
+		@Override
+		public Set<String> getSupportedModuleCommands(final Port port, final String[] path) {
+			return null;
+		}
+
+		@Override
+		public DataElementType getType(final ProviderPort port, final String[] path) throws ModuleException {
+			return DataElementType.FILE;
+		}
+
+		@Override
+		public void initialize() {
+			try {
+				this.providerPort = this.providerConnector.registerProviderPort(this, BrokerDispatchBenchmark.PORT_ID___PROVIDER, -1);
+			} catch (final BrokerException e) {
+				this.logConnector.log(e);
+			}
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public int move(final ProviderPort port, final String[] srcPath, final String[] destPath) throws ModuleException {
+			return 0;
+		}
+
+		@Override
+		public Map<String, String> onControlInterfaceCommand(final String command, final Map<String, String> properties) {
+			return null;
+		}
+
+		@Override
+		public Map<String, String> onModuleCommand(final Port port, final String command, final String[] path, final Map<String, String> properties) {
+			return null;
+		}
+
+		@Override
+		public void onPortConnection(final Port port) {
+		}
+
+		@Override
+		public void onPortDisconnection(final Port port) {
+		}
+
+		@Override
+		public void onStateRequest(final ProviderPort port) {
+		}
+
+		@Override
+		public InputStream readData(final ProviderPort port, final String[] path) throws ModuleException {
+			return new ByteArrayInputStream(BrokerDispatchBenchmark.PATH___LARGE_DATA[0].equals(path[0]) ? this.largeData : this.smallData);
+		}
+
+		/**
+		 * Sends a modification event for the given path.
+		 *
+		 * @param path the path
+		 * @throws BrokerException if the event cannot be sent
+		 */
+		private void sendModifyEvent(final String[] path) throws BrokerException {
+			this.providerConnector.sendElementEvent(this.providerPort, new DataElement(path, DataElementType.FILE, 0L, 1400000000000L, null), DataElementEventType.MODIFY);
+		}
+
+		@Override
+		public int unlock(final ProviderPort port, final String[] path) throws ModuleException {
+			return 0;
+		}
+
+		@Override
+		public OutputStream writeData(final ProviderPort port, final String[] path) throws ModuleException {
+			return null;
+		}
+	}
+
+	/**
+	 * Proxy forwarding all calls and events unchanged.
+	 */
+	private static final class BenchProxy extends AbstractProsumerProvider implements DataElementEventListener {
+
+		private ProsumerPort prosumerPort;
+		private ProviderPort providerPort;
+
+		/**
+		 * Instantiates a new bench proxy.
+		 *
+		 * @param prosumerConnector the prosumer connector
+		 * @param providerConnector the provider connector
+		 * @param logConnector the log connector
+		 */
+		private BenchProxy(final ProsumerConnector prosumerConnector, final ProviderConnector providerConnector, final LogConnector logConnector) {
+			super(prosumerConnector, providerConnector, null, logConnector);
+		}
+
+		@Override
+		public int checkAndLock(final ProviderPort port, final String[] path) throws ModuleException {
+			return 0;
+		}
+
+		@Override
+		public int createFolder(final ProviderPort port, final String[] path) throws ModuleException {
+			return 0;
+		}
+
+		@Override
+		public int delete(final ProviderPort port, final String[] path) throws ModuleException {
+			return 0;
+		}
+
+		@Override
+		public void enterShutdown() {
+		}
+
+		@Override
+		public void enterStartup() {
+		}
+
+		@Override
+		public void exitShutdown() {
+		}
+
+		@Override
+		public void exitStartup() {
+		}
+
+		@Override
+		public Set<DataElement> getChildElements(final ProviderPort port, final String[] path, final boolean recursive) throws ModuleException {
+			try {
+				return this.prosumerConnector.getChildElements(this.prosumerPort, path, recursive);
+			} catch (BrokerException | AuthorizationException e) {
+				throw new ModuleException(e);
+			}
+		}
+
+		@Override
+		public DataElement getElement(final ProviderPort port, final String[] path) throws ModuleException {
+			try {
+				return this.prosumerConnector.getElement(this.prosumerPort, path);
+			} catch (BrokerException | AuthorizationException e) {
+				throw new ModuleException(e);
+			}
+		}
+
+		@Override
+		public Set<String> getSupportedControlInterfaceCommands() {
+			return null;
+		}
+
+		@Override
+		public Set<String> getSupportedModuleCommands(final Port port, final String[] path) {
+			return null;
+		}
+
+		@Override
+		public DataElementType getType(final ProviderPort port, final String[] path) throws ModuleException {
+			return DataElementType.FILE;
+		}
+
+		@Override
+		public void initialize() {
+			try {
+				this.prosumerPort = this.prosumerConnector.registerProsumerPort(this, BrokerDispatchBenchmark.PORT_ID___PROSUMER, 1);
+				this.providerPort = this.providerConnector.registerProviderPort(this, BrokerDispatchBenchmark.PORT_ID___PROVIDER, -1);
+			} catch (final BrokerException e) {
+				this.logConnector.log(e);
+			}
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public int move(final ProviderPort port, final String[] srcPath, final String[] destPath) throws ModuleException {
+			return 0;
+		}
+
+		@Override
+		public Map<String, String> onControlInterfaceCommand(final String command, final Map<String, String> properties) {
+			return null;
+		}
+
+		@Override
+		public void onElementEvent(final ProsumerPort port, final DataElementEvent event) {
+			try {
+				this.providerConnector.sendElementEvent(this.providerPort, event.dataElement, event.eventType);
+			} catch (final BrokerException e) {
+				this.logConnector.log(e);
+			}
+		}
+
+		@Override
+		public Map<String, String> onModuleCommand(final Port port, final String command, final String[] path, final Map<String, String> properties) {
+			return null;
+		}
+
+		@Override
+		public void onPortConnection(final Port port) {
+		}
+
+		@Override
+		public void onPortDisconnection(final Port port) {
+		}
+
+		@Override
+		public void onProviderStateEvent(final Port port, final ProviderStateEvent event) {
+		}
+
+		/**
+		 * Subscribes to all element events of the connected provider.
+		 *
+		 * @throws BrokerException if not subscribed
+		 * @throws AuthorizationException if not authorized
+		 */
+		private void subscribe() throws BrokerException, AuthorizationException {
+			this.prosumerConnector.subscribe(this.prosumerPort, new String[0], true, this);
+		}
+
+		@Override
+		public void onStateRequest(final ProviderPort port) {
+		}
+
+		@Override
+		public InputStream readData(final ProviderPort port, final String[] path) throws ModuleException {
+			try {
+				return this.prosumerConnector.readData(this.prosumerPort, path);
+			} catch (BrokerException | AuthorizationException e) {
+				throw new ModuleException(e);
+			}
+		}
+
+		@Override
+		public int unlock(final ProviderPort port, final String[] path) throws ModuleException {
+			return 0;
+		}
+
+		@Override
+		public OutputStream writeData(final ProviderPort port, final String[] path) throws ModuleException {
+			return null;
+		}
+	}
+
+	// number of events sent before waiting for their delivery (distinct paths, so no event is coalesced)
+	private static final int EVENT_BATCH_SIZE = 1000;
+	private static final String[] PATH___LARGE_DATA = { "large" };
+	private static final String[] PATH___SMALL_DATA = { "small" };
+	private static final String PORT_ID___PROSUMER = "prosumer";
+	private static final String PORT_ID___PROVIDER = "provider";
+	private static final int[] PROXY_COUNTS = { 0, 1, 3 };
+
+	/**
+	 * Creates a base configuration controller without database. All modules get all rights, nothing is persisted. Also used by other benchmarks of this package.
+	 *
+	 * @return the base configuration controller
+	 */
+	static BaseConfigurationController createInMemoryConfiguration() {
+		return (BaseConfigurationController) Proxy.newProxyInstance(BaseConfigurationController.class.getClassLoader(), new Class<?>[] { BaseConfigurationController.class }, new InvocationHandler() {
+
+			@Override
+			public Object invoke(final Object proxy, final Method method, final Object[] args) {
+				final Class<?> returnType = method.getReturnType();
+				if (method.getName().equals("getModuleRights")) {
+					return ModuleRight.RIGHT___ALL;
+				} else if (method.getName().equals("equals")) {
+					return proxy == args[0];
+				} else if (method.getName().equals("hashCode")) {
+					return System.identityHashCode(proxy);
+				} else if (returnType == boolean.class) {
+					return true;
+				} else if (returnType == int.class) {
+					return 0;
+				} else if (returnType == long.class) {
+					return 0L;
+				} else if (returnType == String.class) {
+					return "benchmark";
+				} else if (returnType.isAssignableFrom(HashMap.class)) {
+					return new HashMap<Object, Object>();
+				} else if (returnType.isAssignableFrom(HashSet.class)) {
+					return new HashSet<Object>();
+				} else if (returnType.isAssignableFrom(ArrayList.class)) {
+					return new ArrayList<Object>();
+				}
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Gets the bytes allocated by all live threads so far.
+	 *
+	 * @return the allocated bytes (-1 if not supported by the JVM)
+	 */
+	private static long getAllocatedBytes() {
+		final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+			return -1;
+		}
+		long result = 0;
+		for (final long bytes : ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(bean.getAllThreadIds())) {
+			if (bytes > 0) {
+				result += bytes;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments
+	 * @throws Exception if anything goes wrong
+	 */
+	public static void main(final String[] args) throws Exception {
+		final BrokerDispatchBenchmark benchmark = new BrokerDispatchBenchmark(args);
+		benchmark.run();
+		System.exit(0);
+	}
+
+	@Parameter(names = { "-c", "--children" }, description = "Number of child elements returned by getChildElements.", validateWith = PositiveInteger.class)
+	private int childCount = 100;
+	@Parameter(names = { "-d", "--duration" }, description = "Duration of every measurement (and warm up) in milliseconds.", validateWith = PositiveInteger.class)
+	private int durationMillis = 2000;
+	@Parameter(names = { "-h", "/h", "--help" }, description = "Display this help / usage information.", help = true)
+	private boolean help;
+
+	/**
+	 * Instantiates a new broker dispatch benchmark.
+	 *
+	 * @param args the args
+	 */
+	public BrokerDispatchBenchmark(final String[] args) {
+		final JCommander jCommander = new JCommander(this, args);
+		if (this.help) {
+			jCommander.usage();
+			System.exit(0);
+		}
+	}
+
+	/**
+	 * Adds a module to the broker.
+	 *
+	 * @param broker the broker
+	 * @param moduleId the module ID
+	 * @param module the module
+	 * @throws BrokerException if module cannot be added
+	 */
+	private void addModule(final BrokerTestHook broker, final String moduleId, final Module module) throws BrokerException {
+		broker.addModule(moduleId, ModuleRight.RIGHT___ALL, module);
+	}
+
+	/**
+	 * Connects the prosumer port of a module to the provider port of another module.
+	 *
+	 * @param broker the broker
+	 * @param prosumerModuleId the prosumer module ID
+	 * @param providerModuleId the provider module ID
+	 */
+	private void connect(final BrokerTestHook broker, final String prosumerModuleId, final String providerModuleId) {
+		final PortSummary prosumerPort = new PortSummary(prosumerModuleId, PortType.PROSUMER, BrokerDispatchBenchmark.PORT_ID___PROSUMER);
+		final PortSummary providerPort = new PortSummary(providerModuleId, PortType.PROVIDER, BrokerDispatchBenchmark.PORT_ID___PROVIDER);
+		if (!broker.connect(new ConnectionSummary(prosumerPort, providerPort))) {
+			throw new IllegalStateException("unable to connect " + prosumerModuleId + " to " + providerModuleId);
+		}
+	}
+
+	/**
+	 * Measures an operation: Runs it for the configured duration to warm up, then for the same duration measuring time and allocations.
+	 *
+	 * @param name the name of the operation
+	 * @param operation the operation
+	 * @param opsPerCall the number of operations done by a single call
+	 * @throws Exception if the operation fails
+	 */
+	private void measure(final String name, final Operation operation, final int opsPerCall) throws Exception {
+		long i = 0;
+		long end = System.nanoTime() + (this.durationMillis * 1000000L);
+		while (System.nanoTime() < end) {
+			operation.run(i++);
+		}
+		final long allocatedBefore = BrokerDispatchBenchmark.getAllocatedBytes();
+		final long start = System.nanoTime();
+		end = start + (this.durationMillis * 1000000L);
+		long calls = 0;
+		long now;
+		while ((now = System.nanoTime()) < end) {
+			operation.run(i++);
+			calls++;
+		}
+		final long allocatedAfter = BrokerDispatchBenchmark.getAllocatedBytes();
+		final long ops = calls * opsPerCall;
+		final long opsPerSecond = (ops * 1000000000L) / Math.max(1, now - start);
+		final String allocation = (allocatedBefore < 0) || (allocatedAfter < allocatedBefore) ? "n/a" : String.valueOf((allocatedAfter - allocatedBefore) / ops);
+		System.out.println(String.format("  %-22s %12d ops/s %12s bytes/op", name, opsPerSecond, allocation));
+	}
+
+	/**
+	 * Runs the benchmark for every chain length.
+	 *
+	 * @throws Exception if anything goes wrong
+	 */
+	private void run() throws Exception {
+		System.out.println("duration: " + this.durationMillis + " ms per measurement, children: " + this.childCount);
+		for (final int proxyCount : BrokerDispatchBenchmark.PROXY_COUNTS) {
+			System.out.println(proxyCount + " prox" + (proxyCount == 1 ? "y" : "ies") + ":");
+			runChain(proxyCount);
+		}
+	}
+
+	/**
+	 * Builds a broker with a chain of modules and runs all measurements.
+	 *
+	 * @param proxyCount the number of proxies between provider and prosumer
+	 * @throws Exception if anything goes wrong
+	 */
+	private void runChain(final int proxyCount) throws Exception {
+		final BrokerTestHook broker = new BrokerTestHook(BrokerDispatchBenchmark.createInMemoryConfiguration());
+
+		final BenchProvider provider = new BenchProvider(broker.newProviderConnector("provider"), new LogConnector(LogEventSourceType.MODULE, "provider"), this.childCount);
+		addModule(broker, "provider", provider);
+		String previousModuleId = "provider";
+		final List<BenchProxy> proxies = new ArrayList<BenchProxy>();
+		for (int i = 0; i < proxyCount; i++) {
+			final String moduleId = "proxy" + i;
+			final BenchProxy proxy = new BenchProxy(broker.newProsumerConnector(moduleId), broker.newProviderConnector(moduleId), new LogConnector(LogEventSourceType.MODULE, moduleId));
+			addModule(broker, moduleId, proxy);
+			connect(broker, moduleId, previousModuleId);
+			proxies.add(proxy);
+			previousModuleId = moduleId;
+		}
+		final ProsumerConnector prosumerConnector = broker.newProsumerConnector("prosumer");
+		final BenchProsumer prosumer = new BenchProsumer(prosumerConnector, new LogConnector(LogEventSourceType.MODULE, "prosumer"));
+		addModule(broker, "prosumer", prosumer);
+		connect(broker, "prosumer", previousModuleId);
+		if (!broker.startup()) {
+			throw new IllegalStateException("broker did not start");
+		}
+		for (final BenchProxy proxy : proxies) {
+			proxy.subscribe();
+		}
+		prosumer.subscribe();
+
+		final ProsumerPort port = prosumer.prosumerPort;
+		final String[] elementPath = { "folder", "file" };
+		final byte[] buffer = new byte[64 * 1024];
+		measure("getElement", new Operation() {
+
+			@Override
+			public void run(final long i) throws Exception {
+				prosumerConnector.getElement(port, elementPath);
+			}
+		}, 1);
+		measure("getChildElements", new Operation() {
+
+			@Override
+			public void run(final long i) throws Exception {
+				prosumerConnector.getChildElements(port, elementPath, false);
+			}
+		}, 1);
+		measure("readData (1 KiB)", new Operation() {
+
+			@Override
+			public void run(final long i) throws Exception {
+				readFully(prosumerConnector.readData(port, BrokerDispatchBenchmark.PATH___SMALL_DATA), buffer);
+			}
+		}, 1);
+		measure("readData (1 MiB)", new Operation() {
+
+			@Override
+			public void run(final long i) throws Exception {
+				readFully(prosumerConnector.readData(port, BrokerDispatchBenchmark.PATH___LARGE_DATA), buffer);
+			}
+		}, 1);
+		measure("sendElementEvent", new Operation() {
+
+			@Override
+			public void run(final long i) throws Exception {
+				final long expected = prosumer.receivedEvents.get() + BrokerDispatchBenchmark.EVENT_BATCH_SIZE;
+				for (int j = 0; j < BrokerDispatchBenchmark.EVENT_BATCH_SIZE; j++) {
+					provider.sendModifyEvent(new String[] { "events", "file" + j });
+				}
+				while (prosumer.receivedEvents.get() < expected) {
+					Thread.yield();
+				}
+			}
+		}, BrokerDispatchBenchmark.EVENT_BATCH_SIZE);
+
+		broker.shutdown();
+	}
+
+	/**
+	 * Reads a stream until its end and closes it.
+	 *
+	 * @param in the input stream
+	 * @param buffer the buffer to use
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void readFully(final InputStream in, final byte[] buffer) throws IOException {
+		try {
+			while (in.read(buffer) >= 0) {
+				// just read
+			}
+		} finally {
+			in.close();
+		}
+	}
+}
@@ -0,0 +1,167 @@
+package testing.benchmark;
+
+import helper.TextFormatHelper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+
+import framework.model.DataElement;
+import framework.model.DataElementStore;
+import framework.model.type.DataElementType;
+import testing.integration.PositiveInteger;
+
+/**
+ * Memory benchmark comparing a map of {@link DataElement} objects keyed by path strings (like the NIO storage monitor kept its snapshots before) against a
+ * {@link DataElementStore}. Both variants are built one after another from the same synthetic file tree, heap usage is measured after garbage collection.
+ * <p>
+ * Results are only rough estimates, run with a fixed heap size (for example <code>-Xms4g -Xmx4g</code>) for comparable numbers.
+ * <p>
+ * <code>
+ * Options:
+ *   -e, --elements
+ *      Number of elements to create.
+ *      Default: 1000000
+ *   -f, --files-per-folder
+ *      Number of files per folder.
+ *      Default: 50
+ *   -h, /h, --help
+ *      Display this help / usage information.
+ *      Default: false
+ *   -l, --lookups
+ *      Number of measured lookups.
+ *      Default: 1000000
+ * </code>
+ *
+ * @author Stefan Werner
+ */
+public class DataElementStoreBenchmark {
+
+	private static final int FOLDERS_PER_FOLDER = 10;
+
+	/**
+	 * Gets the currently used heap after garbage collection.
+	 *
+	 * @return the used heap in bytes
+	 */
+	private static long getUsedHeap() {
+		final Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+			try {
+				Thread.sleep(100);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments
+	 */
+	public static void main(final String[] args) {
+		final DataElementStoreBenchmark benchmark = new DataElementStoreBenchmark(args);
+		benchmark.run();
+	}
+
+	@Parameter(names = { "-e", "--elements" }, description = "Number of elements to create.", validateWith = PositiveInteger.class)
+	private int elementCount = 1000000;
+	@Parameter(names = { "-f", "--files-per-folder" }, description = "Number of files per folder.", validateWith = PositiveInteger.class)
+	private int filesPerFolder = 50;
+	@Parameter(names = { "-h", "/h", "--help" }, description = "Display this help / usage information.", help = true)
+	private boolean help;
+	@Parameter(names = { "-l", "--lookups" }, description = "Number of measured lookups.", validateWith = PositiveInteger.class)
+	private int lookupCount = 1000000;
+
+	/**
+	 * Instantiates a new data element store benchmark.
+	 *
+	 * @param args the args
+	 */
+	public DataElementStoreBenchmark(final String[] args) {
+		final JCommander jCommander = new JCommander(this, args);
+		if (this.help) {
+			jCommander.usage();
+			System.exit(0);
+		}
+	}
+
+	/**
+	 * Creates the element with the given number. Elements are spread over a tree of folders, every 10th element has additional properties.
+	 *
+	 * @param number the number
+	 * @return the element
+	 */
+	private DataElement createElement(final int number) {
+		int folder = number / this.filesPerFolder;
+		int depth = 0;
+		for (int f = folder; f > 0; f /= DataElementStoreBenchmark.FOLDERS_PER_FOLDER) {
+			depth++;
+		}
+		final String[] path = new String[depth + 1];
+		for (int i = depth - 1; i >= 0; i--) {
+			path[i] = "folder" + (folder % DataElementStoreBenchmark.FOLDERS_PER_FOLDER);
+			folder /= DataElementStoreBenchmark.FOLDERS_PER_FOLDER;
+		}
+		path[depth] = "file" + (number % this.filesPerFolder) + ".dat";
+		final DataElement element = new DataElement(path, DataElementType.FILE, number, 1400000000000L + number, null);
+		if ((number % 10) == 0) {
+			element.addAdditionalProperty("checksum", Integer.toHexString(number));
+		}
+		return element;
+	}
+
+	/**
+	 * Runs the benchmark.
+	 */
+	private void run() {
+		final Random rand = new Random(42);
+		final long baseHeap = DataElementStoreBenchmark.getUsedHeap();
+		System.out.println("elements: " + this.elementCount + ", lookups: " + this.lookupCount);
+
+		long start = System.nanoTime();
+		Map<String, DataElement> map = new HashMap<String, DataElement>();
+		for (int i = 0; i < this.elementCount; i++) {
+			final DataElement element = createElement(i);
+			map.put(TextFormatHelper.getPathString(element.getPath()), element);
+		}
+		final long mapBuildMillis = (System.nanoTime() - start) / 1000000;
+		final long mapHeap = DataElementStoreBenchmark.getUsedHeap() - baseHeap;
+		start = System.nanoTime();
+		long found = 0;
+		for (int i = 0; i < this.lookupCount; i++) {
+			if (map.get(TextFormatHelper.getPathString(createElement(rand.nextInt(this.elementCount)).getPath())) != null) {
+				found++;
+			}
+		}
+		final long mapLookupNanos = (System.nanoTime() - start) / this.lookupCount;
+		System.out.println("map:   " + (mapHeap / this.elementCount) + " bytes/element, total " + (mapHeap >> 20) + " MiB, build " + mapBuildMillis + " ms, lookup "
+				+ mapLookupNanos + " ns (" + found + " found)");
+		map = null;
+
+		start = System.nanoTime();
+		final DataElementStore store = new DataElementStore();
+		for (int i = 0; i < this.elementCount; i++) {
+			store.put(createElement(i));
+		}
+		final long storeBuildMillis = (System.nanoTime() - start) / 1000000;
+		final long storeHeap = DataElementStoreBenchmark.getUsedHeap() - baseHeap;
+		start = System.nanoTime();
+		found = 0;
+		for (int i = 0; i < this.lookupCount; i++) {
+			if (store.get(createElement(rand.nextInt(this.elementCount)).getDataElementPath()) != null) {
+				found++;
+			}
+		}
+		final long storeLookupNanos = (System.nanoTime() - start) / this.lookupCount;
+		System.out.println("store: " + (storeHeap / store.size()) + " bytes/element, total " + (storeHeap >> 20) + " MiB, build " + storeBuildMillis + " ms, lookup "
+				+ storeLookupNanos + " ns (" + found + " found)");
+	}
+}
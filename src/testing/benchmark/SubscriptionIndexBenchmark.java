@@ -0,0 +1,179 @@
+package testing.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import module.iface.DataElementEventListener;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+
+import framework.model.DataElementEventSubscription;
+import framework.model.DataElementEventSubscriptionIndex;
+import framework.model.ProsumerPort;
+import framework.model.event.DataElementEvent;
+import testing.integration.PositiveInteger;
+
+/**
+ * Micro benchmark comparing the old linear subscription matching (checking every {@link DataElementEventSubscription} of a port) against the
+ * {@link DataElementEventSubscriptionIndex} used by the broker.
+ * <p>
+ * <code>
+ * Options:
+ *   -d, --max-depth
+ *      Maximum path depth of subscriptions and lookups.
+ *      Default: 8
+ *   -h, /h, --help
+ *      Display this help / usage information.
+ *      Default: false
+ *   -l, --lookups
+ *      Number of measured lookups per round.
+ *      Default: 100000
+ *   -r, --rounds
+ *      Number of measured rounds (one additional warm up round is always done).
+ *      Default: 5
+ *   -s, --subscriptions
+ *      Number of subscriptions to create.
+ *      Default: 10000
+ * </code>
+ *
+ * @author Stefan Werner
+ */
+public class SubscriptionIndexBenchmark {
+
+	/**
+	 * Dummy listener, never called.
+	 */
+	private static final class DummyListener implements DataElementEventListener {
+
+		/* (non-Javadoc)
+		 *
+		 * @see module.iface.DataElementEventListener#onElementEvent(framework.model.ProsumerPort, framework.model.event.DataElementEvent) */
+		@Override
+		public void onElementEvent(final ProsumerPort port, final DataElementEvent event) {
+			// ignored
+		}
+	}
+
+	private static final int FOLDER_NAMES_PER_LEVEL = 16;
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments
+	 */
+	public static void main(final String[] args) {
+		final SubscriptionIndexBenchmark benchmark = new SubscriptionIndexBenchmark(args);
+		benchmark.run();
+	}
+
+	@Parameter(names = { "-h", "/h", "--help" }, description = "Display this help / usage information.", help = true)
+	private boolean help;
+	@Parameter(names = { "-l", "--lookups" }, description = "Number of measured lookups per round.", validateWith = PositiveInteger.class)
+	private int lookupCount = 100000;
+	@Parameter(names = { "-d", "--max-depth" }, description = "Maximum path depth of subscriptions and lookups.", validateWith = PositiveInteger.class)
+	private int maxDepth = 8;
+	private final Random rand = new Random(42);
+	@Parameter(names = { "-r", "--rounds" }, description = "Number of measured rounds (one additional warm up round is always done).",
+			validateWith = PositiveInteger.class)
+	private int rounds = 5;
+	@Parameter(names = { "-s", "--subscriptions" }, description = "Number of subscriptions to create.", validateWith = PositiveInteger.class)
+	private int subscriptionCount = 10000;
+
+	/**
+	 * Instantiates a new subscription index benchmark.
+	 *
+	 * @param args the args
+	 */
+	public SubscriptionIndexBenchmark(final String[] args) {
+		final JCommander jCommander = new JCommander(this, args);
+		if (this.help) {
+			jCommander.usage();
+			System.exit(0);
+		}
+	}
+
+	/**
+	 * Creates a random path.
+	 *
+	 * @param minDepth the minimum depth
+	 * @return the path
+	 */
+	private String[] createRandomPath(final int minDepth) {
+		final int depth = minDepth + this.rand.nextInt((this.maxDepth - minDepth) + 1);
+		final String[] path = new String[depth];
+		for (int i = 0; i < depth; i++) {
+			path[i] = "folder" + this.rand.nextInt(SubscriptionIndexBenchmark.FOLDER_NAMES_PER_LEVEL);
+		}
+		return path;
+	}
+
+	/**
+	 * Runs the lookups against the index.
+	 *
+	 * @param index the index
+	 * @param lookups the lookup paths
+	 * @return the total number of matched listeners (to prevent dead code elimination)
+	 */
+	private long lookupIndexed(final DataElementEventSubscriptionIndex index, final List<String[]> lookups) {
+		long matches = 0;
+		for (final String[] path : lookups) {
+			matches += index.getIncludedListeners(path).size();
+		}
+		return matches;
+	}
+
+	/**
+	 * Runs the lookups the way the broker did before introducing the index.
+	 *
+	 * @param subscriptions the subscriptions
+	 * @param lookups the lookup paths
+	 * @return the total number of matched listeners (to prevent dead code elimination)
+	 */
+	private long lookupLinear(final Set<DataElementEventSubscription> subscriptions, final List<String[]> lookups) {
+		long matches = 0;
+		for (final String[] path : lookups) {
+			final Set<DataElementEventListener> result = new HashSet<DataElementEventListener>();
+			for (final DataElementEventSubscription subscription : subscriptions) {
+				if (subscription.isIncluded(path)) {
+					result.add(subscription.getDataElementEventListener());
+				}
+			}
+			matches += result.size();
+		}
+		return matches;
+	}
+
+	/**
+	 * Runs the benchmark.
+	 */
+	private void run() {
+		final Set<DataElementEventSubscription> subscriptions = new HashSet<DataElementEventSubscription>();
+		final DataElementEventSubscriptionIndex index = new DataElementEventSubscriptionIndex();
+		for (int i = 0; i < this.subscriptionCount; i++) {
+			final DataElementEventSubscription subscription = new DataElementEventSubscription(createRandomPath(1), this.rand.nextBoolean(), new DummyListener());
+			subscriptions.add(subscription);
+			index.add(subscription);
+		}
+		final List<String[]> lookups = new ArrayList<String[]>(this.lookupCount);
+		for (int i = 0; i < this.lookupCount; i++) {
+			lookups.add(createRandomPath(0));
+		}
+		// linear scan is slow, so only use a fraction of the lookups
+		final List<String[]> linearLookups = lookups.subList(0, Math.max(1, this.lookupCount / 100));
+		System.out.println("subscriptions: " + index.size() + ", lookups (indexed/linear): " + lookups.size() + "/" + linearLookups.size());
+		for (int round = 0; round <= this.rounds; round++) {
+			long start = System.nanoTime();
+			final long linearMatches = lookupLinear(subscriptions, linearLookups);
+			final long linearNanos = (System.nanoTime() - start) / linearLookups.size();
+			start = System.nanoTime();
+			final long indexedMatches = lookupIndexed(index, lookups);
+			final long indexedNanos = (System.nanoTime() - start) / lookups.size();
+			System.out.println((round == 0 ? "warm up" : "round " + round) + ": linear " + linearNanos + " ns/lookup (" + linearMatches + " matches), indexed "
+					+ indexedNanos + " ns/lookup (" + indexedMatches + " matches)");
+		}
+	}
+}
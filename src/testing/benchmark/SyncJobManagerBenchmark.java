@@ -0,0 +1,109 @@
+package testing.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import module.simplesync.control.SyncJobManagerTestHook;
+import module.simplesync.model.SyncJob;
+import module.simplesync.model.type.SyncJobType;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+
+import framework.model.DataElement;
+import framework.model.ProsumerPort;
+import framework.model.type.DataElementType;
+import testing.integration.PositiveInteger;
+
+/**
+ * Measures the {@link module.simplesync.control.SyncJobManager} with a large number of jobs like queued after an initial full scan: All jobs are queued at once, then they are taken and
+ * finished one by one like the synchronization worker threads do. Reported times are the time to queue all jobs, the time until the delayed jobs handler
+ * releases the first job (it waits for about 5 s without new jobs, then transfers all jobs at once checking each job for conflicts with all jobs in processing
+ * and in the job queue) and the time to take all remaining jobs.
+ * <p>
+ * This is a plain main method benchmark, the manager is driven through {@link SyncJobManagerTestHook}.
+ * <p>
+ * <code>
+ * Options:
+ *   -f, --files-per-folder
+ *      Number of files per folder.
+ *      Default: 50
+ *   -h, /h, --help
+ *      Display this help / usage information.
+ *      Default: false
+ *   -j, --jobs
+ *      Number of jobs to queue.
+ *      Default: 500000
+ * </code>
+ *
+ * @author Stefan Werner
+ */
+public class SyncJobManagerBenchmark {
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments
+	 * @throws InterruptedException if interrupted
+	 */
+	public static void main(final String[] args) throws InterruptedException {
+		final SyncJobManagerBenchmark benchmark = new SyncJobManagerBenchmark(args);
+		benchmark.run();
+	}
+
+	@Parameter(names = { "-f", "--files-per-folder" }, description = "Number of files per folder.", validateWith = PositiveInteger.class)
+	private int filesPerFolder = 50;
+	@Parameter(names = { "-h", "/h", "--help" }, description = "Display this help / usage information.", help = true)
+	private boolean help;
+	@Parameter(names = { "-j", "--jobs" }, description = "Number of jobs to queue.", validateWith = PositiveInteger.class)
+	private int jobCount = 500000;
+
+	/**
+	 * Instantiates a new sync job manager benchmark.
+	 *
+	 * @param args the args
+	 */
+	public SyncJobManagerBenchmark(final String[] args) {
+		final JCommander jCommander = new JCommander(this, args);
+		if (this.help) {
+			jCommander.usage();
+			System.exit(0);
+		}
+	}
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @throws InterruptedException if interrupted
+	 */
+	private void run() throws InterruptedException {
+		System.out.println("jobs: " + this.jobCount + ", files per folder: " + this.filesPerFolder);
+		final ProsumerPort port = new ProsumerPort("benchmark", "port", 1);
+		final List<SyncJob> jobs = new ArrayList<SyncJob>(this.jobCount);
+		for (int i = 0; i < this.jobCount; i++) {
+			final String[] path = { "folder" + (i / this.filesPerFolder), "file" + i + ".dat" };
+			jobs.add(new SyncJob(port, new DataElement(path, DataElementType.FILE, i, 1400000000000L + i, null), SyncJobType.ADD, false));
+		}
+		final SyncJobManagerTestHook manager = new SyncJobManagerTestHook();
+		manager.start();
+
+		long start = System.nanoTime();
+		final int queued = manager.queueJobs(jobs);
+		final long queueMillis = (System.nanoTime() - start) / 1000000;
+		System.out.println("queued " + queued + " jobs in " + queueMillis + " ms");
+
+		start = System.nanoTime();
+		SyncJob job = manager.take();
+		final long releaseMillis = (System.nanoTime() - start) / 1000000;
+		System.out.println("first job released after " + releaseMillis + " ms (including about 5 s idle wait)");
+		start = System.nanoTime();
+		manager.finish(job);
+		for (int i = 1; i < queued; i++) {
+			job = manager.take();
+			manager.finish(job);
+		}
+		final long takeMillis = (System.nanoTime() - start) / 1000000;
+		System.out.println("took " + queued + " jobs in " + takeMillis + " ms");
+		manager.stop();
+	}
+}
@@ -0,0 +1,524 @@
+package testing.benchmark;
+
+import helper.ThreadPoolHelper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import module.iface.AbstractProsumer;
+import module.iface.AbstractProvider;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+
+import framework.constants.ModuleRight;
+import framework.control.BrokerTestHook;
+import framework.control.LogConnector;
+import framework.control.ProsumerConnector;
+import framework.control.ProviderConnector;
+import framework.exception.BrokerException;
+import framework.exception.ModuleException;
+import framework.model.DataElement;
+import framework.model.Port;
+import framework.model.ProsumerPort;
+import framework.model.ProviderPort;
+import framework.model.event.ProviderStateEvent;
+import framework.model.event.type.LogEventSourceType;
+import framework.model.summary.ConnectionSummary;
+import framework.model.summary.PortSummary;
+import framework.model.type.DataElementType;
+import framework.model.type.PortType;
+import framework.model.type.ThreadModeType;
+import testing.integration.PositiveInteger;
+
+/**
+ * Benchmark comparing the throughput of many concurrent small file transfers with framework and worker pools backed by platform threads and by virtual threads
+ * (see {@link ThreadPoolHelper}). For every mode a new in-process {@link framework.control.Broker} (set up through {@link BrokerTestHook}, without database) is
+ * started, so all framework pools are created according to that mode. A prosumer copies every file from a source provider to a destination provider through
+ * its {@link ProsumerConnector}, like a sync module does. Both providers store real files in temporary folders, the destination provider additionally waits
+ * for a simulated remote latency before opening a file for writing. Transfers are run concurrently by a cached worker pool of the same mode. Mode VIRTUAL is
+ * skipped on runtimes before Java 21.
+ * <p>
+ * The peak number of platform threads is reported per round (virtual threads are not counted).
+ * <p>
+ * <code>
+ * Options:
+ *   -f, --file-size
+ *      Size of each file in bytes.
+ *      Default: 4096
+ *   -h, /h, --help
+ *      Display this help / usage information.
+ *      Default: false
+ *   -l, --latency
+ *      Simulated remote latency per transfer in milliseconds.
+ *      Default: 20
+ *   -r, --rounds
+ *      Number of measured rounds per mode (one additional warm up round is always done).
+ *      Default: 3
+ *   -t, --transfers
+ *      Number of concurrent transfers per round.
+ *      Default: 1000
+ * </code>
+ *
+ * @author Stefan Werner
+ */
+public class ThreadModeBenchmark {
+
+	/**
+	 * Prosumer copying files from its source port to its destination port.
+	 */
+	private static final class CopyProsumer extends AbstractProsumer {
+
+		private ProsumerPort destinationPort;
+		private ProsumerPort sourcePort;
+
+		/**
+		 * Instantiates a new copy prosumer.
+		 *
+		 * @param prosumerConnector the prosumer connector
+		 * @param logConnector the log connector
+		 */
+		private CopyProsumer(final ProsumerConnector prosumerConnector, final LogConnector logConnector) {
+			super(prosumerConnector, null, logConnector);
+		}
+
+		/**
+		 * Copies a single file through the broker.
+		 *
+		 * @param path the path
+		 * @return the number of bytes copied
+		 * @throws Exception if the file cannot be copied
+		 */
+		private long copy(final String[] path) throws Exception {
+			long bytes = 0;
+			try (InputStream in = this.prosumerConnector.readData(this.sourcePort, path); OutputStream out = this.prosumerConnector.writeData(this.destinationPort, path)) {
+				if ((in == null) || (out == null)) {
+					throw new IOException("unable to open streams for " + path[path.length - 1]);
+				}
+				final byte[] buffer = new byte[ThreadModeBenchmark.BUFFER_SIZE];
+				int read;
+				while ((read = in.read(buffer)) > 0) {
+					out.write(buffer, 0, read);
+					bytes += read;
+				}
+			}
+			return bytes;
+		}
+
+		@Override
+		public void enterShutdown() {
+		}
+
+		@Override
+		public void enterStartup() {
+		}
+
+		@Override
+		public void exitShutdown() {
+		}
+
+		@Override
+		public void exitStartup() {
+		}
+
+		@Override
+		public Set<String> getSupportedControlInterfaceCommands() {
+			return null;
+		}
+
+		@Override
+		public Set<String> getSupportedModuleCommands(final Port port, final String[] path) {
+			return null;
+		}
+
+		@Override
+		public void initialize() {
+			try {
+				this.sourcePort = this.prosumerConnector.registerProsumerPort(this, ThreadModeBenchmark.PORT_ID___SOURCE, 1);
+				this.destinationPort = this.prosumerConnector.registerProsumerPort(this, ThreadModeBenchmark.PORT_ID___DESTINATION, 1);
+			} catch (final BrokerException e) {
+				this.logConnector.log(e);
+			}
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public Map<String, String> onControlInterfaceCommand(final String command, final Map<String, String> properties) {
+			return null;
+		}
+
+		@Override
+		public Map<String, String> onModuleCommand(final Port port, final String command, final String[] path, final Map<String, String> properties) {
+			return null;
+		}
+
+		@Override
+		public void onPortConnection(final Port port) {
+		}
+
+		@Override
+		public void onPortDisconnection(final Port port) {
+		}
+
+		@Override
+		public void onProviderStateEvent(final Port port, final ProviderStateEvent event) {
+		}
+	}
+
+	/**
+	 * Provider storing files flat in a local folder (only the last path segment is used as file name).
+	 */
+	private static final class FolderProvider extends AbstractProvider {
+
+		private final Path folder;
+		private final int writeLatencyMillis;
+
+		/**
+		 * Instantiates a new folder provider.
+		 *
+		 * @param providerConnector the provider connector
+		 * @param logConnector the log connector
+		 * @param folder the folder
+		 * @param writeLatencyMillis the simulated latency before opening a file for writing in milliseconds
+		 */
+		private FolderProvider(final ProviderConnector providerConnector, final LogConnector logConnector, final Path folder, final int writeLatencyMillis) {
+			super(providerConnector, null, logConnector);
+			this.folder = folder;
+			this.writeLatencyMillis = writeLatencyMillis;
+		}
+
+		@Override
+		public int checkAndLock(final ProviderPort port, final String[] path) throws ModuleException {
+			return 0;
+		}
+
+		@Override
+		public int createFolder(final ProviderPort port, final String[] path) throws ModuleException {
+			return 0;
+		}
+
+		@Override
+		public int delete(final ProviderPort port, final String[] path) throws ModuleException {
+			return 0;
+		}
+
+		@Override
+		public void enterShutdown() {
+		}
+
+		@Override
+		public void enterStartup() {
+		}
+
+		@Override
+		public void exitShutdown() {
+		}
+
+		@Override
+		public void exitStartup() {
+		}
+
+		@Override
+		public Set<DataElement> getChildElements(final ProviderPort port, final String[] path, final boolean recursive) throws ModuleException {
+			return new HashSet<DataElement>();
+		}
+
+		@Override
+		public DataElement getElement(final ProviderPort port, final String[] path) throws ModuleException {
+			final Path file = resolve(path);
+			try {
+				return new DataElement(path, DataElementType.FILE, Files.size(file), Files.getLastModifiedTime(file).toMillis(), null);
+			} catch (final IOException e) {
+				return null;
+			}
+		}
+
+		@Override
+		public Set<String> getSupportedControlInterfaceCommands() {
+			return null;
+		}
+
+		@Override
+		public Set<String> getSupportedModuleCommands(final Port port, final String[] path) {
+			return null;
+		}
+
+		@Override
+		public DataElementType getType(final ProviderPort port, final String[] path) throws ModuleException {
+			return Files.isRegularFile(resolve(path)) ? DataElementType.FILE : DataElementType.NONEXISTENT_OR_UNKNOWN;
+		}
+
+		@Override
+		public void initialize() {
+			try {
+				this.providerConnector.registerProviderPort(this, ThreadModeBenchmark.PORT_ID___PROVIDER, -1);
+			} catch (final BrokerException e) {
+				this.logConnector.log(e);
+			}
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public int move(final ProviderPort port, final String[] srcPath, final String[] destPath) throws ModuleException {
+			return 0;
+		}
+
+		@Override
+		public Map<String, String> onControlInterfaceCommand(final String command, final Map<String, String> properties) {
+			return null;
+		}
+
+		@Override
+		public Map<String, String> onModuleCommand(final Port port, final String command, final String[] path, final Map<String, String> properties) {
+			return null;
+		}
+
+		@Override
+		public void onPortConnection(final Port port) {
+		}
+
+		@Override
+		public void onPortDisconnection(final Port port) {
+		}
+
+		@Override
+		public void onStateRequest(final ProviderPort port) {
+		}
+
+		@Override
+		public InputStream readData(final ProviderPort port, final String[] path) throws ModuleException {
+			try {
+				return Files.newInputStream(resolve(path));
+			} catch (final IOException e) {
+				throw new ModuleException(e);
+			}
+		}
+
+		/**
+		 * Resolves a path within the folder.
+		 *
+		 * @param path the path
+		 * @return the file
+		 */
+		private Path resolve(final String[] path) {
+			return this.folder.resolve(path[path.length - 1]);
+		}
+
+		@Override
+		public int unlock(final ProviderPort port, final String[] path) throws ModuleException {
+			return 0;
+		}
+
+		@Override
+		public OutputStream writeData(final ProviderPort port, final String[] path) throws ModuleException {
+			try {
+				if (this.writeLatencyMillis > 0) {
+					Thread.sleep(this.writeLatencyMillis);
+				}
+				return Files.newOutputStream(resolve(path));
+			} catch (IOException | InterruptedException e) {
+				throw new ModuleException(e);
+			}
+		}
+	}
+
+	private static final int BUFFER_SIZE = 8192;
+	private static final String FOLDER_NAME = "files";
+	private static final String PORT_ID___DESTINATION = "destination";
+	private static final String PORT_ID___PROVIDER = "provider";
+	private static final String PORT_ID___SOURCE = "source";
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments
+	 */
+	public static void main(final String[] args) {
+		final ThreadModeBenchmark benchmark = new ThreadModeBenchmark(args);
+		try {
+			benchmark.run();
+		} catch (final Exception e) {
+			e.printStackTrace();
+			System.exit(1);
+		}
+		System.exit(0);
+	}
+
+	@Parameter(names = { "-f", "--file-size" }, description = "Size of each file in bytes.", validateWith = PositiveInteger.class)
+	private int fileSize = 4096;
+	@Parameter(names = { "-h", "/h", "--help" }, description = "Display this help / usage information.", help = true)
+	private boolean help;
+	@Parameter(names = { "-l", "--latency" }, description = "Simulated remote latency per transfer in milliseconds.")
+	private int latencyMillis = 20;
+	@Parameter(names = { "-r", "--rounds" }, description = "Number of measured rounds per mode (one additional warm up round is always done).",
+			validateWith = PositiveInteger.class)
+	private int rounds = 3;
+	@Parameter(names = { "-t", "--transfers" }, description = "Number of concurrent transfers per round.", validateWith = PositiveInteger.class)
+	private int transferCount = 1000;
+
+	/**
+	 * Instantiates a new thread mode benchmark.
+	 *
+	 * @param args the args
+	 */
+	public ThreadModeBenchmark(final String[] args) {
+		final JCommander jCommander = new JCommander(this, args);
+		if (this.help) {
+			jCommander.usage();
+			System.exit(0);
+		}
+	}
+
+	/**
+	 * Connects a prosumer port to the provider port of a provider module.
+	 *
+	 * @param broker the broker
+	 * @param prosumerModuleId the prosumer module ID
+	 * @param prosumerPortId the prosumer port ID
+	 * @param providerModuleId the provider module ID
+	 */
+	private void connect(final BrokerTestHook broker, final String prosumerModuleId, final String prosumerPortId, final String providerModuleId) {
+		final PortSummary prosumerPort = new PortSummary(prosumerModuleId, PortType.PROSUMER, prosumerPortId);
+		final PortSummary providerPort = new PortSummary(providerModuleId, PortType.PROVIDER, ThreadModeBenchmark.PORT_ID___PROVIDER);
+		if (!broker.connect(new ConnectionSummary(prosumerPort, providerPort))) {
+			throw new IllegalStateException("unable to connect " + prosumerModuleId + " to " + providerModuleId);
+		}
+	}
+
+	/**
+	 * Deletes all files in a folder and the folder itself.
+	 *
+	 * @param folder the folder
+	 * @throws IOException if an I/O error occurs
+	 */
+	private void deleteFolder(final Path folder) throws IOException {
+		for (final Path file : Files.newDirectoryStream(folder)) {
+			Files.delete(file);
+		}
+		Files.delete(folder);
+	}
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @throws Exception if anything goes wrong
+	 */
+	private void run() throws Exception {
+		final Path srcFolder = Files.createTempDirectory(ThreadModeBenchmark.class.getSimpleName() + "-src");
+		final Path destFolder = Files.createTempDirectory(ThreadModeBenchmark.class.getSimpleName() + "-dest");
+		try {
+			final Random rand = new Random(42);
+			final byte[] data = new byte[this.fileSize];
+			final List<String[]> paths = new ArrayList<String[]>(this.transferCount);
+			for (int i = 0; i < this.transferCount; i++) {
+				final String[] path = { ThreadModeBenchmark.FOLDER_NAME, "file" + i };
+				rand.nextBytes(data);
+				Files.write(srcFolder.resolve(path[1]), data);
+				paths.add(path);
+			}
+			System.out.println("transfers: " + this.transferCount + ", file size: " + this.fileSize + " bytes, latency: " + this.latencyMillis + " ms, virtual threads supported: "
+					+ ThreadPoolHelper.isVirtualThreadSupported());
+			for (final ThreadModeType mode : ThreadModeType.values()) {
+				ThreadPoolHelper.setThreadMode(mode);
+				if (ThreadPoolHelper.getEffectiveThreadMode() != mode) {
+					System.out.println(mode + ": skipped (not supported by this runtime)");
+					continue;
+				}
+				runMode(mode, srcFolder, destFolder, paths);
+			}
+		} finally {
+			deleteFolder(srcFolder);
+			deleteFolder(destFolder);
+		}
+	}
+
+	/**
+	 * Starts a broker with all modules (creating the framework pools according to the current thread mode) and runs all rounds.
+	 *
+	 * @param mode the thread mode
+	 * @param srcFolder the source folder
+	 * @param destFolder the destination folder
+	 * @param paths the paths of all files
+	 * @throws Exception if anything goes wrong
+	 */
+	private void runMode(final ThreadModeType mode, final Path srcFolder, final Path destFolder, final List<String[]> paths) throws Exception {
+		final BrokerTestHook broker = new BrokerTestHook(BrokerDispatchBenchmark.createInMemoryConfiguration());
+		broker.addModule("source", ModuleRight.RIGHT___ALL, new FolderProvider(broker.newProviderConnector("source"), new LogConnector(LogEventSourceType.MODULE, "source"), srcFolder, 0));
+		broker.addModule("destination", ModuleRight.RIGHT___ALL, new FolderProvider(broker.newProviderConnector("destination"), new LogConnector(LogEventSourceType.MODULE, "destination"), destFolder,
+				this.latencyMillis));
+		final CopyProsumer prosumer = new CopyProsumer(broker.newProsumerConnector("copier"), new LogConnector(LogEventSourceType.MODULE, "copier"));
+		broker.addModule("copier", ModuleRight.RIGHT___ALL, prosumer);
+		connect(broker, "copier", ThreadModeBenchmark.PORT_ID___SOURCE, "source");
+		connect(broker, "copier", ThreadModeBenchmark.PORT_ID___DESTINATION, "destination");
+		if (!broker.startup()) {
+			throw new IllegalStateException("broker did not start");
+		}
+		try {
+			final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+			for (int round = 0; round <= this.rounds; round++) {
+				threadBean.resetPeakThreadCount();
+				final long start = System.nanoTime();
+				final long bytes = runRound(prosumer, paths);
+				final long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+				System.out.println(mode + " " + (round == 0 ? "warm up" : "round " + round) + ": " + millis + " ms, " + ((this.transferCount * 1000L) / millis) + " transfers/s, "
+						+ (bytes / 1024) + " KiB copied, " + threadBean.getPeakThreadCount() + " platform threads (peak)");
+			}
+		} finally {
+			broker.shutdown();
+		}
+	}
+
+	/**
+	 * Runs all transfers concurrently within a new cached pool (created according to the current thread mode) and waits for them to finish.
+	 *
+	 * @param prosumer the prosumer doing the transfers
+	 * @param paths the paths of all files
+	 * @return the number of bytes copied
+	 * @throws Exception if a transfer failed
+	 */
+	private long runRound(final CopyProsumer prosumer, final List<String[]> paths) throws Exception {
+		final ExecutorService executor = ThreadPoolHelper.newCachedThreadPool(ThreadModeBenchmark.class.getSimpleName() + "-%d");
+		try {
+			final List<Future<Long>> futures = new ArrayList<Future<Long>>(paths.size());
+			for (final String[] path : paths) {
+				futures.add(executor.submit(new Callable<Long>() {
+
+					@Override
+					public Long call() throws Exception {
+						return prosumer.copy(path);
+					}
+				}));
+			}
+			long bytes = 0;
+			for (final Future<Long> future : futures) {
+				bytes += future.get();
+			}
+			return bytes;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
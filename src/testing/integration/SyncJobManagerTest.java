@@ -0,0 +1,107 @@
+package testing.integration;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import module.simplesync.control.SyncJobManagerTestHook;
+import module.simplesync.model.SyncJob;
+import module.simplesync.model.type.SyncJobType;
+import framework.model.DataElement;
+import framework.model.ProsumerPort;
+import framework.model.type.DataElementType;
+
+/**
+ * Checks the job deduplication of the {@link module.simplesync.control.SyncJobManager}: A DELETE followed by an ADD job for the same path must both be taken
+ * in that order, while a duplicate ADD job must be dropped. Exits with status 1 on failure. As the manager releases jobs only after about 5 s without new jobs
+ * a run takes about 10 s.
+ *
+ * @author Stefan Werner
+ */
+public class SyncJobManagerTest {
+
+	private static final int TAKE_TIMEOUT_SECONDS = 30;
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments (ignored)
+	 * @throws Exception if the manager fails
+	 */
+	public static void main(final String[] args) throws Exception {
+		final SyncJobManagerTest test = new SyncJobManagerTest();
+		final boolean result = test.run();
+		System.out.println(result ? "OK" : "FAILED");
+		System.exit(result ? 0 : 1);
+	}
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+	private final SyncJobManagerTestHook manager = new SyncJobManagerTestHook();
+
+	/**
+	 * Checks a condition, printing the message if not met.
+	 *
+	 * @param condition the condition
+	 * @param message the message
+	 * @return the condition
+	 */
+	private boolean check(final boolean condition, final String message) {
+		if (!condition) {
+			System.err.println("ERROR: " + message);
+		}
+		return condition;
+	}
+
+	/**
+	 * Runs the test.
+	 *
+	 * @return true, if successful
+	 * @throws Exception if the manager fails
+	 */
+	private boolean run() throws Exception {
+		final ProsumerPort port = new ProsumerPort("test", "port", 1);
+		final String[] path = { "folder", "file.dat" };
+		final SyncJob deleteJob = new SyncJob(port, new DataElement(path, DataElementType.FILE, 0, 1400000000000L, null), SyncJobType.DELETE, false);
+		final SyncJob addJob = new SyncJob(port, new DataElement(path, DataElementType.FILE, 1, 1400000001000L, null), SyncJobType.ADD, false);
+		final SyncJob duplicateJob = new SyncJob(port, new DataElement(path, DataElementType.FILE, 2, 1400000002000L, null), SyncJobType.ADD, false);
+		this.manager.start();
+		try {
+			boolean result = check(this.manager.queueJobs(Arrays.asList(deleteJob, addJob, duplicateJob)) == 2, "expected DELETE and ADD to be queued, duplicate ADD to be dropped");
+			result &= check(take() == deleteJob, "expected DELETE job to be taken first");
+			result &= check(take() == addJob, "expected ADD job to be taken after DELETE job");
+			result &= check(addJob.getElement().getSize() == 2, "expected ADD job to be updated with element of duplicate");
+			return result;
+		} finally {
+			this.manager.stop();
+			this.executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Takes the next job and finishes it.
+	 *
+	 * @return the job (null if none within timeout)
+	 * @throws Exception if the manager fails
+	 */
+	private SyncJob take() throws Exception {
+		final Future<SyncJob> future = this.executor.submit(new Callable<SyncJob>() {
+
+			@Override
+			public SyncJob call() throws Exception {
+				final SyncJob job = SyncJobManagerTest.this.manager.take();
+				SyncJobManagerTest.this.manager.finish(job);
+				return job;
+			}
+		});
+		try {
+			return future.get(SyncJobManagerTest.TAKE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		} catch (final TimeoutException e) {
+			future.cancel(true);
+			return null;
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedSourceVersion;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import framework.constants.Constants;
+
+/**
+ * Annotation processor generating the component index read by the framework at startup instead of scanning the whole class path. It does not process any
+ * annotations but looks at every compiled class and lists all public, non abstract module and control interface implementations in
+ * {@link Constants#COMPONENT_INDEX_LOCATION}.
+ * <p>
+ * USAGE: Compile this class (and the framework base classes) first, then compile the complete source tree with<br>
+ * <code>javac -processorpath &lt;compiled classes&gt; -processor utils.ComponentIndexProcessor ...</code><br>
+ * and ship the generated file together with the classes (see "Building" in readme.md). The index must be generated by a full build: Incremental builds only see
+ * the changed classes and would produce an incomplete index. The framework reads the index if present and only does a (slow) class path scan without an index
+ * or if started with <code>--scan-class-path</code>.
+ *
+ * @author Stefan Werner
+ */
+@SupportedAnnotationTypes("*")
+@SupportedSourceVersion(SourceVersion.RELEASE_7)
+public class ComponentIndexProcessor extends AbstractProcessor {
+
+	// base classes of all components, an implementation must be a subclass of one of them
+	private static final String[] COMPONENT_BASE_CLASSES = { "module.iface.AbstractProsumer", "module.iface.AbstractProsumerProvider", "module.iface.AbstractProvider",
+			"controlinterface.iface.AbstractControlInterface" };
+
+	private final Set<String> componentClasses = new TreeSet<String>();
+
+	/**
+	 * Collects a type and all its member types if they are components.
+	 *
+	 * @param element the element
+	 * @param baseTypes the erased base types
+	 */
+	private void collect(final Element element, final TypeMirror[] baseTypes) {
+		if ((element.getKind() != ElementKind.CLASS) && (element.getKind() != ElementKind.INTERFACE)) {
+			return;
+		}
+		final TypeElement type = (TypeElement) element;
+		if ((type.getKind() == ElementKind.CLASS) && type.getModifiers().contains(Modifier.PUBLIC) && !type.getModifiers().contains(Modifier.ABSTRACT)) {
+			final Types types = this.processingEnv.getTypeUtils();
+			final TypeMirror erasedType = types.erasure(type.asType());
+			for (final TypeMirror baseType : baseTypes) {
+				if ((baseType != null) && types.isSubtype(erasedType, baseType)) {
+					this.componentClasses.add(this.processingEnv.getElementUtils().getBinaryName(type).toString());
+					break;
+				}
+			}
+		}
+		for (final Element enclosedElement : type.getEnclosedElements()) {
+			collect(enclosedElement, baseTypes);
+		}
+	}
+
+	/* (non-Javadoc)
+	 *
+	 * @see javax.annotation.processing.AbstractProcessor#process(java.util.Set, javax.annotation.processing.RoundEnvironment) */
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			writeIndex();
+		} else {
+			final TypeMirror[] baseTypes = new TypeMirror[ComponentIndexProcessor.COMPONENT_BASE_CLASSES.length];
+			for (int i = 0; i < baseTypes.length; i++) {
+				final TypeElement baseElement = this.processingEnv.getElementUtils().getTypeElement(ComponentIndexProcessor.COMPONENT_BASE_CLASSES[i]);
+				if (baseElement != null) {
+					baseTypes[i] = this.processingEnv.getTypeUtils().erasure(baseElement.asType());
+				}
+			}
+			for (final Element element : roundEnv.getRootElements()) {
+				collect(element, baseTypes);
+			}
+		}
+		// never claim any annotations
+		return false;
+	}
+
+	/**
+	 * Writes the index file.
+	 */
+	private void writeIndex() {
+		try {
+			final FileObject file = this.processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", Constants.COMPONENT_INDEX_LOCATION);
+			try (Writer writer = file.openWriter()) {
+				writer.write("# generated by " + ComponentIndexProcessor.class.getName() + ", do not edit\n");
+				for (final String className : this.componentClasses) {
+					writer.write(className);
+					writer.write('\n');
+				}
+			}
+			this.processingEnv.getMessager().printMessage(Kind.NOTE, "component index written with " + this.componentClasses.size() + " entries");
+		} catch (final IOException e) {
+			this.processingEnv.getMessager().printMessage(Kind.ERROR, "unable to write component index: " + e.getMessage());
+		}
+	}
+}